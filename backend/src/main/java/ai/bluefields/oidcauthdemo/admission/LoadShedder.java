@@ -0,0 +1,128 @@
+package ai.bluefields.oidcauthdemo.admission;
+
+import ai.bluefields.oidcauthdemo.config.LoadSheddingProperties;
+import ai.bluefields.oidcauthdemo.dto.LoadSheddingStats;
+import ai.bluefields.oidcauthdemo.dto.PriorityStats;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control that decides per {@link Priority} tier whether an inbound request is served or
+ * shed.
+ *
+ * <p>Two signals are watched: the number of requests in flight, which is the queue depth the
+ * application can see (Tomcat's accept queue is not visible to it), and an exponentially smoothed
+ * latency of completed public and private requests. Each tier has its own thresholds, lower for
+ * private than for public requests, so private traffic is shed first and public traffic only when
+ * shedding private requests was not enough. Health probes are always admitted. Latency alone never
+ * sheds while fewer than {@code minInFlight} requests are in flight, so a server that has drained
+ * admits requests again and the smoothed latency recovers from their samples.
+ *
+ * <p>Admission and release are lock-free.
+ */
+public class LoadShedder {
+
+  private static final Priority[] PRIORITIES = Priority.values();
+
+  private final int[] maxInFlight = new int[PRIORITIES.length];
+  private final long[] maxLatencyNanos = new long[PRIORITIES.length];
+  private final int minInFlight;
+  private final double smoothing;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong latencyBits = new AtomicLong(Double.doubleToLongBits(0.0));
+  private final LongAdder[] admitted = counters();
+  private final LongAdder[] shed = counters();
+
+  /**
+   * Creates a load shedder from configuration.
+   *
+   * @param properties Load shedding configuration.
+   */
+  public LoadShedder(LoadSheddingProperties properties) {
+    maxInFlight[Priority.HEALTH.ordinal()] = Integer.MAX_VALUE;
+    maxInFlight[Priority.PUBLIC.ordinal()] = properties.publicMaxInFlight();
+    maxInFlight[Priority.PRIVATE.ordinal()] = properties.privateMaxInFlight();
+    maxLatencyNanos[Priority.HEALTH.ordinal()] = Long.MAX_VALUE;
+    maxLatencyNanos[Priority.PUBLIC.ordinal()] = properties.publicMaxLatency().toNanos();
+    maxLatencyNanos[Priority.PRIVATE.ordinal()] = properties.privateMaxLatency().toNanos();
+    this.minInFlight = properties.minInFlight();
+    this.smoothing = properties.latencySmoothing();
+  }
+
+  /**
+   * Decides whether a request is served. An admitted request must be {@link #release released} when
+   * it completes.
+   *
+   * @param priority The request's tier.
+   * @return {@code true} if the request is admitted, {@code false} if it should be shed.
+   */
+  public boolean tryAdmit(Priority priority) {
+    int tier = priority.ordinal();
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= maxInFlight[tier]
+          || (current >= minInFlight && latencyNanos() >= maxLatencyNanos[tier])) {
+        shed[tier].increment();
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    admitted[tier].increment();
+    return true;
+  }
+
+  /**
+   * Ends an admitted request and feeds its latency into the smoothed latency. Health probes are
+   * cheap and answered regardless of load, so their latency says nothing about overload and is not
+   * sampled.
+   *
+   * @param priority The request's tier.
+   * @param latencyNanos How long the request took, in nanoseconds.
+   */
+  public void release(Priority priority, long latencyNanos) {
+    inFlight.decrementAndGet();
+    if (priority == Priority.HEALTH) {
+      return;
+    }
+    long bits;
+    double updated;
+    do {
+      bits = latencyBits.get();
+      double latency = Double.longBitsToDouble(bits);
+      updated = latency == 0.0 ? latencyNanos : latency + smoothing * (latencyNanos - latency);
+    } while (!latencyBits.compareAndSet(bits, Double.doubleToLongBits(updated)));
+  }
+
+  /**
+   * Returns a snapshot of the shedder's signals and per-tier counters.
+   *
+   * @return The current statistics.
+   */
+  public LoadSheddingStats stats() {
+    return new LoadSheddingStats(
+        inFlight.get(),
+        latencyNanos() / 1_000_000.0,
+        Arrays.stream(PRIORITIES)
+            .map(
+                priority ->
+                    new PriorityStats(
+                        priority.name().toLowerCase(Locale.ROOT),
+                        admitted[priority.ordinal()].sum(),
+                        shed[priority.ordinal()].sum()))
+            .toList());
+  }
+
+  private long latencyNanos() {
+    return (long) Double.longBitsToDouble(latencyBits.get());
+  }
+
+  private static LongAdder[] counters() {
+    LongAdder[] counters = new LongAdder[PRIORITIES.length];
+    Arrays.setAll(counters, i -> new LongAdder());
+    return counters;
+  }
+}
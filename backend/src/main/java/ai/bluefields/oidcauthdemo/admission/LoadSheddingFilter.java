@@ -0,0 +1,123 @@
+package ai.bluefields.oidcauthdemo.admission;
+
+import ai.bluefields.oidcauthdemo.exception.ApiError;
+import ai.bluefields.oidcauthdemo.exception.ApiErrorWriter;
+import ai.bluefields.oidcauthdemo.security.PathMatchers;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Servlet filter that classifies every inbound request into a {@link Priority} tier and asks the
+ * {@link LoadShedder} whether to serve it.
+ *
+ * <p>Shed requests are answered immediately with 503, a {@code Retry-After} header and an {@link
+ * ApiError} body, before authentication or any other work is done. Admitted requests are released
+ * when they complete; for asynchronous handlers that is when the async cycle completes, so requests
+ * waiting on the identity provider still count as in flight.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+  private final LoadShedder loadShedder;
+  private final RequestMatcher health;
+  private final RequestMatcher anonymous;
+  private final String retryAfterSeconds;
+  private final ApiErrorWriter apiErrorWriter;
+
+  /**
+   * Creates the filter.
+   *
+   * @param loadShedder The admission decision.
+   * @param healthPaths Ant-style patterns of the health probe routes.
+   * @param publicPaths Ant-style patterns of the {@code permitAll} routes.
+   * @param retryAfter Delay sent to shed clients.
+   * @param apiErrorWriter Writer for the 503 response body.
+   */
+  public LoadSheddingFilter(
+      LoadShedder loadShedder,
+      List<String> healthPaths,
+      List<String> publicPaths,
+      Duration retryAfter,
+      ApiErrorWriter apiErrorWriter) {
+    this.loadShedder = loadShedder;
+    this.health = PathMatchers.anyOf(healthPaths);
+    this.anonymous = PathMatchers.anyOf(publicPaths);
+    this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    this.apiErrorWriter = apiErrorWriter;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Priority priority = priority(request);
+    if (!loadShedder.tryAdmit(priority)) {
+      reject(request, response);
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (request.isAsyncStarted()) {
+        request
+            .getAsyncContext()
+            .addListener(
+                new AsyncListener() {
+                  @Override
+                  public void onComplete(AsyncEvent event) {
+                    loadShedder.release(priority, System.nanoTime() - start);
+                  }
+
+                  @Override
+                  public void onTimeout(AsyncEvent event) {}
+
+                  @Override
+                  public void onError(AsyncEvent event) {}
+
+                  @Override
+                  public void onStartAsync(AsyncEvent event) {}
+                });
+      } else {
+        loadShedder.release(priority, System.nanoTime() - start);
+      }
+    }
+  }
+
+  /**
+   * Returns the tier of a request: health probes first, then {@code permitAll} routes, and all
+   * other requests as private.
+   *
+   * @param request The inbound request.
+   * @return The request's priority.
+   */
+  Priority priority(HttpServletRequest request) {
+    if (health.matches(request)) {
+      return Priority.HEALTH;
+    }
+    return anonymous.matches(request) ? Priority.PUBLIC : Priority.PRIVATE;
+  }
+
+  private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+    ApiError apiError =
+        new ApiError(
+            "https://api.bluefields.ai/errors/overloaded",
+            "Service Unavailable",
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "The server is overloaded; retry after " + retryAfterSeconds + " s",
+            Instant.now());
+    apiErrorWriter.write(request, response, HttpStatus.SERVICE_UNAVAILABLE, apiError);
+  }
+}
@@ -0,0 +1,14 @@
+package ai.bluefields.oidcauthdemo.admission;
+
+/**
+ * Priority tier of an inbound request, from most to least important. Under overload the lowest tier
+ * is shed first.
+ */
+public enum Priority {
+  /** Liveness and readiness probes; never shed, so an overloaded pod is not also restarted. */
+  HEALTH,
+  /** Anonymous ({@code permitAll}) routes. */
+  PUBLIC,
+  /** Authenticated routes. */
+  PRIVATE
+}
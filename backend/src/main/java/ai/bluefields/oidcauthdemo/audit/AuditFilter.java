@@ -0,0 +1,90 @@
+package ai.bluefields.oidcauthdemo.audit;
+
+import ai.bluefields.oidcauthdemo.security.PathMatchers;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Security filter that writes every 401, every 403 and every successful access to an audited route
+ * to the {@link AuditLog}.
+ *
+ * <p>Sits in front of bearer token authentication, so it also sees the 401s that filter writes, and
+ * reads the caller's subject on the way back while the security context is still in place. For
+ * asynchronous handlers the record is written when the async cycle completes and the final status
+ * is known.
+ */
+public class AuditFilter extends OncePerRequestFilter {
+
+  private final AuditLog auditLog;
+  private final RequestMatcher audited;
+
+  /**
+   * Creates the filter.
+   *
+   * @param auditLog Where decisions are recorded.
+   * @param accessPaths Ant-style patterns of the routes whose successful accesses are recorded.
+   */
+  public AuditFilter(AuditLog auditLog, List<String> accessPaths) {
+    this.auditLog = auditLog;
+    this.audited = PathMatchers.anyOf(accessPaths);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    filterChain.doFilter(request, response);
+    String subject =
+        UserPrincipal.from(SecurityContextHolder.getContext().getAuthentication())
+            .map(UserPrincipal::subject)
+            .orElse(null);
+    if (request.isAsyncStarted()) {
+      request
+          .getAsyncContext()
+          .addListener(
+              new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                  record(request, response, subject);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {}
+
+                @Override
+                public void onError(AsyncEvent event) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {}
+              });
+    } else {
+      record(request, response, subject);
+    }
+  }
+
+  private void record(HttpServletRequest request, HttpServletResponse response, String subject) {
+    int status = response.getStatus();
+    AuditRecord.Outcome outcome;
+    if (status == HttpStatus.UNAUTHORIZED.value()) {
+      outcome = AuditRecord.Outcome.UNAUTHENTICATED;
+    } else if (status == HttpStatus.FORBIDDEN.value()) {
+      outcome = AuditRecord.Outcome.DENIED;
+    } else if (status < 400 && audited.matches(request)) {
+      outcome = AuditRecord.Outcome.GRANTED;
+    } else {
+      return;
+    }
+    auditLog.record(outcome, status, request.getMethod(), subject, request.getRequestURI());
+  }
+}
@@ -0,0 +1,197 @@
+package ai.bluefields.oidcauthdemo.audit;
+
+import ai.bluefields.oidcauthdemo.dto.AuditStats;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only audit log of authentication and authorization decisions.
+ *
+ * <p>Request threads only encode records into an {@link AuditRingBuffer}; when it is full, records
+ * are dropped and counted rather than making requests wait. A single writer thread drains the
+ * buffer in batches into a memory-mapped segment file, so writing a batch is a memory copy without
+ * system calls. When a segment is full it is flushed and the next one is started; only the newest
+ * {@code maxSegments} are kept. Segments are named {@code audit-NNNNNN.log} and start with {@link
+ * #MAGIC}, followed by records in {@link AuditRecord}'s binary form; the zero-filled remainder of
+ * the current segment marks its end. {@link AuditLogReader} converts them to JSON.
+ */
+public class AuditLog implements AutoCloseable {
+
+  /** First four bytes of every segment: {@code AUD1}. */
+  public static final int MAGIC = 0x41554431;
+
+  /** Segment file names; group 1 is the sequence number. */
+  static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{6})\\.log");
+
+  private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+  private static final int BATCH = 512;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int maxSegments;
+  private final AuditRingBuffer buffer;
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong writeFailures = new AtomicLong();
+  private volatile Thread writer;
+  private volatile boolean running;
+  private volatile Path segment;
+  private MappedByteBuffer mapped;
+  private int segmentIndex;
+
+  /**
+   * Creates the audit log.
+   *
+   * @param directory Directory the segments are written to.
+   * @param bufferCapacity Records buffered before new ones are dropped.
+   * @param segmentSize Size of each segment file, in bytes.
+   * @param maxSegments Segments kept; older ones are deleted.
+   */
+  public AuditLog(Path directory, int bufferCapacity, int segmentSize, int maxSegments) {
+    this.directory = directory;
+    this.segmentSize = Math.max(segmentSize, 4 + AuditRecord.MAX_SIZE);
+    this.maxSegments = Math.max(1, maxSegments);
+    this.buffer = new AuditRingBuffer(bufferCapacity);
+  }
+
+  /** Starts the writer thread. Segments already in the directory are kept and not appended to. */
+  public void start() {
+    running = true;
+    writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::drain);
+  }
+
+  /**
+   * Records a decision. Never blocks.
+   *
+   * @param outcome The decision.
+   * @param status HTTP status of the response.
+   * @param method HTTP method of the request.
+   * @param subject Subject of the caller, or {@code null} if not authenticated.
+   * @param path Request path.
+   * @return {@code true} if the record was queued, {@code false} if it was dropped.
+   */
+  public boolean record(
+      AuditRecord.Outcome outcome, int status, String method, String subject, String path) {
+    return buffer.offer(System.currentTimeMillis(), outcome, status, method, subject, path);
+  }
+
+  /**
+   * Returns the log's counters.
+   *
+   * @return The current statistics.
+   */
+  public AuditStats stats() {
+    Path current = segment;
+    return new AuditStats(
+        written.get(),
+        buffer.dropped(),
+        writeFailures.get(),
+        current != null ? current.getFileName().toString() : null);
+  }
+
+  /** Stops the writer thread after writing all queued records, and flushes the segment. */
+  @Override
+  public void close() {
+    running = false;
+    Thread current = writer;
+    if (current != null) {
+      LockSupport.unpark(current);
+      try {
+        current.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void drain() {
+    try {
+      while (true) {
+        boolean stopping = !running;
+        int drained = buffer.drain(this::append, BATCH);
+        if (drained == 0) {
+          if (stopping && buffer.isEmpty()) {
+            break;
+          }
+          LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+      }
+    } finally {
+      if (mapped != null) {
+        mapped.force();
+      }
+    }
+  }
+
+  private void append(byte[] slots, int offset, int length) {
+    try {
+      if (mapped == null || mapped.remaining() < length) {
+        rotate();
+      }
+      // Length prefix last, so a record torn by a crash reads as the end of the segment
+      int position = mapped.position();
+      mapped.put(position + 2, slots, offset + 2, length - 2);
+      mapped.put(position, slots, offset, 2);
+      mapped.position(position + length);
+      written.incrementAndGet();
+    } catch (IOException | RuntimeException e) {
+      mapped = null; // Retry with a fresh segment for the next record
+      if (writeFailures.getAndIncrement() % 1000 == 0) {
+        log.warn("Could not write audit record to {}: {}", directory, e.getMessage());
+      }
+    }
+  }
+
+  private void rotate() throws IOException {
+    if (mapped != null) {
+      mapped.force();
+    }
+    Files.createDirectories(directory);
+    if (segment == null) {
+      segmentIndex = existingSegments().stream().mapToInt(AuditLog::sequence).max().orElse(0);
+    }
+    Path next = directory.resolve(String.format("audit-%06d.log", ++segmentIndex));
+    try (FileChannel channel =
+        FileChannel.open(
+            next,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize); // Stays valid
+    }
+    mapped.putInt(MAGIC);
+    segment = next;
+    List<Path> segments = existingSegments();
+    for (int i = 0; i < segments.size() - maxSegments; i++) {
+      Files.deleteIfExists(segments.get(i));
+    }
+  }
+
+  /** Returns the segment files in the directory, oldest first. */
+  private List<Path> existingSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+          .sorted()
+          .toList();
+    }
+  }
+
+  private static int sequence(Path segment) {
+    Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+    return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+  }
+}
@@ -0,0 +1,120 @@
+package ai.bluefields.oidcauthdemo.audit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Converts audit log segments to JSON, one record per line.
+ *
+ * <p>Run against a segment file or a directory of segments (read oldest first), for example from
+ * the packaged application:
+ *
+ * <pre>
+ * java -cp target/oidc-auth-demo-*.jar -Dloader.main=ai.bluefields.oidcauthdemo.audit.AuditLogReader \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher var/audit
+ * </pre>
+ */
+public final class AuditLogReader {
+
+  private static final ObjectMapper OBJECT_MAPPER =
+      new ObjectMapper()
+          .registerModule(new JavaTimeModule())
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+  private AuditLogReader() {}
+
+  /**
+   * Prints the records of the given segments or segment directories to standard output as JSON
+   * lines.
+   *
+   * @param args Segment files or directories.
+   * @throws IOException If a segment cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("Usage: AuditLogReader <segment-file-or-directory>...");
+      System.exit(2);
+    }
+    Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+    for (String arg : args) {
+      for (Path segment : segments(Path.of(arg))) {
+        writeJson(segment, out);
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * Returns the segments at a path: the file itself, or the segment files of a directory, oldest
+   * first.
+   *
+   * @param path A segment file or a directory.
+   * @return The segment files.
+   * @throws IOException If the directory cannot be listed.
+   */
+  public static List<Path> segments(Path path) throws IOException {
+    if (!Files.isDirectory(path)) {
+      return List.of(path);
+    }
+    try (Stream<Path> files = Files.list(path)) {
+      return files
+          .filter(file -> AuditLog.SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+          .sorted()
+          .toList();
+    }
+  }
+
+  /**
+   * Reads all records of a segment.
+   *
+   * @param segment The segment file.
+   * @return The records in the order they were written.
+   * @throws IOException If the file cannot be read or is not an audit segment.
+   */
+  public static List<AuditRecord> read(Path segment) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.remaining() < 4 || buffer.getInt() != AuditLog.MAGIC) {
+      throw new IOException(segment + " is not an audit log segment");
+    }
+    List<AuditRecord> records = new ArrayList<>();
+    for (AuditRecord record = AuditRecord.decode(buffer);
+        record != null;
+        record = AuditRecord.decode(buffer)) {
+      records.add(record);
+    }
+    return records;
+  }
+
+  /**
+   * Writes the records of a segment as JSON lines.
+   *
+   * @param segment The segment file.
+   * @param out Where the lines are written.
+   * @throws IOException If the segment cannot be read or the output written.
+   */
+  public static void writeJson(Path segment, Writer out) throws IOException {
+    for (AuditRecord record : read(segment)) {
+      OBJECT_MAPPER.writeValue(out, record);
+      out.write('\n');
+    }
+  }
+}
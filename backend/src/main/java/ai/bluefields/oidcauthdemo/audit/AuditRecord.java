@@ -0,0 +1,154 @@
+package ai.bluefields.oidcauthdemo.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One audited authentication or authorization decision.
+ *
+ * <p>Records are stored in a compact binary form, identical in the ring buffer and in the segment
+ * files (big-endian):
+ *
+ * <pre>
+ * u16  length of the rest of the record
+ * i64  timestamp, epoch milliseconds
+ * u8   outcome ordinal
+ * u16  HTTP status
+ * u8   method length, method bytes     (ASCII, at most {@value #MAX_METHOD})
+ * u8   subject length, subject bytes   (UTF-8, at most {@value #MAX_SUBJECT})
+ * u8   path length, path bytes         (UTF-8, at most {@value #MAX_PATH})
+ * </pre>
+ *
+ * Longer values are truncated. A length of zero marks the end of the written part of a segment.
+ *
+ * @param timestamp When the decision was made.
+ * @param outcome The decision.
+ * @param status HTTP status of the response.
+ * @param method HTTP method of the request.
+ * @param subject Subject of the authenticated caller; empty if the caller was not authenticated.
+ * @param path Request path.
+ */
+public record AuditRecord(
+    Instant timestamp, Outcome outcome, int status, String method, String subject, String path) {
+
+  /** Longest encoded method, in bytes. */
+  public static final int MAX_METHOD = 8;
+
+  /** Longest encoded subject, in bytes. */
+  public static final int MAX_SUBJECT = 64;
+
+  /** Longest encoded path, in bytes. */
+  public static final int MAX_PATH = 160;
+
+  /** Longest encoded record, including its length prefix. */
+  public static final int MAX_SIZE =
+      2 + 8 + 1 + 2 + 1 + MAX_METHOD + 1 + MAX_SUBJECT + 1 + MAX_PATH;
+
+  /** Audited decisions. */
+  public enum Outcome {
+    /** Access to a protected route was allowed. */
+    GRANTED,
+    /** The request was rejected with 401 because it carried no valid token. */
+    UNAUTHENTICATED,
+    /** The request was rejected with 403 because the caller lacks the required authority. */
+    DENIED;
+
+    private static final Outcome[] VALUES = values();
+  }
+
+  /**
+   * Encodes a record into {@code target} at {@code offset}. Needs at most {@link #MAX_SIZE} bytes.
+   *
+   * @param target Buffer the record is written to.
+   * @param offset Position of the record's first byte.
+   * @param epochMillis When the decision was made.
+   * @param outcome The decision.
+   * @param status HTTP status of the response.
+   * @param method HTTP method of the request.
+   * @param subject Subject of the caller, or {@code null}.
+   * @param path Request path.
+   * @return The encoded length, including the length prefix.
+   */
+  static int encode(
+      byte[] target,
+      int offset,
+      long epochMillis,
+      Outcome outcome,
+      int status,
+      String method,
+      String subject,
+      String path) {
+    int position = offset + 2;
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      target[position++] = (byte) (epochMillis >>> shift);
+    }
+    target[position++] = (byte) outcome.ordinal();
+    target[position++] = (byte) (status >>> 8);
+    target[position++] = (byte) status;
+    position = putString(target, position, method, MAX_METHOD);
+    position = putString(target, position, subject, MAX_SUBJECT);
+    position = putString(target, position, path, MAX_PATH);
+    int length = position - offset;
+    target[offset] = (byte) ((length - 2) >>> 8);
+    target[offset + 1] = (byte) (length - 2);
+    return length;
+  }
+
+  /**
+   * Reads the record at the buffer's position and advances past it.
+   *
+   * @param buffer Buffer positioned at a record's length prefix.
+   * @return The record, or {@code null} at the end of the written data.
+   */
+  static AuditRecord decode(ByteBuffer buffer) {
+    if (buffer.remaining() < 2) {
+      return null;
+    }
+    int length = Short.toUnsignedInt(buffer.getShort());
+    if (length == 0) {
+      return null;
+    }
+    long epochMillis = buffer.getLong();
+    Outcome outcome = Outcome.VALUES[buffer.get()];
+    int status = Short.toUnsignedInt(buffer.getShort());
+    String method = getString(buffer);
+    String subject = getString(buffer);
+    String path = getString(buffer);
+    return new AuditRecord(
+        Instant.ofEpochMilli(epochMillis), outcome, status, method, subject, path);
+  }
+
+  /** Writes a length-prefixed string, truncated to whole UTF-8 characters within {@code max}. */
+  private static int putString(byte[] target, int position, String value, int max) {
+    int lengthAt = position++;
+    int length = 0;
+    if (value != null) {
+      for (int i = 0; i < value.length() && length < max; i++) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          target[position + length++] = (byte) c;
+        } else {
+          // Rare outside ASCII; encode the remainder the slow way
+          byte[] rest = value.substring(i).getBytes(StandardCharsets.UTF_8);
+          int fit = Math.min(rest.length, max - length);
+          while (fit > 0 && fit < rest.length && (rest[fit] & 0xC0) == 0x80) {
+            fit--; // Do not split a multi-byte character
+          }
+          System.arraycopy(rest, 0, target, position + length, fit);
+          length += fit;
+          break;
+        }
+      }
+    }
+    target[lengthAt] = (byte) length;
+    return position + length;
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = Byte.toUnsignedInt(buffer.get());
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,127 @@
+package ai.bluefields.oidcauthdemo.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer ring buffer of encoded {@link AuditRecord}s.
+ *
+ * <p>The buffer is one preallocated array of fixed-size slots, so offering a record allocates
+ * nothing. A producer claims the next sequence number with a CAS on the tail, encodes its record
+ * straight into the slot and then publishes the slot by storing its sequence. The consumer reads
+ * slots in sequence order up to the first one not yet published and only then frees them by
+ * advancing the head. When all slots are in use the record is dropped and counted; producers never
+ * wait.
+ */
+class AuditRingBuffer {
+
+  /** Bytes per slot; holds the largest encoded record. */
+  static final int SLOT_SIZE = 256;
+
+  /** Receives the records drained from the buffer. */
+  @FunctionalInterface
+  interface Consumer {
+    /**
+     * Accepts one encoded record.
+     *
+     * @param slots The slot array.
+     * @param offset Offset of the record's length prefix.
+     * @param length Encoded length of the record, including the prefix.
+     */
+    void accept(byte[] slots, int offset, int length);
+  }
+
+  private final int mask;
+  private final byte[] slots;
+  private final int[] lengths;
+  private final AtomicLongArray published;
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Creates a ring buffer.
+   *
+   * @param capacity Number of slots, rounded up to a power of two.
+   */
+  AuditRingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+    this.mask = size - 1;
+    this.slots = new byte[size * SLOT_SIZE];
+    this.lengths = new int[size];
+    this.published = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      published.set(i, -1);
+    }
+  }
+
+  /**
+   * Offers a record. Safe to call from any number of threads.
+   *
+   * @return {@code true} if the record was queued, {@code false} if it was dropped.
+   */
+  boolean offer(
+      long epochMillis,
+      AuditRecord.Outcome outcome,
+      int status,
+      String method,
+      String subject,
+      String path) {
+    long sequence;
+    do {
+      sequence = tail.get();
+      if (sequence - head.get() > mask) {
+        dropped.increment();
+        return false;
+      }
+    } while (!tail.compareAndSet(sequence, sequence + 1));
+    int index = (int) (sequence & mask);
+    lengths[index] =
+        AuditRecord.encode(
+            slots, index * SLOT_SIZE, epochMillis, outcome, status, method, subject, path);
+    published.lazySet(index, sequence); // Release: the slot's contents are visible first
+    return true;
+  }
+
+  /**
+   * Hands queued records to {@code consumer} in order and frees their slots. Must only be called
+   * from the single consumer thread.
+   *
+   * @param consumer Receives the records.
+   * @param max Most records to drain.
+   * @return The number of records drained.
+   */
+  int drain(Consumer consumer, int max) {
+    long first = head.get();
+    long sequence = first;
+    while (sequence - first < max) {
+      int index = (int) (sequence & mask);
+      if (published.get(index) != sequence) {
+        break; // Not yet claimed, or claimed but still being written
+      }
+      consumer.accept(slots, index * SLOT_SIZE, lengths[index]);
+      sequence++;
+    }
+    head.lazySet(sequence);
+    return (int) (sequence - first);
+  }
+
+  /**
+   * Returns whether no record is queued.
+   *
+   * @return {@code true} if the buffer is empty.
+   */
+  boolean isEmpty() {
+    return head.get() == tail.get();
+  }
+
+  /**
+   * Returns how many records were dropped because the buffer was full.
+   *
+   * @return The drop count.
+   */
+  long dropped() {
+    return dropped.sum();
+  }
+}
@@ -0,0 +1,174 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import ai.bluefields.oidcauthdemo.config.UserInfoLimitProperties;
+import ai.bluefields.oidcauthdemo.dto.ConcurrencyLimitStats;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limiter that learns how many calls an upstream can have in flight from the round trip
+ * times it observes, and rejects calls above that limit instead of queueing them.
+ *
+ * <p>The limit follows the gradient algorithm: each completed call compares the minimum round trip
+ * seen in the current window (the no-load latency) with the call's own round trip. While the round
+ * trip stays within {@code rttTolerance} of that minimum the limit grows by roughly {@code
+ * sqrt(limit)}; as queueing upstream inflates the round trip the gradient drops below one and the
+ * limit shrinks towards what the upstream can actually serve. Failed calls back the limit off
+ * multiplicatively. The minimum round trip is forgotten after {@code minRttWindow} so that a
+ * permanent latency shift is eventually accepted as the new baseline.
+ *
+ * <p>Acquiring and releasing a permit are lock-free; only the limit update on release is
+ * synchronized.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double MIN_GRADIENT = 0.5;
+
+  private final double minLimit;
+  private final double maxLimit;
+  private final double smoothing;
+  private final double rttTolerance;
+  private final double backoffRatio;
+  private final long minRttWindowNanos;
+  private final LongSupplier nanoTime;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder shed = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+
+  private volatile double limit;
+  private long minRtt;
+  private long minRttSince;
+
+  /** A granted slot. Exactly one of the release methods takes effect; later calls are ignored. */
+  public final class Permit {
+    private final long startNanos;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(long startNanos) {
+      this.startNanos = startNanos;
+    }
+
+    /** Releases the slot and feeds the call's round trip into the limit. */
+    public void success() {
+      if (released.compareAndSet(false, true)) {
+        inFlight.decrementAndGet();
+        onSample(nanoTime.getAsLong() - startNanos);
+      }
+    }
+
+    /**
+     * Releases the slot after a failure that indicates upstream overload, backing off the limit.
+     */
+    public void dropped() {
+      if (released.compareAndSet(false, true)) {
+        inFlight.decrementAndGet();
+        dropped.increment();
+        onDrop();
+      }
+    }
+
+    /** Releases the slot without affecting the limit, e.g. when the caller cancelled. */
+    public void ignore() {
+      if (released.compareAndSet(false, true)) {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Creates a limiter from configuration.
+   *
+   * @param properties Limit configuration.
+   */
+  public AdaptiveConcurrencyLimiter(UserInfoLimitProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  /**
+   * Creates a limiter with an explicit time source.
+   *
+   * @param properties Limit configuration.
+   * @param nanoTime Monotonic time source in nanoseconds.
+   */
+  AdaptiveConcurrencyLimiter(UserInfoLimitProperties properties, LongSupplier nanoTime) {
+    this.minLimit = Math.max(1, properties.minLimit());
+    this.maxLimit = Math.max(minLimit, properties.maxLimit());
+    this.smoothing = properties.smoothing();
+    this.rttTolerance = properties.rttTolerance();
+    this.backoffRatio = properties.backoffRatio();
+    this.minRttWindowNanos = properties.minRttWindow().toNanos();
+    this.nanoTime = nanoTime;
+    this.limit = clamp(properties.initialLimit());
+    this.minRttSince = nanoTime.getAsLong();
+  }
+
+  /**
+   * Tries to take a slot under the current limit.
+   *
+   * @return A permit that must be released when the call ends, or {@code null} if the limit is
+   *     reached and the call should be shed.
+   */
+  public Permit tryAcquire() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= (int) limit) {
+        shed.increment();
+        return null;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    accepted.increment();
+    return new Permit(nanoTime.getAsLong());
+  }
+
+  /**
+   * Returns the current limit.
+   *
+   * @return The number of calls allowed in flight.
+   */
+  public int limit() {
+    return (int) limit;
+  }
+
+  /**
+   * Returns a snapshot of the limiter's state and counters.
+   *
+   * @return The current statistics.
+   */
+  public ConcurrencyLimitStats stats() {
+    long rtt;
+    synchronized (this) {
+      rtt = minRtt;
+    }
+    return new ConcurrencyLimitStats(
+        (int) limit, inFlight.get(), rtt / 1_000_000.0, accepted.sum(), shed.sum(), dropped.sum());
+  }
+
+  private synchronized void onSample(long rtt) {
+    long now = nanoTime.getAsLong();
+    if (minRtt == 0 || rtt < minRtt || now - minRttSince > minRttWindowNanos) {
+      minRtt = Math.max(1, rtt);
+      minRttSince = now;
+    }
+    double gradient =
+        Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * minRtt / Math.max(1, rtt)));
+    double estimate = limit * gradient + Math.sqrt(limit);
+    if (estimate > limit && inFlight.get() + 1 < limit / 2) {
+      // The caller, not the upstream, is the bottleneck; growing would only loosen the limit.
+      return;
+    }
+    limit = clamp(limit * (1 - smoothing) + estimate * smoothing);
+  }
+
+  private synchronized void onDrop() {
+    limit = clamp(limit * backoffRatio);
+  }
+
+  private double clamp(double value) {
+    return Math.max(minLimit, Math.min(maxLimit, value));
+  }
+}
@@ -0,0 +1,72 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient filter that authenticates calls to other services with a client credentials token from
+ * {@link ClientCredentialsTokenManager}.
+ *
+ * <p>Only requests that name their target audience with {@link #audience(String)} are touched, and
+ * only if they carry no {@code Authorization} header yet, so calls made with the user's token, such
+ * as UserInfo, pass through unchanged. A {@code 401} response drops the token from the cache, so
+ * the next call fetches a new one.
+ */
+public class ClientCredentialsExchangeFilter implements ExchangeFilterFunction {
+
+  /** Request attribute holding the audience a request needs a token for. */
+  public static final String AUDIENCE_ATTRIBUTE =
+      ClientCredentialsExchangeFilter.class.getName() + ".audience";
+
+  private final ClientCredentialsTokenManager tokenManager;
+
+  /**
+   * Creates the filter.
+   *
+   * @param tokenManager Source of access tokens.
+   */
+  public ClientCredentialsExchangeFilter(ClientCredentialsTokenManager tokenManager) {
+    this.tokenManager = tokenManager;
+  }
+
+  /**
+   * Marks a request as needing a client credentials token, for use with {@code
+   * WebClient.RequestHeadersSpec#attributes}.
+   *
+   * @param audience The audience of the called service.
+   * @return The attributes consumer.
+   */
+  public static Consumer<Map<String, Object>> audience(String audience) {
+    return attributes -> attributes.put(AUDIENCE_ATTRIBUTE, audience);
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    Object audience = request.attribute(AUDIENCE_ATTRIBUTE).orElse(null);
+    if (!(audience instanceof String name)
+        || request.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+      return next.exchange(request);
+    }
+    return tokenManager
+        .token(name)
+        .flatMap(
+            token ->
+                next.exchange(
+                        ClientRequest.from(request)
+                            .headers(headers -> headers.setBearerAuth(token))
+                            .build())
+                    .doOnNext(
+                        response -> {
+                          if (response.statusCode().value() == HttpStatus.UNAUTHORIZED.value()) {
+                            tokenManager.invalidate(name, token);
+                          }
+                        }));
+  }
+}
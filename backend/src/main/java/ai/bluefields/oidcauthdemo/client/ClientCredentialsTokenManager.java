@@ -0,0 +1,243 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import ai.bluefields.oidcauthdemo.config.ClientCredentialsProperties;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Obtains and caches access tokens for calls the application makes on its own behalf, using the
+ * OAuth 2.0 client credentials grant.
+ *
+ * <p>Tokens are cached per audience. A cached token is handed out until it is within {@code
+ * minValidity} of expiring. From {@code refreshBefore} ahead of expiry (at most half its lifetime)
+ * it is refreshed in the background, so callers normally never wait for the token endpoint: a timer
+ * refreshes tokens of audiences that have been used since the previous refresh, and a caller that
+ * finds a token due for refresh starts one. At most one token request per audience is in flight;
+ * concurrent callers that need a token share it.
+ */
+public class ClientCredentialsTokenManager implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ClientCredentialsTokenManager.class);
+
+  /** Lifetime assumed when the token response has no {@code expires_in}. */
+  private static final Duration DEFAULT_LIFETIME = Duration.ofMinutes(1);
+
+  private final ClientCredentialsProperties properties;
+  private final WebClient webClient;
+  private final Clock clock;
+  private final Map<String, Audience> audiences = new ConcurrentHashMap<>();
+  private final LongAdder tokenRequests = new LongAdder();
+  private volatile boolean closed;
+
+  /** A token and the times it stops being usable and should be refreshed. */
+  private record AccessToken(String value, Instant expiresAt, Instant refreshAt) {}
+
+  /** The fields of a token endpoint response the manager uses. */
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  private record TokenResponse(
+      @JsonProperty("access_token") String accessToken,
+      @JsonProperty("expires_in") Long expiresIn) {}
+
+  /** Cached token and refresh state of one audience. */
+  private static final class Audience {
+    private final String name;
+    private final AtomicReference<Mono<AccessToken>> refreshing = new AtomicReference<>();
+    private final AtomicBoolean used = new AtomicBoolean();
+    private volatile AccessToken current;
+    private volatile Disposable scheduledRefresh;
+
+    private Audience(String name) {
+      this.name = name;
+    }
+  }
+
+  /**
+   * Creates a token manager.
+   *
+   * @param properties Client credentials configuration.
+   * @param webClient Client for the token endpoint; must not authenticate with this manager.
+   * @param clock Clock token expiry is measured with.
+   */
+  public ClientCredentialsTokenManager(
+      ClientCredentialsProperties properties, WebClient webClient, Clock clock) {
+    this.properties = properties;
+    this.webClient = webClient;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns an access token for an audience, from the cache when possible.
+   *
+   * @param audience The audience the token is for.
+   * @return The encoded access token; fails if none is cached and the token request fails.
+   */
+  public Mono<String> token(String audience) {
+    return Mono.defer(
+        () -> {
+          Audience entry = audiences.computeIfAbsent(audience, Audience::new);
+          entry.used.set(true);
+          AccessToken token = entry.current;
+          Instant now = clock.instant();
+          if (token != null && now.isBefore(token.expiresAt().minus(properties.minValidity()))) {
+            if (!now.isBefore(token.refreshAt())) {
+              refreshInBackground(entry);
+            }
+            return Mono.just(token.value());
+          }
+          return refresh(entry).map(AccessToken::value);
+        });
+  }
+
+  /**
+   * Drops a cached token the receiving service rejected, so the next call fetches a new one.
+   *
+   * @param audience The audience the token was for.
+   * @param tokenValue The rejected token.
+   */
+  public void invalidate(String audience, String tokenValue) {
+    Audience entry = audiences.get(audience);
+    AccessToken token = entry != null ? entry.current : null;
+    if (token != null && token.value().equals(tokenValue)) {
+      entry.current = null;
+    }
+  }
+
+  /**
+   * Returns how many token requests have been sent to the token endpoint.
+   *
+   * @return The token request count.
+   */
+  public long tokenRequests() {
+    return tokenRequests.sum();
+  }
+
+  /** Stops background refreshes. */
+  @Override
+  public void close() {
+    closed = true;
+    audiences.values().forEach(ClientCredentialsTokenManager::cancelScheduledRefresh);
+  }
+
+  private void refreshInBackground(Audience entry) {
+    refresh(entry).subscribe(token -> {}, error -> {}); // Failures are logged by refresh
+  }
+
+  /** Starts a token request for the audience, or joins the one already in flight. */
+  private Mono<AccessToken> refresh(Audience entry) {
+    Sinks.One<AccessToken> result = Sinks.one();
+    Mono<AccessToken> shared = result.asMono();
+    while (!entry.refreshing.compareAndSet(null, shared)) {
+      Mono<AccessToken> inFlight = entry.refreshing.get();
+      if (inFlight != null) {
+        return inFlight;
+      }
+    }
+    // Subscribed here rather than by the caller, so a caller giving up does not cancel the request
+    // for everyone else waiting on it.
+    request(entry.name)
+        .subscribe(
+            token -> {
+              entry.current = token;
+              entry.refreshing.set(null);
+              scheduleRefresh(entry, token);
+              result.tryEmitValue(token);
+            },
+            error -> {
+              entry.refreshing.set(null);
+              log.warn(
+                  "Client credentials token request for audience {} failed: {}",
+                  entry.name,
+                  error.getMessage());
+              result.tryEmitError(error);
+            });
+    return shared;
+  }
+
+  private Mono<AccessToken> request(String audience) {
+    return Mono.defer(
+        () -> {
+          tokenRequests.increment();
+          Instant requestedAt = clock.instant();
+          return webClient
+              .post()
+              .uri(properties.tokenUri())
+              .headers(
+                  headers ->
+                      headers.setBasicAuth(
+                          formEncode(properties.clientId()), formEncode(properties.clientSecret())))
+              .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+              .accept(MediaType.APPLICATION_JSON)
+              .body(
+                  BodyInserters.fromFormData("grant_type", "client_credentials")
+                      .with("scope", properties.audienceScope().replace("{audience}", audience)))
+              .retrieve()
+              .bodyToMono(TokenResponse.class)
+              .switchIfEmpty(
+                  Mono.error(() -> new IllegalStateException("Token response has no body")))
+              .timeout(properties.timeout())
+              .map(response -> accessToken(response, requestedAt));
+        });
+  }
+
+  private AccessToken accessToken(TokenResponse response, Instant requestedAt) {
+    if (response.accessToken() == null || response.accessToken().isBlank()) {
+      throw new IllegalStateException("Token response has no access_token");
+    }
+    Duration lifetime =
+        response.expiresIn() != null ? Duration.ofSeconds(response.expiresIn()) : DEFAULT_LIFETIME;
+    // Measured from when the request was sent, so time spent in flight counts against the token
+    Instant expiresAt = requestedAt.plus(lifetime);
+    Duration ahead = properties.refreshBefore();
+    if (ahead.compareTo(lifetime.dividedBy(2)) > 0) {
+      ahead = lifetime.dividedBy(2);
+    }
+    return new AccessToken(response.accessToken(), expiresAt, expiresAt.minus(ahead));
+  }
+
+  private void scheduleRefresh(Audience entry, AccessToken token) {
+    cancelScheduledRefresh(entry);
+    if (closed) {
+      return;
+    }
+    Duration delay = Duration.between(clock.instant(), token.refreshAt());
+    entry.scheduledRefresh =
+        Mono.delay(delay.isNegative() ? Duration.ZERO : delay)
+            .subscribe(
+                tick -> {
+                  // Audiences nobody asked for during a whole token lifetime go idle until used
+                  if (entry.used.getAndSet(false)) {
+                    refreshInBackground(entry);
+                  }
+                });
+  }
+
+  private static void cancelScheduledRefresh(Audience entry) {
+    Disposable scheduled = entry.scheduledRefresh;
+    if (scheduled != null) {
+      scheduled.dispose();
+    }
+  }
+
+  /** Encodes client credentials for HTTP Basic authentication as RFC 6749 section 2.3.1 asks. */
+  private static String formEncode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
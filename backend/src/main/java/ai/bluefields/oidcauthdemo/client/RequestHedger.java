@@ -0,0 +1,193 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import ai.bluefields.oidcauthdemo.config.UserInfoHedgeProperties;
+import ai.bluefields.oidcauthdemo.dto.HedgeStats;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fires a second, identical request when the first has not answered within a delay derived from
+ * recent latencies, and takes whichever response arrives first.
+ *
+ * <p>The delay is the configured percentile of successful call latencies over the last refresh
+ * interval, clamped to {@code [minDelay, maxDelay]}, so only the slowest few percent of calls are
+ * hedged. A token bucket caps the extra load: every request deposits {@code budgetPercent / 100} of
+ * a token, every hedge withdraws one, and a hedge is skipped when the bucket is empty. The first
+ * response wins and the other call is cancelled; a failed original call ends the race, a failed
+ * hedge does not.
+ *
+ * <p>Only idempotent requests may be hedged.
+ */
+public class RequestHedger implements AutoCloseable {
+
+  private static final long TOKEN = 1_000;
+  private static final long MAX_TOKENS = 10 * TOKEN;
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final UserInfoHedgeProperties properties;
+  private final long deposit;
+  private final Recorder latencies = new Recorder(1, HIGHEST_TRACKABLE_MICROS, 2);
+  private final AtomicLong tokens;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder hedgeWins = new LongAdder();
+  private final LongAdder primaryWins = new LongAdder();
+  private final LongAdder budgetExhausted = new LongAdder();
+
+  private volatile Duration delay;
+  private Histogram recycled;
+  private Disposable refresher;
+
+  /** The response of one attempt, tagged with whether it came from the hedge. */
+  private record Attempt<T>(T value, boolean hedge) {}
+
+  /**
+   * Creates a hedger from configuration.
+   *
+   * @param properties Hedging configuration.
+   */
+  public RequestHedger(UserInfoHedgeProperties properties) {
+    this.properties = properties;
+    this.deposit = Math.round(properties.budgetPercent() / 100 * TOKEN);
+    this.tokens = new AtomicLong(TOKEN);
+    this.delay = properties.maxDelay();
+  }
+
+  /** Starts recomputing the hedge delay in the background. */
+  public void start() {
+    refresher =
+        Flux.interval(properties.refreshInterval())
+            .onBackpressureDrop()
+            .subscribe(tick -> refreshDelay());
+  }
+
+  /** Stops the background delay refresh. */
+  @Override
+  public void close() {
+    if (refresher != null) {
+      refresher.dispose();
+    }
+  }
+
+  /**
+   * Runs a request, hedging it if it is slow and the budget allows.
+   *
+   * @param attempt Creates one attempt of the request; called once or twice.
+   * @param <T> The response type.
+   * @return The first response.
+   */
+  public <T> Mono<T> hedge(Supplier<Mono<T>> attempt) {
+    if (!properties.enabled()) {
+      return Mono.defer(attempt);
+    }
+    return Mono.defer(
+        () -> {
+          requests.increment();
+          tokens.accumulateAndGet(deposit, (current, add) -> Math.min(MAX_TOKENS, current + add));
+          Mono<Attempt<T>> primary = timed(attempt).map(value -> new Attempt<>(value, false));
+          // The hedge never completes without a value, so only a response ends the race: a
+          // skipped or failed hedge leaves the original call to answer on its own.
+          Mono<Attempt<T>> hedge =
+              Mono.delay(delay)
+                  .flatMap(
+                      tick -> {
+                        if (!tryWithdraw()) {
+                          return Mono.never();
+                        }
+                        hedges.increment();
+                        return timed(attempt)
+                            .map(value -> new Attempt<>(value, true))
+                            .onErrorResume(error -> Mono.never());
+                      });
+          return Mono.firstWithSignal(primary, hedge)
+              .map(
+                  winner -> {
+                    (winner.hedge() ? hedgeWins : primaryWins).increment();
+                    return winner.value();
+                  });
+        });
+  }
+
+  /**
+   * Returns the current delay before a hedge is fired.
+   *
+   * @return The hedge delay.
+   */
+  public Duration delay() {
+    return delay;
+  }
+
+  /**
+   * Returns the hedging counters.
+   *
+   * @return The current statistics.
+   */
+  public HedgeStats stats() {
+    long total = requests.sum();
+    long fired = hedges.sum();
+    return new HedgeStats(
+        properties.enabled(),
+        delay.toNanos() / 1_000_000.0,
+        total,
+        fired,
+        total == 0 ? 0 : (double) fired / total,
+        hedgeWins.sum(),
+        primaryWins.sum(),
+        budgetExhausted.sum());
+  }
+
+  /** Recomputes the hedge delay from the latencies recorded since the last refresh. */
+  synchronized void refreshDelay() {
+    Histogram interval = latencies.getIntervalHistogram(recycled);
+    if (interval.getTotalCount() >= properties.minSamples()) {
+      Duration observed =
+          Duration.ofNanos(
+              TimeUnit.MICROSECONDS.toNanos(
+                  interval.getValueAtPercentile(properties.percentile())));
+      delay = clamp(observed);
+    }
+    recycled = interval;
+  }
+
+  private <T> Mono<T> timed(Supplier<Mono<T>> attempt) {
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          return attempt
+              .get()
+              .doOnNext(
+                  value ->
+                      latencies.recordValue(
+                          Math.min(
+                              TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                              HIGHEST_TRACKABLE_MICROS)));
+        });
+  }
+
+  private boolean tryWithdraw() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current < TOKEN) {
+        budgetExhausted.increment();
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - TOKEN));
+    return true;
+  }
+
+  private Duration clamp(Duration value) {
+    if (value.compareTo(properties.minDelay()) < 0) {
+      return properties.minDelay();
+    }
+    return value.compareTo(properties.maxDelay()) > 0 ? properties.maxDelay() : value;
+  }
+}
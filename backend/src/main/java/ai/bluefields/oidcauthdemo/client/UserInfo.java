@@ -0,0 +1,20 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The UserInfo claims this application uses. Every other claim in the response is skipped.
+ *
+ * <p>Normally decoded by {@link UserInfoDecoder}; the Jackson annotations keep it readable by a
+ * plain {@code WebClient} as well.
+ *
+ * @param email The {@code email} claim, or {@code null} if absent or not a string.
+ * @param givenName The {@code given_name} claim, or {@code null} if absent or not a string.
+ * @param familyName The {@code family_name} claim, or {@code null} if absent or not a string.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record UserInfo(
+    @JsonProperty("email") String email,
+    @JsonProperty("given_name") String givenName,
+    @JsonProperty("family_name") String familyName) {}
@@ -0,0 +1,172 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decodes a UserInfo response into {@link UserInfo} as it streams in, without building a map or
+ * token buffer of the whole document.
+ *
+ * <p>Each network buffer is fed to Jackson's non-blocking parser as a {@link ByteBuffer} view and
+ * released as soon as it is tokenized. Only the three wanted top-level string claims are turned
+ * into strings; nested metadata and role claims are tokenized but never materialized. Once all
+ * three claims have been seen, remaining buffers are released without parsing.
+ *
+ * <p>Register it as a custom codec; it only claims {@link UserInfo}, so all other types keep the
+ * default Jackson decoder.
+ */
+public class UserInfoDecoder extends AbstractDecoder<UserInfo> {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final int EMAIL = 0;
+  private static final int GIVEN_NAME = 1;
+  private static final int FAMILY_NAME = 2;
+
+  /** Creates a decoder for JSON UserInfo responses. */
+  public UserInfoDecoder() {
+    super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+  }
+
+  @Override
+  public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+    return elementType.toClass() == UserInfo.class && super.canDecode(elementType, mimeType);
+  }
+
+  @Override
+  public Flux<UserInfo> decode(
+      Publisher<DataBuffer> input,
+      ResolvableType elementType,
+      MimeType mimeType,
+      Map<String, Object> hints) {
+    return decodeToMono(input, elementType, mimeType, hints).flux();
+  }
+
+  @Override
+  public Mono<UserInfo> decodeToMono(
+      Publisher<DataBuffer> input,
+      ResolvableType elementType,
+      MimeType mimeType,
+      Map<String, Object> hints) {
+    return Mono.using(
+        Parse::new,
+        parse -> Flux.from(input).doOnNext(parse::feed).then(Mono.fromCallable(parse::finish)),
+        Parse::close);
+  }
+
+  /** Parser state for one response. */
+  private static final class Parse {
+    private final JsonParser parser;
+    private final String[] claims = new String[3];
+    private int found;
+    private int depth;
+    private int pendingClaim = -1;
+    private boolean started;
+    private boolean complete;
+
+    Parse() throws IOException {
+      parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+    }
+
+    void feed(DataBuffer buffer) {
+      try {
+        if (complete) {
+          return;
+        }
+        try (DataBuffer.ByteBufferIterator views = buffer.readableByteBuffers()) {
+          while (views.hasNext() && !complete) {
+            ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(views.next());
+            advance();
+          }
+        }
+      } catch (IOException e) {
+        throw new DecodingException("Invalid UserInfo JSON: " + e.getMessage(), e);
+      } finally {
+        DataBufferUtils.release(buffer);
+      }
+    }
+
+    UserInfo finish() {
+      if (!complete) {
+        parser.getNonBlockingInputFeeder().endOfInput();
+        try {
+          advance();
+        } catch (IOException e) {
+          throw new DecodingException("Invalid UserInfo JSON: " + e.getMessage(), e);
+        }
+        if (!started) {
+          return null; // Empty body, as with the default JSON decoder
+        }
+        if (!complete) {
+          throw new DecodingException("Incomplete UserInfo JSON");
+        }
+      }
+      return new UserInfo(claims[EMAIL], claims[GIVEN_NAME], claims[FAMILY_NAME]);
+    }
+
+    void close() {
+      try {
+        parser.close();
+      } catch (IOException e) {
+        // Nothing is held beyond the parser's own buffers
+      }
+    }
+
+    /** Consumes all tokens available so far. */
+    private void advance() throws IOException {
+      JsonToken token;
+      while (!complete
+          && (token = parser.nextToken()) != null
+          && token != JsonToken.NOT_AVAILABLE) {
+        if (!started) {
+          if (token != JsonToken.START_OBJECT) {
+            throw new DecodingException("UserInfo response is not a JSON object");
+          }
+          started = true;
+        }
+        switch (token) {
+          case START_OBJECT, START_ARRAY -> {
+            depth++;
+            pendingClaim = -1;
+          }
+          case END_OBJECT, END_ARRAY -> {
+            depth--;
+            complete = depth == 0;
+          }
+          case FIELD_NAME -> pendingClaim = depth == 1 ? claimIndex(parser.currentName()) : -1;
+          case VALUE_STRING -> {
+            if (pendingClaim >= 0 && claims[pendingClaim] == null) {
+              claims[pendingClaim] = parser.getText();
+              complete = ++found == claims.length;
+            }
+            pendingClaim = -1;
+          }
+          default -> pendingClaim = -1;
+        }
+      }
+    }
+
+    private static int claimIndex(String name) {
+      return switch (name) {
+        case "email" -> EMAIL;
+        case "given_name" -> GIVEN_NAME;
+        case "family_name" -> FAMILY_NAME;
+        default -> -1;
+      };
+    }
+  }
+}
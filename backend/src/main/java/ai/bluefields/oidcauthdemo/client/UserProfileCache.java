@@ -0,0 +1,92 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Profiles fetched from the identity provider, each reused for a fixed time after it was fetched.
+ *
+ * <p>Profiles are fetched with the caller's own token, so whether one may be read is the identity
+ * provider's decision for that caller. Entries are therefore kept per caller and subject: a profile
+ * one caller was allowed to read is never served to another, who has to be authorized by a call of
+ * their own.
+ *
+ * <p>The cache holds at most {@code maxSize} profiles. When it is full, expired profiles are
+ * dropped first; if none has expired, the whole cache is, which costs a round of identity provider
+ * calls but keeps the bound without tracking access order.
+ */
+public class UserProfileCache {
+
+  private record Key(String caller, String subject) {}
+
+  private record Entry(UserInfo profile, Instant expiresAt) {}
+
+  private final Duration ttl;
+  private final int maxSize;
+  private final Clock clock;
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param ttl How long a profile is reused after it was stored.
+   * @param maxSize Most profiles held at a time.
+   * @param clock Clock expiry is measured with.
+   */
+  public UserProfileCache(Duration ttl, int maxSize, Clock clock) {
+    this.ttl = ttl;
+    this.maxSize = maxSize;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the profile of a subject as fetched earlier for the same caller.
+   *
+   * @param caller Identifies the caller whose token the profile was fetched with.
+   * @param subject The user's subject.
+   * @return The profile, or {@code null} if none is cached for this caller or it has expired.
+   */
+  public UserInfo get(String caller, String subject) {
+    Key key = new Key(caller, subject);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (!clock.instant().isBefore(entry.expiresAt())) {
+      entries.remove(key, entry);
+      return null;
+    }
+    return entry.profile();
+  }
+
+  /**
+   * Stores a profile freshly fetched for a caller.
+   *
+   * @param caller Identifies the caller whose token the profile was fetched with.
+   * @param subject The user's subject.
+   * @param profile The profile.
+   */
+  public void put(String caller, String subject, UserInfo profile) {
+    Key key = new Key(caller, subject);
+    Instant now = clock.instant();
+    if (entries.size() >= maxSize && !entries.containsKey(key)) {
+      entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+      if (entries.size() >= maxSize) {
+        entries.clear();
+      }
+    }
+    entries.put(key, new Entry(profile, now.plus(ttl)));
+  }
+
+  /**
+   * Returns the number of cached profiles, including expired ones not yet dropped.
+   *
+   * @return The number of entries.
+   */
+  public int size() {
+    return entries.size();
+  }
+}
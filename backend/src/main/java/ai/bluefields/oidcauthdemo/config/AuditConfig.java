@@ -0,0 +1,67 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.audit.AuditFilter;
+import ai.bluefields.oidcauthdemo.audit.AuditLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the audit log. {@link SecurityConfig} places the audit filter in front of bearer token
+ * authentication, so it must not also run as a servlet filter of its own.
+ */
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.audit",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class AuditConfig {
+
+  /**
+   * Creates the audit log and starts its writer.
+   *
+   * @param properties Audit configuration.
+   * @return The started {@link AuditLog}.
+   */
+  @Bean
+  public AuditLog auditLog(AuditProperties properties) {
+    AuditLog auditLog =
+        new AuditLog(
+            properties.directory(),
+            properties.bufferCapacity(),
+            Math.toIntExact(properties.segmentSize().toBytes()),
+            properties.maxSegments());
+    auditLog.start();
+    return auditLog;
+  }
+
+  /**
+   * Creates the audit filter.
+   *
+   * @param auditLog Where decisions are recorded.
+   * @param properties Audit configuration.
+   * @return The filter.
+   */
+  @Bean
+  public AuditFilter auditFilter(AuditLog auditLog, AuditProperties properties) {
+    return new AuditFilter(auditLog, properties.accessPaths());
+  }
+
+  /**
+   * Keeps Spring Boot from registering the audit filter with the servlet container, where it would
+   * run outside the security context.
+   *
+   * @param auditFilter The audit filter.
+   * @return The disabled registration.
+   */
+  @Bean
+  public FilterRegistrationBean<AuditFilter> auditFilterRegistration(AuditFilter auditFilter) {
+    FilterRegistrationBean<AuditFilter> registration = new FilterRegistrationBean<>(auditFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
+}
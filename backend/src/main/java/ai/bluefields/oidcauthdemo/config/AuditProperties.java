@@ -0,0 +1,37 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration for the audit log of authentication and authorization decisions.
+ *
+ * @param enabled Whether decisions are audited.
+ * @param directory Directory the segment files are written to.
+ * @param bufferCapacity Records buffered for the writer before new ones are dropped; rounded up to
+ *     a power of two.
+ * @param segmentSize Size of each memory-mapped segment file.
+ * @param maxSegments Segment files kept; older ones are deleted.
+ * @param accessPaths Ant-style patterns of the routes whose successful accesses are audited; 401
+ *     and 403 responses are audited on every route.
+ */
+@ConfigurationProperties(prefix = "authdemo.audit")
+public record AuditProperties(
+    boolean enabled,
+    Path directory,
+    Integer bufferCapacity,
+    DataSize segmentSize,
+    Integer maxSegments,
+    List<String> accessPaths) {
+
+  /** Applies defaults for any property that is not set. */
+  public AuditProperties {
+    directory = directory != null ? directory : Path.of("var", "audit");
+    bufferCapacity = bufferCapacity != null ? bufferCapacity : 8192;
+    segmentSize = segmentSize != null ? segmentSize : DataSize.ofMegabytes(16);
+    maxSegments = maxSegments != null ? maxSegments : 64;
+    accessPaths = accessPaths != null ? accessPaths : List.of("/api/v1/private/**");
+  }
+}
@@ -0,0 +1,65 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.exception.ApiErrorWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Serves responses as CBOR ({@code application/cbor}) or Smile ({@code
+ * application/x-jackson-smile}) to clients that ask for them in the {@code Accept} header.
+ *
+ * <p>Both converters use copies of the application's JSON {@link ObjectMapper}, so the binary
+ * formats carry the same fields and date handling as JSON. Spring Boot keeps them behind the JSON
+ * converter, so JSON stays the default for clients that accept anything. Endpoints that declare
+ * {@code produces} have to list the binary types as well.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+  /** Media type of Jackson's Smile binary JSON format, for {@code produces} attributes. */
+  public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+  /** Media type of Jackson's Smile binary JSON format. */
+  public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+  /**
+   * Creates the CBOR message converter.
+   *
+   * @param objectMapper The application's JSON mapper.
+   * @return The converter.
+   */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      ObjectMapper objectMapper) {
+    return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+  }
+
+  /**
+   * Creates the Smile message converter.
+   *
+   * @param objectMapper The application's JSON mapper.
+   * @return The converter.
+   */
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      ObjectMapper objectMapper) {
+    return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+  }
+
+  /**
+   * Creates the writer servlet filters use for error responses.
+   *
+   * @param objectMapper The application's JSON mapper.
+   * @return The writer.
+   */
+  @Bean
+  public ApiErrorWriter apiErrorWriter(ObjectMapper objectMapper) {
+    return new ApiErrorWriter(objectMapper);
+  }
+}
@@ -0,0 +1,41 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.client.ClientCredentialsTokenManager;
+import java.time.Clock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Creates the client credentials token manager when {@code authdemo.client-credentials.enabled} is
+ * set. The {@link WebClient} bean in {@link SecurityConfig} then authenticates requests that name
+ * an audience with tokens from it.
+ */
+@Configuration
+@EnableConfigurationProperties(ClientCredentialsProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.client-credentials",
+    name = "enabled",
+    havingValue = "true")
+public class ClientCredentialsConfig {
+
+  /**
+   * Creates the token manager. Token requests use a WebClient of their own, so they are not routed
+   * through the filters of the application's WebClient.
+   *
+   * @param properties Client credentials configuration.
+   * @return The token manager.
+   */
+  @Bean
+  public ClientCredentialsTokenManager clientCredentialsTokenManager(
+      ClientCredentialsProperties properties) {
+    if (properties.tokenUri() == null || properties.clientId().isBlank()) {
+      throw new IllegalStateException(
+          "authdemo.client-credentials needs token-uri and client-id when enabled");
+    }
+    return new ClientCredentialsTokenManager(
+        properties, WebClient.builder().build(), Clock.systemUTC());
+  }
+}
@@ -0,0 +1,42 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.net.URI;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for access tokens the application obtains for itself, with the OAuth 2.0 client
+ * credentials grant, to call other protected services.
+ *
+ * @param enabled Whether outbound calls can be authenticated with client credentials tokens.
+ * @param tokenUri The identity provider's token endpoint.
+ * @param clientId The application's client id.
+ * @param clientSecret The application's client secret.
+ * @param audienceScope Scope requested for a token, with {@code {audience}} replaced by the target
+ *     audience. The default asks Zitadel to put the project id into the token's {@code aud}.
+ * @param refreshBefore How long before expiry a cached token is refreshed in the background.
+ * @param minValidity Remaining lifetime below which a cached token is no longer sent.
+ * @param timeout Maximum time for one token request.
+ */
+@ConfigurationProperties(prefix = "authdemo.client-credentials")
+public record ClientCredentialsProperties(
+    boolean enabled,
+    URI tokenUri,
+    String clientId,
+    String clientSecret,
+    String audienceScope,
+    Duration refreshBefore,
+    Duration minValidity,
+    Duration timeout) {
+
+  /** Applies defaults for any property that is not set. */
+  public ClientCredentialsProperties {
+    clientId = clientId != null ? clientId : "";
+    clientSecret = clientSecret != null ? clientSecret : "";
+    audienceScope =
+        audienceScope != null ? audienceScope : "urn:zitadel:iam:org:project:id:{audience}:aud";
+    refreshBefore = refreshBefore != null ? refreshBefore : Duration.ofSeconds(60);
+    minValidity = minValidity != null ? minValidity : Duration.ofSeconds(5);
+    timeout = timeout != null ? timeout : Duration.ofSeconds(5);
+  }
+}
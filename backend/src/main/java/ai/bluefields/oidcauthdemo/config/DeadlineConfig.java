@@ -0,0 +1,41 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.deadline.DeadlineFilter;
+import ai.bluefields.oidcauthdemo.exception.ApiErrorWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the filter that assigns a deadline to every inbound request. It runs ahead of Spring
+ * Security, right after the latency filter, so expired requests are rejected before token
+ * validation but still show up in the latency report.
+ */
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.deadline",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class DeadlineConfig {
+
+  /**
+   * Registers the deadline filter.
+   *
+   * @param properties Deadline configuration.
+   * @param apiErrorWriter Writer for 504 responses.
+   * @return The filter registration.
+   */
+  @Bean
+  public FilterRegistrationBean<DeadlineFilter> deadlineFilter(
+      DeadlineProperties properties, ApiErrorWriter apiErrorWriter) {
+    FilterRegistrationBean<DeadlineFilter> registration =
+        new FilterRegistrationBean<>(new DeadlineFilter(properties, apiErrorWriter));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+    return registration;
+  }
+}
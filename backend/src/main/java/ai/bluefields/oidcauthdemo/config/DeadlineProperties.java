@@ -0,0 +1,24 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for per-request deadlines.
+ *
+ * @param enabled Whether inbound requests are given a deadline.
+ * @param header Request header in which a client may send its own timeout, in milliseconds.
+ * @param defaultTimeout Timeout used when the client does not send one.
+ * @param maxTimeout Upper bound on a client-supplied timeout.
+ */
+@ConfigurationProperties(prefix = "authdemo.deadline")
+public record DeadlineProperties(
+    boolean enabled, String header, Duration defaultTimeout, Duration maxTimeout) {
+
+  /** Applies defaults for any property that is not set. */
+  public DeadlineProperties {
+    header = header != null ? header : "X-Request-Timeout-Ms";
+    defaultTimeout = defaultTimeout != null ? defaultTimeout : Duration.ofSeconds(10);
+    maxTimeout = maxTimeout != null ? maxTimeout : Duration.ofSeconds(30);
+  }
+}
@@ -0,0 +1,57 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.frontend.FrontendAssets;
+import ai.bluefields.oidcauthdemo.frontend.FrontendFilter;
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Serves the built frontend. The filter runs after the latency, deadline and tracing filters but
+ * ahead of load shedding and Spring Security, so static files are neither shed nor authenticated.
+ */
+@Configuration
+@EnableConfigurationProperties(FrontendProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.frontend",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class FrontendConfig {
+
+  /**
+   * Indexes the frontend build.
+   *
+   * @param properties Frontend configuration.
+   * @return The index; empty if there is no build.
+   * @throws IOException If the build directory cannot be read.
+   */
+  @Bean
+  public FrontendAssets frontendAssets(FrontendProperties properties) throws IOException {
+    return FrontendAssets.scan(
+        properties.directory(),
+        properties.immutablePaths(),
+        properties.sendfileThreshold().toBytes());
+  }
+
+  /**
+   * Registers the frontend filter.
+   *
+   * @param frontendAssets The indexed build.
+   * @param properties Frontend configuration.
+   * @return The filter registration.
+   */
+  @Bean
+  public FilterRegistrationBean<FrontendFilter> frontendFilter(
+      FrontendAssets frontendAssets, FrontendProperties properties) {
+    FilterRegistrationBean<FrontendFilter> registration =
+        new FilterRegistrationBean<>(
+            new FrontendFilter(frontendAssets, properties.fallbackExcludes()));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+    return registration;
+  }
+}
@@ -0,0 +1,38 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration for serving the built frontend (the Vite {@code dist} directory) from the backend.
+ *
+ * @param enabled Whether the frontend is served.
+ * @param directory The build output directory; nothing is served if it does not exist.
+ * @param immutablePaths Ant-style patterns of content-hashed files, cached by browsers for a year
+ *     without revalidation; all other files must be revalidated.
+ * @param fallbackExcludes Ant-style patterns of routes that never fall back to {@code index.html},
+ *     such as the API.
+ * @param sendfileThreshold Files at least this large are sent from disk with zero-copy transfer;
+ *     smaller ones are held in memory.
+ */
+@ConfigurationProperties(prefix = "authdemo.frontend")
+public record FrontendProperties(
+    boolean enabled,
+    Path directory,
+    List<String> immutablePaths,
+    List<String> fallbackExcludes,
+    DataSize sendfileThreshold) {
+
+  /** Applies defaults for any property that is not set. */
+  public FrontendProperties {
+    directory = directory != null ? directory : Path.of("..", "frontend", "dist");
+    immutablePaths = immutablePaths != null ? immutablePaths : List.of("/assets/**");
+    fallbackExcludes =
+        fallbackExcludes != null
+            ? fallbackExcludes
+            : List.of("/api/**", "/v3/api-docs/**", "/swagger-ui/**", "/error");
+    sendfileThreshold = sendfileThreshold != null ? sendfileThreshold : DataSize.ofKilobytes(48);
+  }
+}
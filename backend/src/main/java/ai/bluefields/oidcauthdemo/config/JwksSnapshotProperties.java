@@ -0,0 +1,32 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the on-disk snapshot of the issuer's discovery document and JWKS.
+ *
+ * @param enabled Whether the snapshot-backed {@code JwtDecoder} replaces the default one.
+ * @param file Location of the snapshot file.
+ * @param maxStaleness Maximum age of a snapshot (on disk or in memory) before it is no longer
+ *     trusted for token validation.
+ * @param refreshInterval Interval between background refreshes from the live issuer.
+ * @param fetchTimeout Timeout for a single discovery or JWKS fetch.
+ */
+@ConfigurationProperties(prefix = "authdemo.jwks-snapshot")
+public record JwksSnapshotProperties(
+    boolean enabled,
+    Path file,
+    Duration maxStaleness,
+    Duration refreshInterval,
+    Duration fetchTimeout) {
+
+  /** Applies defaults for any property that is not set. */
+  public JwksSnapshotProperties {
+    file = file != null ? file : Path.of("var", "jwks-snapshot.json");
+    maxStaleness = maxStaleness != null ? maxStaleness : Duration.ofHours(24);
+    refreshInterval = refreshInterval != null ? refreshInterval : Duration.ofMinutes(5);
+    fetchTimeout = fetchTimeout != null ? fetchTimeout : Duration.ofSeconds(5);
+  }
+}
@@ -0,0 +1,127 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.security.JwksSnapshotStore;
+import ai.bluefields.oidcauthdemo.security.JwsVerifierCache;
+import ai.bluefields.oidcauthdemo.security.SnapshotJwkSource;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Provides the {@link JwtDecoder} used by the resource server.
+ *
+ * <p>Instead of Spring Boot's default decoder, which has to reach the issuer before it can validate
+ * the first token, this decoder is backed by a {@link SnapshotJwkSource} that starts from the last
+ * known good JWKS on disk and refreshes it from {@code ZITADEL_AUTHDEMO_ISSUER_URI} in the
+ * background. Set {@code authdemo.jwks-snapshot.enabled=false} to fall back to the default decoder.
+ */
+@Configuration
+@EnableConfigurationProperties(JwksSnapshotProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.jwks-snapshot",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class JwtDecoderConfig {
+
+  /**
+   * Creates the snapshot-backed key source and kicks off its background refresh.
+   *
+   * @param issuer The configured issuer URI.
+   * @param properties Snapshot configuration.
+   * @return The started {@link SnapshotJwkSource}.
+   */
+  @Bean
+  public SnapshotJwkSource snapshotJwkSource(
+      @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+      JwksSnapshotProperties properties) {
+    SnapshotJwkSource source =
+        new SnapshotJwkSource(
+            issuer,
+            properties,
+            new JwksSnapshotStore(properties.file()),
+            WebClient.create(),
+            Clock.systemUTC());
+    source.start();
+    return source;
+  }
+
+  /**
+   * Creates the {@link JwtDecoder} that verifies signatures against the snapshot-backed key source
+   * and applies Spring Security's default timestamp and issuer validation, followed by any
+   * additional {@link OAuth2TokenValidator} beans (the same contract Spring Boot's default decoder
+   * honours).
+   *
+   * @param snapshotJwkSource The key source.
+   * @param issuer The configured issuer URI.
+   * @param additionalValidators Extra validators registered as beans.
+   * @return The configured decoder.
+   */
+  @Bean
+  public JwtDecoder jwtDecoder(
+      SnapshotJwkSource snapshotJwkSource,
+      @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+      ObjectProvider<OAuth2TokenValidator<Jwt>> additionalValidators) {
+    return buildDecoder(snapshotJwkSource, issuer, additionalValidators.orderedStream().toList());
+  }
+
+  /**
+   * Builds a {@link NimbusJwtDecoder} over the given key source. Signatures are checked with
+   * verifiers cached per key id by a {@link JwsVerifierCache}, which is invalidated whenever a
+   * {@link SnapshotJwkSource} reports a changed key set.
+   *
+   * @param keySource The source of verification keys.
+   * @param issuer The expected {@code iss} claim.
+   * @param additionalValidators Validators applied after the default ones.
+   * @return The configured decoder.
+   */
+  public static NimbusJwtDecoder buildDecoder(
+      JWKSource<SecurityContext> keySource,
+      String issuer,
+      List<OAuth2TokenValidator<Jwt>> additionalValidators) {
+    Set<JWSAlgorithm> algorithms = new HashSet<>(JWSAlgorithm.Family.RSA);
+    algorithms.addAll(JWSAlgorithm.Family.EC);
+
+    DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+    JwsVerifierCache verifiers = new JwsVerifierCache(algorithms, keySource);
+    if (keySource instanceof SnapshotJwkSource snapshotJwkSource) {
+      snapshotJwkSource.onKeysChanged(verifiers::invalidate);
+    }
+    processor.setJWSKeySelector(verifiers);
+    processor.setJWSVerifierFactory(verifiers);
+    processor.setJWSTypeVerifier(
+        new DefaultJOSEObjectTypeVerifier<>(
+            JOSEObjectType.JWT, new JOSEObjectType("at+jwt"), null));
+    // Claims are validated by Spring's OAuth2TokenValidator below, not by Nimbus
+    processor.setJWTClaimsSetVerifier((claims, context) -> {});
+
+    List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+    validators.add(JwtValidators.createDefaultWithIssuer(issuer));
+    validators.addAll(additionalValidators);
+
+    NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+    decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(validators));
+    return decoder;
+  }
+}
@@ -0,0 +1,52 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.metrics.RouteLatencyFilter;
+import ai.bluefields.oidcauthdemo.metrics.RouteLatencyRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the per-route latency histograms and the servlet filter that feeds them. The filter
+ * runs before Spring Security so that every request, including rejected ones, is measured.
+ */
+@Configuration
+@EnableConfigurationProperties(LatencyProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.latency",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class LatencyConfig {
+
+  /**
+   * Creates the latency recorder and starts its interval rotation.
+   *
+   * @param properties Latency configuration.
+   * @return The started {@link RouteLatencyRecorder}.
+   */
+  @Bean
+  public RouteLatencyRecorder routeLatencyRecorder(LatencyProperties properties) {
+    RouteLatencyRecorder recorder = new RouteLatencyRecorder(properties.interval());
+    recorder.start();
+    return recorder;
+  }
+
+  /**
+   * Registers the latency filter as the outermost filter.
+   *
+   * @param routeLatencyRecorder The recorder the filter writes to.
+   * @return The filter registration.
+   */
+  @Bean
+  public FilterRegistrationBean<RouteLatencyFilter> routeLatencyFilter(
+      RouteLatencyRecorder routeLatencyRecorder) {
+    FilterRegistrationBean<RouteLatencyFilter> registration =
+        new FilterRegistrationBean<>(new RouteLatencyFilter(routeLatencyRecorder));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
@@ -0,0 +1,20 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for per-route request latency histograms.
+ *
+ * @param enabled Whether the latency recording filter is registered.
+ * @param interval Length of one histogram interval; reporting windows are built from whole
+ *     intervals, so this is also the reporting granularity.
+ */
+@ConfigurationProperties(prefix = "authdemo.latency")
+public record LatencyProperties(boolean enabled, Duration interval) {
+
+  /** Applies defaults for any property that is not set. */
+  public LatencyProperties {
+    interval = interval != null ? interval : Duration.ofSeconds(10);
+  }
+}
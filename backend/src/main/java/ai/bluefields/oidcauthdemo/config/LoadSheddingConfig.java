@@ -0,0 +1,61 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.admission.LoadShedder;
+import ai.bluefields.oidcauthdemo.admission.LoadSheddingFilter;
+import ai.bluefields.oidcauthdemo.exception.ApiErrorWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers priority-aware load shedding. The filter runs ahead of Spring Security, after the
+ * latency, deadline, tracing and frontend filters, so shed requests cost no token validation but
+ * still show up in the latency report.
+ */
+@Configuration
+@EnableConfigurationProperties(LoadSheddingProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.load-shedding",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class LoadSheddingConfig {
+
+  /**
+   * Creates the load shedder.
+   *
+   * @param properties Load shedding configuration.
+   * @return The load shedder.
+   */
+  @Bean
+  public LoadShedder loadShedder(LoadSheddingProperties properties) {
+    return new LoadShedder(properties);
+  }
+
+  /**
+   * Registers the load shedding filter. Routes that are {@code permitAll} in {@link SecurityConfig}
+   * form the public tier.
+   *
+   * @param loadShedder The admission decision.
+   * @param properties Load shedding configuration.
+   * @param apiErrorWriter Writer for 503 responses.
+   * @return The filter registration.
+   */
+  @Bean
+  public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+      LoadShedder loadShedder, LoadSheddingProperties properties, ApiErrorWriter apiErrorWriter) {
+    FilterRegistrationBean<LoadSheddingFilter> registration =
+        new FilterRegistrationBean<>(
+            new LoadSheddingFilter(
+                loadShedder,
+                properties.healthPaths(),
+                SecurityConfig.PUBLIC_PATHS,
+                properties.retryAfter(),
+                apiErrorWriter));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 4);
+    return registration;
+  }
+}
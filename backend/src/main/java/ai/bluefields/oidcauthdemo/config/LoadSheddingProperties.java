@@ -0,0 +1,49 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for priority-aware load shedding of inbound requests.
+ *
+ * <p>Health probes are never shed. Public requests are shed at {@code publicMaxInFlight} or {@code
+ * publicMaxLatency}, private requests already at the lower {@code privateMaxInFlight} or {@code
+ * privateMaxLatency}, so private traffic goes first.
+ *
+ * @param enabled Whether load shedding is active.
+ * @param healthPaths Ant-style patterns of the health probe routes.
+ * @param publicMaxInFlight Requests in flight at which public requests are shed.
+ * @param privateMaxInFlight Requests in flight at which private requests are shed.
+ * @param publicMaxLatency Smoothed latency at which public requests are shed.
+ * @param privateMaxLatency Smoothed latency at which private requests are shed.
+ * @param minInFlight Requests in flight below which latency alone never sheds; lets a server that
+ *     has drained take new samples.
+ * @param latencySmoothing Weight of each completed request in the smoothed latency, between 0 and
+ *     1.
+ * @param retryAfter Delay sent to shed clients in the {@code Retry-After} header.
+ */
+@ConfigurationProperties(prefix = "authdemo.load-shedding")
+public record LoadSheddingProperties(
+    boolean enabled,
+    List<String> healthPaths,
+    Integer publicMaxInFlight,
+    Integer privateMaxInFlight,
+    Duration publicMaxLatency,
+    Duration privateMaxLatency,
+    Integer minInFlight,
+    Double latencySmoothing,
+    Duration retryAfter) {
+
+  /** Applies defaults for any property that is not set. */
+  public LoadSheddingProperties {
+    healthPaths = healthPaths != null ? healthPaths : List.of("/api/v1/public/health");
+    publicMaxInFlight = publicMaxInFlight != null ? publicMaxInFlight : 180;
+    privateMaxInFlight = privateMaxInFlight != null ? privateMaxInFlight : 150;
+    publicMaxLatency = publicMaxLatency != null ? publicMaxLatency : Duration.ofSeconds(5);
+    privateMaxLatency = privateMaxLatency != null ? privateMaxLatency : Duration.ofSeconds(2);
+    minInFlight = minInFlight != null ? minInFlight : 8;
+    latencySmoothing = latencySmoothing != null ? latencySmoothing : 0.05;
+    retryAfter = retryAfter != null ? retryAfter : Duration.ofSeconds(1);
+  }
+}
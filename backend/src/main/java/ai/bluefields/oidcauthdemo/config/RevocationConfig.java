@@ -0,0 +1,44 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.security.RevokedTokenValidator;
+import ai.bluefields.oidcauthdemo.security.TokenRevocationList;
+import java.time.Clock;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Wires the token revocation denylist into JWT validation. The validator is exposed as an {@link
+ * OAuth2TokenValidator} bean, which both Spring Boot's default decoder and {@link JwtDecoderConfig}
+ * add to their validator chain.
+ */
+@Configuration
+@EnableConfigurationProperties(RevocationProperties.class)
+public class RevocationConfig {
+
+  /**
+   * Creates the denylist, loading persisted revocations, and starts its expiry purge.
+   *
+   * @param properties Denylist configuration.
+   * @return The started {@link TokenRevocationList}.
+   */
+  @Bean
+  public TokenRevocationList tokenRevocationList(RevocationProperties properties) {
+    TokenRevocationList revocationList = new TokenRevocationList(properties, Clock.systemUTC());
+    revocationList.start();
+    return revocationList;
+  }
+
+  /**
+   * Creates the validator that rejects revoked tokens.
+   *
+   * @param tokenRevocationList The denylist.
+   * @return The validator.
+   */
+  @Bean
+  public OAuth2TokenValidator<Jwt> revokedTokenValidator(TokenRevocationList tokenRevocationList) {
+    return new RevokedTokenValidator(tokenRevocationList);
+  }
+}
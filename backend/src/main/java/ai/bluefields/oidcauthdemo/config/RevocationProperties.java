@@ -0,0 +1,26 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the token revocation denylist.
+ *
+ * @param file Location of the persisted denylist.
+ * @param expectedEntries Number of concurrently revoked tokens the Bloom filter is sized for.
+ * @param falsePositiveRate Target Bloom filter false-positive rate at {@code expectedEntries}.
+ * @param purgeInterval Interval at which expired entries are dropped and the filter rebuilt.
+ */
+@ConfigurationProperties(prefix = "authdemo.revocation")
+public record RevocationProperties(
+    Path file, Integer expectedEntries, Double falsePositiveRate, Duration purgeInterval) {
+
+  /** Applies defaults for any property that is not set. */
+  public RevocationProperties {
+    file = file != null ? file : Path.of("var", "revoked-tokens.tsv");
+    expectedEntries = expectedEntries != null ? expectedEntries : 100_000;
+    falsePositiveRate = falsePositiveRate != null ? falsePositiveRate : 0.01;
+    purgeInterval = purgeInterval != null ? purgeInterval : Duration.ofMinutes(1);
+  }
+}
@@ -1,34 +1,179 @@
 package ai.bluefields.oidcauthdemo.config;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import ai.bluefields.oidcauthdemo.audit.AuditFilter;
+import ai.bluefields.oidcauthdemo.client.ClientCredentialsExchangeFilter;
+import ai.bluefields.oidcauthdemo.client.ClientCredentialsTokenManager;
+import ai.bluefields.oidcauthdemo.client.UserInfoDecoder;
+import ai.bluefields.oidcauthdemo.prefetch.UserInfoPrefetchFilter;
+import ai.bluefields.oidcauthdemo.security.CompiledAuthorizationManager;
+import ai.bluefields.oidcauthdemo.security.SecurityFilterChainInstrumentation;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.security.UserPrincipalConverter;
+import ai.bluefields.oidcauthdemo.tracing.TracedAuthorizationManager;
+import ai.bluefields.oidcauthdemo.tracing.TracedJwtAuthenticationConverter;
+import ai.bluefields.oidcauthdemo.tracing.Tracer;
+import ai.bluefields.oidcauthdemo.tracing.TracingExchangeFilter;
+import java.util.List;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authorization.method.AuthorizationManagerAfterMethodInterceptor;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PostAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.PostFilterAuthorizationMethodInterceptor;
+import org.springframework.security.authorization.method.PreFilterAuthorizationMethodInterceptor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+import org.springframework.security.web.FilterChainProxy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * Configures Spring Security settings for the application, including JWT validation, authorization
  * rules, and CSRF protection. Enables method-level security checks using {@link
- * EnableMethodSecurity}.
+ * EnableMethodSecurity}, with {@code @PreAuthorize} rules evaluated by the precompiled {@link
+ * CompiledAuthorizationManager} instead of per-call SpEL. As that takes the pre/post annotations
+ * out of Spring's hands, {@code @PostAuthorize}, {@code @PreFilter} and {@code @PostFilter} are
+ * registered here too, with Spring's own SpEL-based interceptors.
  */
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity // Enables @PreAuthorize, @PostAuthorize, etc.
+@EnableMethodSecurity(
+    prePostEnabled = false) // Pre/post annotations are wired below, @PreAuthorize compiled
 public class SecurityConfig {
 
+  /** Paths open to anonymous requests ({@code permitAll}). */
+  public static final List<String> PUBLIC_PATHS =
+      List.of(
+          "/api/v1/public/**", // Public endpoints
+          "/v3/api-docs/**", // OpenAPI spec
+          "/swagger-ui/**", // Swagger UI webjar
+          "/swagger-ui.html", // Swagger UI entry point
+          "/error" // Permit default error handling path
+          );
+
+  /**
+   * Creates the {@link CompiledAuthorizationManager} used for {@code @PreAuthorize}.
+   *
+   * @return The authorization manager.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  static CompiledAuthorizationManager compiledAuthorizationManager() {
+    return new CompiledAuthorizationManager();
+  }
+
+  /**
+   * Registers the {@code @PreAuthorize} method interceptor backed by the compiled manager. Denials
+   * still surface as {@code AuthorizationDeniedException}, handled by {@code
+   * GlobalExceptionHandler}. Each decision is traced as a {@code method.authorize} span.
+   *
+   * @param compiledAuthorizationManager The authorization manager.
+   * @param tracer Provides the tracer, if any.
+   * @return The method interceptor advisor.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  static Advisor preAuthorizeAuthorizationMethodInterceptor(
+      CompiledAuthorizationManager compiledAuthorizationManager, ObjectProvider<Tracer> tracer) {
+    return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(
+        new TracedAuthorizationManager<>(
+            compiledAuthorizationManager, () -> tracer.getIfAvailable(Tracer::noop)));
+  }
+
+  /**
+   * Registers the {@code @PostAuthorize} method interceptor, evaluating SpEL as Spring would.
+   *
+   * @param context The application context, for bean references in expressions.
+   * @return The method interceptor advisor.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  static Advisor postAuthorizeAuthorizationMethodInterceptor(ApplicationContext context) {
+    PostAuthorizeAuthorizationManager manager = new PostAuthorizeAuthorizationManager();
+    manager.setExpressionHandler(methodSecurityExpressionHandler(context));
+    return AuthorizationManagerAfterMethodInterceptor.postAuthorize(manager);
+  }
+
+  /**
+   * Registers the {@code @PreFilter} method interceptor, evaluating SpEL as Spring would.
+   *
+   * @param context The application context, for bean references in expressions.
+   * @return The method interceptor advisor.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  static Advisor preFilterAuthorizationMethodInterceptor(ApplicationContext context) {
+    PreFilterAuthorizationMethodInterceptor interceptor =
+        new PreFilterAuthorizationMethodInterceptor();
+    interceptor.setExpressionHandler(methodSecurityExpressionHandler(context));
+    return interceptor;
+  }
+
+  /**
+   * Registers the {@code @PostFilter} method interceptor, evaluating SpEL as Spring would.
+   *
+   * @param context The application context, for bean references in expressions.
+   * @return The method interceptor advisor.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  static Advisor postFilterAuthorizationMethodInterceptor(ApplicationContext context) {
+    PostFilterAuthorizationMethodInterceptor interceptor =
+        new PostFilterAuthorizationMethodInterceptor();
+    interceptor.setExpressionHandler(methodSecurityExpressionHandler(context));
+    return interceptor;
+  }
+
+  private static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+      ApplicationContext context) {
+    DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+    handler.setApplicationContext(context);
+    return handler;
+  }
+
+  /**
+   * Stacks all {@link SecurityFilterChainInstrumentation} beans, in order, onto Spring Security's
+   * filter chain proxy. Without any, the proxy keeps its default filter chain.
+   *
+   * @param instrumentations Provides the instrumentation beans.
+   * @return The post-processor.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  static BeanPostProcessor securityFilterChainInstrumentation(
+      ObjectProvider<SecurityFilterChainInstrumentation> instrumentations) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof FilterChainProxy proxy) {
+          List<SecurityFilterChainInstrumentation> ordered =
+              instrumentations.orderedStream().toList();
+          if (!ordered.isEmpty()) {
+            FilterChainProxy.FilterChainDecorator decorator =
+                new FilterChainProxy.VirtualFilterChainDecorator();
+            for (int i = ordered.size() - 1; i >= 0; i--) {
+              decorator = ordered.get(i).decorate(decorator);
+            }
+            proxy.setFilterChainDecorator(decorator);
+          }
+        }
+        return bean;
+      }
+    };
+  }
+
   /**
    * Defines the main security filter chain for the application.
    *
@@ -38,33 +183,40 @@ public class SecurityConfig {
    *   <li>Disables CSRF protection as the API is stateless and relies on JWTs.
    *   <li>Configures authorization rules:
    *       <ul>
-   *         <li>Permits access to public API endpoints (`/api/v1/public/**`).
-   *         <li>Permits access to OpenAPI/Swagger UI endpoints.
+   *         <li>Permits access to the {@link #PUBLIC_PATHS}: public API endpoints
+   *             (`/api/v1/public/**`) and OpenAPI/Swagger UI endpoints.
    *         <li>Requires authentication for private API endpoints (`/api/v1/private/**`).
    *         <li>Requires authentication for any other request not explicitly matched.
    *       </ul>
-   *   <li>Enables OAuth 2.0 Resource Server support with JWT validation using default settings.
+   *   <li>Enables OAuth 2.0 Resource Server support with JWT validation using default settings;
+   *       claim mapping is traced as a {@code jwt.convert} span.
    *   <li>Sets session management to STATELESS, as JWTs handle session state.
+   *   <li>When UserInfo prefetch is enabled, adds the {@link UserInfoPrefetchFilter} right after
+   *       bearer token authentication.
+   *   <li>When auditing is enabled, adds the {@link AuditFilter} in front of bearer token
+   *       authentication.
    * </ul>
    *
    * @param http The {@link HttpSecurity} to configure.
+   * @param tracer Provides the tracer, if any.
+   * @param userInfoPrefetchFilter Provides the UserInfo prefetch filter, if any.
+   * @param auditFilter Provides the audit filter, if any.
    * @return The configured {@link SecurityFilterChain}.
    * @throws Exception If an error occurs during configuration.
    */
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(
+      HttpSecurity http,
+      ObjectProvider<Tracer> tracer,
+      ObjectProvider<UserInfoPrefetchFilter> userInfoPrefetchFilter,
+      ObjectProvider<AuditFilter> auditFilter)
+      throws Exception {
     http.csrf(AbstractHttpConfigurer::disable) // Disable CSRF for stateless API
         .httpBasic(AbstractHttpConfigurer::disable) // Disable HTTP Basic Auth
         .authorizeHttpRequests(
             authz ->
                 authz
-                    .requestMatchers(
-                        "/api/v1/public/**", // Public endpoints
-                        "/v3/api-docs/**", // OpenAPI spec
-                        "/swagger-ui/**", // Swagger UI webjar
-                        "/swagger-ui.html", // Swagger UI entry point
-                        "/error" // Permit default error handling path
-                        )
+                    .requestMatchers(PUBLIC_PATHS.toArray(String[]::new))
                     .permitAll()
                     .requestMatchers("/api/v1/private/**")
                     .authenticated() // Require authentication for private endpoints
@@ -75,76 +227,55 @@ public class SecurityConfig {
             oauth2 ->
                 oauth2.jwt(
                     jwt ->
+                        // Authenticates as a UserPrincipalAuthenticationToken
                         jwt.jwtAuthenticationConverter(
-                            jwtAuthenticationConverter()) // Use custom converter
-                    ))
+                            new TracedJwtAuthenticationConverter(
+                                userPrincipalConverter(), tracer.getIfAvailable(Tracer::noop)))))
         .sessionManagement(
             session ->
                 session.sessionCreationPolicy(
                     SessionCreationPolicy.STATELESS)); // Stateless sessions
+    userInfoPrefetchFilter.ifAvailable(
+        filter -> http.addFilterAfter(filter, BearerTokenAuthenticationFilter.class));
+    auditFilter.ifAvailable(
+        filter -> http.addFilterBefore(filter, BearerTokenAuthenticationFilter.class));
 
     return http.build();
   }
 
   /**
-   * Creates a custom {@link JwtAuthenticationConverter} to map JWT claims to Spring Security
-   * authorities.
+   * Creates the converter that maps a validated JWT to the request's authentication.
    *
-   * <p>This converter extracts authorities from a custom claim (e.g., Zitadel roles) and merges
-   * them with authorities derived from the standard 'scope' claim.
+   * <p>Authorities come from the standard 'scope' claim and from the custom Zitadel roles claim.
+   * The principal is a compact {@link UserPrincipal} projected once from the token, which
+   * controllers and services read instead of the JWT's claim map.
    *
-   * @return A configured {@link JwtAuthenticationConverter}.
+   * @return A configured {@link UserPrincipalConverter}.
    */
   @Bean
-  public JwtAuthenticationConverter jwtAuthenticationConverter() {
-    // Default converter for extracting SCOPE_ authorities
-    JwtGrantedAuthoritiesConverter scopeAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-
-    // Custom logic to extract roles from the Zitadel-specific complex claim structure
-    final String zitadelRolesClaim = "urn:zitadel:iam:org:project:roles";
-    final String authorityPrefix = "ROLE_";
-
-    JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-    converter.setJwtGrantedAuthoritiesConverter(
-        jwt -> {
-          // 1. Get standard SCOPE_ authorities
-          Collection<GrantedAuthority> scopeAuthorities = scopeAuthoritiesConverter.convert(jwt);
-
-          // 2. Extract roles from the custom Zitadel claim (which is a Map)
-          Collection<GrantedAuthority> roleAuthorities =
-              Optional.ofNullable(jwt.getClaimAsMap(zitadelRolesClaim)) // Get the claim as a Map
-                  .map(
-                      rolesMap ->
-                          rolesMap.keySet().stream() // Get the keys (role names like "admin")
-                              .<GrantedAuthority>map( // Explicitly type the map operation
-                                  role ->
-                                      new SimpleGrantedAuthority(
-                                          authorityPrefix
-                                              + role
-                                                  .toUpperCase())) // Prefix with ROLE_ and convert
-                              // role to uppercase
-                              .collect(Collectors.toSet())) // Collect to Set<GrantedAuthority>
-                  .orElse(
-                      Collections.emptySet()); // Return empty set if claim is missing or not a map
-
-          // 3. Combine scope and role authorities
-          return Stream.concat(scopeAuthorities.stream(), roleAuthorities.stream())
-              .collect(Collectors.toSet());
-        });
-
-    // Optional: If you want the user's name in the Principal to be something other than 'sub'
-    // converter.setPrincipalClaimName("preferred_username"); // Example
-
-    return converter;
+  public UserPrincipalConverter userPrincipalConverter() {
+    return new UserPrincipalConverter();
   }
 
   /**
-   * Creates a default WebClient bean for making HTTP requests.
+   * Creates a default WebClient bean for making HTTP requests. UserInfo responses are decoded by
+   * the streaming {@link UserInfoDecoder}. Outbound calls are traced and carry a W3C {@code
+   * traceparent} header when a tracer is available. When client credentials are configured,
+   * requests that name an audience with {@link ClientCredentialsExchangeFilter#audience(String)}
+   * are authenticated with the application's own token.
    *
+   * @param tracer Provides the tracer, if any.
+   * @param tokenManager Provides the client credentials token manager, if any.
    * @return A configured {@link WebClient} instance.
    */
   @Bean
-  public WebClient webClient() {
-    return WebClient.builder().build();
+  public WebClient webClient(
+      ObjectProvider<Tracer> tracer, ObjectProvider<ClientCredentialsTokenManager> tokenManager) {
+    WebClient.Builder builder =
+        WebClient.builder().codecs(codecs -> codecs.customCodecs().register(new UserInfoDecoder()));
+    tracer.ifAvailable(available -> builder.filter(new TracingExchangeFilter(available)));
+    tokenManager.ifAvailable(
+        available -> builder.filter(new ClientCredentialsExchangeFilter(available)));
+    return builder.build();
   }
 }
@@ -0,0 +1,49 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.metrics.SecurityFilterTimingDecorator;
+import ai.bluefields.oidcauthdemo.metrics.SecurityFilterTimings;
+import ai.bluefields.oidcauthdemo.security.SecurityFilterChainInstrumentation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Opt-in timing of each Spring Security filter. The timers sit innermost, around the individual
+ * filters, so they are not skewed by other filter chain instrumentation such as tracing.
+ */
+@Configuration
+@EnableConfigurationProperties(SecurityFilterTimingProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.security-filter-timing",
+    name = "enabled",
+    havingValue = "true")
+public class SecurityFilterTimingConfig {
+
+  /**
+   * Creates the per-filter timings.
+   *
+   * @return The timings.
+   */
+  @Bean
+  public SecurityFilterTimings securityFilterTimings() {
+    return new SecurityFilterTimings();
+  }
+
+  /**
+   * Wraps every security filter with a timer, classifying requests against {@link
+   * SecurityConfig#PUBLIC_PATHS}.
+   *
+   * @param securityFilterTimings Where timings are recorded.
+   * @return The filter chain instrumentation.
+   */
+  @Bean
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public SecurityFilterChainInstrumentation securityFilterTimingInstrumentation(
+      SecurityFilterTimings securityFilterTimings) {
+    return next ->
+        new SecurityFilterTimingDecorator(securityFilterTimings, SecurityConfig.PUBLIC_PATHS, next);
+  }
+}
@@ -0,0 +1,12 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for per-filter timing of the Spring Security filter chain.
+ *
+ * @param enabled Whether every security filter is wrapped with a timer. Off by default, as it adds
+ *     a small allocation per filter and request.
+ */
+@ConfigurationProperties(prefix = "authdemo.security-filter-timing")
+public record SecurityFilterTimingProperties(boolean enabled) {}
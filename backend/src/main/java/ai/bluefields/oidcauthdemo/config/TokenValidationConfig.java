@@ -0,0 +1,45 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.security.TokenBatchValidator;
+import ai.bluefields.oidcauthdemo.security.UserPrincipalConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Configures batch token validation for upstream gateways. The validator shares the resource
+ * server's {@link JwtDecoder}, so batches are verified against the same JWKS and validators as
+ * individual requests.
+ */
+@Configuration
+@EnableConfigurationProperties(TokenValidationProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.token-validation",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class TokenValidationConfig {
+
+  /**
+   * Creates the batch validator and its worker pool.
+   *
+   * @param jwtDecoder The resource server's decoder.
+   * @param userPrincipalConverter Maps validated tokens to authorities.
+   * @param properties Batch validation configuration.
+   * @return The validator.
+   */
+  @Bean
+  public TokenBatchValidator tokenBatchValidator(
+      JwtDecoder jwtDecoder,
+      UserPrincipalConverter userPrincipalConverter,
+      TokenValidationProperties properties) {
+    return new TokenBatchValidator(
+        jwtDecoder,
+        userPrincipalConverter,
+        properties.maxTokens(),
+        properties.maxTokenLength(),
+        properties.parallelism());
+  }
+}
@@ -0,0 +1,25 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the batch token validation endpoint.
+ *
+ * @param enabled Whether the endpoint is available.
+ * @param maxTokens Most tokens accepted in one batch; larger batches are rejected with 413.
+ * @param maxTokenLength Longest token, in characters, that is decoded; longer ones are reported
+ *     invalid without verifying them.
+ * @param parallelism Worker threads shared by all batches, in addition to the requesting thread.
+ */
+@ConfigurationProperties(prefix = "authdemo.token-validation")
+public record TokenValidationProperties(
+    boolean enabled, Integer maxTokens, Integer maxTokenLength, Integer parallelism) {
+
+  /** Applies defaults for any property that is not set. */
+  public TokenValidationProperties {
+    maxTokens = maxTokens != null ? maxTokens : 256;
+    maxTokenLength = maxTokenLength != null ? maxTokenLength : 8192;
+    parallelism =
+        parallelism != null ? parallelism : Runtime.getRuntime().availableProcessors() - 1;
+  }
+}
@@ -0,0 +1,91 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.security.SecurityFilterChainInstrumentation;
+import ai.bluefields.oidcauthdemo.tracing.FileSpanExporter;
+import ai.bluefields.oidcauthdemo.tracing.SpanExporter;
+import ai.bluefields.oidcauthdemo.tracing.Tracer;
+import ai.bluefields.oidcauthdemo.tracing.TracingFilter;
+import ai.bluefields.oidcauthdemo.tracing.TracingFilterChainDecorator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Configures request tracing. The {@link Tracer} bean always exists so that instrumented components
+ * need no conditionals; with tracing disabled it never samples and no filter is registered. The
+ * tracing filter runs right after the deadline filter, so the root span covers Spring Security and
+ * the handler.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+  /**
+   * Creates the span exporter.
+   *
+   * @param properties Tracing configuration.
+   * @return A started {@link FileSpanExporter}, or {@link SpanExporter#NONE}.
+   */
+  @Bean
+  public SpanExporter spanExporter(TracingProperties properties) {
+    if (!properties.enabled() || properties.exporter() != TracingProperties.Exporter.FILE) {
+      return SpanExporter.NONE;
+    }
+    FileSpanExporter exporter = new FileSpanExporter(properties.file(), properties.queueCapacity());
+    exporter.start();
+    return exporter;
+  }
+
+  /**
+   * Creates the tracer.
+   *
+   * @param properties Tracing configuration.
+   * @param spanExporter Destination for finished spans.
+   * @return The tracer, never sampling when tracing is disabled.
+   */
+  @Bean
+  public Tracer tracer(TracingProperties properties, SpanExporter spanExporter) {
+    return new Tracer(properties.enabled() ? properties.samplingProbability() : 0, spanExporter);
+  }
+
+  /**
+   * Registers the filter starting each request's root span.
+   *
+   * @param tracer The tracer.
+   * @return The filter registration.
+   */
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "authdemo.tracing",
+      name = "enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+    FilterRegistrationBean<TracingFilter> registration =
+        new FilterRegistrationBean<>(new TracingFilter(tracer));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+    return registration;
+  }
+
+  /**
+   * Traces Spring Security's filter chain with a {@link TracingFilterChainDecorator}. It is the
+   * outermost instrumentation, so the span includes any other filter chain instrumentation.
+   *
+   * @param tracer The tracer.
+   * @return The filter chain instrumentation.
+   */
+  @Bean
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @ConditionalOnProperty(
+      prefix = "authdemo.tracing",
+      name = "enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public SecurityFilterChainInstrumentation tracingFilterChainInstrumentation(Tracer tracer) {
+    return next -> new TracingFilterChainDecorator(tracer, next);
+  }
+}
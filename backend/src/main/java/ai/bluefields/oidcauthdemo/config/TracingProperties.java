@@ -0,0 +1,39 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for request tracing.
+ *
+ * @param enabled Whether requests are traced at all.
+ * @param samplingProbability Initial probability that a request without a sampled {@code
+ *     traceparent} is traced; can be changed at runtime through the admin API.
+ * @param exporter Where finished spans go.
+ * @param file File spans are appended to when {@code exporter} is {@code FILE}.
+ * @param queueCapacity Spans buffered for the exporter before new ones are dropped.
+ */
+@ConfigurationProperties(prefix = "authdemo.tracing")
+public record TracingProperties(
+    boolean enabled,
+    Double samplingProbability,
+    Exporter exporter,
+    Path file,
+    Integer queueCapacity) {
+
+  /** Span destinations. */
+  public enum Exporter {
+    /** OTLP-shaped JSON lines appended to a local file. */
+    FILE,
+    /** Spans are counted but discarded. */
+    NONE
+  }
+
+  /** Applies defaults for any property that is not set. */
+  public TracingProperties {
+    samplingProbability = samplingProbability != null ? samplingProbability : 0.01;
+    exporter = exporter != null ? exporter : Exporter.FILE;
+    file = file != null ? file : Path.of("var", "traces.jsonl");
+    queueCapacity = queueCapacity != null ? queueCapacity : 2048;
+  }
+}
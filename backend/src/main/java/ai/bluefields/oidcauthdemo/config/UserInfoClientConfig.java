@@ -0,0 +1,39 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Configures how the application calls the identity provider's UserInfo endpoint. */
+@Configuration
+@EnableConfigurationProperties({UserInfoLimitProperties.class, UserInfoHedgeProperties.class})
+public class UserInfoClientConfig {
+
+  /**
+   * Creates the adaptive concurrency limit shared by all UserInfo calls.
+   *
+   * @param properties Limit configuration.
+   * @return The limiter.
+   */
+  @Bean
+  public AdaptiveConcurrencyLimiter userInfoLimiter(UserInfoLimitProperties properties) {
+    return new AdaptiveConcurrencyLimiter(properties);
+  }
+
+  /**
+   * Creates the hedger for UserInfo calls and, when hedging is enabled, starts its delay refresh.
+   *
+   * @param properties Hedging configuration.
+   * @return The hedger.
+   */
+  @Bean
+  public RequestHedger userInfoHedger(UserInfoHedgeProperties properties) {
+    RequestHedger hedger = new RequestHedger(properties);
+    if (properties.enabled()) {
+      hedger.start();
+    }
+    return hedger;
+  }
+}
@@ -0,0 +1,36 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for hedged UserInfo calls.
+ *
+ * @param enabled Whether a second UserInfo call is fired when the first one is slow.
+ * @param percentile Latency percentile of recent UserInfo calls after which a hedge is fired.
+ * @param minDelay Lower bound on the hedge delay.
+ * @param maxDelay Upper bound on the hedge delay, also used until enough calls have been observed.
+ * @param budgetPercent Hedges allowed as a percentage of UserInfo calls.
+ * @param refreshInterval Interval at which the hedge delay is recomputed from recent latencies.
+ * @param minSamples Calls needed in an interval before its percentile replaces the current delay.
+ */
+@ConfigurationProperties(prefix = "authdemo.userinfo-hedge")
+public record UserInfoHedgeProperties(
+    boolean enabled,
+    Double percentile,
+    Duration minDelay,
+    Duration maxDelay,
+    Double budgetPercent,
+    Duration refreshInterval,
+    Integer minSamples) {
+
+  /** Applies defaults for any property that is not set. */
+  public UserInfoHedgeProperties {
+    percentile = percentile != null ? percentile : 95.0;
+    minDelay = minDelay != null ? minDelay : Duration.ofMillis(10);
+    maxDelay = maxDelay != null ? maxDelay : Duration.ofSeconds(1);
+    budgetPercent = budgetPercent != null ? budgetPercent : 5.0;
+    refreshInterval = refreshInterval != null ? refreshInterval : Duration.ofSeconds(10);
+    minSamples = minSamples != null ? minSamples : 50;
+  }
+}
@@ -0,0 +1,41 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the adaptive concurrency limit on UserInfo calls to the identity provider.
+ *
+ * <p>Setting {@code min-limit}, {@code max-limit} and {@code initial-limit} to the same value gives
+ * a fixed limit.
+ *
+ * @param initialLimit Limit used until enough round trips have been observed.
+ * @param minLimit Lowest the limit may fall to.
+ * @param maxLimit Highest the limit may grow to.
+ * @param smoothing Weight of each new estimate in the limit, between 0 and 1.
+ * @param rttTolerance How many times the minimum round trip a call may take before the limit starts
+ *     to shrink; absorbs normal jitter.
+ * @param backoffRatio Factor the limit is multiplied by when a call fails or is rejected upstream.
+ * @param minRttWindow How long the observed minimum round trip is kept before being re-measured.
+ */
+@ConfigurationProperties(prefix = "authdemo.userinfo-limit")
+public record UserInfoLimitProperties(
+    Integer initialLimit,
+    Integer minLimit,
+    Integer maxLimit,
+    Double smoothing,
+    Double rttTolerance,
+    Double backoffRatio,
+    Duration minRttWindow) {
+
+  /** Applies defaults for any property that is not set. */
+  public UserInfoLimitProperties {
+    initialLimit = initialLimit != null ? initialLimit : 20;
+    minLimit = minLimit != null ? minLimit : 1;
+    maxLimit = maxLimit != null ? maxLimit : 200;
+    smoothing = smoothing != null ? smoothing : 0.2;
+    rttTolerance = rttTolerance != null ? rttTolerance : 2.0;
+    backoffRatio = backoffRatio != null ? backoffRatio : 0.9;
+    minRttWindow = minRttWindow != null ? minRttWindow : Duration.ofSeconds(30);
+  }
+}
@@ -0,0 +1,51 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.prefetch.UserInfoPrefetchFilter;
+import ai.bluefields.oidcauthdemo.service.PrivateInfoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in speculative UserInfo prefetch. {@link SecurityConfig} places the filter right after bearer
+ * token authentication, so it must not also run as a servlet filter of its own.
+ */
+@Configuration
+@EnableConfigurationProperties(UserInfoPrefetchProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.userinfo-prefetch",
+    name = "enabled",
+    havingValue = "true")
+public class UserInfoPrefetchConfig {
+
+  /**
+   * Creates the prefetch filter.
+   *
+   * @param privateInfoService Builds the UserInfo call.
+   * @param properties Prefetch configuration.
+   * @return The filter.
+   */
+  @Bean
+  public UserInfoPrefetchFilter userInfoPrefetchFilter(
+      PrivateInfoService privateInfoService, UserInfoPrefetchProperties properties) {
+    return new UserInfoPrefetchFilter(privateInfoService, properties.paths());
+  }
+
+  /**
+   * Keeps Spring Boot from registering the prefetch filter with the servlet container, where it
+   * would run before authentication.
+   *
+   * @param userInfoPrefetchFilter The prefetch filter.
+   * @return The disabled registration.
+   */
+  @Bean
+  public FilterRegistrationBean<UserInfoPrefetchFilter> userInfoPrefetchFilterRegistration(
+      UserInfoPrefetchFilter userInfoPrefetchFilter) {
+    FilterRegistrationBean<UserInfoPrefetchFilter> registration =
+        new FilterRegistrationBean<>(userInfoPrefetchFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
+}
@@ -0,0 +1,21 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for speculative UserInfo prefetch.
+ *
+ * @param enabled Whether UserInfo is fetched as soon as the bearer token is verified, overlapped
+ *     with authorization. Off by default: requests that then fail authorization still cost a
+ *     (cancelled) call to the identity provider.
+ * @param paths Ant-style patterns of the routes whose handlers call UserInfo.
+ */
+@ConfigurationProperties(prefix = "authdemo.userinfo-prefetch")
+public record UserInfoPrefetchProperties(boolean enabled, List<String> paths) {
+
+  /** Applies defaults for any property that is not set. */
+  public UserInfoPrefetchProperties {
+    paths = paths != null ? paths : List.of("/api/v1/private/info");
+  }
+}
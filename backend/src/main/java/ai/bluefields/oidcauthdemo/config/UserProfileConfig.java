@@ -0,0 +1,55 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.UserProfileCache;
+import ai.bluefields.oidcauthdemo.service.UserProfileService;
+import java.time.Clock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Configures the bulk user profile lookup. Lookups use the application's {@link WebClient} and the
+ * UserInfo concurrency limit from {@link UserInfoClientConfig}, so they share the identity
+ * provider's capacity with UserInfo calls rather than adding to it.
+ */
+@Configuration
+@EnableConfigurationProperties(UserProfileProperties.class)
+@ConditionalOnProperty(
+    prefix = "authdemo.user-profiles",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class UserProfileConfig {
+
+  /**
+   * Creates the cache of fetched profiles.
+   *
+   * @param properties Lookup configuration.
+   * @return The cache.
+   */
+  @Bean
+  public UserProfileCache userProfileCache(UserProfileProperties properties) {
+    return new UserProfileCache(properties.cacheTtl(), properties.cacheSize(), Clock.systemUTC());
+  }
+
+  /**
+   * Creates the lookup service.
+   *
+   * @param webClient The application's WebClient.
+   * @param userInfoLimiter The concurrency limit shared with UserInfo calls.
+   * @param userProfileCache The cache of fetched profiles.
+   * @param properties Lookup configuration.
+   * @return The service.
+   */
+  @Bean
+  public UserProfileService userProfileService(
+      WebClient webClient,
+      AdaptiveConcurrencyLimiter userInfoLimiter,
+      UserProfileCache userProfileCache,
+      UserProfileProperties properties) {
+    return new UserProfileService(webClient, userInfoLimiter, userProfileCache, properties);
+  }
+}
@@ -0,0 +1,34 @@
+package ai.bluefields.oidcauthdemo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the bulk user profile lookup endpoint.
+ *
+ * @param enabled Whether the endpoint is available.
+ * @param userPath Path of the identity provider's user-by-id endpoint below the issuer URI, with
+ *     {@code {subject}} in place of the user id. The default is Zitadel's user service.
+ * @param maxSubjects Most subjects accepted in one request; larger requests are rejected with 413.
+ * @param concurrency Most identity provider calls one request has in flight at a time.
+ * @param cacheTtl How long a fetched profile is reused before it is fetched again.
+ * @param cacheSize Most profiles held in the cache.
+ */
+@ConfigurationProperties(prefix = "authdemo.user-profiles")
+public record UserProfileProperties(
+    boolean enabled,
+    String userPath,
+    Integer maxSubjects,
+    Integer concurrency,
+    Duration cacheTtl,
+    Integer cacheSize) {
+
+  /** Applies defaults for any property that is not set. */
+  public UserProfileProperties {
+    userPath = userPath != null ? userPath : "/v2/users/{subject}";
+    maxSubjects = maxSubjects != null ? maxSubjects : 100;
+    concurrency = concurrency != null ? concurrency : 8;
+    cacheTtl = cacheTtl != null ? cacheTtl : Duration.ofMinutes(5);
+    cacheSize = cacheSize != null ? cacheSize : 10_000;
+  }
+}
@@ -0,0 +1,53 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.audit.AuditLog;
+import ai.bluefields.oidcauthdemo.dto.AuditStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Admin API exposing the audit log's counters. Only present while auditing is enabled. */
+@RestController
+@ConditionalOnProperty(
+    prefix = "authdemo.audit",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@RequestMapping("/api/v1/admin/audit")
+@Tag(name = "Admin API", description = "Endpoints requiring ROLE_ADMIN")
+@SecurityRequirement(name = "bearerAuth")
+public class AuditController {
+
+  private final AuditLog auditLog;
+
+  /**
+   * Constructs the controller with the audit log it reports on.
+   *
+   * @param auditLog The audit log.
+   */
+  public AuditController(AuditLog auditLog) {
+    this.auditLog = auditLog;
+  }
+
+  /**
+   * Returns how many audit records were written, dropped and lost, and the current segment.
+   *
+   * @return The audit log statistics.
+   */
+  @GetMapping(path = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "Audit log statistics",
+      description =
+          "Written, dropped and lost audit record counts and the current segment file. Requires"
+              + " ROLE_ADMIN.")
+  public AuditStats getStats() {
+    return auditLog.stats();
+  }
+}
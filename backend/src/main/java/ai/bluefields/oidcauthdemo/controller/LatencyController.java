@@ -0,0 +1,53 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.dto.RouteLatency;
+import ai.bluefields.oidcauthdemo.metrics.RouteLatencyRecorder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Admin API exposing per-route tail latency. Only present while latency recording is enabled. */
+@RestController
+@ConditionalOnProperty(
+    prefix = "authdemo.latency",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@RequestMapping("/api/v1/admin/latency")
+@Tag(name = "Admin API", description = "Endpoints requiring ROLE_ADMIN")
+@SecurityRequirement(name = "bearerAuth")
+public class LatencyController {
+
+  private final RouteLatencyRecorder routeLatencyRecorder;
+
+  /**
+   * Constructs the controller with the recorder it reports from.
+   *
+   * @param routeLatencyRecorder The latency recorder.
+   */
+  public LatencyController(RouteLatencyRecorder routeLatencyRecorder) {
+    this.routeLatencyRecorder = routeLatencyRecorder;
+  }
+
+  /**
+   * Returns p50/p90/p99/p99.9/max latency per route, method and status class for the last 1, 5 and
+   * 15 minutes.
+   *
+   * @return The latency report.
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "Route latency percentiles",
+      description = "Per-route latency percentiles over 1m/5m/15m windows. Requires ROLE_ADMIN.")
+  public List<RouteLatency> getLatency() {
+    return routeLatencyRecorder.report();
+  }
+}
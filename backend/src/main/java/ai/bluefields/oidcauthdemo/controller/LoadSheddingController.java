@@ -0,0 +1,54 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.admission.LoadShedder;
+import ai.bluefields.oidcauthdemo.dto.LoadSheddingStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Admin API exposing inbound load shedding. Only present while load shedding is enabled. */
+@RestController
+@ConditionalOnProperty(
+    prefix = "authdemo.load-shedding",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@RequestMapping("/api/v1/admin/load-shedding")
+@Tag(name = "Admin API", description = "Endpoints requiring ROLE_ADMIN")
+@SecurityRequirement(name = "bearerAuth")
+public class LoadSheddingController {
+
+  private final LoadShedder loadShedder;
+
+  /**
+   * Constructs the controller with the shedder it reports on.
+   *
+   * @param loadShedder The load shedder.
+   */
+  public LoadSheddingController(LoadShedder loadShedder) {
+    this.loadShedder = loadShedder;
+  }
+
+  /**
+   * Returns the requests in flight, the smoothed latency and the admitted and shed counts per
+   * priority tier.
+   *
+   * @return The load shedding statistics.
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "Load shedding statistics",
+      description =
+          "Requests in flight, smoothed latency and admitted/shed counts per priority tier."
+              + " Requires ROLE_ADMIN.")
+  public LoadSheddingStats getStats() {
+    return loadShedder.stats();
+  }
+}
@@ -1,6 +1,8 @@
 package ai.bluefields.oidcauthdemo.controller;
 
+import ai.bluefields.oidcauthdemo.config.BinaryFormatConfig;
 import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
 import ai.bluefields.oidcauthdemo.service.PrivateInfoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -43,12 +45,16 @@ public class PrivateInfoController {
    * Retrieves private information for the authenticated user. Requires the user to have the
    * 'ROLE_AUTH_USER' authority.
    *
-   * @param jwt The JWT representing the authenticated user, injected by Spring Security.
-   * @param authentication The full Authentication object containing authorities.
-   * @param authentication The full Authentication object containing authorities.
+   * @param authentication The authentication of the caller, carrying its {@link UserPrincipal}.
    * @return A {@link PrivateInfoResponse} containing a message and the user's email.
    */
-  @GetMapping(value = "/info", produces = MediaType.APPLICATION_JSON_VALUE) // Add produces
+  @GetMapping(
+      value = "/info",
+      produces = {
+        MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE,
+        BinaryFormatConfig.SMILE_VALUE
+      })
   @PreAuthorize("hasAuthority('ROLE_ADMIN')") // Match authority generated from "admin" role
   @Operation(
       summary = "Get Private Information",
@@ -63,11 +69,11 @@ public class PrivateInfoController {
             responseCode = "403",
             description = "Forbidden - User lacks ROLE_ADMIN authority") // Update description
       })
-  public Mono<PrivateInfoResponse> getPrivateInfo(
-      Authentication authentication) { // Remove @AuthenticationPrincipal Jwt jwt
-
-    // Debug logging removed
-
-    return privateInfoService.getInfo(authentication); // Pass Authentication object
+  public Mono<PrivateInfoResponse> getPrivateInfo(Authentication authentication) {
+    return UserPrincipal.from(authentication)
+        .map(privateInfoService::getInfo)
+        .orElseGet(
+            () ->
+                Mono.error(new IllegalArgumentException("Authentication must be based on a JWT")));
   }
 }
@@ -0,0 +1,57 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.dto.RevocationRequest;
+import ai.bluefields.oidcauthdemo.dto.RevocationResponse;
+import ai.bluefields.oidcauthdemo.security.TokenRevocationList;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Admin API for revoking access tokens before they expire. */
+@RestController
+@RequestMapping("/api/v1/admin/revocations")
+@Tag(name = "Admin API", description = "Endpoints requiring ROLE_ADMIN")
+@SecurityRequirement(name = "bearerAuth")
+public class RevocationController {
+
+  private final TokenRevocationList tokenRevocationList;
+
+  /**
+   * Constructs the controller with the denylist it updates.
+   *
+   * @param tokenRevocationList The token denylist.
+   */
+  public RevocationController(TokenRevocationList tokenRevocationList) {
+    this.tokenRevocationList = tokenRevocationList;
+  }
+
+  /**
+   * Adds a batch of tokens to the revocation denylist. Each revocation lasts until the token's own
+   * {@code exp}.
+   *
+   * @param request The tokens to revoke.
+   * @return How many tokens were accepted and how many revocations are now active.
+   */
+  @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "Revoke tokens",
+      description = "Adds tokens (by jti and exp) to the revocation denylist. Requires ROLE_ADMIN.")
+  public RevocationResponse revoke(@RequestBody RevocationRequest request) {
+    List<TokenRevocationList.Entry> entries =
+        request.tokens() == null
+            ? List.of()
+            : request.tokens().stream()
+                .map(token -> new TokenRevocationList.Entry(token.jti(), token.exp()))
+                .toList();
+    int accepted = tokenRevocationList.revokeAll(entries);
+    return new RevocationResponse(accepted, tokenRevocationList.size());
+  }
+}
@@ -0,0 +1,58 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.dto.FilterTiming;
+import ai.bluefields.oidcauthdemo.metrics.SecurityFilterTimings;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin API exposing per-filter timings of the Spring Security filter chain. Only present while
+ * security filter timing is enabled.
+ */
+@RestController
+@ConditionalOnProperty(
+    prefix = "authdemo.security-filter-timing",
+    name = "enabled",
+    havingValue = "true")
+@RequestMapping("/api/v1/admin/security-filters")
+@Tag(name = "Admin API", description = "Endpoints requiring ROLE_ADMIN")
+@SecurityRequirement(name = "bearerAuth")
+public class SecurityFilterTimingController {
+
+  private final SecurityFilterTimings securityFilterTimings;
+
+  /**
+   * Constructs the controller with the timings it reports from.
+   *
+   * @param securityFilterTimings The per-filter timings.
+   */
+  public SecurityFilterTimingController(SecurityFilterTimings securityFilterTimings) {
+    this.securityFilterTimings = securityFilterTimings;
+  }
+
+  /**
+   * Returns cumulative and percentile self time of each security filter, split into {@code
+   * permitAll} and other routes, and flags filters that look removable for {@code permitAll}
+   * routes.
+   *
+   * @return The filter timings in chain order.
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "Security filter timings",
+      description =
+          "Per-filter self time (total, mean, p50, p99, max) for permitAll and other routes, with"
+              + " a hint which filters permitAll routes could skip. Requires ROLE_ADMIN.")
+  public List<FilterTiming> getTimings() {
+    return securityFilterTimings.report();
+  }
+}
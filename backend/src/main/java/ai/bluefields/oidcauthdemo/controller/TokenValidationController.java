@@ -0,0 +1,61 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.dto.TokenValidationRequest;
+import ai.bluefields.oidcauthdemo.dto.TokenValidationResponse;
+import ai.bluefields.oidcauthdemo.security.TokenBatchValidator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Internal API that lets an upstream gateway validate many bearer tokens in one call. Only present
+ * while batch token validation is enabled.
+ */
+@RestController
+@ConditionalOnProperty(
+    prefix = "authdemo.token-validation",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@RequestMapping("/api/v1/internal/tokens")
+@Tag(name = "Internal API", description = "Endpoints for trusted upstream services")
+@SecurityRequirement(name = "bearerAuth")
+public class TokenValidationController {
+
+  private final TokenBatchValidator tokenBatchValidator;
+
+  /**
+   * Constructs the controller with the validator it delegates to.
+   *
+   * @param tokenBatchValidator The batch validator.
+   */
+  public TokenValidationController(TokenBatchValidator tokenBatchValidator) {
+    this.tokenBatchValidator = tokenBatchValidator;
+  }
+
+  /**
+   * Validates a batch of bearer tokens.
+   *
+   * @param request The tokens to validate.
+   * @return Validity, subject, expiry and authorities for each token, in request order.
+   */
+  @PostMapping(path = "/validate", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAnyRole('GATEWAY', 'ADMIN')")
+  @Operation(
+      summary = "Validate tokens",
+      description =
+          "Validates a batch of bearer tokens as this resource server would and returns validity,"
+              + " sub, exp and authorities for each. Requires ROLE_GATEWAY or ROLE_ADMIN.")
+  public TokenValidationResponse validate(@RequestBody TokenValidationRequest request) {
+    List<String> tokens = request.tokens() == null ? List.of() : request.tokens();
+    return new TokenValidationResponse(tokenBatchValidator.validate(tokens));
+  }
+}
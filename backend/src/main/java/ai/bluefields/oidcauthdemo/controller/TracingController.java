@@ -0,0 +1,67 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.dto.SamplingUpdate;
+import ai.bluefields.oidcauthdemo.dto.TracingStats;
+import ai.bluefields.oidcauthdemo.tracing.Tracer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Admin API for inspecting request tracing and adjusting its sampling rate at runtime. */
+@RestController
+@RequestMapping("/api/v1/admin/tracing")
+@Tag(name = "Admin API", description = "Endpoints requiring ROLE_ADMIN")
+@SecurityRequirement(name = "bearerAuth")
+public class TracingController {
+
+  private final Tracer tracer;
+
+  /**
+   * Constructs the controller with the tracer it manages.
+   *
+   * @param tracer The request tracer.
+   */
+  public TracingController(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  /**
+   * Returns the current sampling probability and span counters.
+   *
+   * @return The tracing statistics.
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "Tracing statistics",
+      description =
+          "Sampling probability and sampled/exported/dropped span counts. Requires"
+              + " ROLE_ADMIN.")
+  public TracingStats getStats() {
+    return tracer.stats();
+  }
+
+  /**
+   * Changes the probability that new requests are traced.
+   *
+   * @param update The new sampling probability.
+   * @return The tracing statistics after the change.
+   */
+  @PutMapping(path = "/sampling", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "Set trace sampling",
+      description =
+          "Sets the probability (0 to 1) that new requests are traced. Requires" + " ROLE_ADMIN.")
+  public TracingStats setSampling(@RequestBody SamplingUpdate update) {
+    tracer.setSamplingProbability(update.probability());
+    return tracer.stats();
+  }
+}
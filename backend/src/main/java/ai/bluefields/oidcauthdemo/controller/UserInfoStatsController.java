@@ -0,0 +1,53 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import ai.bluefields.oidcauthdemo.dto.UserInfoStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Admin API exposing the state of UserInfo egress to the identity provider. */
+@RestController
+@RequestMapping("/api/v1/admin/userinfo")
+@Tag(name = "Admin API", description = "Endpoints requiring ROLE_ADMIN")
+@SecurityRequirement(name = "bearerAuth")
+public class UserInfoStatsController {
+
+  private final AdaptiveConcurrencyLimiter userInfoLimiter;
+  private final RequestHedger userInfoHedger;
+
+  /**
+   * Constructs the controller with the components it reports on.
+   *
+   * @param userInfoLimiter The UserInfo concurrency limiter.
+   * @param userInfoHedger The UserInfo hedger.
+   */
+  public UserInfoStatsController(
+      AdaptiveConcurrencyLimiter userInfoLimiter, RequestHedger userInfoHedger) {
+    this.userInfoLimiter = userInfoLimiter;
+    this.userInfoHedger = userInfoHedger;
+  }
+
+  /**
+   * Returns the current UserInfo concurrency limit with its accept/shed counters, and the hedge
+   * rate and win counts.
+   *
+   * @return The UserInfo egress statistics.
+   */
+  @GetMapping(path = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "UserInfo egress statistics",
+      description =
+          "Concurrency limit, shed counts and hedging counters for UserInfo calls. Requires"
+              + " ROLE_ADMIN.")
+  public UserInfoStats getStats() {
+    return new UserInfoStats(userInfoLimiter.stats(), userInfoHedger.stats());
+  }
+}
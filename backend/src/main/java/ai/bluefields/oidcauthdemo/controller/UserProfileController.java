@@ -0,0 +1,83 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import ai.bluefields.oidcauthdemo.dto.UserProfileRequest;
+import ai.bluefields.oidcauthdemo.dto.UserProfileResult;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.service.UserProfileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Looks up the profiles of many users in one request, next to {@link PrivateInfoController}'s
+ * lookup of the caller's own. Only present while the bulk lookup is enabled.
+ */
+@RestController
+@ConditionalOnProperty(
+    prefix = "authdemo.user-profiles",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@RequestMapping("/api/v1/private")
+@Tag(name = "Private Info API", description = "Endpoints requiring authentication")
+@SecurityRequirement(name = "bearerAuth")
+public class UserProfileController {
+
+  private final UserProfileService userProfileService;
+
+  /**
+   * Constructs the controller with the service it delegates to.
+   *
+   * @param userProfileService The lookup service.
+   */
+  public UserProfileController(UserProfileService userProfileService) {
+    this.userProfileService = userProfileService;
+  }
+
+  /**
+   * Looks up user profiles and streams the results as newline-delimited JSON, each as soon as it is
+   * available.
+   *
+   * @param request The subjects to look up.
+   * @param authentication The authentication of the caller, carrying its {@link UserPrincipal}.
+   * @return One result per distinct subject, in completion order.
+   */
+  @PostMapping(path = "/profiles", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @Operation(
+      summary = "Look up user profiles",
+      description =
+          "Returns email and name for each requested subject as newline-delimited JSON, in the"
+              + " order the lookups complete. A subject that cannot be resolved gets an ApiError"
+              + " in its line. Requires ROLE_ADMIN.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Results streamed"),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - JWT token missing or invalid"),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - User lacks ROLE_ADMIN authority"),
+        @ApiResponse(responseCode = "413", description = "Too many subjects in one request")
+      })
+  public Flux<UserProfileResult> lookup(
+      @RequestBody UserProfileRequest request, Authentication authentication) {
+    List<String> subjects = request.subjects() == null ? List.of() : request.subjects();
+    return UserPrincipal.from(authentication)
+        .map(principal -> userProfileService.lookup(principal, subjects))
+        .orElseGet(
+            () ->
+                Flux.error(new IllegalArgumentException("Authentication must be based on a JWT")));
+  }
+}
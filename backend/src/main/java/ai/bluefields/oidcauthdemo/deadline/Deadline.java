@@ -0,0 +1,64 @@
+package ai.bluefields.oidcauthdemo.deadline;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Point in time by which the response to an inbound request is needed, measured on the monotonic
+ * clock.
+ *
+ * <p>{@link DeadlineFilter} attaches one to every request as a request attribute. Reactive code
+ * cannot rely on the request thread, so services copy it into the Reactor context under the {@code
+ * Deadline.class} key and read it from there when making outbound calls.
+ *
+ * @param expiresAtNanos The {@link System#nanoTime()} value at which the deadline expires.
+ */
+public record Deadline(long expiresAtNanos) {
+
+  /** Request attribute under which the deadline of the current request is stored. */
+  public static final String ATTRIBUTE = Deadline.class.getName();
+
+  /**
+   * Creates a deadline the given time from now.
+   *
+   * @param timeout Time until the deadline.
+   * @return The deadline.
+   */
+  public static Deadline after(Duration timeout) {
+    return new Deadline(System.nanoTime() + timeout.toNanos());
+  }
+
+  /**
+   * Returns the deadline of the request bound to the current thread, if any.
+   *
+   * @return The current request's deadline, or empty outside a request or when none was set.
+   */
+  public static Optional<Deadline> current() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(
+        (Deadline) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+  }
+
+  /**
+   * Returns the time left until the deadline.
+   *
+   * @return The remaining time, never negative.
+   */
+  public Duration remaining() {
+    return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+  }
+
+  /**
+   * Returns whether the deadline has passed.
+   *
+   * @return {@code true} if no time is left.
+   */
+  public boolean isExpired() {
+    return expiresAtNanos - System.nanoTime() <= 0;
+  }
+}
@@ -0,0 +1,75 @@
+package ai.bluefields.oidcauthdemo.deadline;
+
+import ai.bluefields.oidcauthdemo.config.DeadlineProperties;
+import ai.bluefields.oidcauthdemo.exception.ApiError;
+import ai.bluefields.oidcauthdemo.exception.ApiErrorWriter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Servlet filter that gives every inbound request a {@link Deadline}.
+ *
+ * <p>The timeout comes from the configured header when the client sends a valid one (capped at
+ * {@code maxTimeout}) and from {@code defaultTimeout} otherwise. A request whose timeout is already
+ * used up is answered with 504 in {@link ApiError} format before authentication or any other work
+ * is done.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+  private final DeadlineProperties properties;
+  private final ApiErrorWriter apiErrorWriter;
+
+  /**
+   * Creates the filter.
+   *
+   * @param properties Deadline configuration.
+   * @param apiErrorWriter Writer for the 504 response body.
+   */
+  public DeadlineFilter(DeadlineProperties properties, ApiErrorWriter apiErrorWriter) {
+    this.properties = properties;
+    this.apiErrorWriter = apiErrorWriter;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Duration timeout = timeout(request.getHeader(properties.header()));
+    if (timeout.isZero() || timeout.isNegative()) {
+      reject(request, response);
+      return;
+    }
+    request.setAttribute(Deadline.ATTRIBUTE, Deadline.after(timeout));
+    filterChain.doFilter(request, response);
+  }
+
+  private Duration timeout(String header) {
+    if (header == null) {
+      return properties.defaultTimeout();
+    }
+    try {
+      Duration requested = Duration.ofMillis(Long.parseLong(header.trim()));
+      return requested.compareTo(properties.maxTimeout()) > 0 ? properties.maxTimeout() : requested;
+    } catch (NumberFormatException e) {
+      return properties.defaultTimeout();
+    }
+  }
+
+  private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    ApiError apiError =
+        new ApiError(
+            "https://api.bluefields.ai/errors/deadline-exceeded",
+            "Gateway Timeout",
+            HttpStatus.GATEWAY_TIMEOUT.value(),
+            "The request deadline had already expired when it was received",
+            Instant.now());
+    apiErrorWriter.write(request, response, HttpStatus.GATEWAY_TIMEOUT, apiError);
+  }
+}
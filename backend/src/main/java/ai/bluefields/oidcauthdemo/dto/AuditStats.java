@@ -0,0 +1,12 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Counters of the audit log. Data Transfer Object (DTO).
+ *
+ * @param written Records written to segment files since startup.
+ * @param dropped Records dropped because the buffer was full.
+ * @param writeFailures Records lost because a segment could not be created or written.
+ * @param segment File name of the segment currently written to, or {@code null} before the first
+ *     record.
+ */
+public record AuditStats(long written, long dropped, long writeFailures, String segment) {}
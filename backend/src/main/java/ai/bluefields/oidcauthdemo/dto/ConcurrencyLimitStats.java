@@ -0,0 +1,14 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * State of an adaptive concurrency limit. Data Transfer Object (DTO).
+ *
+ * @param limit Number of calls currently allowed in flight.
+ * @param inFlight Number of calls currently in flight.
+ * @param minRttMillis Minimum round trip observed in the current window, in milliseconds.
+ * @param accepted Calls admitted since startup.
+ * @param shed Calls rejected at the limit since startup.
+ * @param dropped Admitted calls that failed in a way that backed off the limit.
+ */
+public record ConcurrencyLimitStats(
+    int limit, int inFlight, double minRttMillis, long accepted, long shed, long dropped) {}
@@ -0,0 +1,18 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Timings of one filter in the Spring Security filter chain. Data Transfer Object (DTO).
+ *
+ * @param position Position of the filter in the chain, starting at 0.
+ * @param filter Simple class name of the filter.
+ * @param permitAll Timings for requests to {@code permitAll} routes.
+ * @param authenticated Timings for all other requests.
+ * @param skippableForPermitAll Whether the filter looks safe to drop for {@code permitAll} routes:
+ *     it has seen such requests, never answered one itself and does not write response headers.
+ */
+public record FilterTiming(
+    int position,
+    String filter,
+    FilterTimingStats permitAll,
+    FilterTimingStats authenticated,
+    boolean skippableForPermitAll) {}
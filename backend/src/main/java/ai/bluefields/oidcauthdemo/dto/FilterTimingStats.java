@@ -0,0 +1,22 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Self time of one security filter for one class of routes, in microseconds. Self time excludes the
+ * filters and handler further down the chain. Data Transfer Object (DTO).
+ *
+ * @param count Requests that passed through the filter.
+ * @param totalMillis Cumulative self time, in milliseconds.
+ * @param mean Mean self time.
+ * @param p50 Median self time.
+ * @param p99 99th percentile self time.
+ * @param max Maximum self time.
+ * @param shortCircuits Requests the filter answered itself instead of passing them on.
+ */
+public record FilterTimingStats(
+    long count,
+    double totalMillis,
+    double mean,
+    double p50,
+    double p99,
+    double max,
+    long shortCircuits) {}
@@ -0,0 +1,23 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Counters for hedged requests. Data Transfer Object (DTO).
+ *
+ * @param enabled Whether hedging is enabled.
+ * @param delayMillis Current delay before a hedge is fired, in milliseconds.
+ * @param requests Hedgeable requests since startup.
+ * @param hedges Hedges fired since startup.
+ * @param hedgeRate Hedges fired per request.
+ * @param hedgeWins Requests answered by the hedge rather than the original call.
+ * @param primaryWins Requests answered by the original call.
+ * @param budgetExhausted Hedges not fired because the hedge budget was used up.
+ */
+public record HedgeStats(
+    boolean enabled,
+    double delayMillis,
+    long requests,
+    long hedges,
+    double hedgeRate,
+    long hedgeWins,
+    long primaryWins,
+    long budgetExhausted) {}
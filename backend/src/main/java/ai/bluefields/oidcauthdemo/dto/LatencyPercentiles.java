@@ -0,0 +1,14 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Latency percentiles for one reporting window, in milliseconds. Data Transfer Object (DTO).
+ *
+ * @param count Number of requests recorded in the window.
+ * @param p50 Median latency.
+ * @param p90 90th percentile latency.
+ * @param p99 99th percentile latency.
+ * @param p999 99.9th percentile latency.
+ * @param max Maximum latency.
+ */
+public record LatencyPercentiles(
+    long count, double p50, double p90, double p99, double p999, double max) {}
@@ -0,0 +1,13 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+import java.util.List;
+
+/**
+ * State of inbound load shedding. Data Transfer Object (DTO).
+ *
+ * @param inFlight Requests currently in flight.
+ * @param latencyMillis Smoothed latency of completed public and private requests, in milliseconds.
+ * @param priorities Admitted and shed counts per priority tier, most important first.
+ */
+public record LoadSheddingStats(
+    int inFlight, double latencyMillis, List<PriorityStats> priorities) {}
@@ -0,0 +1,10 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Admission counters of one request priority tier. Data Transfer Object (DTO).
+ *
+ * @param priority The tier: {@code health}, {@code public} or {@code private}.
+ * @param admitted Requests of the tier served since startup.
+ * @param shed Requests of the tier rejected with 503 since startup.
+ */
+public record PriorityStats(String priority, long admitted, long shed) {}
@@ -0,0 +1,20 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Request body for bulk token revocation. Data Transfer Object (DTO).
+ *
+ * @param tokens The tokens to revoke.
+ */
+public record RevocationRequest(List<RevokedToken> tokens) {
+
+  /**
+   * A single token to revoke.
+   *
+   * @param jti The token's {@code jti} claim.
+   * @param exp The token's {@code exp} claim; the revocation is dropped after this instant.
+   */
+  public record RevokedToken(String jti, Instant exp) {}
+}
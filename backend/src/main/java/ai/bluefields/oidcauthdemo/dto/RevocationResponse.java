@@ -0,0 +1,9 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Result of a bulk token revocation. Data Transfer Object (DTO).
+ *
+ * @param accepted Number of tokens from the request that were added to the denylist.
+ * @param active Number of revocations held after the update.
+ */
+public record RevocationResponse(int accepted, int active) {}
@@ -0,0 +1,15 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+import java.util.Map;
+
+/**
+ * Latency report for one route, HTTP method and status class. Data Transfer Object (DTO).
+ *
+ * @param method The HTTP method.
+ * @param route The matched route pattern, or {@code UNMATCHED} for requests that never reached a
+ *     handler (e.g. rejected by the security filter chain).
+ * @param statusClass The response status class, e.g. {@code 2xx}.
+ * @param windows Percentiles keyed by reporting window ({@code 1m}, {@code 5m}, {@code 15m}).
+ */
+public record RouteLatency(
+    String method, String route, String statusClass, Map<String, LatencyPercentiles> windows) {}
@@ -0,0 +1,8 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Request body for changing the trace sampling probability. Data Transfer Object (DTO).
+ *
+ * @param probability The new probability, between 0 and 1; other values are clamped.
+ */
+public record SamplingUpdate(double probability) {}
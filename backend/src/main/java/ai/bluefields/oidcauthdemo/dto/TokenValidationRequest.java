@@ -0,0 +1,10 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+import java.util.List;
+
+/**
+ * Request body for batch token validation. Data Transfer Object (DTO).
+ *
+ * @param tokens The bearer tokens to validate, without the {@code Bearer} prefix.
+ */
+public record TokenValidationRequest(List<String> tokens) {}
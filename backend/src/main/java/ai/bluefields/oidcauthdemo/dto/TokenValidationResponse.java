@@ -0,0 +1,35 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of a batch token validation. Data Transfer Object (DTO).
+ *
+ * @param results One result per requested token, in request order.
+ */
+public record TokenValidationResponse(List<Result> results) {
+
+  /**
+   * Validation result for a single token.
+   *
+   * @param valid Whether the token would be accepted by this resource server.
+   * @param sub The token's {@code sub} claim; {@code null} if invalid.
+   * @param exp The token's {@code exp} claim; {@code null} if invalid.
+   * @param authorities The authorities the token grants; empty if invalid.
+   * @param error Why the token was rejected; {@code null} if valid.
+   */
+  public record Result(
+      boolean valid, String sub, Instant exp, List<String> authorities, String error) {
+
+    /**
+     * Creates the result for a rejected token.
+     *
+     * @param error Why the token was rejected.
+     * @return The result.
+     */
+    public static Result invalid(String error) {
+      return new Result(false, null, null, List.of(), error);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Sampling and export counters of the request tracer. Data Transfer Object (DTO).
+ *
+ * @param samplingProbability Probability that a request without a sampled parent is traced.
+ * @param rootSpans Requests seen since startup.
+ * @param sampledRootSpans Requests traced since startup.
+ * @param exportedSpans Spans handed to the exporter.
+ * @param droppedSpans Spans dropped because the exporter queue was full.
+ */
+public record TracingStats(
+    double samplingProbability,
+    long rootSpans,
+    long sampledRootSpans,
+    long exportedSpans,
+    long droppedSpans) {}
@@ -0,0 +1,10 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+/**
+ * Egress statistics for calls to the identity provider's UserInfo endpoint. Data Transfer Object
+ * (DTO).
+ *
+ * @param concurrency State of the adaptive concurrency limit.
+ * @param hedging Hedged request counters.
+ */
+public record UserInfoStats(ConcurrencyLimitStats concurrency, HedgeStats hedging) {}
@@ -0,0 +1,10 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+import java.util.List;
+
+/**
+ * Request body for a bulk user profile lookup. Data Transfer Object (DTO).
+ *
+ * @param subjects The subjects ({@code sub} claims) of the users to look up.
+ */
+public record UserProfileRequest(List<String> subjects) {}
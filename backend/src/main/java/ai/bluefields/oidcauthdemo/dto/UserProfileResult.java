@@ -0,0 +1,36 @@
+package ai.bluefields.oidcauthdemo.dto;
+
+import ai.bluefields.oidcauthdemo.client.UserInfo;
+import ai.bluefields.oidcauthdemo.exception.ApiError;
+
+/**
+ * Outcome of looking up one user in a bulk profile lookup. Data Transfer Object (DTO).
+ *
+ * @param subject The requested subject.
+ * @param profile The user's email and name; {@code null} if the lookup failed.
+ * @param error Why the lookup failed; {@code null} if it succeeded.
+ */
+public record UserProfileResult(String subject, UserInfo profile, ApiError error) {
+
+  /**
+   * Creates the result of a successful lookup.
+   *
+   * @param subject The requested subject.
+   * @param profile The user's profile.
+   * @return The result.
+   */
+  public static UserProfileResult found(String subject, UserInfo profile) {
+    return new UserProfileResult(subject, profile, null);
+  }
+
+  /**
+   * Creates the result of a failed lookup.
+   *
+   * @param subject The requested subject.
+   * @param error Why the lookup failed.
+   * @return The result.
+   */
+  public static UserProfileResult failed(String subject, ApiError error) {
+    return new UserProfileResult(subject, null, error);
+  }
+}
@@ -0,0 +1,123 @@
+package ai.bluefields.oidcauthdemo.exception;
+
+import ai.bluefields.oidcauthdemo.config.BinaryFormatConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Writes {@link ApiError} responses in the format the client asks for.
+ *
+ * <p>Errors are {@code application/problem+json} unless the {@code Accept} header prefers CBOR
+ * ({@code application/cbor}) or Smile ({@code application/x-jackson-smile}), the binary formats
+ * high-volume internal clients use for regular responses. {@link GlobalExceptionHandler} uses
+ * {@link #contentType(HttpServletRequest)} to pick the format for errors raised in handlers;
+ * servlet filters that reject a request before it reaches Spring MVC write the body with {@link
+ * #write}.
+ */
+public class ApiErrorWriter {
+
+  /** Media type of RFC 7807 problem details in JSON, the default error format. */
+  public static final MediaType PROBLEM_JSON = MediaType.APPLICATION_PROBLEM_JSON;
+
+  private static final List<MediaType> SUPPORTED =
+      List.of(
+          PROBLEM_JSON,
+          MediaType.APPLICATION_JSON,
+          MediaType.APPLICATION_CBOR,
+          BinaryFormatConfig.SMILE);
+
+  private final ObjectMapper jsonMapper;
+  private final ObjectMapper cborMapper;
+  private final ObjectMapper smileMapper;
+
+  /**
+   * Creates the writer. The binary mappers are copies of the JSON mapper, so all formats share its
+   * modules and features.
+   *
+   * @param jsonMapper The application's JSON mapper.
+   */
+  public ApiErrorWriter(ObjectMapper jsonMapper) {
+    this.jsonMapper = jsonMapper;
+    this.cborMapper = jsonMapper.copyWith(new CBORFactory());
+    this.smileMapper = jsonMapper.copyWith(new SmileFactory());
+  }
+
+  /**
+   * Selects the error format for a request.
+   *
+   * @param request The request being answered.
+   * @return CBOR or Smile if the client prefers one of them, {@link #PROBLEM_JSON} otherwise.
+   */
+  public static MediaType contentType(HttpServletRequest request) {
+    return contentType(request.getHeader(HttpHeaders.ACCEPT));
+  }
+
+  /**
+   * Selects the error format for an {@code Accept} header.
+   *
+   * @param accept The header value, may be {@code null}.
+   * @return CBOR or Smile if the header prefers one of them, {@link #PROBLEM_JSON} otherwise.
+   */
+  public static MediaType contentType(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return PROBLEM_JSON;
+    }
+    List<MediaType> accepted;
+    try {
+      accepted = MediaType.parseMediaTypes(accept);
+    } catch (InvalidMediaTypeException e) {
+      return PROBLEM_JSON;
+    }
+    // Stable sort, so types of equal quality keep the client's order
+    accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+    for (MediaType type : accepted) {
+      if (type.getQualityValue() == 0) {
+        break;
+      }
+      for (MediaType supported : SUPPORTED) {
+        if (type.includes(supported)) {
+          return supported.equals(MediaType.APPLICATION_JSON) ? PROBLEM_JSON : supported;
+        }
+      }
+    }
+    return PROBLEM_JSON;
+  }
+
+  /**
+   * Writes an error as the complete response.
+   *
+   * @param request The request being answered.
+   * @param response The response to write to.
+   * @param status The response status.
+   * @param apiError The error body.
+   * @throws IOException If the body cannot be written.
+   */
+  public void write(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      HttpStatus status,
+      ApiError apiError)
+      throws IOException {
+    MediaType contentType = contentType(request);
+    response.setStatus(status.value());
+    response.setContentType(contentType.toString());
+    mapper(contentType).writeValue(response.getOutputStream(), apiError);
+  }
+
+  private ObjectMapper mapper(MediaType contentType) {
+    if (contentType.equals(MediaType.APPLICATION_CBOR)) {
+      return cborMapper;
+    }
+    return contentType.equals(BinaryFormatConfig.SMILE) ? smileMapper : jsonMapper;
+  }
+}
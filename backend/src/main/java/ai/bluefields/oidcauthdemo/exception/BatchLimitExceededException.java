@@ -0,0 +1,17 @@
+package ai.bluefields.oidcauthdemo.exception;
+
+/**
+ * Thrown when a batch request carries more items than the endpoint accepts. Mapped to 413 (Content
+ * Too Large) by {@link GlobalExceptionHandler}.
+ */
+public class BatchLimitExceededException extends RuntimeException {
+
+  /**
+   * Creates the exception.
+   *
+   * @param message Description of the limit that was exceeded.
+   */
+  public BatchLimitExceededException(String message) {
+    super(message);
+  }
+}
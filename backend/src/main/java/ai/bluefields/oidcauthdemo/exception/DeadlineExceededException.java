@@ -0,0 +1,17 @@
+package ai.bluefields.oidcauthdemo.exception;
+
+/**
+ * Thrown when a request's deadline expires before its response could be produced. Mapped to 504
+ * (Gateway Timeout) by {@link GlobalExceptionHandler}.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+  /**
+   * Creates the exception.
+   *
+   * @param message Description of the work that was abandoned.
+   */
+  public DeadlineExceededException(String message) {
+    super(message);
+  }
+}
@@ -1,10 +1,10 @@
 package ai.bluefields.oidcauthdemo.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -23,7 +23,8 @@ import org.springframework.web.servlet.NoHandlerFoundException;
  *   <li>Catching exceptions thrown by controllers
  *   <li>Converting them to standardized ApiError responses
  *   <li>Setting the appropriate HTTP status code
- *   <li>Setting the content type to "application/problem+json"
+ *   <li>Setting the content type to "application/problem+json", or to CBOR or Smile when the client
+ *       prefers those (see {@link ApiErrorWriter})
  * </ul>
  *
  * <p>The handler prevents internal exception details from leaking to clients while still providing
@@ -57,10 +58,11 @@ public class GlobalExceptionHandler {
    * to the client to avoid exposing sensitive implementation details.
    *
    * @param ex the exception that was thrown
+   * @param request the request being handled, whose {@code Accept} header selects the format
    * @return a {@link ResponseEntity} containing an {@link ApiError} with status 500
    */
   @ExceptionHandler(Exception.class)
-  public ResponseEntity<ApiError> handleException(Exception ex) {
+  public ResponseEntity<ApiError> handleException(Exception ex, HttpServletRequest request) {
     logger.error("Unhandled exception caught by global handler", ex);
 
     ApiError apiError =
@@ -72,7 +74,7 @@ public class GlobalExceptionHandler {
             Instant.now());
 
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-        .contentType(MediaType.valueOf("application/problem+json"))
+        .contentType(ApiErrorWriter.contentType(request))
         .body(apiError);
   }
 
@@ -81,10 +83,12 @@ public class GlobalExceptionHandler {
    * response with HTTP status 404 (Not Found).
    *
    * @param ex the exception that was thrown
+   * @param request the request being handled, whose {@code Accept} header selects the format
    * @return a {@link ResponseEntity} containing an {@link ApiError} with status 404
    */
   @ExceptionHandler(NoHandlerFoundException.class)
-  public ResponseEntity<ApiError> handleNoHandlerFoundException(NoHandlerFoundException ex) {
+  public ResponseEntity<ApiError> handleNoHandlerFoundException(
+      NoHandlerFoundException ex, HttpServletRequest request) {
     logger.warn("No handler found for {}: {}", ex.getRequestURL(), ex.getMessage());
 
     ApiError apiError =
@@ -96,7 +100,7 @@ public class GlobalExceptionHandler {
             Instant.now());
 
     return ResponseEntity.status(HttpStatus.NOT_FOUND)
-        .contentType(MediaType.valueOf("application/problem+json"))
+        .contentType(ApiErrorWriter.contentType(request))
         .body(apiError);
   }
 
@@ -105,11 +109,12 @@ public class GlobalExceptionHandler {
    * ApiError} response with HTTP status 405 (Method Not Allowed).
    *
    * @param ex the exception that was thrown
+   * @param request the request being handled, whose {@code Accept} header selects the format
    * @return a {@link ResponseEntity} containing an {@link ApiError} with status 405
    */
   @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
   public ResponseEntity<ApiError> handleMethodNotAllowed(
-      HttpRequestMethodNotSupportedException ex) {
+      HttpRequestMethodNotSupportedException ex, HttpServletRequest request) {
     logger.warn("Method not allowed: {}", ex.getMessage());
 
     ApiError apiError =
@@ -121,7 +126,7 @@ public class GlobalExceptionHandler {
             Instant.now());
 
     return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
-        .contentType(MediaType.valueOf("application/problem+json"))
+        .contentType(ApiErrorWriter.contentType(request))
         .body(apiError);
   }
 
@@ -130,11 +135,12 @@ public class GlobalExceptionHandler {
    * ApiError} response with HTTP status 415 (Unsupported Media Type).
    *
    * @param ex the exception that was thrown
+   * @param request the request being handled, whose {@code Accept} header selects the format
    * @return a {@link ResponseEntity} containing an {@link ApiError} with status 415
    */
   @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
   public ResponseEntity<ApiError> handleUnsupportedMediaType(
-      HttpMediaTypeNotSupportedException ex) {
+      HttpMediaTypeNotSupportedException ex, HttpServletRequest request) {
     logger.warn("Unsupported media type: {}", ex.getMessage());
 
     ApiError apiError =
@@ -146,7 +152,7 @@ public class GlobalExceptionHandler {
             Instant.now());
 
     return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
-        .contentType(MediaType.valueOf("application/problem+json"))
+        .contentType(ApiErrorWriter.contentType(request))
         .body(apiError);
   }
 
@@ -155,10 +161,12 @@ public class GlobalExceptionHandler {
    * converts it to a standardized {@link ApiError} response with HTTP status 403 (Forbidden).
    *
    * @param ex the exception that was thrown
+   * @param request the request being handled, whose {@code Accept} header selects the format
    * @return a {@link ResponseEntity} containing an {@link ApiError} with status 403
    */
   @ExceptionHandler(AuthorizationDeniedException.class)
-  public ResponseEntity<ApiError> handleAuthorizationDenied(AuthorizationDeniedException ex) {
+  public ResponseEntity<ApiError> handleAuthorizationDenied(
+      AuthorizationDeniedException ex, HttpServletRequest request) {
     logger.warn("Authorization denied: {}", ex.getMessage());
 
     ApiError apiError =
@@ -170,7 +178,59 @@ public class GlobalExceptionHandler {
             Instant.now());
 
     return ResponseEntity.status(HttpStatus.FORBIDDEN)
-        .contentType(MediaType.valueOf("application/problem+json"))
+        .contentType(ApiErrorWriter.contentType(request))
+        .body(apiError);
+  }
+
+  /**
+   * Handles {@link DeadlineExceededException} and converts it to a standardized {@link ApiError}
+   * response with HTTP status 504 (Gateway Timeout).
+   *
+   * @param ex the exception that was thrown
+   * @param request the request being handled, whose {@code Accept} header selects the format
+   * @return a {@link ResponseEntity} containing an {@link ApiError} with status 504
+   */
+  @ExceptionHandler(DeadlineExceededException.class)
+  public ResponseEntity<ApiError> handleDeadlineExceeded(
+      DeadlineExceededException ex, HttpServletRequest request) {
+    logger.warn("Deadline exceeded: {}", ex.getMessage());
+
+    ApiError apiError =
+        new ApiError(
+            "https://api.bluefields.ai/errors/deadline-exceeded",
+            "Gateway Timeout",
+            HttpStatus.GATEWAY_TIMEOUT.value(),
+            "The request deadline expired before a response could be produced",
+            Instant.now());
+
+    return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+        .contentType(ApiErrorWriter.contentType(request))
+        .body(apiError);
+  }
+
+  /**
+   * Handles {@link BatchLimitExceededException} and converts it to a standardized {@link ApiError}
+   * response with HTTP status 413 (Content Too Large).
+   *
+   * @param ex the exception that was thrown
+   * @param request the request being handled, whose {@code Accept} header selects the format
+   * @return a {@link ResponseEntity} containing an {@link ApiError} with status 413
+   */
+  @ExceptionHandler(BatchLimitExceededException.class)
+  public ResponseEntity<ApiError> handleBatchLimitExceeded(
+      BatchLimitExceededException ex, HttpServletRequest request) {
+    logger.warn("Batch limit exceeded: {}", ex.getMessage());
+
+    ApiError apiError =
+        new ApiError(
+            "https://api.bluefields.ai/errors/batch-too-large",
+            "Content Too Large",
+            HttpStatus.PAYLOAD_TOO_LARGE.value(),
+            ex.getMessage(),
+            Instant.now());
+
+    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+        .contentType(ApiErrorWriter.contentType(request))
         .body(apiError);
   }
 }
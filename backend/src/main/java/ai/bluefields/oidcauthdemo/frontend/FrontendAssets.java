@@ -0,0 +1,247 @@
+package ai.bluefields.oidcauthdemo.frontend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Index of the built frontend, taken once at startup: the build output does not change while the
+ * application runs.
+ *
+ * <p>Every file becomes an {@link Asset} keyed by its path below the build directory. Brotli
+ * ({@code .br}) and gzip ({@code .gz}) files next to it, written by the frontend build, become
+ * alternative {@link Variant}s of that asset rather than assets of their own, so requests can be
+ * answered with a compressed variant without compressing anything at runtime. Variants smaller than
+ * the sendfile threshold are held in memory; larger ones are sent from disk.
+ */
+public final class FrontendAssets {
+
+  /** Cache-Control of content-hashed files, whose content never changes under the same name. */
+  static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+  /** Cache-Control of all other files, which browsers must revalidate before reuse. */
+  static final String REVALIDATE = "no-cache";
+
+  private static final Logger log = LoggerFactory.getLogger(FrontendAssets.class);
+
+  private static final List<String> ENCODINGS = List.of("br", "gzip");
+  private static final Map<String, String> EXTENSIONS = Map.of("br", ".br", "gzip", ".gz");
+
+  /**
+   * One stored representation of an asset.
+   *
+   * @param encoding The content coding, or {@code null} for the file as built.
+   * @param file The file on disk.
+   * @param length Length of the file in bytes.
+   * @param etag Strong entity tag, distinct per variant.
+   * @param content The file's bytes, or {@code null} if it is sent from disk.
+   */
+  public record Variant(String encoding, Path file, long length, String etag, byte[] content) {}
+
+  /**
+   * A file of the build with all its variants.
+   *
+   * @param contentType Media type of the uncompressed content.
+   * @param cacheControl The {@code Cache-Control} header value.
+   * @param variants Variants by preference: compressed ones first, the file as built last.
+   */
+  public record Asset(String contentType, String cacheControl, List<Variant> variants) {
+
+    /**
+     * Returns the preferred variant the client accepts.
+     *
+     * @param acceptEncoding The request's {@code Accept-Encoding} header, or {@code null}.
+     * @return The variant to send.
+     */
+    public Variant select(String acceptEncoding) {
+      for (Variant variant : variants) {
+        if (variant.encoding() == null || accepts(acceptEncoding, variant.encoding())) {
+          return variant;
+        }
+      }
+      return variants.get(variants.size() - 1);
+    }
+
+    /**
+     * Returns whether the response depends on {@code Accept-Encoding}.
+     *
+     * @return {@code true} if there are compressed variants.
+     */
+    public boolean negotiated() {
+      return variants.size() > 1;
+    }
+  }
+
+  private final Map<String, Asset> assets;
+  private final Asset index;
+
+  private FrontendAssets(Map<String, Asset> assets) {
+    this.assets = Map.copyOf(assets);
+    this.index = assets.get("/index.html");
+  }
+
+  /**
+   * Indexes a build directory. A missing directory yields an empty index, so the application still
+   * starts without a frontend build.
+   *
+   * @param directory The build output directory.
+   * @param immutablePaths Ant-style patterns of content-hashed files.
+   * @param sendfileThreshold Size from which variants are sent from disk instead of memory.
+   * @return The index.
+   * @throws IOException If the directory cannot be read.
+   */
+  public static FrontendAssets scan(
+      Path directory, List<String> immutablePaths, long sendfileThreshold) throws IOException {
+    Path root = directory.toAbsolutePath().normalize();
+    if (!Files.isDirectory(root)) {
+      log.warn("No frontend build at {}, serving no frontend", root);
+      return new FrontendAssets(Map.of());
+    }
+    AntPathMatcher matcher = new AntPathMatcher();
+    Map<String, Asset> assets = new HashMap<>();
+    try (Stream<Path> files = Files.walk(root)) {
+      for (Path file : files.filter(Files::isRegularFile).toList()) {
+        if (isVariant(file)) {
+          continue;
+        }
+        String path =
+            "/"
+                + root.relativize(file)
+                    .toString()
+                    .replace(file.getFileSystem().getSeparator(), "/");
+        boolean immutable =
+            immutablePaths.stream().anyMatch(pattern -> matcher.match(pattern, path));
+        List<Variant> variants = new ArrayList<>();
+        for (String encoding : ENCODINGS) {
+          Path compressed = file.resolveSibling(file.getFileName() + EXTENSIONS.get(encoding));
+          if (Files.isRegularFile(compressed)) {
+            variants.add(variant(encoding, compressed, sendfileThreshold));
+          }
+        }
+        variants.add(variant(null, file, sendfileThreshold));
+        assets.put(
+            path,
+            new Asset(
+                contentType(file), immutable ? IMMUTABLE : REVALIDATE, List.copyOf(variants)));
+      }
+    }
+    log.info("Serving {} frontend files from {}", assets.size(), root);
+    return new FrontendAssets(assets);
+  }
+
+  /**
+   * Returns the asset at a path.
+   *
+   * @param path Path below the build directory, starting with {@code /}; {@code /} is the index.
+   * @return The asset, or {@code null} if there is none.
+   */
+  public Asset find(String path) {
+    return "/".equals(path) ? index : assets.get(path);
+  }
+
+  /**
+   * Returns {@code index.html}, the entry point of the single-page application.
+   *
+   * @return The index, or {@code null} if the build has none.
+   */
+  public Asset index() {
+    return index;
+  }
+
+  /**
+   * Returns the number of indexed files, not counting compressed variants.
+   *
+   * @return The number of assets.
+   */
+  public int size() {
+    return assets.size();
+  }
+
+  /**
+   * Returns whether an {@code Accept-Encoding} header admits a content coding, explicitly or via
+   * {@code *}, with a quality above zero.
+   *
+   * @param acceptEncoding The header value, or {@code null}.
+   * @param coding The content coding, e.g. {@code br}.
+   * @return {@code true} if the coding may be sent.
+   */
+  static boolean accepts(String acceptEncoding, String coding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    boolean wildcard = false;
+    for (String part : acceptEncoding.split(",")) {
+      int parameters = part.indexOf(';');
+      String name = (parameters < 0 ? part : part.substring(0, parameters)).trim();
+      boolean allowed = parameters < 0 || qualityAboveZero(part.substring(parameters + 1));
+      if (name.equalsIgnoreCase(coding)) {
+        return allowed;
+      }
+      if (name.equals("*")) {
+        wildcard = allowed;
+      }
+    }
+    return wildcard;
+  }
+
+  private static boolean qualityAboveZero(String parameters) {
+    for (String parameter : parameters.split(";")) {
+      String trimmed = parameter.trim();
+      if (trimmed.startsWith("q=")) {
+        try {
+          return Double.parseDouble(trimmed.substring(2)) > 0;
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isVariant(Path file) {
+    String name = file.getFileName().toString();
+    for (String extension : EXTENSIONS.values()) {
+      if (name.endsWith(extension)
+          && Files.isRegularFile(
+              file.resolveSibling(name.substring(0, name.length() - extension.length())))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Variant variant(String encoding, Path file, long sendfileThreshold)
+      throws IOException {
+    long length = Files.size(file);
+    String etag =
+        "\"%x-%x%s\""
+            .formatted(
+                length,
+                Files.getLastModifiedTime(file).toMillis(),
+                encoding != null ? "-" + encoding : "");
+    byte[] content = length < sendfileThreshold ? Files.readAllBytes(file) : null;
+    return new Variant(encoding, file, length, etag, content);
+  }
+
+  private static String contentType(Path file) {
+    MediaType type =
+        MediaTypeFactory.getMediaType(file.getFileName().toString())
+            .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    boolean text =
+        type.getType().equals("text")
+            || type.getSubtype().equals("javascript")
+            || type.getSubtype().equals("json")
+            || type.getSubtype().endsWith("+xml");
+    return text ? type + ";charset=UTF-8" : type.toString();
+  }
+}
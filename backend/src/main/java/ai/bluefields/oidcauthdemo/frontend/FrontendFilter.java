@@ -0,0 +1,131 @@
+package ai.bluefields.oidcauthdemo.frontend;
+
+import ai.bluefields.oidcauthdemo.frontend.FrontendAssets.Asset;
+import ai.bluefields.oidcauthdemo.frontend.FrontendAssets.Variant;
+import ai.bluefields.oidcauthdemo.security.PathMatchers;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Servlet filter that answers {@code GET} and {@code HEAD} requests for the built frontend from
+ * {@link FrontendAssets}, ahead of Spring Security, so static files cost no JWT filter chain.
+ *
+ * <p>The response is the preferred variant the client's {@code Accept-Encoding} admits, with {@code
+ * Vary: Accept-Encoding}, a per-variant {@code ETag} that {@code If-None-Match} is checked against,
+ * and the asset's {@code Cache-Control}. Variants held in memory are written directly; larger ones
+ * are handed to Tomcat's sendfile support, which transfers the file without copying it through the
+ * JVM, and are streamed from disk on servers without it. Paths without a file extension that match
+ * no file and no excluded route are answered with {@code index.html}, so client-side routes survive
+ * a reload. Everything else continues down the chain. As Spring Security does not see these
+ * responses, the filter sets the {@code X-Content-Type-Options} and {@code X-Frame-Options} headers
+ * it would have written. For the latency report, served requests are grouped as {@link #ROUTE}.
+ */
+public class FrontendFilter extends OncePerRequestFilter {
+
+  /** Route name of frontend requests in the latency report. */
+  public static final String ROUTE = "FRONTEND";
+
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final FrontendAssets assets;
+  private final RequestMatcher fallbackExcludes;
+  private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+  /**
+   * Creates the filter.
+   *
+   * @param assets The indexed build.
+   * @param fallbackExcludes Ant-style patterns of routes that never fall back to {@code
+   *     index.html}.
+   */
+  public FrontendFilter(FrontendAssets assets, List<String> fallbackExcludes) {
+    this.assets = assets;
+    this.fallbackExcludes = PathMatchers.anyOf(fallbackExcludes);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    boolean head = "HEAD".equals(request.getMethod());
+    if (!head && !"GET".equals(request.getMethod())) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    String path = urlPathHelper.getPathWithinApplication(request);
+    Asset asset = assets.find(path);
+    if (asset == null && fallsBack(request, path)) {
+      asset = assets.index();
+    }
+    if (asset == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    serve(asset, head, request, response);
+  }
+
+  private boolean fallsBack(HttpServletRequest request, String path) {
+    return path.indexOf('.', path.lastIndexOf('/') + 1) < 0 && !fallbackExcludes.matches(request);
+  }
+
+  private void serve(
+      Asset asset, boolean head, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+    Variant variant = asset.select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    response.setHeader(HttpHeaders.CACHE_CONTROL, asset.cacheControl());
+    response.setHeader(HttpHeaders.ETAG, variant.etag());
+    if (asset.negotiated()) {
+      response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+    response.setHeader("X-Content-Type-Options", "nosniff");
+    response.setHeader("X-Frame-Options", "DENY");
+    if (notModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), variant.etag())) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+    response.setContentType(asset.contentType());
+    if (variant.encoding() != null) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+    }
+    response.setContentLengthLong(variant.length());
+    if (head) {
+      return;
+    }
+    if (variant.content() != null) {
+      response.getOutputStream().write(variant.content());
+    } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, variant.file().toString());
+      request.setAttribute(SENDFILE_START, 0L);
+      request.setAttribute(SENDFILE_END, variant.length());
+    } else {
+      Files.copy(variant.file(), response.getOutputStream());
+    }
+  }
+
+  private static boolean notModified(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,80 @@
+package ai.bluefields.oidcauthdemo.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Servlet filter that measures each request from entry to completion and hands the latency to the
+ * {@link RouteLatencyRecorder}.
+ *
+ * <p>Registered ahead of the Spring Security filter chain so rejected requests are measured too.
+ * Requests are grouped by the matched handler pattern rather than the raw URI to keep the number of
+ * series bounded; requests that never reach a handler are grouped as {@code UNMATCHED}. For
+ * asynchronous handlers (such as the {@code Mono} returned by {@code PrivateInfoController}) the
+ * latency is recorded when the async cycle completes.
+ */
+public class RouteLatencyFilter extends OncePerRequestFilter {
+
+  /** Route name for requests that were not matched to a handler. */
+  public static final String UNMATCHED = "UNMATCHED";
+
+  private final RouteLatencyRecorder recorder;
+
+  /**
+   * Creates the filter.
+   *
+   * @param recorder The recorder latencies are written to.
+   */
+  public RouteLatencyFilter(RouteLatencyRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long start = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (request.isAsyncStarted()) {
+        request
+            .getAsyncContext()
+            .addListener(
+                new AsyncListener() {
+                  @Override
+                  public void onComplete(AsyncEvent event) {
+                    record(request, response, start);
+                  }
+
+                  @Override
+                  public void onTimeout(AsyncEvent event) {}
+
+                  @Override
+                  public void onError(AsyncEvent event) {}
+
+                  @Override
+                  public void onStartAsync(AsyncEvent event) {}
+                });
+      } else {
+        record(request, response, start);
+      }
+    }
+  }
+
+  private void record(HttpServletRequest request, HttpServletResponse response, long start) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    recorder.record(
+        request.getMethod(),
+        pattern instanceof String route ? route : UNMATCHED,
+        response.getStatus(),
+        System.nanoTime() - start);
+  }
+}
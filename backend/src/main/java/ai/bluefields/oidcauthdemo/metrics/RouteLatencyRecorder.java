@@ -0,0 +1,220 @@
+package ai.bluefields.oidcauthdemo.metrics;
+
+import ai.bluefields.oidcauthdemo.dto.LatencyPercentiles;
+import ai.bluefields.oidcauthdemo.dto.RouteLatency;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Records request latencies into HdrHistograms, one per route, HTTP method and status class.
+ *
+ * <p>The recording path is wait-free: each series owns an HdrHistogram {@link Recorder}, and
+ * recording is a map lookup plus a counter increment. A background task rotates every series once
+ * per interval, moving the interval histogram into a ring that covers the longest reporting window.
+ * Reports are built on demand by merging the most recent intervals of each window.
+ *
+ * <p>The method is chosen by the client, before authentication, so every method outside the
+ * standard HTTP set shares the single series {@link #OTHER_METHOD} instead of adding one.
+ */
+public class RouteLatencyRecorder implements AutoCloseable {
+
+  /** Method name recorded for requests with a non-standard HTTP method. */
+  public static final String OTHER_METHOD = "OTHER";
+
+  private static final String[] WINDOW_NAMES = {"1m", "5m", "15m"};
+  private static final Duration[] WINDOW_LENGTHS = {
+    Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(15)
+  };
+  private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  /** Latency series for one route and method, split by status class. */
+  private final class Series {
+    private final String method;
+    private final String route;
+    private final AtomicReferenceArray<Window> byStatusClass =
+        new AtomicReferenceArray<>(STATUS_CLASSES.length);
+
+    Series(String method, String route) {
+      this.method = method;
+      this.route = route;
+    }
+
+    Window window(int statusClass) {
+      Window window = byStatusClass.get(statusClass);
+      if (window == null) {
+        byStatusClass.compareAndSet(statusClass, null, new Window(ringSize));
+        window = byStatusClass.get(statusClass);
+      }
+      return window;
+    }
+  }
+
+  /** A live recorder plus the ring of completed interval histograms. */
+  private static final class Window {
+    private final Recorder recorder = new Recorder(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram[] ring;
+    private int head;
+    private Histogram recycled;
+
+    Window(int ringSize) {
+      this.ring = new Histogram[ringSize];
+    }
+
+    synchronized void rotate() {
+      Histogram interval = recorder.getIntervalHistogram(recycled);
+      head = (head + 1) % ring.length;
+      recycled = ring[head];
+      ring[head] = interval;
+    }
+
+    synchronized Histogram merge(int intervals) {
+      Histogram merged = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+      for (int i = 0; i < intervals && i < ring.length; i++) {
+        Histogram interval = ring[Math.floorMod(head - i, ring.length)];
+        if (interval != null) {
+          merged.add(interval);
+        }
+      }
+      return merged;
+    }
+  }
+
+  private final Duration interval;
+  private final int ringSize;
+  private final Map<String, Map<String, Series>> series = new ConcurrentHashMap<>();
+  private volatile Disposable rotation;
+
+  /**
+   * Creates a recorder with the given interval length.
+   *
+   * @param interval Length of one histogram interval.
+   */
+  public RouteLatencyRecorder(Duration interval) {
+    this.interval = interval;
+    this.ringSize = intervalsIn(WINDOW_LENGTHS[WINDOW_LENGTHS.length - 1]);
+  }
+
+  /** Starts rotating intervals in the background. */
+  public void start() {
+    rotation = Flux.interval(interval).onBackpressureDrop().subscribe(tick -> rotate());
+  }
+
+  /** Stops the background rotation. */
+  @Override
+  public void close() {
+    Disposable current = rotation;
+    if (current != null) {
+      current.dispose();
+    }
+  }
+
+  /**
+   * Records one request.
+   *
+   * @param method The HTTP method; non-standard ones are recorded as {@link #OTHER_METHOD}.
+   * @param route The matched route pattern.
+   * @param status The response status code.
+   * @param nanos The request latency in nanoseconds.
+   */
+  public void record(String method, String route, int status, long nanos) {
+    int statusClass = status / 100 - 1;
+    if (statusClass < 0 || statusClass >= STATUS_CLASSES.length) {
+      statusClass = STATUS_CLASSES.length - 1;
+    }
+    Map<String, Series> byMethod = series.get(route);
+    if (byMethod == null) {
+      byMethod = series.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+    }
+    String bucket = standardMethod(method);
+    Series target = byMethod.get(bucket);
+    if (target == null) {
+      target = byMethod.computeIfAbsent(bucket, key -> new Series(key, route));
+    }
+    long micros = Math.min(Math.max(nanos / 1_000, 0), HIGHEST_TRACKABLE_MICROS);
+    target.window(statusClass).recorder.recordValue(micros);
+  }
+
+  private static String standardMethod(String method) {
+    if (method == null) {
+      return OTHER_METHOD;
+    }
+    return switch (method) {
+      case "GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE", "CONNECT" -> method;
+      default -> OTHER_METHOD;
+    };
+  }
+
+  /** Closes the current interval of every series and moves it into the reporting ring. */
+  public void rotate() {
+    for (Map<String, Series> byMethod : series.values()) {
+      for (Series s : byMethod.values()) {
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+          Window window = s.byStatusClass.get(i);
+          if (window != null) {
+            window.rotate();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds a percentile report over the completed intervals of every reporting window.
+   *
+   * @return One entry per route, method and status class that has recorded at least one request.
+   */
+  public List<RouteLatency> report() {
+    List<RouteLatency> report = new ArrayList<>();
+    for (Map<String, Series> byMethod : series.values()) {
+      for (Series s : byMethod.values()) {
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+          Window window = s.byStatusClass.get(i);
+          if (window == null) {
+            continue;
+          }
+          Map<String, LatencyPercentiles> windows = new LinkedHashMap<>();
+          for (int w = 0; w < WINDOW_NAMES.length; w++) {
+            windows.put(WINDOW_NAMES[w], percentiles(window.merge(intervalsIn(WINDOW_LENGTHS[w]))));
+          }
+          report.add(new RouteLatency(s.method, s.route, STATUS_CLASSES[i], windows));
+        }
+      }
+    }
+    report.sort(
+        Comparator.comparing(RouteLatency::route)
+            .thenComparing(RouteLatency::method)
+            .thenComparing(RouteLatency::statusClass));
+    return report;
+  }
+
+  private int intervalsIn(Duration window) {
+    return (int) Math.max(1, (window.toMillis() + interval.toMillis() - 1) / interval.toMillis());
+  }
+
+  private static LatencyPercentiles percentiles(Histogram histogram) {
+    return new LatencyPercentiles(
+        histogram.getTotalCount(),
+        millis(histogram.getValueAtPercentile(50)),
+        millis(histogram.getValueAtPercentile(90)),
+        millis(histogram.getValueAtPercentile(99)),
+        millis(histogram.getValueAtPercentile(99.9)),
+        millis(histogram.getMaxValue()));
+  }
+
+  private static double millis(long micros) {
+    return micros / 1_000.0;
+  }
+}
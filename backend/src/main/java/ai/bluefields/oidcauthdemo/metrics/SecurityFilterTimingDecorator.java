@@ -0,0 +1,138 @@
+package ai.bluefields.oidcauthdemo.metrics;
+
+import ai.bluefields.oidcauthdemo.security.PathMatchers;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Wraps every filter of the Spring Security filter chain with a timer that records its self time
+ * into {@link SecurityFilterTimings}.
+ *
+ * <p>Self time is the time between entering the filter and leaving it, minus the time spent in the
+ * rest of the chain. A filter that never calls the rest of the chain has answered the request
+ * itself, e.g. with a 401, and is counted as a short circuit. The wrapped filter list is built once
+ * per chain and reused, but each pass allocates one small object per filter, so this is meant to be
+ * switched on while investigating rather than left on.
+ */
+public class SecurityFilterTimingDecorator implements FilterChainProxy.FilterChainDecorator {
+
+  private static final String PERMIT_ALL_ATTRIBUTE =
+      SecurityFilterTimingDecorator.class.getName() + ".permitAll";
+
+  private final SecurityFilterTimings timings;
+  private final RequestMatcher permitAll;
+  private final FilterChainProxy.FilterChainDecorator delegate;
+  private volatile Wrapped wrapped;
+
+  /** The filter list last seen and its timed counterpart. */
+  private record Wrapped(List<Filter> source, List<Filter> timed) {}
+
+  /**
+   * Creates the decorator.
+   *
+   * @param timings Where timings are recorded.
+   * @param permitAllPaths Ant-style patterns of the {@code permitAll} routes.
+   * @param delegate The decorator building the actual filter chain.
+   */
+  public SecurityFilterTimingDecorator(
+      SecurityFilterTimings timings,
+      List<String> permitAllPaths,
+      FilterChainProxy.FilterChainDecorator delegate) {
+    this.timings = timings;
+    this.permitAll = PathMatchers.anyOf(permitAllPaths);
+    this.delegate = delegate;
+  }
+
+  @Override
+  public FilterChain decorate(FilterChain original) {
+    return delegate.decorate(original);
+  }
+
+  @Override
+  public FilterChain decorate(FilterChain original, List<Filter> filters) {
+    FilterChain chain = delegate.decorate(original, timed(filters));
+    return (request, response) -> {
+      request.setAttribute(PERMIT_ALL_ATTRIBUTE, permitAll.matches((HttpServletRequest) request));
+      chain.doFilter(request, response);
+    };
+  }
+
+  private List<Filter> timed(List<Filter> filters) {
+    Wrapped current = wrapped;
+    if (current != null && current.source() == filters) {
+      return current.timed();
+    }
+    List<Filter> timed = new ArrayList<>(filters.size());
+    for (int i = 0; i < filters.size(); i++) {
+      Filter filter = filters.get(i);
+      timed.add(new TimedFilter(filter, timings.entry(i, filter.getClass().getSimpleName())));
+    }
+    wrapped = new Wrapped(filters, List.copyOf(timed));
+    return wrapped.timed();
+  }
+
+  /** A filter whose passes are timed. */
+  private final class TimedFilter implements Filter {
+    private final Filter filter;
+    private final SecurityFilterTimings.Entry entry;
+
+    TimedFilter(Filter filter, SecurityFilterTimings.Entry entry) {
+      this.filter = filter;
+      this.entry = entry;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+      Downstream downstream = new Downstream(chain);
+      long start = System.nanoTime();
+      try {
+        filter.doFilter(request, response, downstream);
+      } finally {
+        long self = System.nanoTime() - start - downstream.nanos;
+        timings.record(
+            entry,
+            Boolean.TRUE.equals(request.getAttribute(PERMIT_ALL_ATTRIBUTE)),
+            self,
+            !downstream.called);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return filter.toString();
+    }
+  }
+
+  /** The rest of the chain, timed so it can be subtracted from the filter's own time. */
+  private static final class Downstream implements FilterChain {
+    private final FilterChain chain;
+    private boolean called;
+    private long nanos;
+
+    Downstream(FilterChain chain) {
+      this.chain = chain;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response)
+        throws IOException, ServletException {
+      called = true;
+      long start = System.nanoTime();
+      try {
+        chain.doFilter(request, response);
+      } finally {
+        nanos += System.nanoTime() - start;
+      }
+    }
+  }
+}
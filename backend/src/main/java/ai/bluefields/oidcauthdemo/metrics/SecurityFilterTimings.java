@@ -0,0 +1,125 @@
+package ai.bluefields.oidcauthdemo.metrics;
+
+import ai.bluefields.oidcauthdemo.dto.FilterTiming;
+import ai.bluefields.oidcauthdemo.dto.FilterTimingStats;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Cumulative self-time histograms for each filter of the Spring Security filter chain, split into
+ * requests to {@code permitAll} routes and all others.
+ *
+ * <p>Recording is wait-free, as in {@link RouteLatencyRecorder}: each series owns an HdrHistogram
+ * {@link Recorder}. Reports drain the recorders into cumulative histograms, so percentiles cover
+ * everything since startup.
+ */
+public class SecurityFilterTimings {
+
+  /**
+   * Filters whose job is shaping the response rather than authenticating the request. They are
+   * never suggested for removal, even when they never answer a request themselves.
+   */
+  private static final Set<String> RESPONSE_FILTERS =
+      Set.of("HeaderWriterFilter", "CorsFilter", "ExceptionTranslationFilter");
+
+  private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  /** Timings of one filter. */
+  public static final class Entry {
+    private final int position;
+    private final String filter;
+    private final Series permitAll = new Series();
+    private final Series authenticated = new Series();
+
+    private Entry(int position, String filter) {
+      this.position = position;
+      this.filter = filter;
+    }
+  }
+
+  /** Self times for one class of routes. */
+  private static final class Series {
+    private final Recorder recorder = new Recorder(1, HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder shortCircuits = new LongAdder();
+    private final Histogram cumulative = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private Histogram recycled;
+
+    void record(long selfNanos, boolean shortCircuit) {
+      long nanos = Math.max(1, Math.min(selfNanos, HIGHEST_TRACKABLE_NANOS));
+      recorder.recordValue(nanos);
+      totalNanos.add(nanos);
+      if (shortCircuit) {
+        shortCircuits.increment();
+      }
+    }
+
+    synchronized FilterTimingStats snapshot() {
+      recycled = recorder.getIntervalHistogram(recycled);
+      cumulative.add(recycled);
+      return new FilterTimingStats(
+          cumulative.getTotalCount(),
+          totalNanos.sum() / 1_000_000.0,
+          cumulative.getTotalCount() == 0 ? 0 : cumulative.getMean() / 1_000.0,
+          cumulative.getValueAtPercentile(50) / 1_000.0,
+          cumulative.getValueAtPercentile(99) / 1_000.0,
+          cumulative.getMaxValue() / 1_000.0,
+          shortCircuits.sum());
+    }
+  }
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the timings of a filter, creating them on first use.
+   *
+   * @param position Position of the filter in the chain.
+   * @param filter Name of the filter.
+   * @return The filter's timings.
+   */
+  public Entry entry(int position, String filter) {
+    return entries.computeIfAbsent(position + ":" + filter, key -> new Entry(position, filter));
+  }
+
+  /**
+   * Records one pass through a filter.
+   *
+   * @param entry The filter's timings.
+   * @param permitAll Whether the request targets a {@code permitAll} route.
+   * @param selfNanos Time spent in the filter itself, excluding the rest of the chain.
+   * @param shortCircuit Whether the filter answered the request instead of passing it on.
+   */
+  public void record(Entry entry, boolean permitAll, long selfNanos, boolean shortCircuit) {
+    (permitAll ? entry.permitAll : entry.authenticated).record(selfNanos, shortCircuit);
+  }
+
+  /**
+   * Reports all filters in chain order.
+   *
+   * @return Per-filter timings with a removal hint for {@code permitAll} routes.
+   */
+  public List<FilterTiming> report() {
+    return entries.values().stream()
+        .sorted(Comparator.comparingInt((Entry entry) -> entry.position))
+        .map(
+            entry -> {
+              FilterTimingStats permitAll = entry.permitAll.snapshot();
+              return new FilterTiming(
+                  entry.position,
+                  entry.filter,
+                  permitAll,
+                  entry.authenticated.snapshot(),
+                  permitAll.count() > 0
+                      && permitAll.shortCircuits() == 0
+                      && !RESPONSE_FILTERS.contains(entry.filter));
+            })
+        .toList();
+  }
+}
@@ -0,0 +1,90 @@
+package ai.bluefields.oidcauthdemo.prefetch;
+
+import ai.bluefields.oidcauthdemo.client.UserInfo;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * A UserInfo call started speculatively for an inbound request before it has been authorized.
+ *
+ * <p>{@link UserInfoPrefetchFilter} starts one as soon as the bearer token is verified and stores
+ * it as a request attribute. The service that would otherwise make the call {@link #claim claims}
+ * it instead; a prefetch nobody claimed by the end of the request, for instance because
+ * authorization failed, is {@link #cancel cancelled}.
+ */
+public final class UserInfoPrefetch {
+
+  /** Request attribute under which the prefetch of the current request is stored. */
+  public static final String ATTRIBUTE = UserInfoPrefetch.class.getName();
+
+  private final String tokenValue;
+  private final Sinks.One<UserInfo> result = Sinks.one();
+  private final AtomicBoolean claimed = new AtomicBoolean();
+  private final Disposable call;
+
+  private UserInfoPrefetch(String tokenValue, Mono<UserInfo> call) {
+    this.tokenValue = tokenValue;
+    this.call = call.subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty);
+  }
+
+  /**
+   * Starts a UserInfo call.
+   *
+   * @param tokenValue The access token the call is made with.
+   * @param call The call; subscribed immediately.
+   * @return The running prefetch.
+   */
+  public static UserInfoPrefetch start(String tokenValue, Mono<UserInfo> call) {
+    return new UserInfoPrefetch(tokenValue, call);
+  }
+
+  /**
+   * Returns the prefetch of the request bound to the current thread, if any.
+   *
+   * @return The current request's prefetch, or empty outside a request or when none was started.
+   */
+  public static Optional<UserInfoPrefetch> current() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(
+        (UserInfoPrefetch) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+  }
+
+  /**
+   * Takes over the prefetched call. Only the first claim for the token the call was made with
+   * succeeds.
+   *
+   * @param tokenValue The access token the caller would make the call with.
+   * @return The call's result, or empty if the prefetch was made with another token or has already
+   *     been claimed.
+   */
+  public Optional<Mono<UserInfo>> claim(String tokenValue) {
+    if (!this.tokenValue.equals(tokenValue) || !claimed.compareAndSet(false, true)) {
+      return Optional.empty();
+    }
+    return Optional.of(result.asMono());
+  }
+
+  /**
+   * Returns whether the prefetch has been claimed.
+   *
+   * @return {@code true} once {@link #claim} has succeeded.
+   */
+  public boolean isClaimed() {
+    return claimed.get();
+  }
+
+  /** Cancels the call unless it has been claimed. */
+  public void cancel() {
+    if (claimed.compareAndSet(false, true)) {
+      call.dispose();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package ai.bluefields.oidcauthdemo.prefetch;
+
+import ai.bluefields.oidcauthdemo.security.PathMatchers;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.service.PrivateInfoService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Security filter that starts the UserInfo call of a request as soon as its bearer token has been
+ * verified, so the call overlaps with authorization and controller dispatch instead of following
+ * them.
+ *
+ * <p>Sits right after the bearer token authentication filter and only acts on routes known to need
+ * UserInfo. The call is handed over as a {@link UserInfoPrefetch} request attribute. When the
+ * request has been handled without claiming it, because authorization failed or the handler did not
+ * need it, the call is cancelled.
+ */
+public class UserInfoPrefetchFilter extends OncePerRequestFilter {
+
+  private final PrivateInfoService privateInfoService;
+  private final RequestMatcher paths;
+
+  /**
+   * Creates the filter.
+   *
+   * @param privateInfoService Builds the UserInfo call.
+   * @param paths Ant-style patterns of the routes whose handlers call UserInfo.
+   */
+  public UserInfoPrefetchFilter(PrivateInfoService privateInfoService, List<String> paths) {
+    this.privateInfoService = privateInfoService;
+    this.paths = PathMatchers.anyOf(paths);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !paths.matches(request);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Optional<UserPrincipal> principal =
+        UserPrincipal.from(SecurityContextHolder.getContext().getAuthentication());
+    if (principal.isEmpty()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    UserInfoPrefetch prefetch =
+        UserInfoPrefetch.start(
+            principal.get().tokenValue(), privateInfoService.userInfo(principal.get()));
+    request.setAttribute(UserInfoPrefetch.ATTRIBUTE, prefetch);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      prefetch.cancel();
+    }
+  }
+}
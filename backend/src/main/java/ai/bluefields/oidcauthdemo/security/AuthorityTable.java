@@ -0,0 +1,78 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Interns authority names into dense bit indexes so sets of authorities can be represented and
+ * compared as {@code long[]} bitsets.
+ *
+ * <p>Only authorities referenced by compiled authorization rules are interned. Authorities that
+ * arrive in tokens but are never checked are simply ignored by {@link #bitsOf(Collection)}, so the
+ * table cannot be grown by callers.
+ */
+public final class AuthorityTable {
+
+  private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the index of an authority, assigning the next free one if it is new.
+   *
+   * @param authority The authority name.
+   * @return Its bit index.
+   */
+  public synchronized int intern(String authority) {
+    return indexes.computeIfAbsent(authority, key -> indexes.size());
+  }
+
+  /**
+   * Returns the number of interned authorities.
+   *
+   * @return The table size.
+   */
+  public int size() {
+    return indexes.size();
+  }
+
+  /**
+   * Interns the given authorities and builds a bitset with their bits set.
+   *
+   * @param authorities Authority names to include.
+   * @return The bitset.
+   */
+  public long[] maskOf(Collection<String> authorities) {
+    long[] mask = new long[words()];
+    for (String authority : authorities) {
+      int index = intern(authority);
+      if (index >= mask.length << 6) {
+        mask = Arrays.copyOf(mask, (index >>> 6) + 1);
+      }
+      mask[index >>> 6] |= 1L << index;
+    }
+    return mask;
+  }
+
+  /**
+   * Projects a user's granted authorities onto the interned table.
+   *
+   * @param authorities The user's authorities.
+   * @return A bitset with the bits of all interned authorities the user holds.
+   */
+  public long[] bitsOf(Collection<? extends GrantedAuthority> authorities) {
+    long[] bits = new long[words()];
+    for (GrantedAuthority authority : authorities) {
+      Integer index = indexes.get(authority.getAuthority());
+      if (index != null && index < bits.length << 6) {
+        bits[index >>> 6] |= 1L << index;
+      }
+    }
+    return bits;
+  }
+
+  private int words() {
+    return Math.max(1, (indexes.size() + 63) >>> 6);
+  }
+}
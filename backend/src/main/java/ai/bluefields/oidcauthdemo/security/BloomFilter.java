@@ -0,0 +1,92 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter over strings.
+ *
+ * <p>Lookups are lock-free and allocation-free: {@code k} bit probes derived from two 64-bit hashes
+ * of a single pass over the key (Kirsch–Mitzenmacher double hashing). Bits can only be set, never
+ * cleared, so removing keys requires building a new filter.
+ */
+final class BloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * Sizes the filter for the expected number of keys and target false-positive rate.
+   *
+   * @param expectedInsertions Expected number of keys.
+   * @param falsePositiveRate Target false-positive probability, between 0 and 1 exclusive.
+   */
+  BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    long n = Math.max(1, expectedInsertions);
+    long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.max(1, (m + 63) >>> 6);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words << 6;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+  }
+
+  /**
+   * Adds a key to the filter.
+   *
+   * @param key The key to add.
+   */
+  void put(String key) {
+    long raw = fnv1a(key);
+    long h1 = mix(raw);
+    long h2 = mix(raw ^ 0x9E3779B97F4A7C15L) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current;
+      do {
+        current = bits.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!bits.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  /**
+   * Tests whether a key may have been added.
+   *
+   * @param key The key to test.
+   * @return {@code false} if the key was definitely never added; {@code true} if it may have been.
+   */
+  boolean mightContain(String key) {
+    long raw = fnv1a(key);
+    long h1 = mix(raw);
+    long h2 = mix(raw ^ 0x9E3779B97F4A7C15L) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long fnv1a(String key) {
+    long h = 0xCBF29CE484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      h = (h ^ key.charAt(i)) * 0x100000001B3L;
+    }
+    return h;
+  }
+
+  /** MurmurHash3's fmix64 finalizer, so nearby keys spread across the bit array. */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
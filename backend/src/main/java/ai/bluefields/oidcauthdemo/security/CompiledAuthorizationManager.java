@@ -0,0 +1,289 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link AuthorizationManager} for {@code @PreAuthorize} that compiles the annotation expressions
+ * into direct authority checks instead of evaluating SpEL on every call.
+ *
+ * <p>Each annotated method is compiled once per target class, eagerly for every bean in the context
+ * at startup and lazily for anything that shows up later. The target class matters because a
+ * class-level annotation applies to inherited methods too, so one method can carry different rules
+ * on different beans. The supported grammar covers what this application uses: {@code
+ * hasAuthority}, {@code hasAnyAuthority}, {@code hasRole}, {@code hasAnyRole}, {@code
+ * isAuthenticated()}, {@code permitAll} and {@code denyAll}, combined with {@code and}/{@code or}
+ * ({@code and} binding tighter, no parentheses). Referenced authorities are interned in an {@link
+ * AuthorityTable}; a rule is a bit mask and a check is a couple of word-wide ANDs over the caller's
+ * authority bits. Any expression outside the grammar is delegated unchanged to Spring's SpEL-based
+ * {@link PreAuthorizeAuthorizationManager}, so behaviour never silently differs.
+ *
+ * <p>Denials are reported the same way as before: the method interceptor throws {@code
+ * AuthorizationDeniedException}, which {@code GlobalExceptionHandler} maps to 403.
+ */
+public class CompiledAuthorizationManager
+    implements AuthorizationManager<MethodInvocation>,
+        ApplicationContextAware,
+        SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(CompiledAuthorizationManager.class);
+
+  private static final String ROLE_PREFIX = "ROLE_";
+  private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+  private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+  private static final AuthenticationTrustResolver TRUST_RESOLVER =
+      new AuthenticationTrustResolverImpl();
+
+  private static final Pattern CALL =
+      Pattern.compile(
+          "(hasAuthority|hasAnyAuthority|hasRole|hasAnyRole)\\(\\s*('[^']*'(?:\\s*,\\s*'[^']*')*)\\s*\\)");
+  private static final Pattern QUOTED = Pattern.compile("'([^']*)'");
+  private static final Pattern OR = Pattern.compile("\\s+or\\s+|\\s*\\|\\|\\s*");
+  private static final Pattern AND = Pattern.compile("\\s+and\\s+|\\s*&&\\s*");
+
+  /** A compiled {@code @PreAuthorize} expression. */
+  sealed interface Rule {
+    /**
+     * Evaluates the rule.
+     *
+     * @param bits The caller's authority bits.
+     * @param authentication The caller.
+     * @return Whether access is granted.
+     */
+    boolean matches(long[] bits, Authentication authentication);
+  }
+
+  private record AnyOf(long[] mask) implements Rule {
+    @Override
+    public boolean matches(long[] bits, Authentication authentication) {
+      for (int i = 0; i < mask.length && i < bits.length; i++) {
+        if ((bits[i] & mask[i]) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private record Constant(boolean granted) implements Rule {
+    @Override
+    public boolean matches(long[] bits, Authentication authentication) {
+      return granted;
+    }
+  }
+
+  private record Authenticated() implements Rule {
+    @Override
+    public boolean matches(long[] bits, Authentication authentication) {
+      return TRUST_RESOLVER.isAuthenticated(authentication);
+    }
+  }
+
+  private record AllOf(List<Rule> rules) implements Rule {
+    @Override
+    public boolean matches(long[] bits, Authentication authentication) {
+      for (Rule rule : rules) {
+        if (!rule.matches(bits, authentication)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private record AnyRule(List<Rule> rules) implements Rule {
+    @Override
+    public boolean matches(long[] bits, Authentication authentication) {
+      for (Rule rule : rules) {
+        if (rule.matches(bits, authentication)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private final AuthorityTable authorityTable = new AuthorityTable();
+
+  /**
+   * Per method and target class: a compiled rule's check, or {@link #spelFallback} for uncompilable
+   * expressions.
+   */
+  private final Map<MethodClassKey, AuthorizationManager<MethodInvocation>> managers =
+      new ConcurrentHashMap<>();
+
+  private final PreAuthorizeAuthorizationManager spelFallback =
+      new PreAuthorizeAuthorizationManager();
+  private ApplicationContext applicationContext;
+
+  @Override
+  public void setApplicationContext(ApplicationContext applicationContext) {
+    this.applicationContext = applicationContext;
+    DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+    handler.setApplicationContext(applicationContext);
+    spelFallback.setExpressionHandler(handler);
+  }
+
+  /** Compiles the {@code @PreAuthorize} rules of every bean once the context is ready. */
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (applicationContext == null) {
+      return;
+    }
+    for (String name : applicationContext.getBeanDefinitionNames()) {
+      Class<?> type = applicationContext.getType(name, false);
+      if (type == null) {
+        continue;
+      }
+      Class<?> targetClass = ClassUtils.getUserClass(type);
+      boolean classAnnotated = AnnotatedElementUtils.hasAnnotation(targetClass, PreAuthorize.class);
+      for (Method method : targetClass.getMethods()) {
+        if (method.getDeclaringClass() != Object.class
+            && (classAnnotated
+                || AnnotatedElementUtils.findMergedAnnotation(
+                        AopUtils.getMostSpecificMethod(method, targetClass), PreAuthorize.class)
+                    != null)) {
+          managers.computeIfAbsent(
+              new MethodClassKey(method, targetClass), key -> compile(method, targetClass));
+        }
+      }
+    }
+    log.info(
+        "Precompiled {} of {} @PreAuthorize rules",
+        managers.values().stream().filter(manager -> manager != spelFallback).count(),
+        managers.size());
+  }
+
+  @Override
+  public AuthorizationResult authorize(
+      Supplier<Authentication> authentication, MethodInvocation invocation) {
+    Method method = invocation.getMethod();
+    Class<?> targetClass = targetClass(invocation, method);
+    return managers
+        .computeIfAbsent(
+            new MethodClassKey(method, targetClass), key -> compile(method, targetClass))
+        .authorize(authentication, invocation);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @deprecated Use {@link #authorize(Supplier, MethodInvocation)}.
+   */
+  @Deprecated
+  @Override
+  public AuthorizationDecision check(
+      Supplier<Authentication> authentication, MethodInvocation invocation) {
+    AuthorizationResult result = authorize(authentication, invocation);
+    return result == null || result instanceof AuthorizationDecision
+        ? (AuthorizationDecision) result
+        : new AuthorizationDecision(result.isGranted());
+  }
+
+  /**
+   * Compiles a {@code @PreAuthorize} expression.
+   *
+   * @param expression The SpEL expression text.
+   * @return The compiled rule, or {@code null} if the expression is outside the supported grammar.
+   */
+  Rule compile(String expression) {
+    List<Rule> alternatives = new ArrayList<>();
+    for (String disjunct : OR.split(expression.trim())) {
+      List<Rule> terms = new ArrayList<>();
+      for (String term : AND.split(disjunct.trim())) {
+        Rule rule = compileTerm(term.trim());
+        if (rule == null) {
+          return null;
+        }
+        terms.add(rule);
+      }
+      alternatives.add(terms.size() == 1 ? terms.get(0) : new AllOf(List.copyOf(terms)));
+    }
+    return alternatives.size() == 1 ? alternatives.get(0) : new AnyRule(List.copyOf(alternatives));
+  }
+
+  /**
+   * Compiles a method's {@code @PreAuthorize} rule.
+   *
+   * @return The check of the compiled rule, or {@link #spelFallback} if there is none.
+   */
+  private AuthorizationManager<MethodInvocation> compile(Method method, Class<?> targetClass) {
+    Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+    PreAuthorize annotation =
+        AnnotatedElementUtils.findMergedAnnotation(specific, PreAuthorize.class);
+    if (annotation == null) {
+      annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+    }
+    if (annotation == null) {
+      return spelFallback;
+    }
+    Rule rule = compile(annotation.value());
+    if (rule == null) {
+      log.info(
+          "@PreAuthorize(\"{}\") on {} is not compilable; using SpEL",
+          annotation.value(),
+          specific);
+      return spelFallback;
+    }
+    return (authentication, invocation) -> {
+      Authentication current = authentication.get();
+      long[] bits = current == null ? new long[0] : authorityTable.bitsOf(current.getAuthorities());
+      return rule.matches(bits, current) ? GRANTED : DENIED;
+    };
+  }
+
+  private Rule compileTerm(String term) {
+    switch (term) {
+      case "permitAll", "permitAll()":
+        return new Constant(true);
+      case "denyAll", "denyAll()":
+        return new Constant(false);
+      case "isAuthenticated()":
+        return new Authenticated();
+      default:
+        break;
+    }
+    Matcher call = CALL.matcher(term);
+    if (!call.matches()) {
+      return null;
+    }
+    boolean roles = call.group(1).contains("Role");
+    List<String> authorities = new ArrayList<>();
+    Matcher quoted = QUOTED.matcher(call.group(2));
+    while (quoted.find()) {
+      String value = quoted.group(1);
+      authorities.add(roles && !value.startsWith(ROLE_PREFIX) ? ROLE_PREFIX + value : value);
+    }
+    return new AnyOf(authorityTable.maskOf(authorities));
+  }
+
+  private static Class<?> targetClass(MethodInvocation invocation, Method method) {
+    Object target = invocation.getThis();
+    return target != null ? AopUtils.getTargetClass(target) : method.getDeclaringClass();
+  }
+}
@@ -0,0 +1,79 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Last known good copy of the issuer's discovery document and JWKS, as persisted on disk.
+ *
+ * <p>Both documents are kept as the raw JSON returned by the issuer so the {@code sha256} digest
+ * can be recomputed byte-for-byte when the snapshot is loaded.
+ *
+ * @param issuer The issuer the documents were fetched from.
+ * @param fetchedAt When the documents were fetched from the live issuer.
+ * @param discovery The raw OIDC discovery document.
+ * @param jwks The raw JWK set.
+ * @param sha256 Hex-encoded SHA-256 digest over issuer, fetch time and both documents.
+ */
+public record JwksSnapshot(
+    String issuer, Instant fetchedAt, String discovery, String jwks, String sha256) {
+
+  /**
+   * Creates a snapshot and computes its integrity digest.
+   *
+   * @param issuer The issuer the documents were fetched from.
+   * @param fetchedAt When the documents were fetched.
+   * @param discovery The raw discovery document.
+   * @param jwks The raw JWK set.
+   * @return A snapshot carrying a freshly computed digest.
+   */
+  public static JwksSnapshot of(String issuer, Instant fetchedAt, String discovery, String jwks) {
+    return new JwksSnapshot(
+        issuer, fetchedAt, discovery, jwks, digest(issuer, fetchedAt, discovery, jwks));
+  }
+
+  /**
+   * Checks that the stored digest matches the content.
+   *
+   * @return {@code true} if the snapshot has not been truncated or tampered with.
+   */
+  @JsonIgnore
+  public boolean isIntact() {
+    return sha256 != null
+        && MessageDigest.isEqual(
+            sha256.getBytes(StandardCharsets.US_ASCII),
+            digest(issuer, fetchedAt, discovery, jwks).getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Checks whether the snapshot is still young enough to be trusted.
+   *
+   * @param now The current time.
+   * @param maxStaleness The maximum accepted age.
+   * @return {@code true} if the snapshot was fetched within {@code maxStaleness} of {@code now} and
+   *     not in the future.
+   */
+  public boolean isFresh(Instant now, Duration maxStaleness) {
+    return fetchedAt != null
+        && !fetchedAt.isAfter(now)
+        && Duration.between(fetchedAt, now).compareTo(maxStaleness) <= 0;
+  }
+
+  private static String digest(String issuer, Instant fetchedAt, String discovery, String jwks) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      for (String part : new String[] {issuer, String.valueOf(fetchedAt), discovery, jwks}) {
+        md.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0); // Field separator so boundaries cannot be shifted
+      }
+      return HexFormat.of().formatHex(md.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
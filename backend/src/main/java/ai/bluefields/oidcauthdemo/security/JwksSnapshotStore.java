@@ -0,0 +1,81 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads and writes {@link JwksSnapshot} files.
+ *
+ * <p>Writes go to a temporary sibling file that is then moved into place, so a crash mid-write
+ * never leaves a half-written snapshot behind. Reads never throw: a missing, unreadable or corrupt
+ * file simply yields an empty result and the caller falls back to the live issuer.
+ */
+public class JwksSnapshotStore {
+
+  private static final Logger log = LoggerFactory.getLogger(JwksSnapshotStore.class);
+
+  private final Path file;
+  private final ObjectMapper mapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+  /**
+   * Creates a store backed by the given file.
+   *
+   * @param file The snapshot file location.
+   */
+  public JwksSnapshotStore(Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Loads the snapshot if it exists and passes the integrity check.
+   *
+   * @return The stored snapshot, or empty if none is usable.
+   */
+  public Optional<JwksSnapshot> load() {
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    try {
+      JwksSnapshot snapshot = mapper.readValue(file.toFile(), JwksSnapshot.class);
+      if (!snapshot.isIntact()) {
+        log.warn("Ignoring JWKS snapshot {}: integrity check failed", file);
+        return Optional.empty();
+      }
+      return Optional.of(snapshot);
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable JWKS snapshot {}: {}", file, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Atomically replaces the stored snapshot.
+   *
+   * @param snapshot The snapshot to persist.
+   * @throws IOException If the file cannot be written.
+   */
+  public void save(JwksSnapshot snapshot) throws IOException {
+    Path dir = file.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try {
+      mapper.writeValue(tmp.toFile(), snapshot);
+      try {
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.crypto.impl.CriticalHeaderParamsDeferral;
+import com.nimbusds.jose.crypto.impl.ECDSA;
+import com.nimbusds.jose.crypto.impl.RSASSA;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Key selector and verifier factory for Nimbus' JWT processor that keeps verification state per key
+ * id instead of rebuilding it for every token.
+ *
+ * <p>Nimbus' default {@code JWSVerificationKeySelector} converts the matching JWKs into Java keys
+ * and {@code DefaultJWSVerifierFactory} wraps them in a fresh verifier, which looks up and
+ * initializes a new JCA {@link Signature} on each call. Here a key id resolves to its public key
+ * and one verifier per algorithm, built once. Each verifier keeps a pool of {@link Signature}
+ * objects already initialized with the key; a verification borrows one exclusively, so it is only
+ * ever used by one thread at a time, and returns it afterwards. The pool grows to the number of
+ * concurrent verifications and no further.
+ *
+ * <p>Keys are still looked up in the {@link JWKSource} for every token, so unknown key ids trigger
+ * the source's refresh as before. A cached entry is only used while the source returns the same key
+ * for its id; {@link #invalidate()} drops all entries when the key set changes.
+ *
+ * <p>The verifiers apply the same checks as Nimbus' {@code RSASSAVerifier} and {@code
+ * ECDSAVerifier}: critical header parameters are rejected, and ECDSA signatures must have the
+ * algorithm's length and be legal before they are verified.
+ */
+public class JwsVerifierCache implements JWSKeySelector<SecurityContext>, JWSVerifierFactory {
+
+  /** Bound on cached key ids, should a source keep handing out new ones. */
+  private static final int MAX_KEYS = 64;
+
+  private record Entry(JWK jwk, PublicKey key, Map<JWSAlgorithm, JWSVerifier> verifiers) {}
+
+  private final Set<JWSAlgorithm> algorithms;
+  private final JWKSource<SecurityContext> keySource;
+  private final JCAContext jcaContext = new JCAContext();
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the cache.
+   *
+   * @param algorithms Accepted algorithms; tokens signed with any other are rejected.
+   * @param keySource Source of verification keys.
+   */
+  public JwsVerifierCache(Set<JWSAlgorithm> algorithms, JWKSource<SecurityContext> keySource) {
+    this.algorithms = Set.copyOf(algorithms);
+    this.keySource = keySource;
+  }
+
+  /** Drops all cached keys and verifiers, e.g. because the key set changed. */
+  public void invalidate() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of cached key ids.
+   *
+   * @return The number of entries.
+   */
+  int size() {
+    return entries.size();
+  }
+
+  @Override
+  public List<? extends Key> selectJWSKeys(JWSHeader header, SecurityContext context)
+      throws KeySourceException {
+    if (!algorithms.contains(header.getAlgorithm())) {
+      return List.of();
+    }
+    JWKMatcher matcher = JWKMatcher.forJWSHeader(header);
+    if (matcher == null) {
+      return List.of();
+    }
+    List<JWK> jwks = keySource.get(new JWKSelector(matcher), context);
+    List<Key> keys = new ArrayList<>(jwks.size());
+    for (JWK jwk : jwks) {
+      Entry entry = entry(jwk);
+      if (entry != null) {
+        keys.add(entry.key());
+      }
+    }
+    return keys;
+  }
+
+  @Override
+  public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+    Entry entry = header.getKeyID() == null ? null : entries.get(header.getKeyID());
+    if (entry == null || entry.key() != key) {
+      entry = entries.values().stream().filter(e -> e.key() == key).findFirst().orElse(null);
+    }
+    if (entry == null) {
+      return new PooledVerifier(header.getAlgorithm(), key, jcaContext); // Not selected by us
+    }
+    JWSVerifier verifier = entry.verifiers().get(header.getAlgorithm());
+    if (verifier == null) {
+      verifier = new PooledVerifier(header.getAlgorithm(), key, jcaContext);
+      JWSVerifier existing = entry.verifiers().putIfAbsent(header.getAlgorithm(), verifier);
+      verifier = existing != null ? existing : verifier;
+    }
+    return verifier;
+  }
+
+  @Override
+  public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+    return algorithms;
+  }
+
+  @Override
+  public JCAContext getJCAContext() {
+    return jcaContext;
+  }
+
+  private Entry entry(JWK jwk) throws KeySourceException {
+    String id = jwk.getKeyID() != null ? jwk.getKeyID() : thumbprint(jwk);
+    Entry entry = entries.get(id);
+    if (entry != null) {
+      if (entry.jwk() == jwk) {
+        return entry;
+      }
+      if (entry.jwk().equals(jwk)) {
+        // Same key from a re-fetched set: keep the verifiers, remember the new instance
+        Entry current = new Entry(jwk, entry.key(), entry.verifiers());
+        entries.replace(id, entry, current);
+        return current;
+      }
+    }
+    PublicKey key = publicKey(jwk);
+    if (key == null) {
+      return null;
+    }
+    if (entries.size() >= MAX_KEYS) {
+      entries.clear();
+    }
+    Entry fresh = new Entry(jwk, key, new ConcurrentHashMap<>());
+    entries.put(id, fresh);
+    return fresh;
+  }
+
+  private static PublicKey publicKey(JWK jwk) throws KeySourceException {
+    try {
+      if (jwk instanceof RSAKey rsaKey) {
+        return rsaKey.toRSAPublicKey();
+      }
+      if (jwk instanceof ECKey ecKey) {
+        return ecKey.toECPublicKey();
+      }
+      return null;
+    } catch (JOSEException e) {
+      throw new KeySourceException("Unusable key " + jwk.getKeyID() + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static String thumbprint(JWK jwk) throws KeySourceException {
+    try {
+      return jwk.computeThumbprint().toString();
+    } catch (JOSEException e) {
+      throw new KeySourceException("Cannot identify key: " + e.getMessage(), e);
+    }
+  }
+
+  /** Verifies one algorithm with one public key, reusing initialized {@link Signature} objects. */
+  static final class PooledVerifier implements JWSVerifier {
+
+    private final JWSAlgorithm algorithm;
+    private final PublicKey key;
+    private final boolean ecdsa;
+    private final JCAContext jcaContext;
+    private final CriticalHeaderParamsDeferral critPolicy = new CriticalHeaderParamsDeferral();
+    private final Queue<Signature> pool = new ConcurrentLinkedQueue<>();
+
+    PooledVerifier(JWSAlgorithm algorithm, Key key, JCAContext jcaContext) throws JOSEException {
+      if (JWSAlgorithm.Family.RSA.contains(algorithm) && key instanceof RSAPublicKey) {
+        this.ecdsa = false;
+      } else if (JWSAlgorithm.Family.EC.contains(algorithm)
+          && key instanceof ECPublicKey ecKey
+          && ECDSA.resolveAlgorithm(ecKey).equals(algorithm)) {
+        this.ecdsa = true;
+      } else {
+        throw new JOSEException("Key does not fit algorithm " + algorithm);
+      }
+      this.algorithm = algorithm;
+      this.key = (PublicKey) key;
+      this.jcaContext = jcaContext;
+      pool.add(newSignature()); // Fails early on an unusable key
+    }
+
+    @Override
+    public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature)
+        throws JOSEException {
+      if (!algorithm.equals(header.getAlgorithm())) {
+        throw new JOSEException("Verifier is for " + algorithm + ", not " + header.getAlgorithm());
+      }
+      if (!critPolicy.headerPasses(header)) {
+        return false;
+      }
+      byte[] signatureBytes = signature.decode();
+      if (ecdsa) {
+        try {
+          ECDSA.ensureLegalSignature(signatureBytes, algorithm);
+          signatureBytes = ECDSA.transcodeSignatureToDER(signatureBytes);
+        } catch (JOSEException e) {
+          return false;
+        }
+      }
+      Signature verifier = pool.poll();
+      if (verifier == null) {
+        verifier = newSignature();
+      }
+      try {
+        verifier.update(signingInput);
+        boolean valid = verifier.verify(signatureBytes); // Resets it for the next use
+        pool.offer(verifier);
+        return valid;
+      } catch (SignatureException e) {
+        return false; // Not returned to the pool: its state is unknown
+      }
+    }
+
+    private Signature newSignature() throws JOSEException {
+      Signature signature =
+          ecdsa
+              ? ECDSA.getSignerAndVerifier(algorithm, jcaContext.getProvider())
+              : RSASSA.getSignerAndVerifier(algorithm, jcaContext.getProvider());
+      try {
+        signature.initVerify(key);
+      } catch (InvalidKeyException e) {
+        throw new JOSEException("Invalid public key: " + e.getMessage(), e);
+      }
+      return signature;
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+      return Set.of(algorithm);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+      return jcaContext;
+    }
+  }
+}
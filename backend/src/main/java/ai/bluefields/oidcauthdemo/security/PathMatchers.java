@@ -0,0 +1,31 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import java.util.List;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.util.UrlPathHelper;
+
+/** Builds the request matchers servlet filters use for their configured path lists. */
+public final class PathMatchers {
+
+  private PathMatchers() {}
+
+  /**
+   * Creates a matcher for any of the given paths, matched case-sensitively against the path within
+   * the application, for every HTTP method.
+   *
+   * @param paths Ant-style path patterns; may be empty.
+   * @return The matcher; one that matches nothing if {@code paths} is empty.
+   */
+  public static RequestMatcher anyOf(List<String> paths) {
+    if (paths.isEmpty()) {
+      return request -> false;
+    }
+    return new OrRequestMatcher(
+        paths.stream()
+            .<RequestMatcher>map(
+                path -> new AntPathRequestMatcher(path, null, true, new UrlPathHelper()))
+            .toList());
+  }
+}
@@ -0,0 +1,35 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Rejects JWTs whose {@code jti} is on the {@link TokenRevocationList}. Runs as part of the
+ * decoder's validation, so revoked tokens fail with {@code 401 invalid_token} before any
+ * authorization or controller code is reached.
+ */
+public class RevokedTokenValidator implements OAuth2TokenValidator<Jwt> {
+
+  private static final OAuth2TokenValidatorResult REVOKED =
+      OAuth2TokenValidatorResult.failure(
+          new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "The token has been revoked", null));
+
+  private final TokenRevocationList revocationList;
+
+  /**
+   * Creates the validator.
+   *
+   * @param revocationList The denylist to consult.
+   */
+  public RevokedTokenValidator(TokenRevocationList revocationList) {
+    this.revocationList = revocationList;
+  }
+
+  @Override
+  public OAuth2TokenValidatorResult validate(Jwt token) {
+    return revocationList.isRevoked(token.getId()) ? REVOKED : OAuth2TokenValidatorResult.success();
+  }
+}
@@ -0,0 +1,20 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import org.springframework.security.web.FilterChainProxy;
+
+/**
+ * Contributes a {@link FilterChainProxy.FilterChainDecorator} to Spring Security's filter chain
+ * proxy. All instrumentation beans are stacked in {@link org.springframework.core.annotation.Order
+ * order}, the first one outermost, around the default virtual filter chain.
+ */
+@FunctionalInterface
+public interface SecurityFilterChainInstrumentation {
+
+  /**
+   * Wraps the next decorator.
+   *
+   * @param next The decorator to delegate to.
+   * @return The instrumented decorator.
+   */
+  FilterChainProxy.FilterChainDecorator decorate(FilterChainProxy.FilterChainDecorator next);
+}
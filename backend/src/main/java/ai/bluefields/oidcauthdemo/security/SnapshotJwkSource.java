@@ -0,0 +1,274 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import ai.bluefields.oidcauthdemo.config.JwksSnapshotProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link JWKSource} that serves keys from the last known good JWKS and keeps it current in the
+ * background.
+ *
+ * <p>At startup the on-disk {@link JwksSnapshot} is loaded if it is intact, belongs to the
+ * configured issuer and is younger than {@link JwksSnapshotProperties#maxStaleness()}, so tokens
+ * can be validated before the issuer has answered a single request. The live discovery document and
+ * JWKS are then fetched asynchronously, at a fixed interval, and whenever a token references a key
+ * id the current set does not know. Every successful fetch is written back to disk.
+ *
+ * <p>The staleness bound also applies in memory: once the current key set is older than the bound
+ * and the issuer cannot be reached, key lookups fail and tokens are rejected rather than validated
+ * against keys that may have been rotated out long ago.
+ */
+public class SnapshotJwkSource implements JWKSource<SecurityContext>, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(SnapshotJwkSource.class);
+
+  /** Minimum gap between two refreshes triggered by unknown key ids. */
+  private static final Duration UNKNOWN_KID_REFRESH_GAP = Duration.ofSeconds(30);
+
+  private record State(JwksSnapshot snapshot, JWKSet jwkSet) {}
+
+  private final String issuer;
+  private final JwksSnapshotProperties properties;
+  private final JwksSnapshotStore store;
+  private final WebClient webClient;
+  private final Clock clock;
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final AtomicReference<Mono<State>> inflight = new AtomicReference<>();
+  private final List<Runnable> keysChangedListeners = new CopyOnWriteArrayList<>();
+
+  private volatile State state;
+  private volatile Instant lastForcedRefresh = Instant.EPOCH;
+  private volatile Disposable schedule;
+
+  /**
+   * Creates the source and loads the on-disk snapshot, if usable. No network call is made until
+   * {@link #start()} is invoked or a key is requested.
+   *
+   * @param issuer The configured issuer URI.
+   * @param properties Snapshot configuration.
+   * @param store The snapshot store.
+   * @param webClient Client used to reach the issuer.
+   * @param clock Clock used for staleness checks.
+   */
+  public SnapshotJwkSource(
+      String issuer,
+      JwksSnapshotProperties properties,
+      JwksSnapshotStore store,
+      WebClient webClient,
+      Clock clock) {
+    this.issuer = issuer;
+    this.properties = properties;
+    this.store = store;
+    this.webClient = webClient;
+    this.clock = clock;
+    this.state = store.load().flatMap(this::toTrustedState).orElse(null);
+    if (state != null) {
+      log.info("Loaded JWKS snapshot for {} fetched at {}", issuer, state.snapshot().fetchedAt());
+    }
+  }
+
+  /** Starts the asynchronous refresh from the live issuer: once now, then at a fixed interval. */
+  public void start() {
+    schedule =
+        Flux.interval(Duration.ZERO, properties.refreshInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> refresh().onErrorResume(e -> Mono.empty()))
+            .subscribe();
+  }
+
+  /** Stops the background refresh. */
+  @Override
+  public void close() {
+    Disposable current = schedule;
+    if (current != null) {
+      current.dispose();
+    }
+  }
+
+  /**
+   * Registers a callback run after a refresh replaced the key set with a different one.
+   *
+   * @param listener The callback.
+   */
+  public void onKeysChanged(Runnable listener) {
+    keysChangedListeners.add(listener);
+  }
+
+  /**
+   * Returns the time the current key set was fetched from the issuer.
+   *
+   * @return The fetch time, or empty if no key set has been loaded yet.
+   */
+  public Optional<Instant> fetchedAt() {
+    State current = state;
+    return current == null ? Optional.empty() : Optional.of(current.snapshot().fetchedAt());
+  }
+
+  @Override
+  public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+    State current = state;
+    if (current == null || !isFresh(current)) {
+      current = awaitRefresh();
+    }
+    List<JWK> keys = jwkSelector.select(current.jwkSet());
+    if (keys.isEmpty() && mayForceRefresh()) {
+      // Possibly a key rotation: give the issuer one chance to tell us about the new key
+      keys = jwkSelector.select(awaitRefresh().jwkSet());
+    }
+    return keys;
+  }
+
+  /**
+   * Fetches the discovery document and JWKS from the live issuer. Concurrent callers share a single
+   * in-flight fetch.
+   *
+   * @return A {@link Mono} completing once the new key set is active and persisted.
+   */
+  Mono<State> refresh() {
+    Mono<State> existing = inflight.get();
+    if (existing != null) {
+      return existing;
+    }
+    Mono<State> fetch =
+        fetchSnapshot()
+            .publishOn(Schedulers.boundedElastic())
+            .map(
+                snapshot -> {
+                  State fresh =
+                      toTrustedState(snapshot)
+                          .orElseThrow(
+                              () -> new IllegalStateException("Issuer returned an unusable JWKS"));
+                  State previous = state;
+                  state = fresh;
+                  if (previous == null || !previous.snapshot().jwks().equals(snapshot.jwks())) {
+                    keysChangedListeners.forEach(Runnable::run);
+                  }
+                  persist(snapshot);
+                  return fresh;
+                })
+            .doOnError(e -> log.warn("JWKS refresh from {} failed: {}", issuer, e.getMessage()))
+            .doFinally(signal -> inflight.set(null))
+            .cache();
+    // The competing fetch may complete and clear the slot between a failed CAS and the read
+    while (!inflight.compareAndSet(null, fetch)) {
+      Mono<State> inFlight = inflight.get();
+      if (inFlight != null) {
+        return inFlight;
+      }
+    }
+    return fetch;
+  }
+
+  private Mono<JwksSnapshot> fetchSnapshot() {
+    String discoveryUri = stripTrailingSlash(issuer) + "/.well-known/openid-configuration";
+    return fetch(discoveryUri)
+        .flatMap(
+            discovery -> {
+              String jwksUri = readTree(discovery).path("jwks_uri").asText(null);
+              if (jwksUri == null) {
+                return Mono.error(new IllegalStateException("Discovery document has no jwks_uri"));
+              }
+              return fetch(jwksUri)
+                  .map(jwks -> JwksSnapshot.of(issuer, clock.instant(), discovery, jwks));
+            });
+  }
+
+  private Mono<String> fetch(String uri) {
+    return webClient
+        .get()
+        .uri(uri)
+        .retrieve()
+        .bodyToMono(String.class)
+        .timeout(properties.fetchTimeout());
+  }
+
+  private State awaitRefresh() throws KeySourceException {
+    try {
+      State refreshed = refresh().block(properties.fetchTimeout().multipliedBy(2));
+      if (refreshed == null) {
+        throw new KeySourceException("JWKS refresh from " + issuer + " returned nothing");
+      }
+      return refreshed;
+    } catch (RuntimeException e) {
+      throw new KeySourceException("No trusted JWKS available for " + issuer, e);
+    }
+  }
+
+  private boolean mayForceRefresh() {
+    Instant now = clock.instant();
+    if (now.isBefore(lastForcedRefresh.plus(UNKNOWN_KID_REFRESH_GAP))) {
+      return false;
+    }
+    lastForcedRefresh = now;
+    return true;
+  }
+
+  private boolean isFresh(State current) {
+    return current.snapshot().isFresh(clock.instant(), properties.maxStaleness());
+  }
+
+  private Optional<State> toTrustedState(JwksSnapshot snapshot) {
+    if (!issuer.equals(snapshot.issuer())
+        || !issuer.equals(readTree(snapshot.discovery()).path("issuer").asText(null))) {
+      log.warn("Ignoring JWKS snapshot: issuer does not match {}", issuer);
+      return Optional.empty();
+    }
+    if (!snapshot.isFresh(clock.instant(), properties.maxStaleness())) {
+      log.warn("Ignoring JWKS snapshot fetched at {}: too old", snapshot.fetchedAt());
+      return Optional.empty();
+    }
+    try {
+      JWKSet jwkSet = JWKSet.parse(snapshot.jwks());
+      if (jwkSet.isEmpty()) {
+        log.warn("Ignoring JWKS snapshot: key set is empty");
+        return Optional.empty();
+      }
+      return Optional.of(new State(snapshot, jwkSet));
+    } catch (ParseException e) {
+      log.warn("Ignoring JWKS snapshot: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private void persist(JwksSnapshot snapshot) {
+    try {
+      store.save(snapshot);
+    } catch (IOException e) {
+      log.warn("Could not persist JWKS snapshot: {}", e.getMessage());
+    }
+  }
+
+  private JsonNode readTree(String json) {
+    try {
+      return mapper.readTree(json);
+    } catch (IOException e) {
+      return mapper.missingNode();
+    }
+  }
+
+  private static String stripTrailingSlash(String uri) {
+    return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+  }
+}
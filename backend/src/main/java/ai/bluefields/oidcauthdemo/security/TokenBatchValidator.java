@@ -0,0 +1,189 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import ai.bluefields.oidcauthdemo.deadline.Deadline;
+import ai.bluefields.oidcauthdemo.dto.TokenValidationResponse.Result;
+import ai.bluefields.oidcauthdemo.exception.BatchLimitExceededException;
+import ai.bluefields.oidcauthdemo.exception.DeadlineExceededException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+/**
+ * Validates batches of bearer tokens exactly as the resource server would validate a single one:
+ * with the application's {@link JwtDecoder} (and so its JWKS, timestamp, issuer and revocation
+ * checks) and the {@link UserPrincipalConverter} for authorities.
+ *
+ * <p>Signature verification is CPU-bound, so a batch is spread over a fixed pool of worker threads
+ * shared by all batches. The requesting thread works through the batch as well and helpers only
+ * take tokens nobody has claimed yet, so a batch never waits for a busy pool: at worst the
+ * requesting thread validates it alone. Tokens repeated within a batch are verified once. Waiting
+ * for the helpers is bounded by the request's {@link Deadline}.
+ *
+ * <p>Rejections carry a fixed reason per kind of failure, not the decoder's message, which can
+ * expose claim values and key details; the message is logged at debug level instead.
+ */
+public class TokenBatchValidator implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(TokenBatchValidator.class);
+
+  private static final String NOT_VALIDATED = "Token could not be validated";
+
+  private final JwtDecoder jwtDecoder;
+  private final UserPrincipalConverter converter;
+  private final int maxTokens;
+  private final int maxTokenLength;
+  private final int parallelism;
+  private final ExecutorService workers;
+
+  /**
+   * Creates the validator and its worker pool.
+   *
+   * @param jwtDecoder Decodes and validates each token.
+   * @param converter Computes each token's authorities.
+   * @param maxTokens Most tokens accepted in one batch.
+   * @param maxTokenLength Longest token, in characters, that is decoded.
+   * @param parallelism Worker threads helping the requesting thread; zero validates on the
+   *     requesting thread only.
+   */
+  public TokenBatchValidator(
+      JwtDecoder jwtDecoder,
+      UserPrincipalConverter converter,
+      int maxTokens,
+      int maxTokenLength,
+      int parallelism) {
+    this.jwtDecoder = jwtDecoder;
+    this.converter = converter;
+    this.maxTokens = maxTokens;
+    this.maxTokenLength = maxTokenLength;
+    this.parallelism = Math.max(0, parallelism);
+    this.workers =
+        this.parallelism == 0
+            ? null
+            : Executors.newFixedThreadPool(
+                this.parallelism,
+                Thread.ofPlatform().name("token-validation-", 0).daemon().factory());
+  }
+
+  /**
+   * Validates a batch of tokens.
+   *
+   * @param tokens The tokens to validate.
+   * @return One result per token, in the same order.
+   * @throws BatchLimitExceededException If the batch holds more than the configured maximum.
+   */
+  public List<Result> validate(List<String> tokens) {
+    if (tokens.size() > maxTokens) {
+      throw new BatchLimitExceededException(
+          "Batch of " + tokens.size() + " tokens exceeds the limit of " + maxTokens);
+    }
+    Map<String, Integer> slots = new HashMap<>();
+    List<String> distinct = new ArrayList<>(tokens.size());
+    int[] slotOf = new int[tokens.size()];
+    for (int i = 0; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      Integer slot = slots.putIfAbsent(token == null ? "" : token, distinct.size());
+      if (slot == null) {
+        slot = distinct.size();
+        distinct.add(token);
+      }
+      slotOf[i] = slot;
+    }
+
+    Result[] distinctResults = validateAll(distinct);
+    List<Result> results = new ArrayList<>(tokens.size());
+    for (int slot : slotOf) {
+      results.add(distinctResults[slot]);
+    }
+    return results;
+  }
+
+  private Result[] validateAll(List<String> tokens) {
+    Result[] results = new Result[tokens.size()];
+    AtomicInteger next = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(tokens.size());
+    Runnable work =
+        () -> {
+          for (int i = next.getAndIncrement(); i < tokens.size(); i = next.getAndIncrement()) {
+            try {
+              results[i] = validate(tokens.get(i));
+            } finally {
+              done.countDown(); // Even if a helper dies with an Error, leaving its result null
+            }
+          }
+        };
+    int helpers = Math.min(parallelism, tokens.size() - 1);
+    for (int i = 0; i < helpers; i++) {
+      workers.execute(work);
+    }
+    work.run();
+    // Only tokens a helper claimed are left; their results are on the way
+    Deadline deadline = Deadline.current().orElse(null);
+    try {
+      if (deadline == null) {
+        done.await();
+      } else if (!done.await(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)) {
+        throw new DeadlineExceededException("Deadline expired while validating tokens");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while validating tokens", e);
+    }
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] == null) {
+        results[i] = Result.invalid(NOT_VALIDATED);
+      }
+    }
+    return results;
+  }
+
+  private Result validate(String token) {
+    if (token == null || token.isBlank()) {
+      return Result.invalid("Token is empty");
+    }
+    if (token.length() > maxTokenLength) {
+      return Result.invalid("Token exceeds " + maxTokenLength + " characters");
+    }
+    try {
+      Jwt jwt = jwtDecoder.decode(token);
+      List<String> authorities =
+          converter.convert(jwt).getAuthorities().stream()
+              .map(GrantedAuthority::getAuthority)
+              .toList();
+      return new Result(true, jwt.getSubject(), jwt.getExpiresAt(), authorities, null);
+    } catch (JwtValidationException e) {
+      log.debug("Token failed validation: {}", e.getMessage());
+      return Result.invalid("Token is expired, not yet valid, revoked or from another issuer");
+    } catch (BadJwtException e) {
+      log.debug("Token rejected: {}", e.getMessage());
+      return Result.invalid("Token is malformed or its signature is invalid");
+    } catch (JwtException e) {
+      log.warn("Token could not be validated: {}", e.getMessage());
+      return Result.invalid(NOT_VALIDATED);
+    } catch (RuntimeException e) {
+      log.warn("Unexpected failure validating a token", e);
+      return Result.invalid(NOT_VALIDATED);
+    }
+  }
+
+  /** Stops the worker pool. */
+  @Override
+  public void close() {
+    if (workers != null) {
+      workers.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import ai.bluefields.oidcauthdemo.config.RevocationProperties;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * In-memory denylist of revoked access tokens, keyed by the token's {@code jti} claim.
+ *
+ * <p>The request path only pays for {@link #isRevoked(String)}: a lock-free {@link BloomFilter}
+ * probe answers "definitely not revoked" for almost every token, and only filter hits are confirmed
+ * against the exact {@link ConcurrentHashMap}. Each entry is kept until the token's own {@code
+ * exp}, after which the token would be rejected anyway; a periodic purge drops expired entries and
+ * rebuilds the filter so it does not fill up over time.
+ *
+ * <p>Writes are rare (admin bulk updates and purges) and serialized; every change is persisted to a
+ * local tab-separated file ({@code jti<TAB>exp-epoch-seconds}) that is reloaded at startup.
+ */
+public class TokenRevocationList implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+  /** A revoked token id and the time after which it no longer needs to be remembered. */
+  public record Entry(String jti, Instant expiresAt) {}
+
+  private final RevocationProperties properties;
+  private final Clock clock;
+  private final Map<String, Instant> entries = new ConcurrentHashMap<>();
+
+  private volatile BloomFilter filter;
+  private volatile Disposable purgeSchedule;
+
+  /**
+   * Creates the denylist and loads any persisted entries that have not yet expired.
+   *
+   * @param properties Denylist configuration.
+   * @param clock Clock used for expiry.
+   */
+  public TokenRevocationList(RevocationProperties properties, Clock clock) {
+    this.properties = properties;
+    this.clock = clock;
+    load();
+    this.filter = rebuildFilter();
+  }
+
+  /** Starts the periodic purge of expired entries. */
+  public void start() {
+    purgeSchedule =
+        Flux.interval(properties.purgeInterval())
+            .onBackpressureDrop()
+            .subscribe(tick -> purgeExpired());
+  }
+
+  /** Stops the periodic purge. */
+  @Override
+  public void close() {
+    Disposable current = purgeSchedule;
+    if (current != null) {
+      current.dispose();
+    }
+  }
+
+  /**
+   * Checks whether a token id has been revoked and its revocation is still in force.
+   *
+   * @param jti The token's {@code jti} claim; {@code null} is never revoked.
+   * @return {@code true} if the token must be rejected.
+   */
+  public boolean isRevoked(String jti) {
+    if (jti == null || !filter.mightContain(jti)) {
+      return false;
+    }
+    Instant expiresAt = entries.get(jti);
+    return expiresAt != null && expiresAt.isAfter(clock.instant());
+  }
+
+  /**
+   * Adds a batch of revoked tokens. Entries that have already expired are ignored.
+   *
+   * @param batch The tokens to revoke.
+   * @return The number of entries accepted.
+   */
+  public synchronized int revokeAll(Collection<Entry> batch) {
+    Instant now = clock.instant();
+    int accepted = 0;
+    for (Entry entry : batch) {
+      if (entry.jti() == null || entry.expiresAt() == null || !entry.expiresAt().isAfter(now)) {
+        continue;
+      }
+      entries.merge(entry.jti(), entry.expiresAt(), (a, b) -> a.isAfter(b) ? a : b);
+      // Insert into the filter after the exact set so a filter hit always finds the entry
+      filter.put(entry.jti());
+      accepted++;
+    }
+    if (accepted > 0) {
+      persist();
+    }
+    return accepted;
+  }
+
+  /**
+   * Returns the number of revocations currently held, including ones that expired since the last
+   * purge.
+   *
+   * @return The entry count.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /** Drops expired entries and rebuilds the Bloom filter from the remaining ones. */
+  public synchronized void purgeExpired() {
+    Instant now = clock.instant();
+    if (entries.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+      filter = rebuildFilter();
+      persist();
+    }
+  }
+
+  private BloomFilter rebuildFilter() {
+    BloomFilter rebuilt =
+        new BloomFilter(
+            Math.max(properties.expectedEntries(), entries.size() * 2),
+            properties.falsePositiveRate());
+    entries.keySet().forEach(rebuilt::put);
+    return rebuilt;
+  }
+
+  private void load() {
+    Path file = properties.file();
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+    Instant now = clock.instant();
+    try {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        int tab = line.indexOf('\t');
+        if (tab <= 0) {
+          continue;
+        }
+        try {
+          Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(line.substring(tab + 1)));
+          if (expiresAt.isAfter(now)) {
+            entries.put(line.substring(0, tab), expiresAt);
+          }
+        } catch (NumberFormatException e) {
+          log.warn("Skipping malformed revocation entry in {}", file);
+        }
+      }
+      log.info("Loaded {} active token revocations from {}", entries.size(), file);
+    } catch (IOException e) {
+      log.warn("Could not read token revocations from {}: {}", file, e.getMessage());
+    }
+  }
+
+  private void persist() {
+    Path file = properties.file();
+    try {
+      Path dir = file.toAbsolutePath().getParent();
+      Files.createDirectories(dir);
+      Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+      try {
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+          for (Map.Entry<String, Instant> entry : entries.entrySet()) {
+            writer.write(entry.getKey());
+            writer.write('\t');
+            writer.write(Long.toString(entry.getValue().getEpochSecond()));
+            writer.newLine();
+          }
+        }
+        try {
+          Files.move(
+              tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      log.warn("Could not persist token revocations to {}: {}", file, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * The authenticated caller, projected once from the access token by {@link UserPrincipalConverter}.
+ *
+ * <p>Holds only what the application reads, so the decoded {@link Jwt} and its claim map can be
+ * collected as soon as authentication is done. Role names are shared across requests.
+ *
+ * @param subject The {@code sub} claim.
+ * @param issuer The {@code iss} claim.
+ * @param email The {@code email} claim, or {@code null} if the token has none.
+ * @param expiresAt The {@code exp} claim, or {@code null} if the token has none.
+ * @param roles Project role names, upper case and without the {@code ROLE_} prefix.
+ * @param tokenValue The encoded access token, for calls made on the caller's behalf.
+ */
+public record UserPrincipal(
+    String subject,
+    String issuer,
+    String email,
+    Instant expiresAt,
+    Set<String> roles,
+    String tokenValue) {
+
+  /**
+   * Returns the principal of an authentication.
+   *
+   * <p>Authentications created by {@link UserPrincipalConverter} carry it already. A plain {@link
+   * JwtAuthenticationToken}, as built by other authentication paths or test tooling, is projected
+   * on the fly.
+   *
+   * @param authentication The authentication, may be {@code null}.
+   * @return The principal, or empty if the authentication is not based on a JWT.
+   */
+  public static Optional<UserPrincipal> from(Authentication authentication) {
+    if (authentication instanceof UserPrincipalAuthenticationToken token) {
+      return Optional.of(token.getPrincipal());
+    }
+    if (authentication instanceof JwtAuthenticationToken token) {
+      Jwt jwt = token.getToken();
+      Set<String> roles =
+          UserPrincipalConverter.roleNames(
+              token.getAuthorities().stream()
+                  .map(GrantedAuthority::getAuthority)
+                  .filter(authority -> authority.startsWith(UserPrincipalConverter.ROLE_PREFIX))
+                  .map(
+                      authority -> authority.substring(UserPrincipalConverter.ROLE_PREFIX.length()))
+                  .toList());
+      return Optional.of(of(jwt, roles));
+    }
+    return Optional.empty();
+  }
+
+  static UserPrincipal of(Jwt jwt, Set<String> roles) {
+    return new UserPrincipal(
+        jwt.getSubject(),
+        jwt.getClaimAsString("iss"),
+        jwt.getClaimAsString("email"),
+        jwt.getExpiresAt(),
+        roles,
+        jwt.getTokenValue());
+  }
+
+  /** Omits the token value, which must not end up in logs. */
+  @Override
+  public String toString() {
+    return "UserPrincipal[subject=%s, issuer=%s, email=%s, expiresAt=%s, roles=%s]"
+        .formatted(subject, issuer, email, expiresAt, roles);
+  }
+}
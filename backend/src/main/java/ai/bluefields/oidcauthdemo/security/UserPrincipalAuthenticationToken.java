@@ -0,0 +1,39 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import java.util.Collection;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+/** An authenticated bearer token request, represented by its {@link UserPrincipal}. */
+public class UserPrincipalAuthenticationToken extends AbstractAuthenticationToken {
+
+  private final UserPrincipal principal;
+
+  /**
+   * Creates an authenticated token.
+   *
+   * @param principal The caller.
+   * @param authorities The caller's authorities.
+   */
+  public UserPrincipalAuthenticationToken(
+      UserPrincipal principal, Collection<? extends GrantedAuthority> authorities) {
+    super(authorities);
+    this.principal = principal;
+    setAuthenticated(true);
+  }
+
+  @Override
+  public UserPrincipal getPrincipal() {
+    return principal;
+  }
+
+  @Override
+  public String getCredentials() {
+    return principal.tokenValue();
+  }
+
+  @Override
+  public String getName() {
+    return principal.subject();
+  }
+}
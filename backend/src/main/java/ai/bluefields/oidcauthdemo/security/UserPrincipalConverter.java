@@ -0,0 +1,105 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Converts a validated JWT into a {@link UserPrincipalAuthenticationToken}.
+ *
+ * <p>Authorities are the token's scopes ({@code scope} or {@code scp} claim, prefixed {@code
+ * SCOPE_}) plus its Zitadel project roles (keys of the {@code urn:zitadel:iam:org:project:roles}
+ * claim, upper-cased and prefixed {@code ROLE_}). Role names and authority objects are interned, so
+ * requests share them instead of allocating new ones.
+ */
+public class UserPrincipalConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+  static final String ROLE_PREFIX = "ROLE_";
+  private static final String SCOPE_PREFIX = "SCOPE_";
+  private static final String ZITADEL_ROLES_CLAIM = "urn:zitadel:iam:org:project:roles";
+
+  /** Bound on interned names; tokens are signed, but their claim values are still open-ended. */
+  private static final int MAX_INTERNED = 1024;
+
+  private static final Map<String, String> ROLE_NAMES = new ConcurrentHashMap<>();
+  private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+  @Override
+  public AbstractAuthenticationToken convert(Jwt jwt) {
+    List<GrantedAuthority> authorities = new ArrayList<>();
+    for (String scope : scopes(jwt)) {
+      authorities.add(authority(SCOPE_PREFIX + scope));
+    }
+    Set<String> roles = roleNames(roleClaimKeys(jwt));
+    for (String role : roles) {
+      authorities.add(authority(ROLE_PREFIX + role));
+    }
+    return new UserPrincipalAuthenticationToken(UserPrincipal.of(jwt, roles), authorities);
+  }
+
+  /**
+   * Normalizes and interns role names.
+   *
+   * @param names Role names as they appear in the token.
+   * @return The upper-cased, interned names.
+   */
+  static Set<String> roleNames(Collection<String> names) {
+    if (names.isEmpty()) {
+      return Set.of();
+    }
+    String[] interned = new String[names.size()];
+    int i = 0;
+    for (String name : names) {
+      interned[i++] = intern(ROLE_NAMES, name, key -> key.toUpperCase(Locale.ROOT));
+    }
+    return Set.copyOf(Arrays.asList(interned)); // Names may coincide once upper-cased
+  }
+
+  private static Collection<String> roleClaimKeys(Jwt jwt) {
+    Object claim = jwt.getClaims().get(ZITADEL_ROLES_CLAIM);
+    if (claim instanceof Map<?, ?> roles) {
+      List<String> names = new ArrayList<>(roles.size());
+      for (Object name : roles.keySet()) {
+        names.add(String.valueOf(name));
+      }
+      return names;
+    }
+    return List.of();
+  }
+
+  private static Collection<String> scopes(Jwt jwt) {
+    for (String claim : List.of("scope", "scp")) {
+      Object value = jwt.getClaims().get(claim);
+      if (value instanceof String scopes && !scopes.isBlank()) {
+        return List.of(scopes.trim().split("\\s+"));
+      }
+      if (value instanceof Collection<?> scopes && !scopes.isEmpty()) {
+        return scopes.stream().map(String::valueOf).toList();
+      }
+    }
+    return List.of();
+  }
+
+  private static GrantedAuthority authority(String name) {
+    return intern(AUTHORITIES, name, SimpleGrantedAuthority::new);
+  }
+
+  private static <V> V intern(Map<String, V> table, String key, Function<String, V> create) {
+    V value = table.get(key);
+    if (value != null) {
+      return value;
+    }
+    return table.size() < MAX_INTERNED ? table.computeIfAbsent(key, create) : create.apply(key);
+  }
+}
@@ -1,70 +1,82 @@
 package ai.bluefields.oidcauthdemo.service;
 
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import ai.bluefields.oidcauthdemo.client.UserInfo;
+import ai.bluefields.oidcauthdemo.deadline.Deadline;
 import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
-import java.util.Map;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import ai.bluefields.oidcauthdemo.exception.DeadlineExceededException;
+import ai.bluefields.oidcauthdemo.prefetch.UserInfoPrefetch;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.tracing.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 /**
- * Service layer responsible for retrieving private information based on the authenticated user's
- * JWT.
+ * Service layer responsible for retrieving private information for the authenticated {@link
+ * UserPrincipal}.
+ *
+ * <p>UserInfo calls go through an {@link AdaptiveConcurrencyLimiter}: when the identity provider
+ * slows down, calls above the learned limit are answered immediately with the error fallback
+ * instead of queueing behind it. When hedging is enabled, a UserInfo call that is slower than most
+ * recent ones is raced against a second, identical call. The inbound request's {@link Deadline}
+ * travels in the Reactor context and bounds every UserInfo call; once it has passed, no call is
+ * made and the request fails with {@link DeadlineExceededException}. The request's tracing {@link
+ * Span} travels the same way, so UserInfo calls are traced as its children. When {@link
+ * UserInfoPrefetch} has already started the call for the request, its result is used instead of a
+ * new call.
  */
 @Service
 public class PrivateInfoService {
 
+  private static final Logger log = LoggerFactory.getLogger(PrivateInfoService.class);
+
   private final WebClient webClient;
+  private final AdaptiveConcurrencyLimiter userInfoLimiter;
+  private final RequestHedger userInfoHedger;
 
   /**
-   * Constructs the service with a WebClient dependency.
+   * Constructs the service with its WebClient and UserInfo egress controls.
    *
    * @param webClient The WebClient instance for making HTTP requests.
+   * @param userInfoLimiter The concurrency limit applied to UserInfo calls.
+   * @param userInfoHedger The hedger applied to UserInfo calls.
    */
-  public PrivateInfoService(WebClient webClient) {
+  public PrivateInfoService(
+      WebClient webClient,
+      AdaptiveConcurrencyLimiter userInfoLimiter,
+      RequestHedger userInfoHedger) {
     this.webClient = webClient;
+    this.userInfoLimiter = userInfoLimiter;
+    this.userInfoHedger = userInfoHedger;
   }
 
   /**
    * Retrieves private information for the authenticated user by calling the UserInfo endpoint.
    *
-   * @param authentication The authentication object containing the user's JWT.
+   * @param principal The authenticated caller, whose access token is used for the call.
    * @return A {@link Mono} emitting the {@link PrivateInfoResponse} containing a message and the
-   *     user's email fetched from the UserInfo endpoint.
+   *     user's email fetched from the UserInfo endpoint, or failing with {@link
+   *     DeadlineExceededException} if the request's deadline passes first.
    */
-  public Mono<PrivateInfoResponse> getInfo(Authentication authentication) {
-    if (!(authentication instanceof JwtAuthenticationToken jwtAuth)) {
-      return Mono.error(
-          new IllegalArgumentException("Authentication must be of type JwtAuthenticationToken"));
-    }
-
-    Jwt jwt = jwtAuth.getToken();
-    String accessToken = jwt.getTokenValue();
-    String issuerUri = jwt.getIssuer().toString(); // Assuming issuer is reliable
-    String userInfoEndpoint = issuerUri + "/oidc/v1/userinfo"; // Standard OIDC path
+  public Mono<PrivateInfoResponse> getInfo(UserPrincipal principal) {
+    Span span = Span.current();
+    Mono<UserInfo> userInfo =
+        UserInfoPrefetch.current()
+            .flatMap(prefetch -> prefetch.claim(principal.tokenValue()))
+            .orElseGet(() -> userInfo(principal));
 
-    return webClient
-        .get()
-        .uri(userInfoEndpoint)
-        .headers(headers -> headers.setBearerAuth(accessToken))
-        .retrieve()
-        .bodyToMono(Map.class) // Assuming response is a JSON object
+    return userInfo
         .map(
-            userInfoMap -> {
-              // Extract claims, handle potential null or incorrect type
-              Object emailObj = userInfoMap.get("email");
-              String email = (emailObj instanceof String) ? (String) emailObj : "Email not found";
-
-              Object givenNameObj = userInfoMap.get("given_name");
-              String givenName = (givenNameObj instanceof String) ? (String) givenNameObj : "User";
-
-              Object familyNameObj = userInfoMap.get("family_name");
+            info -> {
+              String email = info.email() != null ? info.email() : "Email not found";
+              String givenName = info.givenName() != null ? info.givenName() : "User";
               String familyName =
-                  (familyNameObj instanceof String)
-                      ? (String) familyNameObj
-                      : ""; // Default to empty if missing
+                  info.familyName() != null ? info.familyName() : ""; // Default to empty if missing
 
               // Construct message carefully to avoid double spaces if familyName is empty
               String fullName = givenName + (familyName.isEmpty() ? "" : " " + familyName);
@@ -73,12 +85,100 @@ public class PrivateInfoService {
               return new PrivateInfoResponse(message, email);
             })
         .onErrorResume(
+            error -> !(error instanceof DeadlineExceededException),
             error -> {
-              // Log the error appropriately in a real application
-              System.err.println("Error fetching UserInfo: " + error.getMessage());
+              // Shed calls are counted by the limiter instead of logged
+              if (!(error instanceof UserInfoOverloadException)) {
+                log.warn(
+                    "Error fetching UserInfo (traceId={}): {}", span.traceId(), error.getMessage());
+              }
               return Mono.just(
                   new PrivateInfoResponse(
                       "Hello User (UserInfo Error)", "Error fetching user details"));
             });
   }
+
+  /**
+   * Builds the UserInfo call for the authenticated user, hedged and under the concurrency limit,
+   * bound to the current request's deadline and tracing span. Nothing is sent until the returned
+   * {@link Mono} is subscribed.
+   *
+   * @param principal The authenticated caller, whose access token is used for the call.
+   * @return A {@link Mono} emitting the user's claims, or failing if the call fails.
+   */
+  public Mono<UserInfo> userInfo(UserPrincipal principal) {
+    String accessToken = principal.tokenValue();
+    String issuerUri = principal.issuer(); // Assuming issuer is reliable
+    String userInfoEndpoint = issuerUri + "/oidc/v1/userinfo"; // Standard OIDC path
+    Deadline deadline = Deadline.current().orElse(null);
+    Span span = Span.current();
+
+    return userInfoHedger
+        .hedge(() -> fetchUserInfo(userInfoEndpoint, accessToken))
+        .contextWrite(context -> deadline != null ? context.put(Deadline.class, deadline) : context)
+        .contextWrite(context -> span.isValid() ? context.put(Span.class, span) : context);
+  }
+
+  /** Makes one UserInfo call under the concurrency limit, bounded by the request deadline. */
+  private Mono<UserInfo> fetchUserInfo(String userInfoEndpoint, String accessToken) {
+    return Mono.deferContextual(
+        context -> {
+          Deadline deadline = context.getOrDefault(Deadline.class, null);
+          if (deadline == null) {
+            return callUserInfo(userInfoEndpoint, accessToken);
+          }
+          if (deadline.isExpired()) {
+            return Mono.error(
+                new DeadlineExceededException("Deadline expired before the UserInfo call"));
+          }
+          return callUserInfo(userInfoEndpoint, accessToken)
+              .timeout(
+                  deadline.remaining(),
+                  Mono.error(
+                      () ->
+                          new DeadlineExceededException(
+                              "Deadline expired during the UserInfo call")));
+        });
+  }
+
+  private Mono<UserInfo> callUserInfo(String userInfoEndpoint, String accessToken) {
+    return Mono.defer(
+        () -> {
+          AdaptiveConcurrencyLimiter.Permit permit = userInfoLimiter.tryAcquire();
+          if (permit == null) {
+            return Mono.error(new UserInfoOverloadException());
+          }
+          return webClient
+              .get()
+              .uri(userInfoEndpoint)
+              .headers(headers -> headers.setBearerAuth(accessToken))
+              .retrieve()
+              .bodyToMono(UserInfo.class) // Streamed by UserInfoDecoder, other claims skipped
+              .doOnSuccess(userInfo -> permit.success())
+              .doOnError(
+                  error -> {
+                    if (isOverload(error)) {
+                      permit.dropped();
+                    } else {
+                      permit.success();
+                    }
+                  })
+              .doOnCancel(permit::ignore);
+        });
+  }
+
+  /** Whether a failed call suggests the identity provider is overloaded or unreachable. */
+  static boolean isOverload(Throwable error) {
+    if (error instanceof WebClientResponseException response) {
+      return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+    }
+    return true;
+  }
+
+  /** Signals that a call to the identity provider was shed at the UserInfo concurrency limit. */
+  static final class UserInfoOverloadException extends RuntimeException {
+    UserInfoOverloadException() {
+      super("UserInfo concurrency limit reached", null, false, false);
+    }
+  }
 }
@@ -0,0 +1,237 @@
+package ai.bluefields.oidcauthdemo.service;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.UserInfo;
+import ai.bluefields.oidcauthdemo.client.UserProfileCache;
+import ai.bluefields.oidcauthdemo.config.UserProfileProperties;
+import ai.bluefields.oidcauthdemo.deadline.Deadline;
+import ai.bluefields.oidcauthdemo.dto.UserProfileResult;
+import ai.bluefields.oidcauthdemo.exception.ApiError;
+import ai.bluefields.oidcauthdemo.exception.BatchLimitExceededException;
+import ai.bluefields.oidcauthdemo.exception.DeadlineExceededException;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.service.PrivateInfoService.UserInfoOverloadException;
+import ai.bluefields.oidcauthdemo.tracing.Span;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Looks up the profiles of many users at once, for admin views that list users.
+ *
+ * <p>UserInfo only describes the caller, so profiles are read from the identity provider's
+ * user-by-id endpoint instead, with the caller's own access token. Each distinct subject is served
+ * from the {@link UserProfileCache} when the same caller fetched it recently, so the identity
+ * provider still decides which profiles each caller may read; the others are fetched in parallel,
+ * at most {@code concurrency} at a time per lookup, and every call also has to pass the {@link
+ * AdaptiveConcurrencyLimiter} shared with UserInfo calls, so a large lookup cannot flood the
+ * identity provider. Results are emitted as they complete, not in request order. A subject that
+ * cannot be resolved yields a result carrying an {@link ApiError} instead of failing the lookup.
+ * The request's {@link Deadline} bounds every call and its tracing {@link Span} is their parent, as
+ * for UserInfo calls.
+ */
+public class UserProfileService {
+
+  private static final Logger log = LoggerFactory.getLogger(UserProfileService.class);
+
+  private final WebClient webClient;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final UserProfileCache cache;
+  private final String userPath;
+  private final int maxSubjects;
+  private final int concurrency;
+
+  /** The fields of a Zitadel user service response the lookup uses. */
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  record UserResponse(User user) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record User(Human human) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Human(Profile profile, Email email) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Profile(String givenName, String familyName) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Email(String email) {}
+
+    /** Maps the response to the claims UserInfo would return; machine users have none. */
+    UserInfo toUserInfo() {
+      Human human = user != null ? user.human() : null;
+      if (human == null) {
+        return new UserInfo(null, null, null);
+      }
+      Profile profile = human.profile();
+      return new UserInfo(
+          human.email() != null ? human.email().email() : null,
+          profile != null ? profile.givenName() : null,
+          profile != null ? profile.familyName() : null);
+    }
+  }
+
+  /**
+   * Creates the service.
+   *
+   * @param webClient The WebClient identity provider calls are made with.
+   * @param limiter The concurrency limit shared with UserInfo calls.
+   * @param cache Profiles fetched earlier.
+   * @param properties Lookup configuration.
+   */
+  public UserProfileService(
+      WebClient webClient,
+      AdaptiveConcurrencyLimiter limiter,
+      UserProfileCache cache,
+      UserProfileProperties properties) {
+    this.webClient = webClient;
+    this.limiter = limiter;
+    this.cache = cache;
+    this.userPath = properties.userPath();
+    this.maxSubjects = properties.maxSubjects();
+    this.concurrency = properties.concurrency();
+  }
+
+  /**
+   * Looks up the profiles of the given users. Nothing is fetched until the returned {@link Flux} is
+   * subscribed.
+   *
+   * @param caller The authenticated caller, whose access token is used for the calls.
+   * @param subjects The subjects to look up; duplicates are looked up once.
+   * @return A {@link Flux} emitting one result per distinct subject, in completion order.
+   * @throws BatchLimitExceededException If more than {@code maxSubjects} subjects are requested.
+   */
+  public Flux<UserProfileResult> lookup(UserPrincipal caller, List<String> subjects) {
+    if (subjects.size() > maxSubjects) {
+      throw new BatchLimitExceededException(
+          "At most %d subjects per request, got %d".formatted(maxSubjects, subjects.size()));
+    }
+    String uriTemplate = caller.issuer() + userPath;
+    String accessToken = caller.tokenValue();
+    String cacheKey = caller.issuer() + "#" + caller.subject();
+    Deadline deadline = Deadline.current().orElse(null);
+    Span span = Span.current();
+
+    return Flux.fromIterable(new LinkedHashSet<>(subjects))
+        .flatMap(subject -> resolve(subject, cacheKey, uriTemplate, accessToken, span), concurrency)
+        .contextWrite(context -> deadline != null ? context.put(Deadline.class, deadline) : context)
+        .contextWrite(context -> span.isValid() ? context.put(Span.class, span) : context);
+  }
+
+  private Mono<UserProfileResult> resolve(
+      String subject, String cacheKey, String uriTemplate, String accessToken, Span span) {
+    if (subject == null || subject.isBlank()) {
+      return Mono.just(
+          UserProfileResult.failed(
+              subject,
+              error(
+                  "invalid-subject",
+                  "Bad Request",
+                  HttpStatus.BAD_REQUEST,
+                  "Subjects must not be blank")));
+    }
+    UserInfo cached = cache.get(cacheKey, subject);
+    if (cached != null) {
+      return Mono.just(UserProfileResult.found(subject, cached));
+    }
+    return fetchProfile(uriTemplate, subject, accessToken)
+        .doOnNext(profile -> cache.put(cacheKey, subject, profile))
+        .map(profile -> UserProfileResult.found(subject, profile))
+        .onErrorResume(
+            error ->
+                Mono.just(UserProfileResult.failed(subject, toApiError(error, subject, span))));
+  }
+
+  /** Makes one call under the concurrency limit, bounded by the request deadline. */
+  private Mono<UserInfo> fetchProfile(String uriTemplate, String subject, String accessToken) {
+    return Mono.deferContextual(
+        context -> {
+          Deadline deadline = context.getOrDefault(Deadline.class, null);
+          if (deadline == null) {
+            return callUserEndpoint(uriTemplate, subject, accessToken);
+          }
+          if (deadline.isExpired()) {
+            return Mono.error(
+                new DeadlineExceededException("Deadline expired before the profile call"));
+          }
+          return callUserEndpoint(uriTemplate, subject, accessToken)
+              .timeout(
+                  deadline.remaining(),
+                  Mono.error(
+                      () ->
+                          new DeadlineExceededException(
+                              "Deadline expired during the profile call")));
+        });
+  }
+
+  private Mono<UserInfo> callUserEndpoint(String uriTemplate, String subject, String accessToken) {
+    return Mono.defer(
+        () -> {
+          AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+          if (permit == null) {
+            return Mono.error(new UserInfoOverloadException());
+          }
+          return webClient
+              .get()
+              .uri(uriTemplate, subject)
+              .headers(headers -> headers.setBearerAuth(accessToken))
+              .retrieve()
+              .bodyToMono(UserResponse.class)
+              .map(UserResponse::toUserInfo)
+              .doOnSuccess(profile -> permit.success())
+              .doOnError(
+                  error -> {
+                    if (PrivateInfoService.isOverload(error)) {
+                      permit.dropped();
+                    } else {
+                      permit.success();
+                    }
+                  })
+              .doOnCancel(permit::ignore);
+        });
+  }
+
+  private static ApiError toApiError(Throwable error, String subject, Span span) {
+    if (error instanceof UserInfoOverloadException) {
+      return error(
+          "overloaded",
+          "Service Unavailable",
+          HttpStatus.SERVICE_UNAVAILABLE,
+          "The identity provider is at its concurrency limit");
+    }
+    if (error instanceof DeadlineExceededException) {
+      return error(
+          "deadline-exceeded",
+          "Gateway Timeout",
+          HttpStatus.GATEWAY_TIMEOUT,
+          "The request deadline expired before the profile was fetched");
+    }
+    if (error instanceof WebClientResponseException response
+        && response.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+      return error("not-found", "Not Found", HttpStatus.NOT_FOUND, "No user " + subject);
+    }
+    log.warn(
+        "Error fetching profile of {} (traceId={}): {}",
+        subject,
+        span.traceId(),
+        error.getMessage());
+    String detail =
+        error instanceof WebClientResponseException response
+            ? "The identity provider answered " + response.getStatusCode().value()
+            : "The identity provider could not be reached";
+    return error("upstream-error", "Bad Gateway", HttpStatus.BAD_GATEWAY, detail);
+  }
+
+  private static ApiError error(String type, String title, HttpStatus status, String detail) {
+    return new ApiError(
+        "https://api.bluefields.ai/errors/" + type, title, status.value(), detail, Instant.now());
+  }
+}
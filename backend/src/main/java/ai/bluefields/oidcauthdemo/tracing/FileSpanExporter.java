@@ -0,0 +1,114 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends finished spans to a file, one OTLP-shaped JSON object per line, as a local stand-in for
+ * an OTLP collector.
+ *
+ * <p>Request threads only enqueue; a single background thread drains the queue in batches and
+ * writes them. When the queue is full new spans are dropped rather than slowing requests down.
+ */
+public class FileSpanExporter implements SpanExporter, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(FileSpanExporter.class);
+  private static final int BATCH = 256;
+
+  private final Path file;
+  private final BlockingQueue<SpanData> queue;
+  private final ObjectMapper objectMapper =
+      new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  private volatile Thread writer;
+  private volatile boolean running;
+
+  /**
+   * Creates the exporter.
+   *
+   * @param file File spans are appended to.
+   * @param queueCapacity Spans buffered before new ones are dropped.
+   */
+  public FileSpanExporter(Path file, int queueCapacity) {
+    this.file = file;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+  }
+
+  /** Starts the writer thread. */
+  public void start() {
+    running = true;
+    writer = Thread.ofPlatform().name("span-exporter").daemon().start(this::drain);
+  }
+
+  @Override
+  public boolean export(SpanData span) {
+    return queue.offer(span);
+  }
+
+  /** Stops the writer thread after flushing queued spans. */
+  @Override
+  public void close() {
+    running = false;
+    Thread current = writer;
+    if (current != null) {
+      current.interrupt();
+      try {
+        current.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void drain() {
+    List<SpanData> batch = new ArrayList<>(BATCH);
+    while (running || !queue.isEmpty()) {
+      try {
+        SpanData first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+      } catch (InterruptedException e) {
+        // close() interrupts to stop waiting; remaining spans are flushed below
+      }
+      queue.drainTo(batch, BATCH - batch.size());
+      write(batch);
+      batch.clear();
+    }
+  }
+
+  private void write(List<SpanData> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      try (BufferedWriter out =
+          Files.newBufferedWriter(
+              file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        for (SpanData span : batch) {
+          objectMapper.writeValue(out, span);
+          out.newLine();
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Could not write {} spans to {}: {}", batch.size(), file, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+/** Restores the previously current span when closed. */
+@FunctionalInterface
+public interface Scope extends AutoCloseable {
+
+  @Override
+  void close();
+}
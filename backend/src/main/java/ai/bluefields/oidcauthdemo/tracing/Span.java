@@ -0,0 +1,264 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One timed operation within a trace.
+ *
+ * <p>Only sampled spans record anything. An unsampled trace is carried by a single non-recording
+ * span: children of it are the span itself, so an unsampled request allocates one object and its
+ * {@code traceparent} still propagates the trace id with the sampled flag cleared.
+ *
+ * <p>The span current on a thread is kept in a thread local and set with {@link #makeCurrent()}.
+ * Reactive code, which hops threads, should carry the span in the Reactor context under the {@code
+ * Span.class} key instead.
+ */
+public final class Span {
+
+  /** Role of a span within a trace. */
+  public enum Kind {
+    /** Handling of an inbound request. */
+    SERVER,
+    /** An outbound call. */
+    CLIENT,
+    /** Work within the process. */
+    INTERNAL
+  }
+
+  /** Span used when no trace is active. Invalid and non-recording. */
+  public static final Span NOOP = new Span(null, 0, 0, 0, 0, false, "noop", Kind.INTERNAL, 0);
+
+  private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+  private static final Scope NOOP_SCOPE = () -> {};
+
+  private final Tracer tracer;
+  private final long traceIdHigh;
+  private final long traceIdLow;
+  private final long spanId;
+  private final long parentSpanId;
+  private final boolean sampled;
+  private final Kind kind;
+  private final long startNanoTime;
+  private String name;
+  private Map<String, Object> attributes;
+  private String error;
+  private boolean ended;
+
+  Span(
+      Tracer tracer,
+      long traceIdHigh,
+      long traceIdLow,
+      long spanId,
+      long parentSpanId,
+      boolean sampled,
+      String name,
+      Kind kind,
+      long startNanoTime) {
+    this.tracer = tracer;
+    this.traceIdHigh = traceIdHigh;
+    this.traceIdLow = traceIdLow;
+    this.spanId = spanId;
+    this.parentSpanId = parentSpanId;
+    this.sampled = sampled;
+    this.name = name;
+    this.kind = kind;
+    this.startNanoTime = startNanoTime;
+  }
+
+  /**
+   * Returns the span current on this thread.
+   *
+   * @return The current span, or {@link #NOOP} if none.
+   */
+  public static Span current() {
+    Span span = CURRENT.get();
+    return span != null ? span : NOOP;
+  }
+
+  /**
+   * Makes this span current on this thread until the returned scope is closed.
+   *
+   * @return The scope restoring the previous span.
+   */
+  public Scope makeCurrent() {
+    Span previous = CURRENT.get();
+    if (previous == this) {
+      return NOOP_SCOPE;
+    }
+    CURRENT.set(this);
+    return previous == null ? CURRENT::remove : () -> CURRENT.set(previous);
+  }
+
+  /**
+   * Returns whether this span belongs to a real trace.
+   *
+   * @return {@code false} only for {@link #NOOP}.
+   */
+  public boolean isValid() {
+    return traceIdHigh != 0 || traceIdLow != 0;
+  }
+
+  /**
+   * Returns whether this span is sampled, i.e. recorded and exported.
+   *
+   * @return The sampling decision of the trace.
+   */
+  public boolean isSampled() {
+    return sampled;
+  }
+
+  /**
+   * Returns the trace id.
+   *
+   * @return 32 lowercase hex digits.
+   */
+  public String traceId() {
+    return hex(traceIdHigh) + hex(traceIdLow);
+  }
+
+  /**
+   * Returns the span id.
+   *
+   * @return 16 lowercase hex digits.
+   */
+  public String spanId() {
+    return hex(spanId);
+  }
+
+  /**
+   * Returns the W3C {@code traceparent} header value that makes this span the parent of a remote
+   * call.
+   *
+   * @return The header value.
+   */
+  public String traceparent() {
+    return "00-" + traceId() + "-" + spanId() + (sampled ? "-01" : "-00");
+  }
+
+  /**
+   * Renames the span, e.g. once the matched route is known.
+   *
+   * @param name The new name.
+   */
+  public synchronized void updateName(String name) {
+    if (sampled) {
+      this.name = name;
+    }
+  }
+
+  /**
+   * Sets an attribute. Ignored for unsampled spans.
+   *
+   * @param key Attribute name.
+   * @param value Attribute value.
+   */
+  public synchronized void setAttribute(String key, Object value) {
+    if (sampled) {
+      if (attributes == null) {
+        attributes = new LinkedHashMap<>();
+      }
+      attributes.put(key, value);
+    }
+  }
+
+  /**
+   * Marks the span as failed. Ignored for unsampled spans.
+   *
+   * @param throwable The failure.
+   */
+  public synchronized void recordError(Throwable throwable) {
+    if (sampled) {
+      error = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+    }
+  }
+
+  /**
+   * Marks the span as failed with a description. Ignored for unsampled spans.
+   *
+   * @param message The failure description.
+   */
+  public synchronized void recordError(String message) {
+    if (sampled) {
+      error = message;
+    }
+  }
+
+  /** Ends the span and exports it if sampled. Only the first call has an effect. */
+  public void end() {
+    if (!sampled) {
+      return;
+    }
+    SpanData data;
+    synchronized (this) {
+      if (ended) {
+        return;
+      }
+      ended = true;
+      data =
+          new SpanData(
+              traceId(),
+              spanId(),
+              parentSpanId != 0 ? hex(parentSpanId) : null,
+              name,
+              kind,
+              tracer.epochNanos(startNanoTime),
+              tracer.epochNanos(System.nanoTime()),
+              attributes != null ? Map.copyOf(attributes) : Map.of(),
+              error == null ? "OK" : "ERROR",
+              error);
+    }
+    tracer.export(data);
+  }
+
+  long traceIdHigh() {
+    return traceIdHigh;
+  }
+
+  long traceIdLow() {
+    return traceIdLow;
+  }
+
+  long rawSpanId() {
+    return spanId;
+  }
+
+  Tracer tracer() {
+    return tracer;
+  }
+
+  /**
+   * Parses a W3C {@code traceparent} header.
+   *
+   * @param header The header value, may be {@code null}.
+   * @return The trace id halves, parent span id and sampled flag, or empty if the header is absent
+   *     or malformed.
+   */
+  static Optional<long[]> parseTraceparent(String header) {
+    if (header == null
+        || header.length() != 55
+        || !header.startsWith("00-")
+        || header.charAt(35) != '-'
+        || header.charAt(52) != '-') {
+      return Optional.empty();
+    }
+    try {
+      long high = Long.parseUnsignedLong(header, 3, 19, 16);
+      long low = Long.parseUnsignedLong(header, 19, 35, 16);
+      long parent = Long.parseUnsignedLong(header, 36, 52, 16);
+      long flags = Long.parseLong(header, 53, 55, 16);
+      if ((high == 0 && low == 0) || parent == 0) {
+        return Optional.empty();
+      }
+      return Optional.of(new long[] {high, low, parent, flags & 1});
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static String hex(long value) {
+    String digits = Long.toHexString(value);
+    return digits.length() == 16 ? digits : "0".repeat(16 - digits.length()) + digits;
+  }
+}
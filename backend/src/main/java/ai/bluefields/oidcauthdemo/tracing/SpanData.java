@@ -0,0 +1,30 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span as handed to a {@link SpanExporter}. Field names follow the OTLP JSON encoding so
+ * exported files can be replayed into an OTLP collector with a trivial wrapper.
+ *
+ * @param traceId 32 hex digit trace id.
+ * @param spanId 16 hex digit span id.
+ * @param parentSpanId Parent span id, or {@code null} for a local root without remote parent.
+ * @param name Span name.
+ * @param kind {@code SERVER}, {@code CLIENT} or {@code INTERNAL}.
+ * @param startTimeUnixNano Start time in nanoseconds since the epoch.
+ * @param endTimeUnixNano End time in nanoseconds since the epoch.
+ * @param attributes Span attributes.
+ * @param status {@code OK} or {@code ERROR}.
+ * @param statusMessage Error description, or {@code null}.
+ */
+public record SpanData(
+    String traceId,
+    String spanId,
+    String parentSpanId,
+    String name,
+    Span.Kind kind,
+    long startTimeUnixNano,
+    long endTimeUnixNano,
+    Map<String, Object> attributes,
+    String status,
+    String statusMessage) {}
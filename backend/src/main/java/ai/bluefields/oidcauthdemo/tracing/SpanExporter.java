@@ -0,0 +1,17 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+/** Destination for finished, sampled spans. */
+@FunctionalInterface
+public interface SpanExporter {
+
+  /** Exporter that discards every span. */
+  SpanExporter NONE = span -> true;
+
+  /**
+   * Hands a finished span to the exporter. Must not block the calling request thread.
+   *
+   * @param span The finished span.
+   * @return {@code false} if the span was dropped, e.g. because the export queue is full.
+   */
+  boolean export(SpanData span);
+}
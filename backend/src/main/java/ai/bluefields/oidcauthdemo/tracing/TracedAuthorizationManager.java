@@ -0,0 +1,73 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import java.util.function.Supplier;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Wraps an {@link AuthorizationManager} in a {@code method.authorize} span.
+ *
+ * @param <T> The type of object being authorized.
+ */
+public class TracedAuthorizationManager<T> implements AuthorizationManager<T> {
+
+  private final AuthorizationManager<T> delegate;
+  private final Supplier<Tracer> tracerSupplier;
+  private volatile Tracer tracer;
+
+  /**
+   * Creates the wrapper.
+   *
+   * @param delegate The manager making the decision.
+   * @param tracerSupplier Supplies the tracer; resolved on first use so the wrapper can be created
+   *     before the tracer bean exists.
+   */
+  public TracedAuthorizationManager(
+      AuthorizationManager<T> delegate, Supplier<Tracer> tracerSupplier) {
+    this.delegate = delegate;
+    this.tracerSupplier = tracerSupplier;
+  }
+
+  @Override
+  public AuthorizationResult authorize(Supplier<Authentication> authentication, T object) {
+    Span span = tracer().startSpan("method.authorize");
+    if (!span.isSampled() || span == Span.current()) {
+      return delegate.authorize(authentication, object);
+    }
+    try {
+      AuthorizationResult result = delegate.authorize(authentication, object);
+      span.setAttribute("authz.granted", result != null && result.isGranted());
+      return result;
+    } catch (RuntimeException e) {
+      span.recordError(e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @deprecated Use {@link #authorize(Supplier, Object)}.
+   */
+  @Deprecated
+  @Override
+  public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+    AuthorizationResult result = authorize(authentication, object);
+    return result == null || result instanceof AuthorizationDecision
+        ? (AuthorizationDecision) result
+        : new AuthorizationDecision(result.isGranted());
+  }
+
+  private Tracer tracer() {
+    Tracer current = tracer;
+    if (current == null) {
+      current = tracerSupplier.get();
+      tracer = current;
+    }
+    return current;
+  }
+}
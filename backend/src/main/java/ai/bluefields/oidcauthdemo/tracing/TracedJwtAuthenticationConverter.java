@@ -0,0 +1,48 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Wraps the JWT-to-authentication conversion, including claim mapping, in a {@code jwt.convert}
+ * span.
+ */
+public class TracedJwtAuthenticationConverter
+    implements Converter<Jwt, AbstractAuthenticationToken> {
+
+  private final Converter<Jwt, ? extends AbstractAuthenticationToken> delegate;
+  private final Tracer tracer;
+
+  /**
+   * Creates the wrapper.
+   *
+   * @param delegate The converter doing the work.
+   * @param tracer The tracer spans are started with.
+   */
+  public TracedJwtAuthenticationConverter(
+      Converter<Jwt, ? extends AbstractAuthenticationToken> delegate, Tracer tracer) {
+    this.delegate = delegate;
+    this.tracer = tracer;
+  }
+
+  @Override
+  public AbstractAuthenticationToken convert(Jwt jwt) {
+    Span span = tracer.startSpan("jwt.convert");
+    if (!span.isSampled() || span == Span.current()) {
+      return delegate.convert(jwt);
+    }
+    try {
+      AbstractAuthenticationToken token = delegate.convert(jwt);
+      if (token != null) {
+        span.setAttribute("authorities", token.getAuthorities().size());
+      }
+      return token;
+    } catch (RuntimeException e) {
+      span.recordError(e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import ai.bluefields.oidcauthdemo.dto.TracingStats;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates spans with head-based sampling.
+ *
+ * <p>The sampling decision is made once, when the root span of a request is started: a request
+ * carrying a valid W3C {@code traceparent} follows the caller's decision, any other request is
+ * sampled with the current probability. The probability can be changed at runtime. Every span of
+ * the trace, including outbound {@code traceparent} headers, inherits the decision, so an unsampled
+ * request costs one id generation and one allocation.
+ */
+public class Tracer {
+
+  private final SpanExporter exporter;
+  private final long epochOffsetNanos;
+  private final LongAdder rootSpans = new LongAdder();
+  private final LongAdder sampledRootSpans = new LongAdder();
+  private final LongAdder exportedSpans = new LongAdder();
+  private final LongAdder droppedSpans = new LongAdder();
+  private volatile double samplingProbability;
+
+  /**
+   * Creates a tracer.
+   *
+   * @param samplingProbability Initial probability that a request without a sampled parent is
+   *     traced, between 0 and 1.
+   * @param exporter Destination for finished spans.
+   */
+  public Tracer(double samplingProbability, SpanExporter exporter) {
+    this.exporter = exporter;
+    Instant now = Instant.now();
+    this.epochOffsetNanos =
+        now.getEpochSecond() * 1_000_000_000L + now.getNano() - System.nanoTime();
+    setSamplingProbability(samplingProbability);
+  }
+
+  /**
+   * Creates a tracer that never samples.
+   *
+   * @return A tracer whose spans are all non-recording.
+   */
+  public static Tracer noop() {
+    return new Tracer(0, SpanExporter.NONE);
+  }
+
+  /**
+   * Starts the root span of an inbound request.
+   *
+   * @param name Span name.
+   * @param traceparent The request's {@code traceparent} header, or {@code null}.
+   * @return The root span.
+   */
+  public Span startRootSpan(String name, String traceparent) {
+    rootSpans.increment();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    Optional<long[]> remote = Span.parseTraceparent(traceparent);
+    long traceIdHigh;
+    long traceIdLow;
+    long parentSpanId;
+    boolean sampled;
+    if (remote.isPresent()) {
+      long[] parent = remote.get();
+      traceIdHigh = parent[0];
+      traceIdLow = parent[1];
+      parentSpanId = parent[2];
+      sampled = parent[3] != 0;
+    } else {
+      traceIdHigh = random.nextLong();
+      traceIdLow = nonZero(random);
+      parentSpanId = 0;
+      sampled = random.nextDouble() < samplingProbability;
+    }
+    if (sampled) {
+      sampledRootSpans.increment();
+    }
+    return new Span(
+        this,
+        traceIdHigh,
+        traceIdLow,
+        nonZero(random),
+        parentSpanId,
+        sampled,
+        name,
+        Span.Kind.SERVER,
+        System.nanoTime());
+  }
+
+  /**
+   * Starts an internal span as a child of the span current on this thread.
+   *
+   * @param name Span name.
+   * @return The child span, or the current span itself if it is not sampled.
+   */
+  public Span startSpan(String name) {
+    return startSpan(name, Span.Kind.INTERNAL, Span.current());
+  }
+
+  /**
+   * Starts a span as a child of the given parent.
+   *
+   * @param name Span name.
+   * @param kind Span kind.
+   * @param parent The parent span.
+   * @return The child span, or {@code parent} itself if it is not sampled.
+   */
+  public Span startSpan(String name, Span.Kind kind, Span parent) {
+    if (!parent.isSampled()) {
+      return parent;
+    }
+    return new Span(
+        this,
+        parent.traceIdHigh(),
+        parent.traceIdLow(),
+        nonZero(ThreadLocalRandom.current()),
+        parent.rawSpanId(),
+        true,
+        name,
+        kind,
+        System.nanoTime());
+  }
+
+  /**
+   * Returns the probability that a request without a sampled parent is traced.
+   *
+   * @return The sampling probability.
+   */
+  public double samplingProbability() {
+    return samplingProbability;
+  }
+
+  /**
+   * Changes the sampling probability for subsequent requests.
+   *
+   * @param probability The new probability; values outside {@code [0, 1]} are clamped.
+   */
+  public void setSamplingProbability(double probability) {
+    samplingProbability = Double.isNaN(probability) ? 0 : Math.max(0, Math.min(1, probability));
+  }
+
+  /**
+   * Returns sampling and export counters.
+   *
+   * @return The current statistics.
+   */
+  public TracingStats stats() {
+    return new TracingStats(
+        samplingProbability,
+        rootSpans.sum(),
+        sampledRootSpans.sum(),
+        exportedSpans.sum(),
+        droppedSpans.sum());
+  }
+
+  long epochNanos(long nanoTime) {
+    return nanoTime + epochOffsetNanos;
+  }
+
+  void export(SpanData span) {
+    if (exporter.export(span)) {
+      exportedSpans.increment();
+    } else {
+      droppedSpans.increment();
+    }
+  }
+
+  private static long nonZero(ThreadLocalRandom random) {
+    long value;
+    do {
+      value = random.nextLong();
+    } while (value == 0);
+    return value;
+  }
+}
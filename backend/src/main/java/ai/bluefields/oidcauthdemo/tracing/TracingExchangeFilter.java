@@ -0,0 +1,64 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient filter that records outbound calls as {@code CLIENT} spans and propagates the trace to
+ * the callee in a W3C {@code traceparent} header.
+ *
+ * <p>The parent is the {@link Span} in the Reactor context, falling back to the span current on the
+ * subscribing thread. Unsampled traces still get a {@code traceparent} header, with the sampled
+ * flag cleared, so the callee can correlate without tracing.
+ */
+public class TracingExchangeFilter implements ExchangeFilterFunction {
+
+  private final Tracer tracer;
+
+  /**
+   * Creates the filter.
+   *
+   * @param tracer The tracer spans are started with.
+   */
+  public TracingExchangeFilter(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    return Mono.deferContextual(
+        context -> {
+          Span parent = context.getOrDefault(Span.class, Span.current());
+          if (!parent.isValid()) {
+            return next.exchange(request);
+          }
+          Span span =
+              tracer.startSpan(
+                  request.method().name() + " " + request.url().getPath(),
+                  Span.Kind.CLIENT,
+                  parent);
+          ClientRequest traced =
+              ClientRequest.from(request)
+                  .headers(headers -> headers.set(TracingFilter.TRACEPARENT, span.traceparent()))
+                  .build();
+          if (!span.isSampled()) {
+            return next.exchange(traced);
+          }
+          span.setAttribute("http.method", request.method().name());
+          span.setAttribute("server.address", request.url().getHost());
+          return next.exchange(traced)
+              .doOnNext(
+                  response -> {
+                    span.setAttribute("http.status_code", response.statusCode().value());
+                    if (response.statusCode().isError()) {
+                      span.recordError("HTTP " + response.statusCode().value());
+                    }
+                  })
+              .doOnError(span::recordError)
+              .doFinally(signal -> span.end());
+        });
+  }
+}
@@ -0,0 +1,101 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Servlet filter that starts the root span of every request and makes it current for the rest of
+ * the filter chain and the handler.
+ *
+ * <p>The span is named after the matched route once it is known. For asynchronous handlers it ends
+ * when the async cycle completes. While a sampled request is being processed on the request thread,
+ * its trace id is in the logging MDC under {@code traceId}.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+  /** Inbound and outbound W3C trace context header. */
+  public static final String TRACEPARENT = "traceparent";
+
+  private final Tracer tracer;
+
+  /**
+   * Creates the filter.
+   *
+   * @param tracer The tracer root spans are started with.
+   */
+  public TracingFilter(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Span span = tracer.startRootSpan("HTTP " + request.getMethod(), request.getHeader(TRACEPARENT));
+    boolean sampled = span.isSampled();
+    if (sampled) {
+      MDC.put("traceId", span.traceId());
+    }
+    try (Scope scope = span.makeCurrent()) {
+      filterChain.doFilter(request, response);
+    } catch (IOException | ServletException | RuntimeException e) {
+      span.recordError(e);
+      throw e;
+    } finally {
+      if (sampled) {
+        MDC.remove("traceId");
+      }
+      if (request.isAsyncStarted()) {
+        request
+            .getAsyncContext()
+            .addListener(
+                new AsyncListener() {
+                  @Override
+                  public void onComplete(AsyncEvent event) {
+                    finish(span, request, response);
+                  }
+
+                  @Override
+                  public void onTimeout(AsyncEvent event) {
+                    span.recordError("Async request timed out");
+                  }
+
+                  @Override
+                  public void onError(AsyncEvent event) {
+                    span.recordError(event.getThrowable());
+                  }
+
+                  @Override
+                  public void onStartAsync(AsyncEvent event) {}
+                });
+      } else {
+        finish(span, request, response);
+      }
+    }
+  }
+
+  private static void finish(Span span, HttpServletRequest request, HttpServletResponse response) {
+    if (!span.isSampled()) {
+      return;
+    }
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    if (pattern instanceof String route) {
+      span.updateName(request.getMethod() + " " + route);
+      span.setAttribute("http.route", route);
+    }
+    span.setAttribute("http.method", request.getMethod());
+    span.setAttribute("http.status_code", response.getStatus());
+    if (response.getStatus() >= 500) {
+      span.recordError("HTTP " + response.getStatus());
+    }
+    span.end();
+  }
+}
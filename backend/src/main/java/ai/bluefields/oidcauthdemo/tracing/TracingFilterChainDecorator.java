@@ -0,0 +1,71 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import java.util.List;
+import org.springframework.security.web.FilterChainProxy;
+
+/**
+ * Decorates the Spring Security filter chain with a {@code security.filterChain} span covering
+ * bearer token extraction, JWT decoding and validation, authentication and URL authorization.
+ *
+ * <p>The span ends when the request leaves the security filters, either by reaching the application
+ * or by being rejected. While the application runs, the request's root span is current again, so
+ * later spans are not nested under the finished security span.
+ */
+public class TracingFilterChainDecorator implements FilterChainProxy.FilterChainDecorator {
+
+  private final Tracer tracer;
+  private final FilterChainProxy.FilterChainDecorator delegate;
+
+  /**
+   * Creates the decorator around Spring Security's default virtual filter chain.
+   *
+   * @param tracer The tracer spans are started with.
+   */
+  public TracingFilterChainDecorator(Tracer tracer) {
+    this(tracer, new FilterChainProxy.VirtualFilterChainDecorator());
+  }
+
+  /**
+   * Creates the decorator.
+   *
+   * @param tracer The tracer spans are started with.
+   * @param delegate The decorator building the actual filter chain.
+   */
+  public TracingFilterChainDecorator(
+      Tracer tracer, FilterChainProxy.FilterChainDecorator delegate) {
+    this.tracer = tracer;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public FilterChain decorate(FilterChain original) {
+    return delegate.decorate(original);
+  }
+
+  @Override
+  public FilterChain decorate(FilterChain original, List<Filter> filters) {
+    return (request, response) -> {
+      Span parent = Span.current();
+      Span span = tracer.startSpan("security.filterChain");
+      if (span == parent) {
+        delegate.decorate(original, filters).doFilter(request, response);
+        return;
+      }
+      span.setAttribute("security.filters", filters.size());
+      FilterChain application =
+          (req, res) -> {
+            span.end();
+            try (Scope scope = parent.makeCurrent()) {
+              original.doFilter(req, res);
+            }
+          };
+      try (Scope scope = span.makeCurrent()) {
+        delegate.decorate(application, filters).doFilter(request, response);
+      } finally {
+        span.end();
+      }
+    };
+  }
+}
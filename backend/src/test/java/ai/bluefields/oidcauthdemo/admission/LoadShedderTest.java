@@ -0,0 +1,113 @@
+package ai.bluefields.oidcauthdemo.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.config.LoadSheddingProperties;
+import ai.bluefields.oidcauthdemo.dto.LoadSheddingStats;
+import ai.bluefields.oidcauthdemo.dto.PriorityStats;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LoadShedderTest {
+
+  private final LoadShedder shedder =
+      new LoadShedder(
+          new LoadSheddingProperties(
+              true,
+              null,
+              4, // public max in flight
+              2, // private max in flight
+              Duration.ofMillis(500),
+              Duration.ofMillis(100),
+              1, // min in flight
+              1.0, // latency follows the last sample
+              null));
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private PriorityStats stats(Priority priority) {
+    return shedder.stats().priorities().get(priority.ordinal());
+  }
+
+  @Test
+  void tryAdmit_shedsPrivateBeforePublicAndNeverHealthAsRequestsPileUp() {
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isTrue();
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isTrue();
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isFalse();
+    assertThat(shedder.tryAdmit(Priority.PUBLIC)).isTrue();
+    assertThat(shedder.tryAdmit(Priority.PUBLIC)).isTrue();
+    assertThat(shedder.tryAdmit(Priority.PUBLIC)).isFalse();
+    for (int i = 0; i < 100; i++) {
+      assertThat(shedder.tryAdmit(Priority.HEALTH)).isTrue();
+    }
+
+    LoadSheddingStats stats = shedder.stats();
+    assertThat(stats.inFlight()).isEqualTo(104);
+    assertThat(stats.priorities())
+        .containsExactly(
+            new PriorityStats("health", 100, 0),
+            new PriorityStats("public", 2, 1),
+            new PriorityStats("private", 2, 1));
+  }
+
+  @Test
+  void tryAdmit_admitsAgainOnceRequestsComplete() {
+    shedder.tryAdmit(Priority.PRIVATE);
+    shedder.tryAdmit(Priority.PRIVATE);
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isFalse();
+
+    shedder.release(Priority.PRIVATE, MILLIS);
+
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isTrue();
+  }
+
+  @Test
+  void tryAdmit_shedsByLatencyPerTierWhileRequestsAreInFlight() {
+    shedder.tryAdmit(Priority.PUBLIC);
+    shedder.release(Priority.PUBLIC, 200 * MILLIS);
+    shedder.tryAdmit(Priority.HEALTH); // One in flight, so latency counts
+
+    assertThat(shedder.stats().latencyMillis()).isEqualTo(200.0);
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isFalse();
+    assertThat(shedder.tryAdmit(Priority.PUBLIC)).isTrue();
+    assertThat(stats(Priority.PRIVATE).shed()).isEqualTo(1);
+  }
+
+  @Test
+  void tryAdmit_ignoresLatencyOnceDrainedAndRecoversFromNewSamples() {
+    shedder.tryAdmit(Priority.PRIVATE);
+    shedder.release(Priority.PRIVATE, 200 * MILLIS);
+
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isTrue(); // Nothing in flight
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isFalse();
+    shedder.release(Priority.PRIVATE, 5 * MILLIS);
+
+    assertThat(shedder.stats().latencyMillis()).isEqualTo(5.0);
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isTrue();
+    assertThat(shedder.tryAdmit(Priority.PRIVATE)).isTrue();
+  }
+
+  @Test
+  void release_doesNotSampleHealthProbes() {
+    shedder.tryAdmit(Priority.HEALTH);
+    shedder.release(Priority.HEALTH, 900 * MILLIS);
+
+    assertThat(shedder.stats().latencyMillis()).isZero();
+    assertThat(shedder.stats().inFlight()).isZero();
+  }
+
+  @Test
+  void release_smoothsLatency() {
+    LoadShedder smoothed =
+        new LoadShedder(
+            new LoadSheddingProperties(true, null, null, null, null, null, null, 0.5, null));
+
+    smoothed.tryAdmit(Priority.PRIVATE);
+    smoothed.release(Priority.PRIVATE, 100 * MILLIS);
+    smoothed.tryAdmit(Priority.PRIVATE);
+    smoothed.release(Priority.PRIVATE, 300 * MILLIS);
+
+    assertThat(smoothed.stats().latencyMillis()).isEqualTo(200.0);
+  }
+}
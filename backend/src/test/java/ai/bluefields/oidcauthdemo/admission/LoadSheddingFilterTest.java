@@ -0,0 +1,92 @@
+package ai.bluefields.oidcauthdemo.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.config.LoadSheddingProperties;
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.exception.ApiErrorWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class LoadSheddingFilterTest {
+
+  private final LoadShedder shedder =
+      new LoadShedder(new LoadSheddingProperties(true, null, 2, 1, null, null, null, null, null));
+
+  private final LoadSheddingFilter filter =
+      new LoadSheddingFilter(
+          shedder,
+          List.of("/api/v1/public/health"),
+          SecurityConfig.PUBLIC_PATHS,
+          Duration.ofSeconds(3),
+          new ApiErrorWriter(new ObjectMapper().registerModule(new JavaTimeModule())));
+
+  @Test
+  void priority_classifiesHealthPublicAndPrivateRoutes() {
+    assertThat(filter.priority(new MockHttpServletRequest("GET", "/api/v1/public/health")))
+        .isEqualTo(Priority.HEALTH);
+    assertThat(filter.priority(new MockHttpServletRequest("GET", "/api/v1/public/other")))
+        .isEqualTo(Priority.PUBLIC);
+    assertThat(filter.priority(new MockHttpServletRequest("GET", "/swagger-ui/index.html")))
+        .isEqualTo(Priority.PUBLIC);
+    assertThat(filter.priority(new MockHttpServletRequest("GET", "/api/v1/private/info")))
+        .isEqualTo(Priority.PRIVATE);
+    assertThat(filter.priority(new MockHttpServletRequest("GET", "/api/v1/admin/latency")))
+        .isEqualTo(Priority.PRIVATE);
+  }
+
+  @Test
+  void shouldRejectShedRequestWith503RetryAfterAndProblemJson() throws Exception {
+    shedder.tryAdmit(Priority.PRIVATE); // Private tier now full
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertThat(chain.getRequest()).isNull();
+    assertThat(response.getStatus()).isEqualTo(503);
+    assertThat(response.getHeader("Retry-After")).isEqualTo("3");
+    assertThat(response.getContentType()).isEqualTo("application/problem+json");
+    assertThat(response.getContentAsString())
+        .contains("\"type\":\"https://api.bluefields.ai/errors/overloaded\"")
+        .contains("\"status\":503");
+  }
+
+  @Test
+  void shouldServeHealthProbesWhileOtherTiersAreShed() throws Exception {
+    shedder.tryAdmit(Priority.PUBLIC);
+    shedder.tryAdmit(Priority.PUBLIC); // Public and private tiers now full
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/v1/public/health"),
+        new MockHttpServletResponse(),
+        chain);
+
+    assertThat(chain.getRequest()).isNotNull();
+    assertThat(shedder.stats().inFlight()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldReleaseAsyncRequestsOnlyWhenTheyComplete() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    request.setAsyncSupported(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+    assertThat(shedder.stats().inFlight()).isEqualTo(1);
+    ((MockAsyncContext) request.getAsyncContext()).complete();
+    assertThat(shedder.stats().inFlight()).isZero();
+    assertThat(shedder.stats().priorities().get(Priority.PRIVATE.ordinal()).admitted())
+        .isEqualTo(1);
+  }
+}
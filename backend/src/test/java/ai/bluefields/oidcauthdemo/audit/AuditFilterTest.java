@@ -0,0 +1,115 @@
+package ai.bluefields.oidcauthdemo.audit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import ai.bluefields.oidcauthdemo.audit.AuditRecord.Outcome;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.security.UserPrincipalAuthenticationToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class AuditFilterTest {
+
+  private final AuditLog auditLog = mock(AuditLog.class);
+  private final AuditFilter filter = new AuditFilter(auditLog, List.of("/api/v1/private/**"));
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  /** Chain that authenticates the caller, as bearer token authentication would, and responds. */
+  private static FilterChain respond(int status, boolean authenticate) {
+    return (request, response) -> {
+      if (authenticate) {
+        SecurityContextHolder.getContext()
+            .setAuthentication(
+                new UserPrincipalAuthenticationToken(
+                    new UserPrincipal("user-1", "http://issuer", null, null, Set.of(), "t"),
+                    List.of()));
+      }
+      ((HttpServletResponse) response).setStatus(status);
+    };
+  }
+
+  private void filter(String path, FilterChain chain) throws Exception {
+    filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(), chain);
+  }
+
+  @Test
+  void shouldRecordUnauthenticatedRequestsOnAnyRoute() throws Exception {
+    filter("/api/v1/admin/latency", respond(401, false));
+
+    verify(auditLog).record(Outcome.UNAUTHENTICATED, 401, "GET", null, "/api/v1/admin/latency");
+  }
+
+  @Test
+  void shouldRecordDeniedRequestsWithSubject() throws Exception {
+    filter("/api/v1/private/info", respond(403, true));
+
+    verify(auditLog).record(Outcome.DENIED, 403, "GET", "user-1", "/api/v1/private/info");
+  }
+
+  @Test
+  void shouldRecordGrantedAccessToAuditedRoutesOnly() throws Exception {
+    filter("/api/v1/private/info", respond(200, true));
+    filter("/api/v1/public/health", respond(200, false));
+    filter("/api/v1/private/missing", respond(404, true));
+
+    verify(auditLog).record(Outcome.GRANTED, 200, "GET", "user-1", "/api/v1/private/info");
+    verify(auditLog, never())
+        .record(any(), anyInt(), anyString(), any(), eq("/api/v1/public/health"));
+    verify(auditLog, never()).record(any(), eq(404), any(), any(), any());
+  }
+
+  @Test
+  void shouldStillRecordDenialsWithoutAuditedRoutes() throws Exception {
+    AuditFilter unaudited = new AuditFilter(auditLog, List.of());
+
+    unaudited.doFilter(
+        new MockHttpServletRequest("GET", "/api/v1/private/info"),
+        new MockHttpServletResponse(),
+        respond(200, true));
+    unaudited.doFilter(
+        new MockHttpServletRequest("GET", "/api/v1/private/info"),
+        new MockHttpServletResponse(),
+        respond(403, true));
+
+    verify(auditLog, never()).record(eq(Outcome.GRANTED), anyInt(), any(), any(), any());
+    verify(auditLog).record(Outcome.DENIED, 403, "GET", "user-1", "/api/v1/private/info");
+  }
+
+  @Test
+  void shouldRecordAsyncRequestsWithTheirFinalStatus() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    request.setAsyncSupported(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(
+        request,
+        response,
+        (req, res) -> {
+          respond(200, true).doFilter(req, res);
+          req.startAsync();
+        });
+    verify(auditLog, never()).record(any(), anyInt(), any(), any(), any());
+
+    response.setStatus(403);
+    ((MockAsyncContext) request.getAsyncContext()).complete();
+    verify(auditLog).record(Outcome.DENIED, 403, "GET", "user-1", "/api/v1/private/info");
+  }
+}
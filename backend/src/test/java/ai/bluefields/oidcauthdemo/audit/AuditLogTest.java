@@ -0,0 +1,182 @@
+package ai.bluefields.oidcauthdemo.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import ai.bluefields.oidcauthdemo.audit.AuditRecord.Outcome;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditLogTest {
+
+  @TempDir Path dir;
+
+  private List<AuditRecord> readAll() throws IOException {
+    List<AuditRecord> records = new ArrayList<>();
+    for (Path segment : AuditLogReader.segments(dir)) {
+      records.addAll(AuditLogReader.read(segment));
+    }
+    return records;
+  }
+
+  @Test
+  void close_shouldWriteQueuedRecordsReadableBySegmentReader() throws Exception {
+    AuditLog auditLog = new AuditLog(dir, 16, 4096, 4);
+    auditLog.start();
+
+    auditLog.record(Outcome.GRANTED, 200, "GET", "user-1", "/api/v1/private/info");
+    auditLog.record(Outcome.UNAUTHENTICATED, 401, "GET", null, "/api/v1/private/info");
+    auditLog.record(Outcome.DENIED, 403, "POST", "user-2", "/api/v1/admin/revocations");
+    auditLog.close();
+
+    List<AuditRecord> records = readAll();
+    assertThat(records)
+        .extracting(
+            AuditRecord::outcome,
+            AuditRecord::status,
+            AuditRecord::method,
+            AuditRecord::subject,
+            AuditRecord::path)
+        .containsExactly(
+            tuple(Outcome.GRANTED, 200, "GET", "user-1", "/api/v1/private/info"),
+            tuple(Outcome.UNAUTHENTICATED, 401, "GET", "", "/api/v1/private/info"),
+            tuple(Outcome.DENIED, 403, "POST", "user-2", "/api/v1/admin/revocations"));
+    assertThat(records.get(0).timestamp()).isNotNull();
+    assertThat(auditLog.stats().written()).isEqualTo(3);
+    assertThat(auditLog.stats().segment()).isEqualTo("audit-000001.log");
+  }
+
+  @Test
+  void record_shouldTruncateLongValuesOnCharacterBoundaries() throws Exception {
+    AuditLog auditLog = new AuditLog(dir, 16, 4096, 4);
+    auditLog.start();
+
+    auditLog.record(Outcome.GRANTED, 200, "PROPPATCHX", "ü".repeat(40), "/" + "a".repeat(300));
+    auditLog.close();
+
+    AuditRecord record = readAll().get(0);
+    assertThat(record.method()).isEqualTo("PROPPATC");
+    assertThat(record.subject()).isEqualTo("ü".repeat(32)); // 64 bytes of two-byte characters
+    assertThat(record.path()).hasSize(AuditRecord.MAX_PATH);
+  }
+
+  @Test
+  void writer_shouldRotateSegmentsAndKeepOnlyTheNewest() throws Exception {
+    AuditLog auditLog = new AuditLog(dir, 1024, 4096, 2);
+    auditLog.start();
+
+    for (int i = 0; i < 200; i++) {
+      auditLog.record(Outcome.GRANTED, 200, "GET", "user-" + i, "/api/v1/private/info");
+    }
+    auditLog.close();
+
+    List<Path> segments = AuditLogReader.segments(dir);
+    assertThat(segments).hasSize(2);
+    assertThat(segments.get(1).getFileName().toString()).isEqualTo(auditLog.stats().segment());
+    List<AuditRecord> kept = readAll();
+    assertThat(kept).isNotEmpty().hasSizeLessThan(200);
+    assertThat(kept.get(kept.size() - 1).subject()).isEqualTo("user-199");
+    assertThat(auditLog.stats().written()).isEqualTo(200);
+  }
+
+  @Test
+  void start_shouldContinueNumberingAfterExistingSegments() throws Exception {
+    AuditLog first = new AuditLog(dir, 16, 4096, 4);
+    first.start();
+    first.record(Outcome.GRANTED, 200, "GET", "a", "/api/v1/private/info");
+    first.close();
+    AuditLog second = new AuditLog(dir, 16, 4096, 4);
+    second.start();
+    second.record(Outcome.GRANTED, 200, "GET", "b", "/api/v1/private/info");
+    second.close();
+
+    assertThat(AuditLogReader.segments(dir))
+        .extracting(segment -> segment.getFileName().toString())
+        .containsExactly("audit-000001.log", "audit-000002.log");
+    assertThat(readAll()).extracting(AuditRecord::subject).containsExactly("a", "b");
+  }
+
+  @Test
+  void record_shouldDropAndCountWhenBufferIsFull() {
+    AuditLog auditLog = new AuditLog(dir, 4, 4096, 4); // Writer not started
+
+    List<Boolean> accepted =
+        IntStream.range(0, 6)
+            .mapToObj(i -> auditLog.record(Outcome.GRANTED, 200, "GET", "u", "/p"))
+            .toList();
+
+    assertThat(accepted).containsExactly(true, true, true, true, false, false);
+    assertThat(auditLog.stats().dropped()).isEqualTo(2);
+  }
+
+  @Test
+  void record_shouldKeepEveryRecordFromConcurrentProducers() throws Exception {
+    AuditLog auditLog = new AuditLog(dir, 1 << 16, 1 << 20, 8);
+    auditLog.start();
+    int threads = 4;
+    int perThread = 5_000;
+
+    List<Thread> producers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      String subject = "thread-" + t;
+      producers.add(
+          Thread.ofPlatform()
+              .start(
+                  () -> {
+                    for (int i = 0; i < perThread; i++) {
+                      auditLog.record(Outcome.GRANTED, 200, "GET", subject, "/" + i);
+                    }
+                  }));
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    auditLog.close();
+
+    List<AuditRecord> records = readAll();
+    assertThat(records).hasSize(threads * perThread);
+    assertThat(auditLog.stats().dropped()).isZero();
+    for (int t = 0; t < threads; t++) {
+      String subject = "thread-" + t;
+      assertThat(records.stream().filter(r -> r.subject().equals(subject)).map(AuditRecord::path))
+          .containsExactlyElementsOf(
+              IntStream.range(0, perThread).mapToObj(i -> "/" + i).toList()); // In order
+    }
+  }
+
+  @Test
+  void writeJson_shouldEmitOneObjectPerRecord() throws Exception {
+    AuditLog auditLog = new AuditLog(dir, 16, 4096, 4);
+    auditLog.start();
+    auditLog.record(Outcome.DENIED, 403, "GET", "user-1", "/api/v1/private/info");
+    auditLog.close();
+
+    StringWriter out = new StringWriter();
+    AuditLogReader.writeJson(AuditLogReader.segments(dir).get(0), out);
+
+    JsonNode json = new ObjectMapper().readTree(out.toString());
+    assertThat(json.get("outcome").asText()).isEqualTo("DENIED");
+    assertThat(json.get("status").asInt()).isEqualTo(403);
+    assertThat(json.get("subject").asText()).isEqualTo("user-1");
+    assertThat(json.get("timestamp").asText()).endsWith("Z");
+  }
+
+  @Test
+  void read_shouldRejectFilesThatAreNotSegments() throws Exception {
+    Path file = Files.writeString(dir.resolve("audit-000001.log"), "not a segment");
+
+    assertThatThrownBy(() -> AuditLogReader.read(file))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("not an audit log segment");
+  }
+}
@@ -0,0 +1,68 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.audit.AuditLog;
+import ai.bluefields.oidcauthdemo.audit.AuditRecord;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost an audit record adds to a request thread: encoding into the ring buffer while the writer
+ * drains it into memory-mapped segments. Compare with a synchronous {@code logger.warn}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class AuditLogBenchmark {
+
+  private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger("audit-bench");
+
+  private Path directory;
+  private AuditLog auditLog;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("audit-bench");
+    auditLog = new AuditLog(directory, 1 << 16, 64 << 20, 4);
+    auditLog.start();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    auditLog.close();
+    System.out.println("\n" + auditLog.stats());
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public boolean auditRecord() {
+    return auditLog.record(
+        AuditRecord.Outcome.GRANTED, 200, "GET", "312909075212468632", "/api/v1/private/info");
+  }
+
+  @Benchmark
+  public void loggerWarn() {
+    log.warn("Authorization denied: {} {} {}", "GET", "/api/v1/private/info", "312909075212468632");
+  }
+}
@@ -0,0 +1,92 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.dto.HealthResponse;
+import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
+import ai.bluefields.oidcauthdemo.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding the public response types as JSON, CBOR and Smile, with mappers set up as
+ * in {@code BinaryFormatConfig}. Encoded payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+  /** Wire format. */
+  @Param({"json", "cbor", "smile"})
+  public String format;
+
+  /** Response type. */
+  @Param({"health", "privateInfo", "apiError"})
+  public String payload;
+
+  private Object value;
+  private ObjectWriter writer;
+  private ObjectReader reader;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    ObjectMapper json =
+        new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    ObjectMapper mapper =
+        switch (format) {
+          case "cbor" -> json.copyWith(new CBORFactory());
+          case "smile" -> json.copyWith(new SmileFactory());
+          default -> json;
+        };
+    value =
+        switch (payload) {
+          case "health" -> new HealthResponse("Backend is up and running");
+          case "privateInfo" -> new PrivateInfoResponse(
+              "Hello Jane Doe (from UserInfo)", "jane.doe@example.zitadel.cloud");
+          default -> new ApiError(
+              "https://api.bluefields.ai/errors/deadline-exceeded",
+              "Gateway Timeout",
+              504,
+              "The request deadline expired before a response could be produced",
+              Instant.parse("2025-04-20T10:00:00.123456Z"));
+        };
+    writer = mapper.writerFor(value.getClass());
+    reader = mapper.readerFor(value.getClass());
+    encoded = writer.writeValueAsBytes(value);
+    System.out.printf("%n%s %s: %d bytes%n", payload, format, encoded.length);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return writer.writeValueAsBytes(value);
+  }
+
+  @Benchmark
+  public Object decode() throws IOException {
+    return reader.readValue(encoded);
+  }
+}
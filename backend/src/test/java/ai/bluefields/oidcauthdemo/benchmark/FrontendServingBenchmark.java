@@ -0,0 +1,122 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.frontend.FrontendAssets;
+import ai.bluefields.oidcauthdemo.frontend.FrontendFilter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * Serving a precompressed, content-hashed frontend asset to a client that accepts gzip: {@link
+ * FrontendFilter} against Spring MVC's {@link ResourceHttpRequestHandler} with an {@link
+ * EncodedResourceResolver}, which is what {@code spring.web.resources} with a compressed resource
+ * chain would use. Both write into a mock response, so the score is request handling without the
+ * network; the filter's in-memory variants avoid the per-request file lookups of the handler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontendServingBenchmark {
+
+  private static final String ASSET = "assets/index-B4x9aZ1q.js";
+
+  /** Uncompressed size of the asset in KiB. */
+  @Param({"4", "32"})
+  public int sizeKib;
+
+  private Path dist;
+  private FrontendFilter filter;
+  private ResourceHttpRequestHandler handler;
+
+  @Setup
+  public void setUp() throws Exception {
+    dist = Files.createTempDirectory("frontend-benchmark");
+    Path asset = dist.resolve(ASSET);
+    Files.createDirectories(asset.getParent());
+    StringBuilder script = new StringBuilder();
+    for (int i = 0; script.length() < sizeKib * 1024; i++) {
+      script.append("export const value").append(i).append(" = ").append(i * 31).append(";\n");
+    }
+    Files.writeString(asset, script);
+    ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+      out.write(Files.readAllBytes(asset));
+    }
+    Files.write(dist.resolve(ASSET + ".gz"), gzip.toByteArray());
+
+    filter =
+        new FrontendFilter(
+            FrontendAssets.scan(dist, List.of("/assets/**"), 48 * 1024), List.of("/api/**"));
+
+    handler = new ResourceHttpRequestHandler();
+    handler.setLocations(List.of(new FileSystemResource(dist.toString() + "/")));
+    handler.setResourceResolvers(
+        List.of(new EncodedResourceResolver(), new PathResourceResolver()));
+    handler.setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+    handler.setServletContext(new MockServletContext());
+    handler.afterPropertiesSet();
+
+    for (MockHttpServletResponse response : List.of(frontendFilter(), resourceHandler())) {
+      if (!"gzip".equals(response.getHeader("Content-Encoding"))) {
+        throw new IllegalStateException("Asset not served precompressed");
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileSystemUtils.deleteRecursively(dist);
+  }
+
+  private static MockHttpServletRequest request() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + ASSET);
+    request.addHeader("Accept-Encoding", "gzip, deflate");
+    return request;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse frontendFilter() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request(), response, new MockFilterChain());
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse resourceHandler() throws Exception {
+    MockHttpServletRequest request = request();
+    request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, ASSET);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    handler.handleRequest(request, response);
+    return response;
+  }
+}
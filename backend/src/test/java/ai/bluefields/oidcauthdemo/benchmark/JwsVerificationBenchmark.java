@@ -0,0 +1,121 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.security.JwsVerifierCache;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Signature verifications per second on one core: Nimbus' per-token key selection and verifier
+ * construction against {@link JwsVerifierCache}. Both process an already parsed token, so the score
+ * is key selection, verification and claim extraction only. A JWKS with several keys shows the cost
+ * of converting every matching JWK, which the cache avoids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class JwsVerificationBenchmark {
+
+  @Param({"RS256", "ES256"})
+  String algorithm;
+
+  private DefaultJWTProcessor<SecurityContext> nimbusDefault;
+  private DefaultJWTProcessor<SecurityContext> cached;
+  private SignedJWT token;
+
+  @Setup
+  public void setUp() throws Exception {
+    JWSAlgorithm alg = JWSAlgorithm.parse(algorithm);
+    JWK key;
+    if (JWSAlgorithm.Family.RSA.contains(alg)) {
+      RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+      token = sign(alg, new RSASSASigner(rsaKey));
+      key = rsaKey.toPublicJWK();
+    } else {
+      ECKey ecKey = new ECKeyGenerator(Curve.P_256).keyID("key-1").generate();
+      token = sign(alg, new ECDSASigner(ecKey));
+      key = ecKey.toPublicJWK();
+    }
+    JWKSource<SecurityContext> keySource =
+        new ImmutableJWKSet<>(
+            new JWKSet(
+                List.of(
+                    key,
+                    new RSAKeyGenerator(2048).keyID("key-2").generate().toPublicJWK(),
+                    new ECKeyGenerator(Curve.P_256).keyID("key-3").generate().toPublicJWK())));
+    Set<JWSAlgorithm> algorithms = new HashSet<>(JWSAlgorithm.Family.RSA);
+    algorithms.addAll(JWSAlgorithm.Family.EC);
+
+    nimbusDefault = new DefaultJWTProcessor<>();
+    nimbusDefault.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, keySource));
+    nimbusDefault.setJWTClaimsSetVerifier((claims, context) -> {});
+
+    JwsVerifierCache verifiers = new JwsVerifierCache(algorithms, keySource);
+    cached = new DefaultJWTProcessor<>();
+    cached.setJWSKeySelector(verifiers);
+    cached.setJWSVerifierFactory(verifiers);
+    cached.setJWTClaimsSetVerifier((claims, context) -> {});
+  }
+
+  private static SignedJWT sign(JWSAlgorithm alg, JWSSigner signer) throws Exception {
+    SignedJWT jwt =
+        new SignedJWT(
+            new JWSHeader.Builder(alg).keyID("key-1").type(JOSEObjectType.JWT).build(),
+            new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .build());
+    jwt.sign(signer);
+    return jwt;
+  }
+
+  @Benchmark
+  public JWTClaimsSet nimbusDefault() throws Exception {
+    return nimbusDefault.process(token, null);
+  }
+
+  @Benchmark
+  public JWTClaimsSet cachedVerifiers() throws Exception {
+    return cached.process(token, null);
+  }
+}
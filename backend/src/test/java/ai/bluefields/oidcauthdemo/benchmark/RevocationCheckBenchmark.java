@@ -0,0 +1,75 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.config.RevocationProperties;
+import ai.bluefields.oidcauthdemo.security.TokenRevocationList;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request cost of the revocation check with a populated denylist. The budget is well under a
+ * microsecond for both the common (not revoked) and the confirmed (revoked) path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RevocationCheckBenchmark {
+
+  @Param({"1000", "100000"})
+  int revoked;
+
+  private TokenRevocationList list;
+  private String activeJti;
+  private String revokedJti;
+
+  @Setup
+  public void setUp() throws Exception {
+    list =
+        new TokenRevocationList(
+            new RevocationProperties(
+                Files.createTempDirectory("revocation-bench").resolve("revoked.tsv"),
+                revoked,
+                0.01,
+                Duration.ofHours(1)),
+            Clock.systemUTC());
+    Instant exp = Instant.now().plus(Duration.ofHours(1));
+    List<TokenRevocationList.Entry> entries = new ArrayList<>(revoked);
+    for (int i = 0; i < revoked; i++) {
+      entries.add(new TokenRevocationList.Entry(UUID.randomUUID().toString(), exp));
+    }
+    list.revokeAll(entries);
+    revokedJti = entries.get(revoked / 2).jti();
+    activeJti = UUID.randomUUID().toString();
+  }
+
+  @Benchmark
+  public boolean notRevoked() {
+    return list.isRevoked(activeJti);
+  }
+
+  @Benchmark
+  public boolean revoked() {
+    return list.isRevoked(revokedJti);
+  }
+}
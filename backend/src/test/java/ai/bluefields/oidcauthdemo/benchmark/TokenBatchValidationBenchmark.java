@@ -0,0 +1,107 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.config.JwtDecoderConfig;
+import ai.bluefields.oidcauthdemo.dto.TokenValidationResponse.Result;
+import ai.bluefields.oidcauthdemo.security.TokenBatchValidator;
+import ai.bluefields.oidcauthdemo.security.UserPrincipalConverter;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Time for a gateway to validate {@code batch} distinct tokens: one batch call, spread over the
+ * worker pool, against one call per token, each validated on its own as a per-token endpoint would.
+ * HTTP overhead, which only widens the gap, is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBatchValidationBenchmark {
+
+  private static final String ISSUER = "https://issuer.example.com";
+
+  @Param({"16", "128"})
+  int batch;
+
+  private TokenBatchValidator validator;
+  private List<String> tokens;
+
+  @Setup
+  public void setUp() throws Exception {
+    RSAKey key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+    validator =
+        new TokenBatchValidator(
+            JwtDecoderConfig.buildDecoder(
+                new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), ISSUER, List.of()),
+            new UserPrincipalConverter(),
+            batch,
+            8192,
+            Runtime.getRuntime().availableProcessors() - 1);
+    tokens = new ArrayList<>(batch);
+    for (int i = 0; i < batch; i++) {
+      SignedJWT jwt =
+          new SignedJWT(
+              new JWSHeader.Builder(JWSAlgorithm.RS256)
+                  .keyID("key-1")
+                  .type(JOSEObjectType.JWT)
+                  .build(),
+              new JWTClaimsSet.Builder()
+                  .issuer(ISSUER)
+                  .subject("user-" + i)
+                  .issueTime(new Date())
+                  .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                  .claim("scope", "openid profile")
+                  .claim("urn:zitadel:iam:org:project:roles", Map.of("user", Map.of()))
+                  .build());
+      jwt.sign(new RSASSASigner(key));
+      tokens.add(jwt.serialize());
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    validator.close();
+  }
+
+  @Benchmark
+  public List<Result> batchCall() {
+    return validator.validate(tokens);
+  }
+
+  @Benchmark
+  public void oneCallPerToken(Blackhole blackhole) {
+    for (String token : tokens) {
+      blackhole.consume(validator.validate(List.of(token)));
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.tracing.Span;
+import ai.bluefields.oidcauthdemo.tracing.SpanExporter;
+import ai.bluefields.oidcauthdemo.tracing.Tracer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request tracing overhead at different sampling probabilities: the spans a private request
+ * creates (root, security filter chain, JWT conversion, method authorization, UserInfo client call
+ * with its {@code traceparent} header), exported to a discarding exporter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TracingOverheadBenchmark {
+
+  @Param({"0.0", "0.01", "1.0"})
+  public double samplingProbability;
+
+  private Tracer tracer;
+
+  @Setup
+  public void setUp() {
+    tracer = new Tracer(samplingProbability, SpanExporter.NONE);
+  }
+
+  @Benchmark
+  public String tracePrivateRequest() {
+    Span root = tracer.startRootSpan("HTTP GET", null);
+    String traceparent;
+    try (ai.bluefields.oidcauthdemo.tracing.Scope scope = root.makeCurrent()) {
+      Span security = tracer.startSpan("security.filterChain");
+      try (ai.bluefields.oidcauthdemo.tracing.Scope inner = security.makeCurrent()) {
+        tracer.startSpan("jwt.convert").end();
+      }
+      security.end();
+      tracer.startSpan("method.authorize").end();
+      Span client = tracer.startSpan("GET /oidc/v1/userinfo", Span.Kind.CLIENT, root);
+      traceparent = client.traceparent();
+      client.setAttribute("http.status_code", 200);
+      client.end();
+    }
+    root.updateName("GET /api/v1/private/info");
+    root.setAttribute("http.status_code", 200);
+    root.end();
+    return traceparent;
+  }
+}
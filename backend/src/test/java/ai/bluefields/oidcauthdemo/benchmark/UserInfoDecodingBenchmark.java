@@ -0,0 +1,107 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.client.UserInfo;
+import ai.bluefields.oidcauthdemo.client.UserInfoDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+/**
+ * Decoding a UserInfo response arriving in 8 KB network buffers: the previous approach (Jackson
+ * into a {@code Map}), Jackson binding straight into {@link UserInfo}, and the streaming {@link
+ * UserInfoDecoder}. Payloads are a minimal response and Zitadel-style responses carrying user
+ * metadata and project role grants. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInfoDecodingBenchmark {
+
+  private static final int CHUNK = 8192;
+  private static final ResolvableType MAP = ResolvableType.forClass(Map.class);
+  private static final ResolvableType USER_INFO = ResolvableType.forClass(UserInfo.class);
+
+  /** Number of metadata entries and role grants in the payload. */
+  @Param({"0", "50", "400"})
+  public int claims;
+
+  private final Jackson2JsonDecoder jacksonDecoder = new Jackson2JsonDecoder();
+  private final UserInfoDecoder userInfoDecoder = new UserInfoDecoder();
+  private byte[] payload;
+
+  @Setup
+  public void setUp() {
+    StringBuilder json = new StringBuilder("{\"sub\":\"227165436412346887\",\"name\":\"Jane Doe\"");
+    json.append(",\"urn:zitadel:iam:user:metadata\":{");
+    for (int i = 0; i < claims; i++) {
+      json.append(i == 0 ? "" : ",")
+          .append("\"attribute-")
+          .append(i)
+          .append("\":\"")
+          .append("dmFsdWUtZm9yLWF0dHJpYnV0ZS1udW1iZXI=".repeat(2))
+          .append('"');
+    }
+    json.append("},\"urn:zitadel:iam:org:project:roles\":{");
+    for (int i = 0; i < claims; i++) {
+      json.append(i == 0 ? "" : ",")
+          .append("\"role-")
+          .append(i)
+          .append("\":{\"227165436412346000\":\"org-")
+          .append(i)
+          .append(".example.com\"}");
+    }
+    json.append("},\"email_verified\":true,\"locale\":\"en\",\"updated_at\":1700000000")
+        .append(",\"email\":\"jane@example.com\",\"given_name\":\"Jane\",\"family_name\":\"Doe\"}");
+    payload = json.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private Flux<DataBuffer> body() {
+    List<DataBuffer> buffers = new ArrayList<>();
+    for (int offset = 0; offset < payload.length; offset += CHUNK) {
+      int length = Math.min(CHUNK, payload.length - offset);
+      buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(payload).slice(offset, length));
+    }
+    return Flux.fromIterable(buffers);
+  }
+
+  @Benchmark
+  public Object jacksonMap() {
+    return jacksonDecoder.decodeToMono(body(), MAP, MediaType.APPLICATION_JSON, Map.of()).block();
+  }
+
+  @Benchmark
+  public Object jacksonRecord() {
+    return jacksonDecoder
+        .decodeToMono(body(), USER_INFO, MediaType.APPLICATION_JSON, Map.of())
+        .block();
+  }
+
+  @Benchmark
+  public Object streaming() {
+    return userInfoDecoder
+        .decodeToMono(body(), USER_INFO, MediaType.APPLICATION_JSON, Map.of())
+        .block();
+  }
+}
@@ -0,0 +1,114 @@
+package ai.bluefields.oidcauthdemo.benchmark;
+
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.security.UserPrincipalConverter;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Per-request cost of turning a validated Zitadel access token into the authentication and reading
+ * the issuer and token value from it, as {@code PrivateInfoService} does: the previous {@link
+ * JwtAuthenticationConverter} with the JWT as principal, and {@link UserPrincipalConverter}. Run
+ * with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPrincipalBenchmark {
+
+  private static final String ROLES_CLAIM = "urn:zitadel:iam:org:project:roles";
+
+  private final JwtAuthenticationConverter jwtAuthenticationConverter =
+      jwtAuthenticationConverter();
+  private final UserPrincipalConverter userPrincipalConverter = new UserPrincipalConverter();
+  private Jwt jwt;
+
+  @Setup
+  public void setUp() {
+    Instant now = Instant.now();
+    jwt =
+        Jwt.withTokenValue(
+                "eyJhbGciOiJSUzI1NiIsImtpZCI6IjI3MDAwMDAwMDAwMDAwMDAwMCJ9." + "x".repeat(600))
+            .header("alg", "RS256")
+            .header("kid", "270000000000000000")
+            .issuer("https://auth.example.zitadel.cloud")
+            .subject("227165436412346887")
+            .audience(List.of("227165436412346888@demo", "227165436412346889"))
+            .issuedAt(now)
+            .notBefore(now)
+            .expiresAt(now.plusSeconds(43_200))
+            .jti("V2_227165436412346890-at_227165436412346891")
+            .claim("client_id", "227165436412346888@demo")
+            .claim("scope", "openid profile email")
+            .claim("email", "jane.doe@example.com")
+            .claim("email_verified", true)
+            .claim(
+                ROLES_CLAIM,
+                Map.of(
+                    "admin", Map.of("227165436412346892", "example.zitadel.cloud"),
+                    "user", Map.of("227165436412346892", "example.zitadel.cloud")))
+            .build();
+  }
+
+  @Benchmark
+  public Object jwtAuthenticationToken() {
+    AbstractAuthenticationToken authentication = jwtAuthenticationConverter.convert(jwt);
+    Jwt token = ((JwtAuthenticationToken) authentication).getToken();
+    return token.getIssuer().toString() + token.getTokenValue().length();
+  }
+
+  @Benchmark
+  public Object userPrincipal() {
+    AbstractAuthenticationToken authentication = userPrincipalConverter.convert(jwt);
+    UserPrincipal principal = UserPrincipal.from(authentication).orElseThrow();
+    return principal.issuer() + principal.tokenValue().length();
+  }
+
+  /** The converter configuration this application used before {@link UserPrincipalConverter}. */
+  private static JwtAuthenticationConverter jwtAuthenticationConverter() {
+    JwtGrantedAuthoritiesConverter scopes = new JwtGrantedAuthoritiesConverter();
+    JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+    converter.setJwtGrantedAuthoritiesConverter(
+        token -> {
+          Collection<GrantedAuthority> roles =
+              Optional.ofNullable(token.getClaimAsMap(ROLES_CLAIM))
+                  .map(
+                      claim ->
+                          claim.keySet().stream()
+                              .<GrantedAuthority>map(
+                                  role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+                              .collect(Collectors.toSet()))
+                  .orElse(Collections.emptySet());
+          return Stream.concat(scopes.convert(token).stream(), roles.stream())
+              .collect(Collectors.toSet());
+        });
+    return converter;
+  }
+}
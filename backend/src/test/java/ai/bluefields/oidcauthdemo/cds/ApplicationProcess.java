@@ -0,0 +1,220 @@
+package ai.bluefields.oidcauthdemo.cds;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The packaged application running in a child JVM, launched from the layered image layout the
+ * {@code cds} Maven profile extracts.
+ */
+final class ApplicationProcess implements AutoCloseable {
+
+  /** Layers of the image, in the order a container image stacks them. */
+  static final List<String> LAYERS =
+      List.of("dependencies", "spring-boot-loader", "snapshot-dependencies", "application");
+
+  private static final String JAVA =
+      Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+  private final Process process;
+  private final int port;
+  private final long startedAt;
+  private final HttpClient client =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+  private ApplicationProcess(Process process, int port, long startedAt) {
+    this.process = process;
+    this.port = port;
+    this.startedAt = startedAt;
+  }
+
+  /**
+   * Merges the image layers into one directory, as a container image would, so the application can
+   * run from it. Files are hard links where possible: a CDS archive is only accepted for JARs with
+   * the same size and modification time as in the training run.
+   *
+   * @param image Directory holding one subdirectory per layer.
+   * @param target Directory to assemble the layers in; replaced if it exists.
+   * @return {@code target}.
+   * @throws IOException If a file cannot be linked or copied.
+   */
+  static Path assemble(Path image, Path target) throws IOException {
+    if (Files.exists(target)) {
+      try (Stream<Path> files = Files.walk(target)) {
+        for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+          Files.delete(file);
+        }
+      }
+    }
+    for (String layer : LAYERS) {
+      Path root = image.resolve(layer);
+      if (!Files.isDirectory(root)) {
+        continue;
+      }
+      try (Stream<Path> files = Files.walk(root)) {
+        for (Path file : files.filter(Files::isRegularFile).toList()) {
+          Path link = target.resolve(root.relativize(file).toString());
+          Files.createDirectories(link.getParent());
+          try {
+            Files.createLink(link, file);
+          } catch (FileAlreadyExistsException e) {
+            throw e; // Two layers with the same file
+          } catch (IOException e) {
+            Files.copy(file, link, StandardCopyOption.COPY_ATTRIBUTES); // E.g. across devices
+          }
+        }
+      }
+    }
+    return target;
+  }
+
+  /**
+   * Starts {@code app.jar} in {@code directory} against the given issuer on a free port. The
+   * application's output goes to {@code app.log} in the same directory.
+   *
+   * @param directory The assembled application directory.
+   * @param issuerUri The issuer the application trusts.
+   * @param jvmOptions Additional JVM options.
+   * @return The running process.
+   * @throws IOException If the process cannot be started.
+   */
+  static ApplicationProcess start(Path directory, String issuerUri, List<String> jvmOptions)
+      throws IOException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> command = new ArrayList<>();
+    command.add(JAVA);
+    command.addAll(jvmOptions);
+    command.add("-Dserver.port=" + port);
+    command.add("-jar");
+    command.add("app.jar");
+    ProcessBuilder builder =
+        new ProcessBuilder(command)
+            .directory(directory.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(directory.resolve("app.log").toFile());
+    builder.environment().put("ZITADEL_AUTHDEMO_ISSUER_URI", issuerUri);
+    long startedAt = System.nanoTime();
+    return new ApplicationProcess(builder.start(), port, startedAt);
+  }
+
+  /**
+   * Polls the health endpoint until it answers.
+   *
+   * @param timeout How long to wait.
+   * @return Time from launching the JVM to the first successful response.
+   * @throws IOException If the application exits or does not answer in time.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  Duration awaitFirstResponse(Duration timeout) throws IOException, InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IOException("Application exited with status " + process.exitValue());
+      }
+      try {
+        if (get("/api/v1/public/health", null).statusCode() == 200) {
+          return Duration.ofNanos(System.nanoTime() - startedAt);
+        }
+      } catch (ConnectException e) {
+        // Not listening yet
+      }
+      Thread.sleep(5);
+    }
+    throw new IOException("Application did not answer within " + timeout);
+  }
+
+  /**
+   * Sends a GET request to the application.
+   *
+   * @param path Request path.
+   * @param token Bearer token, or {@code null}.
+   * @return The response.
+   * @throws IOException If the request fails.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+            .timeout(Duration.ofSeconds(10));
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  /**
+   * Reads HotSpot performance counters of the application with {@code jcmd}.
+   *
+   * @return Counter values by name; counters that are not numeric are omitted.
+   * @throws IOException If {@code jcmd} fails.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  Map<String, Long> perfCounters() throws IOException, InterruptedException {
+    Process jcmd =
+        new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "jcmd").toString(),
+                Long.toString(process.pid()),
+                "PerfCounter.print")
+            .redirectErrorStream(true)
+            .start();
+    String output = new String(jcmd.getInputStream().readAllBytes());
+    if (jcmd.waitFor() != 0) {
+      throw new IOException("jcmd failed: " + output);
+    }
+    Map<String, Long> counters = new HashMap<>();
+    for (String line : output.split("\n")) {
+      int separator = line.indexOf('=');
+      if (separator > 0) {
+        try {
+          counters.put(
+              line.substring(0, separator).trim(), Long.parseLong(line.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+          // String counter
+        }
+      }
+    }
+    return counters;
+  }
+
+  /**
+   * Stops the application with SIGTERM, as a container runtime would, so shutdown hooks and the CDS
+   * archive dump at exit run.
+   *
+   * @return The exit status.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  int stop() throws InterruptedException {
+    process.destroy();
+    if (!process.waitFor(60, TimeUnit.SECONDS)) {
+      process.destroyForcibly();
+      process.waitFor();
+    }
+    return process.exitValue();
+  }
+
+  @Override
+  public void close() {
+    if (process.isAlive()) {
+      process.destroyForcibly();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package ai.bluefields.oidcauthdemo.cds;
+
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Startup comparison of the layered image with and without its AppCDS archive.
+ *
+ * <p>Starts the packaged application several times in each configuration, alternating between them,
+ * and records the time from launching the JVM to the first answered request and the class loading
+ * time and counts HotSpot reports for that moment. Prints the medians and writes every run to
+ * {@code cds-startup.json} next to the image. Fails only when the archive is not used at all, e.g.
+ * because the image changed after training; the timings are reported, not enforced. Run by the
+ * {@code cds} Maven profile after the training run:
+ *
+ * <pre>
+ * ./mvnw -Pcds verify
+ * </pre>
+ */
+public final class CdsStartupReport {
+
+  private record Run(
+      boolean archive,
+      long firstRequestMillis,
+      long classLoadMillis,
+      long loadedClasses,
+      long sharedClasses) {}
+
+  private CdsStartupReport() {}
+
+  /**
+   * Runs the comparison.
+   *
+   * @param args The image directory, e.g. {@code target/image}, and optionally the number of runs
+   *     per configuration (default 3).
+   * @throws Exception If the application fails to start or the archive is not used.
+   */
+  public static void main(String[] args) throws Exception {
+    Path image = Path.of(args.length > 0 ? args[0] : "target/image").toAbsolutePath();
+    int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+    Path archive = image.resolve(CdsTrainingRun.ARCHIVE);
+    if (!Files.isRegularFile(archive)) {
+      throw new IOException("No archive at " + archive + ", run CdsTrainingRun first");
+    }
+    Path directory = ApplicationProcess.assemble(image, image.resolve("work/startup"));
+
+    List<Run> results = new ArrayList<>();
+    try (StubIssuer issuer = StubIssuer.start()) {
+      for (int i = 0; i < runs; i++) {
+        results.add(run(directory, issuer, null));
+        results.add(run(directory, issuer, archive));
+      }
+    }
+
+    System.out.println();
+    System.out.printf(
+        "%-16s %18s %16s %14s %14s%n",
+        "", "first request ms", "class load ms", "loaded", "from archive");
+    for (boolean withArchive : new boolean[] {false, true}) {
+      List<Run> selected = results.stream().filter(r -> r.archive() == withArchive).toList();
+      System.out.printf(
+          "%-16s %18d %16d %14d %14d%n",
+          withArchive ? "with archive" : "without archive",
+          median(selected, Run::firstRequestMillis),
+          median(selected, Run::classLoadMillis),
+          median(selected, Run::loadedClasses),
+          median(selected, Run::sharedClasses));
+    }
+    System.out.println();
+
+    Path report = image.resolveSibling("cds-startup.json");
+    Files.writeString(report, json(results));
+    System.out.printf("Wrote %s%n", report);
+
+    long archived =
+        results.stream().filter(Run::archive).mapToLong(Run::sharedClasses).min().orElse(0);
+    long baseline =
+        results.stream().filter(r -> !r.archive()).mapToLong(Run::sharedClasses).max().orElse(0);
+    if (archived <= baseline) {
+      throw new IOException(
+          "The archive was not used; see " + directory.resolve("app.log") + " for CDS warnings");
+    }
+  }
+
+  private static Run run(Path directory, StubIssuer issuer, Path archive) throws Exception {
+    List<String> options =
+        archive == null
+            ? List.of()
+            : List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=warning");
+    try (ApplicationProcess app = ApplicationProcess.start(directory, issuer.uri(), options)) {
+      Duration firstRequest = app.awaitFirstResponse(Duration.ofMinutes(2));
+      Map<String, Long> counters = app.perfCounters();
+      app.stop();
+      long frequency = counters.getOrDefault("sun.os.hrt.frequency", 1_000_000_000L);
+      return new Run(
+          archive != null,
+          firstRequest.toMillis(),
+          counters.getOrDefault("sun.cls.time", 0L) * 1000 / frequency,
+          counters.getOrDefault("java.cls.loadedClasses", 0L)
+              + counters.getOrDefault("java.cls.sharedLoadedClasses", 0L),
+          counters.getOrDefault("java.cls.sharedLoadedClasses", 0L));
+    }
+  }
+
+  private static long median(List<Run> runs, ToLongFunction<Run> value) {
+    long[] values = runs.stream().mapToLong(value).sorted().toArray();
+    return values.length == 0 ? 0 : values[values.length / 2];
+  }
+
+  private static String json(List<Run> runs) {
+    StringBuilder json = new StringBuilder("[\n");
+    for (int i = 0; i < runs.size(); i++) {
+      Run run = runs.get(i);
+      json.append(
+          String.format(
+              "  {\"archive\": %b, \"firstRequestMillis\": %d, \"classLoadMillis\": %d,"
+                  + " \"loadedClasses\": %d, \"sharedClasses\": %d}%s%n",
+              run.archive(),
+              run.firstRequestMillis(),
+              run.classLoadMillis(),
+              run.loadedClasses(),
+              run.sharedClasses(),
+              i < runs.size() - 1 ? "," : ""));
+    }
+    return json.append("]\n").toString();
+  }
+}
@@ -0,0 +1,90 @@
+package ai.bluefields.oidcauthdemo.cds;
+
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import com.nimbusds.jwt.JWTClaimsSet;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Training run for the application class-data sharing (AppCDS) archive of the layered image.
+ *
+ * <p>Starts the packaged application from the image layout against a {@link StubIssuer}, so no
+ * network is needed, sends the requests a freshly started instance typically serves (public,
+ * unauthenticated, forbidden and authorized calls) and stops it with SIGTERM. The JVM then writes
+ * every class it loaded from the JDK, the dependencies and the application into {@code
+ * cds/application.jsa} of the image. Run by the {@code cds} Maven profile after the layers are
+ * extracted:
+ *
+ * <pre>
+ * ./mvnw -Pcds package
+ * </pre>
+ */
+public final class CdsTrainingRun {
+
+  /** Archive location relative to the image directory. */
+  static final Path ARCHIVE = Path.of("cds", "application.jsa");
+
+  private CdsTrainingRun() {}
+
+  /**
+   * Runs the training.
+   *
+   * @param args The image directory, e.g. {@code target/image}.
+   * @throws Exception If the application fails to start, answers unexpectedly or leaves no archive.
+   */
+  public static void main(String[] args) throws Exception {
+    Path image = Path.of(args.length > 0 ? args[0] : "target/image").toAbsolutePath();
+    Path archive = image.resolve(ARCHIVE);
+    Files.createDirectories(archive.getParent());
+    Files.deleteIfExists(archive);
+    Path directory = ApplicationProcess.assemble(image, image.resolve("work/training"));
+
+    try (StubIssuer issuer = StubIssuer.start();
+        ApplicationProcess app =
+            ApplicationProcess.start(
+                directory,
+                issuer.uri(),
+                List.of("-XX:ArchiveClassesAtExit=" + archive, "-Xlog:cds=warning"))) {
+      Duration startup = app.awaitFirstResponse(Duration.ofMinutes(2));
+      System.out.printf("Training run answered after %d ms%n", startup.toMillis());
+
+      String admin = token(issuer, "trainer-admin", "admin");
+      String user = token(issuer, "trainer-user", "user");
+      expect(app, "/api/v1/private/info", admin, 200);
+      expect(app, "/api/v1/private/info", user, 403);
+      expect(app, "/api/v1/private/info", null, 401);
+      expect(app, "/api/v1/private/info", "not-a-jwt", 401);
+      expect(app, "/api/v1/admin/audit/stats", admin, 200);
+      expect(app, "/api/v1/public/health", null, 200);
+
+      int status = app.stop();
+      System.out.printf("Training run exited with status %d%n", status);
+    }
+    if (!Files.isRegularFile(archive)) {
+      throw new IOException(
+          "No archive written to " + archive + ", see " + directory.resolve("app.log"));
+    }
+    System.out.printf("Wrote %s (%d MB)%n", archive, Files.size(archive) >> 20);
+  }
+
+  private static String token(StubIssuer issuer, String subject, String role) throws Exception {
+    return issuer.token(
+        new JWTClaimsSet.Builder()
+            .subject(subject)
+            .claim("scope", "openid profile email")
+            .claim("urn:zitadel:iam:org:project:roles", Map.of(role, Map.of()))
+            .build());
+  }
+
+  private static void expect(ApplicationProcess app, String path, String token, int status)
+      throws Exception {
+    int actual = app.get(path, token).statusCode();
+    if (actual != status) {
+      throw new IOException("GET " + path + " answered " + actual + ", expected " + status);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.config.UserInfoLimitProperties;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private final AtomicLong now = new AtomicLong();
+
+  private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+    return new AdaptiveConcurrencyLimiter(
+        new UserInfoLimitProperties(initial, min, max, 0.2, 2.0, 0.9, Duration.ofSeconds(30)),
+        now::get);
+  }
+
+  /** Runs {@code count} saturated rounds where every call takes {@code rttMillis}. */
+  private void saturate(AdaptiveConcurrencyLimiter limiter, int rounds, long rttMillis) {
+    for (int r = 0; r < rounds; r++) {
+      List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+      AdaptiveConcurrencyLimiter.Permit permit;
+      while ((permit = limiter.tryAcquire()) != null) {
+        permits.add(permit);
+      }
+      now.addAndGet(Duration.ofMillis(rttMillis).toNanos());
+      permits.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+    }
+  }
+
+  @Test
+  void tryAcquire_shouldShedAboveLimitAndCountIt() {
+    AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+    assertThat(limiter.tryAcquire()).isNotNull();
+    assertThat(limiter.tryAcquire()).isNotNull();
+    assertThat(limiter.tryAcquire()).isNull();
+
+    assertThat(limiter.stats().accepted()).isEqualTo(2);
+    assertThat(limiter.stats().shed()).isEqualTo(1);
+    assertThat(limiter.stats().inFlight()).isEqualTo(2);
+  }
+
+  @Test
+  void limit_shouldGrowWhileRoundTripStaysAtBaseline() {
+    AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 100);
+
+    saturate(limiter, 20, 10);
+
+    assertThat(limiter.limit()).isGreaterThan(30);
+    assertThat(limiter.stats().minRttMillis()).isEqualTo(10.0);
+  }
+
+  @Test
+  void limit_shouldShrinkWhenRoundTripInflates() {
+    AdaptiveConcurrencyLimiter limiter = limiter(40, 1, 40);
+    saturate(limiter, 5, 10);
+    assertThat(limiter.limit()).isEqualTo(40);
+
+    saturate(limiter, 20, 200);
+
+    assertThat(limiter.limit()).isLessThan(10);
+    assertThat(limiter.limit()).isGreaterThanOrEqualTo(1);
+  }
+
+  @Test
+  void limit_shouldNotGrowWhenCallerUsesLessThanHalf() {
+    AdaptiveConcurrencyLimiter limiter = limiter(20, 1, 100);
+
+    for (int i = 0; i < 50; i++) {
+      AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+      now.addAndGet(Duration.ofMillis(10).toNanos());
+      permit.success();
+    }
+
+    assertThat(limiter.limit()).isEqualTo(20);
+  }
+
+  @Test
+  void dropped_shouldBackOffMultiplicativelyAndReleaseOnce() {
+    AdaptiveConcurrencyLimiter limiter = limiter(20, 1, 100);
+    AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+
+    permit.dropped();
+    permit.dropped();
+    permit.success();
+
+    assertThat(limiter.limit()).isEqualTo(18);
+    assertThat(limiter.stats().dropped()).isEqualTo(1);
+    assertThat(limiter.stats().inFlight()).isZero();
+  }
+
+  @Test
+  void ignore_shouldReleaseWithoutChangingLimit() {
+    AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1);
+    limiter.tryAcquire().ignore();
+
+    assertThat(limiter.tryAcquire()).isNotNull();
+    assertThat(limiter.limit()).isEqualTo(1);
+  }
+}
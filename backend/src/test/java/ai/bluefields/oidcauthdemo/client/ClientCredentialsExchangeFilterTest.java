@@ -0,0 +1,100 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.config.ClientCredentialsProperties;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClient;
+
+class ClientCredentialsExchangeFilterTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private StubIssuer idp;
+  private ClientCredentialsTokenManager tokenManager;
+  private WebClient webClient;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    idp = StubIssuer.start();
+    tokenManager =
+        new ClientCredentialsTokenManager(
+            new ClientCredentialsProperties(
+                true,
+                URI.create(idp.uri() + "/oauth/v2/token"),
+                StubIssuer.CLIENT_ID,
+                StubIssuer.CLIENT_SECRET,
+                null,
+                null,
+                null,
+                null),
+            WebClient.create(),
+            Clock.systemUTC());
+    webClient =
+        WebClient.builder().filter(new ClientCredentialsExchangeFilter(tokenManager)).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    tokenManager.close();
+    idp.close();
+  }
+
+  private HttpStatusCode get(WebClient.RequestHeadersSpec<?> request) {
+    return request.retrieve().toBodilessEntity().map(r -> r.getStatusCode()).block(TIMEOUT);
+  }
+
+  private HttpStatusCode getResource(String audience) {
+    return webClient
+        .get()
+        .uri(idp.uri() + "/api/v1/resource")
+        .attributes(ClientCredentialsExchangeFilter.audience(audience))
+        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+        .block(TIMEOUT);
+  }
+
+  @Test
+  void filter_authenticatesRequestsNamingAnAudienceWithCachedToken() {
+    assertThat(getResource("orders").value()).isEqualTo(200);
+    String authorization = idp.lastResourceAuthorization();
+    assertThat(getResource("orders").value()).isEqualTo(200);
+
+    assertThat(authorization).startsWith("Bearer stub-access-token-");
+    assertThat(idp.lastResourceAuthorization()).isEqualTo(authorization);
+    assertThat(idp.tokenRequests()).isEqualTo(1);
+  }
+
+  @Test
+  void filter_leavesOtherRequestsUnchanged() {
+    get(webClient.get().uri(idp.uri() + "/api/v1/resource"));
+    assertThat(idp.lastResourceAuthorization()).isNull();
+
+    get(
+        webClient
+            .get()
+            .uri(idp.uri() + "/api/v1/resource")
+            .attributes(ClientCredentialsExchangeFilter.audience("orders"))
+            .headers(headers -> headers.setBearerAuth("user-token")));
+    assertThat(idp.lastResourceAuthorization()).isEqualTo("Bearer user-token");
+    assertThat(idp.tokenRequests()).isZero();
+  }
+
+  @Test
+  void filter_dropsTokenRejectedWithUnauthorized() {
+    getResource("orders");
+    String rejected = idp.lastResourceAuthorization().substring("Bearer ".length());
+    idp.rejectToken(rejected);
+
+    assertThat(getResource("orders").value()).isEqualTo(401);
+    assertThat(getResource("orders").value()).isEqualTo(200);
+    assertThat(idp.lastResourceAuthorization()).isNotEqualTo("Bearer " + rejected);
+    assertThat(idp.tokenRequests()).isEqualTo(2);
+  }
+}
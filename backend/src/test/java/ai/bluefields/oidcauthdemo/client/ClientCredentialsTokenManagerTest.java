@@ -0,0 +1,178 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import ai.bluefields.oidcauthdemo.config.ClientCredentialsProperties;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+class ClientCredentialsTokenManagerTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private StubIssuer idp;
+  private ClientCredentialsTokenManager manager;
+  private final AtomicReference<Instant> now = new AtomicReference<>(Instant.now());
+
+  /** Clock the tests move forward by hand. */
+  private final Clock clock =
+      new Clock() {
+        @Override
+        public ZoneId getZone() {
+          return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+          return this;
+        }
+
+        @Override
+        public Instant instant() {
+          return now.get();
+        }
+      };
+
+  @BeforeEach
+  void setUp() throws Exception {
+    idp = StubIssuer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (manager != null) {
+      manager.close();
+    }
+    idp.close();
+  }
+
+  private ClientCredentialsTokenManager manager(String clientSecret, Clock clock) {
+    manager =
+        new ClientCredentialsTokenManager(
+            new ClientCredentialsProperties(
+                true,
+                URI.create(idp.uri() + "/oauth/v2/token"),
+                StubIssuer.CLIENT_ID,
+                clientSecret,
+                null,
+                Duration.ofSeconds(60),
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(5)),
+            WebClient.create(),
+            clock);
+    return manager;
+  }
+
+  private ClientCredentialsTokenManager manager() {
+    return manager(StubIssuer.CLIENT_SECRET, clock);
+  }
+
+  @Test
+  void token_cachesTokenPerAudience() {
+    ClientCredentialsTokenManager manager = manager();
+
+    String orders = manager.token("orders").block(TIMEOUT);
+    String ordersAgain = manager.token("orders").block(TIMEOUT);
+    String billing = manager.token("billing").block(TIMEOUT);
+
+    assertThat(ordersAgain).isEqualTo(orders);
+    assertThat(billing).isNotEqualTo(orders);
+    assertThat(idp.tokenRequests()).isEqualTo(2);
+    assertThat(idp.lastTokenScope()).isEqualTo("urn:zitadel:iam:org:project:id:billing:aud");
+  }
+
+  @Test
+  void token_coalescesConcurrentRequests() {
+    ClientCredentialsTokenManager manager = manager();
+    idp.tokenLatency(Duration.ofMillis(200));
+
+    List<String> tokens =
+        Flux.range(0, 50).flatMap(i -> manager.token("orders"), 50).collectList().block(TIMEOUT);
+
+    assertThat(tokens).hasSize(50).containsOnly(tokens.get(0));
+    assertThat(idp.tokenRequests()).isEqualTo(1);
+  }
+
+  @Test
+  void token_refreshesInBackgroundWhenDueWithoutMakingCallerWait() {
+    ClientCredentialsTokenManager manager = manager();
+    String first = manager.token("orders").block(TIMEOUT);
+
+    now.set(now.get().plus(Duration.ofSeconds(250))); // Within refresh-before of the 300 s expiry
+    String duringRefresh = manager.token("orders").block(TIMEOUT);
+
+    assertThat(duringRefresh).isEqualTo(first);
+    await().atMost(TIMEOUT).until(() -> !first.equals(manager.token("orders").block(TIMEOUT)));
+    assertThat(idp.tokenRequests()).isEqualTo(2);
+  }
+
+  @Test
+  void token_fetchesNewTokenOnceCachedOneIsTooCloseToExpiry() {
+    ClientCredentialsTokenManager manager = manager();
+    String first = manager.token("orders").block(TIMEOUT);
+
+    now.set(now.get().plus(Duration.ofSeconds(296))); // Less than min-validity left
+
+    assertThat(manager.token("orders").block(TIMEOUT)).isNotEqualTo(first);
+    assertThat(idp.tokenRequests()).isEqualTo(2);
+  }
+
+  @Test
+  void timer_refreshesUsedAudiencesAheadOfExpiryAndLetsIdleOnesLapse() throws Exception {
+    idp.tokenLifetime(Duration.ofSeconds(2)); // Refreshed after half its lifetime
+    ClientCredentialsTokenManager manager = manager(StubIssuer.CLIENT_SECRET, Clock.systemUTC());
+
+    manager.token("orders").block(TIMEOUT);
+    await().atMost(TIMEOUT).until(() -> idp.tokenRequests() == 2);
+
+    Thread.sleep(1_500); // No use since the refresh, so the next timer tick does not refresh
+    assertThat(idp.tokenRequests()).isEqualTo(2);
+  }
+
+  @Test
+  void token_failsWhenTokenEndpointFailsAndRetriesOnNextCall() {
+    ClientCredentialsTokenManager manager = manager();
+    idp.failTokenRequests(1);
+
+    assertThatThrownBy(() -> manager.token("orders").block(TIMEOUT))
+        .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+    assertThat(manager.token("orders").block(TIMEOUT)).startsWith("stub-access-token-");
+    assertThat(idp.tokenRequests()).isEqualTo(2);
+  }
+
+  @Test
+  void token_failsForRejectedClientCredentials() {
+    ClientCredentialsTokenManager manager = manager("wrong-secret", clock);
+
+    assertThatThrownBy(() -> manager.token("orders").block(TIMEOUT))
+        .isInstanceOf(WebClientResponseException.Unauthorized.class);
+  }
+
+  @Test
+  void invalidate_dropsOnlyTheRejectedToken() {
+    ClientCredentialsTokenManager manager = manager();
+    String first = manager.token("orders").block(TIMEOUT);
+
+    manager.invalidate("orders", "some-other-token");
+    assertThat(manager.token("orders").block(TIMEOUT)).isEqualTo(first);
+
+    manager.invalidate("orders", first);
+    assertThat(manager.token("orders").block(TIMEOUT)).isNotEqualTo(first);
+    assertThat(manager.tokenRequests()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,131 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.config.UserInfoHedgeProperties;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class RequestHedgerTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private static RequestHedger hedger(boolean enabled, double budgetPercent) {
+    return new RequestHedger(
+        new UserInfoHedgeProperties(
+            enabled,
+            90.0,
+            Duration.ofMillis(20),
+            Duration.ofMillis(50),
+            budgetPercent,
+            Duration.ofSeconds(10),
+            5));
+  }
+
+  /** Returns the given attempts in order, one per call. */
+  @SafeVarargs
+  private static Supplier<Mono<String>> attempts(Mono<String>... monos) {
+    AtomicInteger calls = new AtomicInteger();
+    List<Mono<String>> list = List.of(monos);
+    return () -> list.get(calls.getAndIncrement());
+  }
+
+  @Test
+  void hedge_whenDisabled_shouldCallOnceWithoutCounting() {
+    RequestHedger hedger = hedger(false, 100);
+
+    String result = hedger.hedge(() -> Mono.just("only")).block(TIMEOUT);
+
+    assertThat(result).isEqualTo("only");
+    assertThat(hedger.stats().enabled()).isFalse();
+    assertThat(hedger.stats().requests()).isZero();
+  }
+
+  @Test
+  void hedge_whenPrimaryIsFast_shouldNotFireHedge() {
+    RequestHedger hedger = hedger(true, 100);
+
+    String result = hedger.hedge(attempts(Mono.just("primary"))).block(TIMEOUT);
+
+    assertThat(result).isEqualTo("primary");
+    assertThat(hedger.stats().hedges()).isZero();
+    assertThat(hedger.stats().primaryWins()).isEqualTo(1);
+  }
+
+  @Test
+  void hedge_whenPrimaryIsSlow_shouldReturnHedgeAndCancelPrimary() {
+    RequestHedger hedger = hedger(true, 100);
+    AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+    String result =
+        hedger
+            .hedge(
+                attempts(
+                    Mono.delay(Duration.ofSeconds(3))
+                        .thenReturn("primary")
+                        .doOnCancel(() -> primaryCancelled.set(true)),
+                    Mono.just("hedge")))
+            .block(TIMEOUT);
+
+    assertThat(result).isEqualTo("hedge");
+    assertThat(primaryCancelled).isTrue();
+    assertThat(hedger.stats().hedges()).isEqualTo(1);
+    assertThat(hedger.stats().hedgeWins()).isEqualTo(1);
+    assertThat(hedger.stats().hedgeRate()).isEqualTo(1.0);
+  }
+
+  @Test
+  void hedge_whenHedgeFails_shouldWaitForPrimary() {
+    RequestHedger hedger = hedger(true, 100);
+
+    String result =
+        hedger
+            .hedge(
+                attempts(
+                    Mono.delay(Duration.ofMillis(200)).thenReturn("primary"),
+                    Mono.error(new IllegalStateException("hedge failed"))))
+            .block(TIMEOUT);
+
+    assertThat(result).isEqualTo("primary");
+    assertThat(hedger.stats().primaryWins()).isEqualTo(1);
+  }
+
+  @Test
+  void hedge_whenBudgetIsSpent_shouldSkipHedge() {
+    RequestHedger hedger = hedger(true, 0);
+    Supplier<Mono<String>> slowThenFast =
+        attempts(
+            Mono.delay(Duration.ofMillis(150)).thenReturn("primary"),
+            Mono.just("hedge"),
+            Mono.delay(Duration.ofMillis(150)).thenReturn("primary"),
+            Mono.just("unused"));
+
+    assertThat(hedger.hedge(slowThenFast).block(TIMEOUT)).isEqualTo("hedge");
+    assertThat(hedger.hedge(slowThenFast).block(TIMEOUT)).isEqualTo("primary");
+
+    assertThat(hedger.stats().hedges()).isEqualTo(1);
+    assertThat(hedger.stats().budgetExhausted()).isEqualTo(1);
+  }
+
+  @Test
+  void refreshDelay_shouldTrackPercentileWithinBounds() {
+    RequestHedger hedger = hedger(true, 100);
+    assertThat(hedger.delay()).isEqualTo(Duration.ofMillis(50));
+
+    for (int i = 0; i < 5; i++) {
+      hedger.hedge(() -> Mono.just("fast")).block(TIMEOUT);
+    }
+    hedger.refreshDelay();
+    assertThat(hedger.delay()).isEqualTo(Duration.ofMillis(20));
+
+    hedger.hedge(() -> Mono.just("too few samples")).block(TIMEOUT);
+    hedger.refreshDelay();
+    assertThat(hedger.delay()).isEqualTo(Duration.ofMillis(20));
+    assertThat(hedger.stats().delayMillis()).isEqualTo(20.0);
+  }
+}
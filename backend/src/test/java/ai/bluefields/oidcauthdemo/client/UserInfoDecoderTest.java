@@ -0,0 +1,153 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class UserInfoDecoderTest {
+
+  private static final String ZITADEL_USERINFO =
+      """
+      {"sub":"2770","name":"Jane Doe","given_name":"Jane","family_name":"Doe",
+       "urn:zitadel:iam:user:metadata":{"email":"bWV0YQ==","given_name":"bmVzdGVk"},
+       "urn:zitadel:iam:org:project:roles":{"admin":{"2771":"org.example"},"user":{"2771":"x"}},
+       "groups":["a","b",{"email":"in-array"}],"email_verified":true,"locale":null,
+       "email":"jane@example.com","updated_at":1700000000}
+      """;
+
+  private final UserInfoDecoder decoder = new UserInfoDecoder();
+  private final NettyDataBufferFactory bufferFactory =
+      new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+  /** Splits the JSON into network buffers of the given size. */
+  private List<DataBuffer> chunks(String json, int size) {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    List<DataBuffer> buffers = new ArrayList<>();
+    for (int offset = 0; offset < bytes.length; offset += size) {
+      int length = Math.min(size, bytes.length - offset);
+      DataBuffer buffer = bufferFactory.allocateBuffer(length);
+      buffer.write(bytes, offset, length);
+      buffers.add(buffer);
+    }
+    return buffers;
+  }
+
+  private Mono<UserInfo> decode(List<DataBuffer> buffers) {
+    return decoder.decodeToMono(
+        Flux.fromIterable(buffers),
+        ResolvableType.forClass(UserInfo.class),
+        MediaType.APPLICATION_JSON,
+        Map.of());
+  }
+
+  @Test
+  void decodeToMono_shouldPickTopLevelClaimsAndSkipNestedOnes() {
+    StepVerifier.create(decode(chunks(ZITADEL_USERINFO, 8192)))
+        .expectNext(new UserInfo("jane@example.com", "Jane", "Doe"))
+        .verifyComplete();
+  }
+
+  @Test
+  void decodeToMono_shouldHandleClaimsSplitAcrossBuffersAndReleaseThem() {
+    List<DataBuffer> buffers = chunks(ZITADEL_USERINFO, 1);
+
+    StepVerifier.create(decode(buffers))
+        .expectNext(new UserInfo("jane@example.com", "Jane", "Doe"))
+        .verifyComplete();
+    assertThat(buffers)
+        .allSatisfy(
+            buffer -> assertThat(((NettyDataBuffer) buffer).getNativeBuffer().refCnt()).isZero());
+  }
+
+  @Test
+  void decodeToMono_shouldIgnoreNonStringClaimsAndLeaveMissingOnesNull() {
+    StepVerifier.create(decode(chunks("{\"email\":42,\"given_name\":{\"x\":1}}", 4)))
+        .expectNext(new UserInfo(null, null, null))
+        .verifyComplete();
+  }
+
+  @Test
+  void decodeToMono_shouldStopParsingOnceAllClaimsAreFound() {
+    String json =
+        "{\"email\":\"a@b.c\",\"given_name\":\"A\",\"family_name\":\"B\",\"rest\":["
+            + "{".repeat(5);
+
+    StepVerifier.create(decode(chunks(json, 16)))
+        .expectNext(new UserInfo("a@b.c", "A", "B"))
+        .verifyComplete();
+  }
+
+  @Test
+  void decodeToMono_shouldRejectMalformedOrTruncatedJson() {
+    StepVerifier.create(decode(chunks("[1,2]", 8))).expectError(DecodingException.class).verify();
+    StepVerifier.create(decode(chunks("{\"email\":", 8)))
+        .expectError(DecodingException.class)
+        .verify();
+    StepVerifier.create(decode(chunks("{\"email\" 1}", 8)))
+        .expectError(DecodingException.class)
+        .verify();
+  }
+
+  @Test
+  void canDecode_shouldOnlyClaimUserInfo() {
+    assertThat(
+            decoder.canDecode(ResolvableType.forClass(UserInfo.class), MediaType.APPLICATION_JSON))
+        .isTrue();
+    assertThat(decoder.canDecode(ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON))
+        .isFalse();
+    assertThat(decoder.canDecode(ResolvableType.forClass(UserInfo.class), MediaType.TEXT_PLAIN))
+        .isFalse();
+  }
+
+  @Test
+  void webClient_shouldDecodeUserInfoFromStubIdentityProvider() throws Exception {
+    AtomicInteger decoded = new AtomicInteger();
+    UserInfoDecoder counting =
+        new UserInfoDecoder() {
+          @Override
+          public Mono<UserInfo> decodeToMono(
+              Publisher<DataBuffer> input,
+              ResolvableType elementType,
+              MimeType mimeType,
+              Map<String, Object> hints) {
+            decoded.incrementAndGet();
+            return super.decodeToMono(input, elementType, mimeType, hints);
+          }
+        };
+    try (StubIssuer idp = StubIssuer.start()) {
+      WebClient webClient =
+          WebClient.builder().codecs(codecs -> codecs.customCodecs().register(counting)).build();
+
+      UserInfo userInfo =
+          webClient
+              .get()
+              .uri(idp.uri() + "/oidc/v1/userinfo")
+              .retrieve()
+              .bodyToMono(UserInfo.class)
+              .block(Duration.ofSeconds(10));
+
+      assertThat(userInfo).isEqualTo(new UserInfo("stub@example.com", "Stub", "User"));
+      assertThat(decoded).hasValue(1); // Chosen over the default Jackson decoder
+    }
+  }
+}
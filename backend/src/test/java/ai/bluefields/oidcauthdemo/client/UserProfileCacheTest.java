@@ -0,0 +1,87 @@
+package ai.bluefields.oidcauthdemo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class UserProfileCacheTest {
+
+  private static final UserInfo ALICE = new UserInfo("alice@example.com", "Alice", "User");
+
+  private Instant now = Instant.parse("2025-05-01T10:00:00Z");
+
+  /** Clock the tests move forward by hand. */
+  private final Clock clock =
+      new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+          return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+          return this;
+        }
+
+        @Override
+        public Instant instant() {
+          return now;
+        }
+      };
+
+  @Test
+  void get_shouldReturnProfileUntilItExpires() {
+    UserProfileCache cache = new UserProfileCache(Duration.ofMinutes(5), 10, clock);
+    cache.put("admin", "alice", ALICE);
+
+    now = now.plus(Duration.ofMinutes(4));
+    assertThat(cache.get("admin", "alice")).isEqualTo(ALICE);
+
+    now = now.plus(Duration.ofMinutes(1));
+    assertThat(cache.get("admin", "alice")).isNull();
+    assertThat(cache.size()).isZero();
+    assertThat(cache.get("admin", "bob")).isNull();
+  }
+
+  @Test
+  void get_shouldOnlyServeProfilesToTheCallerTheyWereFetchedFor() {
+    UserProfileCache cache = new UserProfileCache(Duration.ofMinutes(5), 10, clock);
+    cache.put("admin", "alice", ALICE);
+
+    assertThat(cache.get("admin", "alice")).isEqualTo(ALICE);
+    assertThat(cache.get("other-admin", "alice")).isNull();
+  }
+
+  @Test
+  void put_shouldDropExpiredProfilesFirstWhenFull() {
+    UserProfileCache cache = new UserProfileCache(Duration.ofMinutes(5), 2, clock);
+    cache.put("admin", "alice", ALICE);
+    now = now.plus(Duration.ofMinutes(3));
+    cache.put("admin", "bob", ALICE);
+    now = now.plus(Duration.ofMinutes(3)); // alice expired, bob still valid
+
+    cache.put("admin", "carol", ALICE);
+
+    assertThat(cache.get("admin", "bob")).isEqualTo(ALICE);
+    assertThat(cache.get("admin", "carol")).isEqualTo(ALICE);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void put_shouldStayWithinBoundWhenNothingHasExpired() {
+    UserProfileCache cache = new UserProfileCache(Duration.ofMinutes(5), 2, clock);
+    cache.put("admin", "alice", ALICE);
+    cache.put("admin", "bob", ALICE);
+
+    cache.put("admin", "carol", ALICE);
+    cache.put("admin", "carol", ALICE);
+
+    assertThat(cache.size()).isLessThanOrEqualTo(2);
+    assertThat(cache.get("admin", "carol")).isEqualTo(ALICE);
+  }
+}
@@ -0,0 +1,53 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.audit.AuditLog;
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.dto.AuditStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(AuditController.class)
+@Import(SecurityConfig.class)
+class AuditControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private AuditLog auditLog;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void getStats_whenAdmin_shouldReturnWrittenAndDroppedCounts() throws Exception {
+    when(auditLog.stats()).thenReturn(new AuditStats(1200, 3, 0, "audit-000004.log"));
+
+    mockMvc
+        .perform(
+            get("/api/v1/admin/audit/stats")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.written").value(1200))
+        .andExpect(jsonPath("$.dropped").value(3))
+        .andExpect(jsonPath("$.segment").value("audit-000004.log"));
+  }
+
+  @Test
+  void getStats_whenNotAdmin_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/admin/audit/stats")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+  }
+}
@@ -1,13 +1,17 @@
 package ai.bluefields.oidcauthdemo.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import ai.bluefields.oidcauthdemo.config.BinaryFormatConfig;
 import ai.bluefields.oidcauthdemo.config.SecurityConfig;
 import ai.bluefields.oidcauthdemo.dto.HealthResponse;
 import ai.bluefields.oidcauthdemo.service.HealthService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -22,7 +26,7 @@ import org.springframework.test.web.servlet.MockMvc;
  */
 // Exclude security auto-configuration as this test doesn't need it
 @WebMvcTest(controllers = HealthController.class)
-@Import(SecurityConfig.class) // Import the main security configuration
+@Import({SecurityConfig.class, BinaryFormatConfig.class}) // Security and binary error formats
 class HealthControllerTest {
 
   @Autowired private MockMvc mockMvc;
@@ -49,4 +53,51 @@ class HealthControllerTest {
     // Verify service method was called
     verify(healthService).getStatus();
   }
+
+  /** Test that a client asking for CBOR gets the same response encoded as CBOR. */
+  @Test
+  void getHealthReturnsCborWhenRequested() throws Exception {
+    when(healthService.getStatus()).thenReturn(new HealthResponse("Service up"));
+
+    byte[] body =
+        mockMvc
+            .perform(get("/api/v1/public/health").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    assertThat(new CBORMapper().readValue(body, HealthResponse.class))
+        .isEqualTo(new HealthResponse("Service up"));
+  }
+
+  /** Test that a client asking for Smile gets the same response encoded as Smile. */
+  @Test
+  void getHealthReturnsSmileWhenRequested() throws Exception {
+    when(healthService.getStatus()).thenReturn(new HealthResponse("Service up"));
+
+    byte[] body =
+        mockMvc
+            .perform(get("/api/v1/public/health").accept("application/x-jackson-smile"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-jackson-smile"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    assertThat(new SmileMapper().readValue(body, HealthResponse.class))
+        .isEqualTo(new HealthResponse("Service up"));
+  }
+
+  /** Test that JSON stays the default for clients that accept any format. */
+  @Test
+  void getHealthDefaultsToJson() throws Exception {
+    when(healthService.getStatus()).thenReturn(new HealthResponse("Service up"));
+
+    mockMvc
+        .perform(get("/api/v1/public/health").accept(MediaType.ALL))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+  }
 }
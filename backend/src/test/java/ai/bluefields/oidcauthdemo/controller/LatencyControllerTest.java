@@ -0,0 +1,61 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.dto.LatencyPercentiles;
+import ai.bluefields.oidcauthdemo.dto.RouteLatency;
+import ai.bluefields.oidcauthdemo.metrics.RouteLatencyRecorder;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(LatencyController.class)
+@Import(SecurityConfig.class)
+class LatencyControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private RouteLatencyRecorder routeLatencyRecorder;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void getLatency_whenAdmin_shouldReturnPercentilesPerWindow() throws Exception {
+    LatencyPercentiles p = new LatencyPercentiles(10, 1.0, 2.0, 3.0, 4.0, 5.0);
+    when(routeLatencyRecorder.report())
+        .thenReturn(
+            List.of(
+                new RouteLatency(
+                    "GET", "/api/v1/public/health", "2xx", Map.of("1m", p, "5m", p, "15m", p))));
+
+    mockMvc
+        .perform(
+            get("/api/v1/admin/latency")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].route").value("/api/v1/public/health"))
+        .andExpect(jsonPath("$[0].windows.1m.p99").value(3.0))
+        .andExpect(jsonPath("$[0].windows.15m.count").value(10));
+  }
+
+  @Test
+  void getLatency_whenNotAdmin_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/admin/latency")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+  }
+}
@@ -0,0 +1,65 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.admission.LoadShedder;
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.dto.LoadSheddingStats;
+import ai.bluefields.oidcauthdemo.dto.PriorityStats;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(LoadSheddingController.class)
+@Import(SecurityConfig.class)
+class LoadSheddingControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private LoadShedder loadShedder;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void getStats_whenAdmin_shouldReturnShedCountsPerPriority() throws Exception {
+    when(loadShedder.stats())
+        .thenReturn(
+            new LoadSheddingStats(
+                140,
+                850.5,
+                List.of(
+                    new PriorityStats("health", 30, 0),
+                    new PriorityStats("public", 200, 4),
+                    new PriorityStats("private", 900, 75))));
+
+    mockMvc
+        .perform(
+            get("/api/v1/admin/load-shedding")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.inFlight").value(140))
+        .andExpect(jsonPath("$.latencyMillis").value(850.5))
+        .andExpect(jsonPath("$.priorities[0].shed").value(0))
+        .andExpect(jsonPath("$.priorities[2].priority").value("private"))
+        .andExpect(jsonPath("$.priorities[2].shed").value(75));
+  }
+
+  @Test
+  void getStats_whenNotAdmin_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/admin/load-shedding")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+  }
+}
@@ -1,5 +1,6 @@
 package ai.bluefields.oidcauthdemo.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -8,16 +9,18 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import ai.bluefields.oidcauthdemo.config.BinaryFormatConfig;
 import ai.bluefields.oidcauthdemo.config.SecurityConfig;
 import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
 import ai.bluefields.oidcauthdemo.service.PrivateInfoService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,7 +28,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import reactor.core.publisher.Mono;
 
 @WebMvcTest(PrivateInfoController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, BinaryFormatConfig.class})
 class PrivateInfoControllerTest {
 
   @Autowired private MockMvc mockMvc;
@@ -43,7 +46,7 @@ class PrivateInfoControllerTest {
         new PrivateInfoResponse(expectedMessage, expectedEmail);
 
     // Mock the service to return a Mono containing the response
-    when(privateInfoService.getInfo(any(Authentication.class)))
+    when(privateInfoService.getInfo(any(UserPrincipal.class)))
         .thenReturn(Mono.just(expectedServiceResponse));
     // Act & Assert
     MvcResult result =
@@ -68,7 +71,32 @@ class PrivateInfoControllerTest {
         .andExpect(jsonPath("$.email").value(expectedEmail));
 
     // Verify service method was called
-    verify(privateInfoService).getInfo(any(Authentication.class));
+    verify(privateInfoService).getInfo(any(UserPrincipal.class));
+  }
+
+  @Test
+  void getPrivateInfo_whenCborRequested_shouldReturnCbor() throws Exception {
+    PrivateInfoResponse expected = new PrivateInfoResponse("Hello AUTH", "userinfo@example.com");
+    when(privateInfoService.getInfo(any(UserPrincipal.class))).thenReturn(Mono.just(expected));
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/api/v1/private/info")
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    byte[] body =
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    assertThat(new CBORMapper().readValue(body, PrivateInfoResponse.class)).isEqualTo(expected);
   }
 
   @Test
@@ -90,7 +118,7 @@ class PrivateInfoControllerTest {
         .andExpect(status().isForbidden());
 
     // Verify service method was NOT called
-    verify(privateInfoService, never()).getInfo(any(Authentication.class));
+    verify(privateInfoService, never()).getInfo(any(UserPrincipal.class));
   }
 
   @Test
@@ -103,7 +131,7 @@ class PrivateInfoControllerTest {
         .andExpect(status().isForbidden());
 
     // Verify service method was NOT called
-    verify(privateInfoService, never()).getInfo(any(Authentication.class));
+    verify(privateInfoService, never()).getInfo(any(UserPrincipal.class));
   }
 
   @Test
@@ -113,7 +141,7 @@ class PrivateInfoControllerTest {
     // Simulate the service's onErrorResume behavior
     PrivateInfoResponse errorResponse =
         new PrivateInfoResponse("Hello AUTH (UserInfo Error)", "Error fetching email");
-    when(privateInfoService.getInfo(any(Authentication.class)))
+    when(privateInfoService.getInfo(any(UserPrincipal.class)))
         .thenReturn(Mono.just(errorResponse)); // Service handles internal error and returns this
 
     // Act & Assert
@@ -136,6 +164,6 @@ class PrivateInfoControllerTest {
         .andExpect(jsonPath("$.email").value("Error fetching email"));
 
     // Verify service method was called
-    verify(privateInfoService).getInfo(any(Authentication.class));
+    verify(privateInfoService).getInfo(any(UserPrincipal.class));
   }
 }
@@ -0,0 +1,77 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.security.TokenRevocationList;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(RevocationController.class)
+@Import(SecurityConfig.class)
+class RevocationControllerTest {
+
+  private static final String BODY =
+      """
+      {"tokens":[{"jti":"jti-1","exp":"2099-01-01T00:00:00Z"}]}
+      """;
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private TokenRevocationList tokenRevocationList;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void revoke_whenAdmin_shouldAddEntriesAndReturnCounts() throws Exception {
+    when(tokenRevocationList.revokeAll(anyCollection())).thenReturn(1);
+    when(tokenRevocationList.size()).thenReturn(3);
+
+    mockMvc
+        .perform(
+            post("/api/v1/admin/revocations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.accepted").value(1))
+        .andExpect(jsonPath("$.active").value(3));
+
+    verify(tokenRevocationList)
+        .revokeAll(
+            argThat(
+                entries ->
+                    entries.contains(
+                        new TokenRevocationList.Entry(
+                            "jti-1", Instant.parse("2099-01-01T00:00:00Z")))));
+  }
+
+  @Test
+  void revoke_whenNotAdmin_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/admin/revocations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+
+    verify(tokenRevocationList, never()).revokeAll(anyCollection());
+  }
+}
@@ -0,0 +1,79 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.config.SecurityFilterTimingConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Runs requests through the real, instrumented security filter chain and reads the report. */
+@WebMvcTest(
+    controllers = SecurityFilterTimingController.class,
+    properties = "authdemo.security-filter-timing.enabled=true")
+@Import({SecurityConfig.class, SecurityFilterTimingConfig.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SecurityFilterTimingControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void getTimings_whenAdmin_shouldFlagAuthenticationFilterForPermitAllRoutes() throws Exception {
+    mockMvc.perform(get("/api/v1/public/health"));
+
+    mockMvc
+        .perform(
+            get("/api/v1/admin/security-filters")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(
+            jsonPath("$[?(@.filter == 'BearerTokenAuthenticationFilter')].skippableForPermitAll")
+                .value(true))
+        .andExpect(
+            jsonPath("$[?(@.filter == 'HeaderWriterFilter')].skippableForPermitAll").value(false))
+        .andExpect(jsonPath("$[?(@.filter == 'AuthorizationFilter')].permitAll.count").value(1));
+  }
+
+  @Test
+  void getTimings_whenInvalidTokenOnPermitAllRoute_shouldNotFlagAuthenticationFilter()
+      throws Exception {
+    when(jwtDecoder.decode(anyString())).thenThrow(new BadJwtException("bad token"));
+    mockMvc.perform(get("/api/v1/public/health").header("Authorization", "Bearer bad"));
+
+    mockMvc
+        .perform(
+            get("/api/v1/admin/security-filters")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(
+            jsonPath("$[?(@.filter == 'BearerTokenAuthenticationFilter')].permitAll.shortCircuits")
+                .value(1))
+        .andExpect(
+            jsonPath("$[?(@.filter == 'BearerTokenAuthenticationFilter')].skippableForPermitAll")
+                .value(false));
+  }
+
+  @Test
+  void getTimings_whenNotAdmin_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/admin/security-filters")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+  }
+}
@@ -0,0 +1,111 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.dto.TokenValidationResponse.Result;
+import ai.bluefields.oidcauthdemo.exception.BatchLimitExceededException;
+import ai.bluefields.oidcauthdemo.security.TokenBatchValidator;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(TokenValidationController.class)
+@Import(SecurityConfig.class)
+class TokenValidationControllerTest {
+
+  private static final String BODY = """
+      {"tokens":["token-1","token-2"]}
+      """;
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private TokenBatchValidator tokenBatchValidator;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void validate_whenGateway_shouldReturnOneResultPerToken() throws Exception {
+    when(tokenBatchValidator.validate(List.of("token-1", "token-2")))
+        .thenReturn(
+            List.of(
+                new Result(
+                    true,
+                    "user-1",
+                    Instant.parse("2099-01-01T00:00:00Z"),
+                    List.of("SCOPE_openid", "ROLE_USER"),
+                    null),
+                Result.invalid("Jwt expired")));
+
+    mockMvc
+        .perform(
+            post("/api/v1/internal/tokens/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_GATEWAY"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].valid").value(true))
+        .andExpect(jsonPath("$.results[0].sub").value("user-1"))
+        .andExpect(jsonPath("$.results[0].authorities[1]").value("ROLE_USER"))
+        .andExpect(jsonPath("$.results[1].valid").value(false))
+        .andExpect(jsonPath("$.results[1].error").value("Jwt expired"));
+  }
+
+  @Test
+  void validate_whenBatchTooLarge_shouldReturnContentTooLarge() throws Exception {
+    when(tokenBatchValidator.validate(anyList()))
+        .thenThrow(new BatchLimitExceededException("Batch of 2 tokens exceeds the limit of 1"));
+
+    mockMvc
+        .perform(
+            post("/api/v1/internal/tokens/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isPayloadTooLarge())
+        .andExpect(content().contentType("application/problem+json"))
+        .andExpect(jsonPath("$.type").value("https://api.bluefields.ai/errors/batch-too-large"))
+        .andExpect(jsonPath("$.detail").value("Batch of 2 tokens exceeds the limit of 1"));
+  }
+
+  @Test
+  void validate_whenMissingTokens_shouldValidateEmptyBatch() throws Exception {
+    when(tokenBatchValidator.validate(List.of())).thenReturn(List.of());
+
+    mockMvc
+        .perform(
+            post("/api/v1/internal/tokens/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_GATEWAY"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results").isEmpty());
+    verify(tokenBatchValidator).validate(List.of());
+  }
+
+  @Test
+  void validate_whenNotGateway_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/internal/tokens/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+  }
+}
@@ -0,0 +1,73 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.tracing.SpanExporter;
+import ai.bluefields.oidcauthdemo.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(TracingController.class)
+@Import(SecurityConfig.class)
+class TracingControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void getStats_whenAdmin_shouldReturnSamplingProbability() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/admin/tracing")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.samplingProbability").value(0.25))
+        .andExpect(jsonPath("$.droppedSpans").value(0));
+  }
+
+  @Test
+  void setSampling_whenAdmin_shouldClampAndApplyProbability() throws Exception {
+    mockMvc
+        .perform(
+            put("/api/v1/admin/tracing/sampling")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"probability\":1.5}")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.samplingProbability").value(1.0));
+  }
+
+  @Test
+  void setSampling_whenNotAdmin_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            put("/api/v1/admin/tracing/sampling")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"probability\":1.0}")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+  }
+
+  @TestConfiguration
+  static class TracerConfig {
+    @Bean
+    Tracer tracer() {
+      return new Tracer(0.25, SpanExporter.NONE);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.dto.ConcurrencyLimitStats;
+import ai.bluefields.oidcauthdemo.dto.HedgeStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(UserInfoStatsController.class)
+@Import(SecurityConfig.class)
+class UserInfoStatsControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private AdaptiveConcurrencyLimiter userInfoLimiter;
+
+  @MockBean private RequestHedger userInfoHedger;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void getStats_whenAdmin_shouldReturnLimitShedAndHedgeCounts() throws Exception {
+    when(userInfoLimiter.stats()).thenReturn(new ConcurrencyLimitStats(12, 3, 8.5, 100, 7, 2));
+    when(userInfoHedger.stats()).thenReturn(new HedgeStats(true, 42.0, 100, 4, 0.04, 3, 97, 1));
+
+    mockMvc
+        .perform(
+            get("/api/v1/admin/userinfo/stats")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.concurrency.limit").value(12))
+        .andExpect(jsonPath("$.concurrency.shed").value(7))
+        .andExpect(jsonPath("$.hedging.hedgeRate").value(0.04))
+        .andExpect(jsonPath("$.hedging.hedgeWins").value(3));
+  }
+
+  @Test
+  void getStats_whenNotAdmin_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/admin/userinfo/stats")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+  }
+}
@@ -0,0 +1,121 @@
+package ai.bluefields.oidcauthdemo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ai.bluefields.oidcauthdemo.client.UserInfo;
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.dto.UserProfileResult;
+import ai.bluefields.oidcauthdemo.exception.ApiError;
+import ai.bluefields.oidcauthdemo.exception.BatchLimitExceededException;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.service.UserProfileService;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+@WebMvcTest(UserProfileController.class)
+@Import(SecurityConfig.class)
+class UserProfileControllerTest {
+
+  private static final String BODY = """
+      {"subjects":["alice","unknown-1"]}
+      """;
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private UserProfileService userProfileService;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  @Test
+  void lookup_whenAdmin_shouldStreamOneJsonLinePerSubject() throws Exception {
+    when(userProfileService.lookup(any(UserPrincipal.class), eq(List.of("alice", "unknown-1"))))
+        .thenReturn(
+            Flux.just(
+                UserProfileResult.found(
+                    "alice", new UserInfo("alice@example.com", "Alice", "User")),
+                UserProfileResult.failed(
+                    "unknown-1",
+                    new ApiError(
+                        "https://api.bluefields.ai/errors/not-found",
+                        "Not Found",
+                        404,
+                        "No user unknown-1",
+                        Instant.parse("2025-05-01T10:00:00Z")))));
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                post("/api/v1/private/profiles")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .content(BODY)
+                    .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    result.getAsyncResult();
+
+    assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+    List<String> lines = result.getResponse().getContentAsString().lines().toList();
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0))
+        .contains("\"subject\":\"alice\"", "\"email\":\"alice@example.com\"", "\"error\":null");
+    assertThat(lines.get(1))
+        .contains(
+            "\"subject\":\"unknown-1\"",
+            "\"profile\":null",
+            "\"type\":\"https://api.bluefields.ai/errors/not-found\"",
+            "\"status\":404");
+  }
+
+  @Test
+  void lookup_whenTooManySubjects_shouldReturnContentTooLarge() throws Exception {
+    when(userProfileService.lookup(any(UserPrincipal.class), anyList()))
+        .thenThrow(new BatchLimitExceededException("At most 1 subjects per request, got 2"));
+
+    mockMvc
+        .perform(
+            post("/api/v1/private/profiles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+        .andExpect(status().isPayloadTooLarge())
+        .andExpect(content().contentType("application/problem+json"))
+        .andExpect(jsonPath("$.type").value("https://api.bluefields.ai/errors/batch-too-large"));
+  }
+
+  @Test
+  void lookup_whenNotAdmin_shouldReturnForbidden() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/private/profiles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+        .andExpect(status().isForbidden());
+
+    verify(userProfileService, never()).lookup(any(UserPrincipal.class), anyList());
+  }
+}
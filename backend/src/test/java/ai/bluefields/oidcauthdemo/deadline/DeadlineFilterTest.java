@@ -0,0 +1,92 @@
+package ai.bluefields.oidcauthdemo.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.config.DeadlineProperties;
+import ai.bluefields.oidcauthdemo.exception.ApiErrorWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class DeadlineFilterTest {
+
+  private final DeadlineFilter filter =
+      new DeadlineFilter(
+          new DeadlineProperties(true, null, Duration.ofSeconds(10), Duration.ofSeconds(30)),
+          new ApiErrorWriter(new ObjectMapper().registerModule(new JavaTimeModule())));
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private Deadline filter(MockHttpServletRequest request, MockHttpServletResponse response)
+      throws Exception {
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+    return chain.getRequest() == null ? null : (Deadline) request.getAttribute(Deadline.ATTRIBUTE);
+  }
+
+  @Test
+  void shouldUseDefaultTimeoutWithoutHeader() throws Exception {
+    Deadline deadline =
+        filter(
+            new MockHttpServletRequest("GET", "/api/v1/private/info"),
+            new MockHttpServletResponse());
+
+    assertThat(deadline.remaining()).isBetween(Duration.ofSeconds(9), Duration.ofSeconds(10));
+    assertThat(deadline.isExpired()).isFalse();
+  }
+
+  @Test
+  void shouldUseClientTimeoutCappedAtMaximum() throws Exception {
+    MockHttpServletRequest shortTimeout = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    shortTimeout.addHeader("X-Request-Timeout-Ms", "1500");
+    MockHttpServletRequest longTimeout = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    longTimeout.addHeader("X-Request-Timeout-Ms", "3600000");
+    MockHttpServletRequest garbage = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    garbage.addHeader("X-Request-Timeout-Ms", "soon");
+
+    assertThat(filter(shortTimeout, new MockHttpServletResponse()).remaining())
+        .isBetween(Duration.ofMillis(1000), Duration.ofMillis(1500));
+    assertThat(filter(longTimeout, new MockHttpServletResponse()).remaining())
+        .isBetween(Duration.ofSeconds(29), Duration.ofSeconds(30));
+    assertThat(filter(garbage, new MockHttpServletResponse()).remaining())
+        .isBetween(Duration.ofSeconds(9), Duration.ofSeconds(10));
+  }
+
+  @Test
+  void shouldRejectExpiredRequestWith504ProblemJson() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    request.addHeader("X-Request-Timeout-Ms", "0");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertThat(filter(request, response)).isNull();
+    assertThat(response.getStatus()).isEqualTo(504);
+    assertThat(response.getContentType()).isEqualTo("application/problem+json");
+    assertThat(response.getContentAsString())
+        .contains("\"type\":\"https://api.bluefields.ai/errors/deadline-exceeded\"")
+        .contains("\"status\":504");
+  }
+
+  @Test
+  void current_shouldReadDeadlineOfBoundRequest() {
+    assertThat(Deadline.current()).isEmpty();
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    Deadline deadline = Deadline.after(Duration.ofSeconds(1));
+    request.setAttribute(Deadline.ATTRIBUTE, deadline);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+    assertThat(Deadline.current()).contains(deadline);
+    assertThat(Deadline.after(Duration.ZERO).isExpired()).isTrue();
+    assertThat(Deadline.after(Duration.ofMillis(-5)).remaining()).isZero();
+  }
+}
@@ -0,0 +1,105 @@
+package ai.bluefields.oidcauthdemo.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.config.BinaryFormatConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ApiErrorWriterTest {
+
+  private final ApiErrorWriter writer =
+      new ApiErrorWriter(
+          new ObjectMapper()
+              .registerModule(new JavaTimeModule())
+              .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+  private final ApiError apiError =
+      new ApiError(
+          "https://api.bluefields.ai/errors/deadline-exceeded",
+          "Gateway Timeout",
+          504,
+          "The request deadline had already expired when it was received",
+          Instant.parse("2025-04-20T10:00:00Z"));
+
+  private MockHttpServletResponse write(String accept) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    if (accept != null) {
+      request.addHeader("Accept", accept);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    writer.write(request, response, HttpStatus.GATEWAY_TIMEOUT, apiError);
+    return response;
+  }
+
+  @Test
+  void contentType_defaultsToProblemJson() {
+    assertThat(ApiErrorWriter.contentType((String) null)).isEqualTo(ApiErrorWriter.PROBLEM_JSON);
+    assertThat(ApiErrorWriter.contentType("*/*")).isEqualTo(ApiErrorWriter.PROBLEM_JSON);
+    assertThat(ApiErrorWriter.contentType("application/json"))
+        .isEqualTo(ApiErrorWriter.PROBLEM_JSON);
+    assertThat(ApiErrorWriter.contentType("text/html")).isEqualTo(ApiErrorWriter.PROBLEM_JSON);
+    assertThat(ApiErrorWriter.contentType("not a media type"))
+        .isEqualTo(ApiErrorWriter.PROBLEM_JSON);
+  }
+
+  @Test
+  void contentType_selectsPreferredBinaryFormat() {
+    assertThat(ApiErrorWriter.contentType("application/cbor"))
+        .isEqualTo(MediaType.APPLICATION_CBOR);
+    assertThat(ApiErrorWriter.contentType("application/x-jackson-smile, */*;q=0.5"))
+        .isEqualTo(BinaryFormatConfig.SMILE);
+    assertThat(ApiErrorWriter.contentType("application/json;q=0.9, application/cbor"))
+        .isEqualTo(MediaType.APPLICATION_CBOR);
+    assertThat(ApiErrorWriter.contentType("application/cbor;q=0.5, application/json"))
+        .isEqualTo(ApiErrorWriter.PROBLEM_JSON);
+    assertThat(ApiErrorWriter.contentType("application/cbor;q=0"))
+        .isEqualTo(ApiErrorWriter.PROBLEM_JSON);
+  }
+
+  @Test
+  void write_defaultsToProblemJson() throws Exception {
+    MockHttpServletResponse response = write(null);
+
+    assertThat(response.getStatus()).isEqualTo(504);
+    assertThat(response.getContentType()).isEqualTo("application/problem+json");
+    assertThat(
+            new ObjectMapper().readTree(response.getContentAsByteArray()).get("timestamp").asText())
+        .isEqualTo("2025-04-20T10:00:00Z");
+  }
+
+  @Test
+  void write_roundTripsThroughCbor() throws Exception {
+    MockHttpServletResponse response = write("application/cbor");
+
+    assertThat(response.getContentType()).isEqualTo("application/cbor");
+    ApiError decoded =
+        CBORMapper.builder()
+            .addModule(new JavaTimeModule())
+            .build()
+            .readValue(response.getContentAsByteArray(), ApiError.class);
+    assertThat(decoded).isEqualTo(apiError);
+  }
+
+  @Test
+  void write_roundTripsThroughSmile() throws Exception {
+    MockHttpServletResponse response = write("application/x-jackson-smile");
+
+    assertThat(response.getContentType()).isEqualTo("application/x-jackson-smile");
+    ApiError decoded =
+        SmileMapper.builder()
+            .addModule(new JavaTimeModule())
+            .build()
+            .readValue(response.getContentAsByteArray(), ApiError.class);
+    assertThat(decoded).isEqualTo(apiError);
+  }
+}
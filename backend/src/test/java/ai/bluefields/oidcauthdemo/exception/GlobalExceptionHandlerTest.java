@@ -1,5 +1,6 @@
 package ai.bluefields.oidcauthdemo.exception;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -7,8 +8,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import ai.bluefields.oidcauthdemo.config.BinaryFormatConfig;
 import ai.bluefields.oidcauthdemo.controller.HealthController;
 import ai.bluefields.oidcauthdemo.service.HealthService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,6 +20,7 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
@@ -29,9 +34,11 @@ import org.springframework.test.web.servlet.MockMvc;
       HealthController.class,
       GlobalExceptionHandler.class
     }) // Include handler and a controller
-@Import(
-    GlobalExceptionHandlerTest.TestSecurityConfig
-        .class) // Import test-specific security configuration
+@Import({
+  GlobalExceptionHandlerTest.TestSecurityConfig
+      .class, // Import test-specific security configuration
+  BinaryFormatConfig.class
+})
 class GlobalExceptionHandlerTest {
 
   @Autowired private MockMvc mockMvc;
@@ -86,6 +93,47 @@ class GlobalExceptionHandlerTest {
         .andExpect(jsonPath("$.timestamp").exists());
   }
 
+  @Test
+  void shouldReturn504WithProblemJsonForDeadlineExceeded() throws Exception {
+    // Given
+    when(healthService.getStatus()).thenThrow(new DeadlineExceededException("Too late"));
+
+    // When/Then
+    mockMvc
+        .perform(get("/api/v1/public/health"))
+        .andExpect(status().isGatewayTimeout())
+        .andExpect(content().contentType("application/problem+json"))
+        .andExpect(jsonPath("$.type").value("https://api.bluefields.ai/errors/deadline-exceeded"))
+        .andExpect(jsonPath("$.title").value("Gateway Timeout"))
+        .andExpect(jsonPath("$.status").value(504));
+  }
+
+  @Test
+  void shouldReturnCborErrorWhenClientPrefersCbor() throws Exception {
+    // Given
+    when(healthService.getStatus()).thenThrow(new DeadlineExceededException("Too late"));
+
+    // When
+    byte[] body =
+        mockMvc
+            .perform(get("/api/v1/public/health").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isGatewayTimeout())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    // Then
+    ApiError apiError =
+        CBORMapper.builder()
+            .addModule(new JavaTimeModule())
+            .build()
+            .readValue(body, ApiError.class);
+    assertThat(apiError.type()).isEqualTo("https://api.bluefields.ai/errors/deadline-exceeded");
+    assertThat(apiError.status()).isEqualTo(504);
+    assertThat(apiError.timestamp()).isNotNull();
+  }
+
   // We'll skip the media type test for now since it requires a controller that validates content
   // type
   // which our simple HealthController doesn't do for GET requests
@@ -0,0 +1,169 @@
+package ai.bluefields.oidcauthdemo.frontend;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FrontendFilterTest {
+
+  private static final String SCRIPT = "console.log('app');\n".repeat(200);
+
+  @TempDir Path dist;
+
+  private FrontendFilter filter;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Files.writeString(dist.resolve("index.html"), "<!doctype html><div id=root></div>");
+    Files.writeString(dist.resolve("favicon.svg"), "<svg/>");
+    Path assets = Files.createDirectories(dist.resolve("assets"));
+    Files.writeString(assets.resolve("index-B4x9aZ1q.js"), SCRIPT);
+    Files.write(assets.resolve("index-B4x9aZ1q.js.gz"), gzip(SCRIPT));
+    Files.write(assets.resolve("index-B4x9aZ1q.js.br"), new byte[] {1, 2, 3});
+    Files.write(assets.resolve("logo-Cq2bX7k0.png"), new byte[64 * 1024]);
+    filter = filter(48 * 1024);
+  }
+
+  private FrontendFilter filter(long sendfileThreshold) throws Exception {
+    return new FrontendFilter(
+        FrontendAssets.scan(dist, List.of("/assets/**"), sendfileThreshold),
+        List.of("/api/**", "/swagger-ui/**"));
+  }
+
+  private static byte[] gzip(String content) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+
+  private static MockHttpServletRequest get(String path) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    request.setRequestURI(path);
+    return request;
+  }
+
+  private MockHttpServletResponse serve(MockHttpServletRequest request, MockFilterChain chain)
+      throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+
+  @Test
+  void hashedAsset_shouldBeServedPrecompressedAndImmutable() throws Exception {
+    MockHttpServletRequest request = get("/assets/index-B4x9aZ1q.js");
+    request.addHeader("Accept-Encoding", "gzip, deflate, br;q=0");
+    MockFilterChain chain = new MockFilterChain();
+
+    MockHttpServletResponse response = serve(request, chain);
+
+    assertThat(chain.getRequest()).isNull();
+    assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+    assertThat(response.getContentAsByteArray()).isEqualTo(gzip(SCRIPT));
+    assertThat(response.getContentType()).startsWith("text/javascript");
+    assertThat(response.getHeader("Cache-Control")).isEqualTo(FrontendAssets.IMMUTABLE);
+    assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+    assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+  }
+
+  @Test
+  void asset_shouldPreferBrotliAndFallBackToIdentity() throws Exception {
+    MockHttpServletRequest brotli = get("/assets/index-B4x9aZ1q.js");
+    brotli.addHeader("Accept-Encoding", "gzip, br");
+    MockHttpServletResponse compressed = serve(brotli, new MockFilterChain());
+    MockHttpServletResponse plain = serve(get("/assets/index-B4x9aZ1q.js"), new MockFilterChain());
+
+    assertThat(compressed.getHeader("Content-Encoding")).isEqualTo("br");
+    assertThat(compressed.getContentAsByteArray()).containsExactly(1, 2, 3);
+    assertThat(plain.getHeader("Content-Encoding")).isNull();
+    assertThat(plain.getContentAsString()).isEqualTo(SCRIPT);
+    assertThat(plain.getHeader("ETag")).isNotEqualTo(compressed.getHeader("ETag"));
+  }
+
+  @Test
+  void clientRoute_shouldFallBackToIndexWhichMustBeRevalidated() throws Exception {
+    MockHttpServletResponse response = serve(get("/auth/callback"), new MockFilterChain());
+
+    assertThat(response.getContentAsString()).contains("id=root");
+    assertThat(response.getContentType()).startsWith("text/html");
+    assertThat(response.getHeader("Cache-Control")).isEqualTo(FrontendAssets.REVALIDATE);
+    assertThat(serve(get("/"), new MockFilterChain()).getContentAsString()).contains("id=root");
+  }
+
+  @Test
+  void apiRoutesAndMissingFiles_shouldContinueDownTheChain() throws Exception {
+    for (String path : List.of("/api/v1/private/info", "/assets/missing-12345678.js")) {
+      MockFilterChain chain = new MockFilterChain();
+
+      MockHttpServletResponse response = serve(get(path), chain);
+
+      assertThat(chain.getRequest()).as(path).isNotNull();
+      assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+    MockFilterChain post = new MockFilterChain();
+    serve(new MockHttpServletRequest("POST", "/index.html"), post);
+    assertThat(post.getRequest()).isNotNull();
+  }
+
+  @Test
+  void matchingIfNoneMatch_shouldAnswerNotModified() throws Exception {
+    String etag = serve(get("/favicon.svg"), new MockFilterChain()).getHeader("ETag");
+    MockHttpServletRequest request = get("/favicon.svg");
+    request.addHeader("If-None-Match", "\"other\", " + etag);
+
+    MockHttpServletResponse response = serve(request, new MockFilterChain());
+
+    assertThat(response.getStatus()).isEqualTo(304);
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  void largeFile_shouldBeHandedToSendfileWhenTheServerSupportsIt() throws Exception {
+    MockHttpServletRequest request = get("/assets/logo-Cq2bX7k0.png");
+    request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+    MockHttpServletResponse response = serve(request, new MockFilterChain());
+
+    assertThat(response.getContentLengthLong()).isEqualTo(64 * 1024);
+    assertThat(response.getContentAsByteArray()).isEmpty();
+    assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+        .isEqualTo(dist.resolve("assets/logo-Cq2bX7k0.png").toAbsolutePath().toString());
+    assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(64 * 1024L);
+    assertThat(
+            serve(get("/assets/logo-Cq2bX7k0.png"), new MockFilterChain()).getContentAsByteArray())
+        .hasSize(64 * 1024); // Streamed without sendfile
+  }
+
+  @Test
+  void head_shouldSendHeadersOnly() throws Exception {
+    filter = filter(0); // Nothing in memory
+    MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/index.html");
+
+    MockHttpServletResponse response = serve(request, new MockFilterChain());
+
+    assertThat(response.getContentLengthLong()).isPositive();
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  void accepts_shouldHonourQualityAndWildcard() {
+    assertThat(FrontendAssets.accepts("gzip, br", "br")).isTrue();
+    assertThat(FrontendAssets.accepts("gzip;q=0.5, br;q=0", "br")).isFalse();
+    assertThat(FrontendAssets.accepts("*", "gzip")).isTrue();
+    assertThat(FrontendAssets.accepts("*;q=0, gzip", "br")).isFalse();
+    assertThat(FrontendAssets.accepts(null, "gzip")).isFalse();
+  }
+}
@@ -0,0 +1,121 @@
+package ai.bluefields.oidcauthdemo.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+import ai.bluefields.oidcauthdemo.dto.RouteLatency;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class RouteLatencyRecorderTest {
+
+  private final RouteLatencyRecorder recorder = new RouteLatencyRecorder(Duration.ofMinutes(1));
+
+  @Test
+  void report_shouldSplitByRouteMethodAndStatusClassAfterRotation() {
+    for (int i = 1; i <= 100; i++) {
+      recorder.record("GET", "/api/v1/public/health", 200, i * 1_000_000L);
+    }
+    recorder.record("GET", "/api/v1/private/info", 403, 2_000_000L);
+
+    assertThat(recorder.report())
+        .allSatisfy(r -> assertThat(r.windows().get("1m").count()).isZero());
+
+    recorder.rotate();
+    List<RouteLatency> report = recorder.report();
+
+    assertThat(report)
+        .extracting(RouteLatency::route, RouteLatency::statusClass)
+        .containsExactly(
+            tuple("/api/v1/private/info", "4xx"), tuple("/api/v1/public/health", "2xx"));
+    var health = report.get(1).windows();
+    assertThat(health.keySet()).containsExactly("1m", "5m", "15m");
+    assertThat(health.get("1m").count()).isEqualTo(100);
+    assertThat(health.get("1m").p50()).isCloseTo(50.0, within(1.0));
+    assertThat(health.get("1m").p99()).isCloseTo(99.0, within(1.5));
+    assertThat(health.get("1m").max()).isCloseTo(100.0, within(1.5));
+  }
+
+  @Test
+  void record_shouldShareOneSeriesForNonStandardMethods() {
+    for (int i = 0; i < 100; i++) {
+      recorder.record("FOO" + i, "UNMATCHED", 404, 1_000_000L);
+    }
+    recorder.record("DELETE", "UNMATCHED", 404, 1_000_000L);
+    recorder.rotate();
+
+    assertThat(recorder.report())
+        .extracting(RouteLatency::method)
+        .containsExactlyInAnyOrder("DELETE", RouteLatencyRecorder.OTHER_METHOD);
+  }
+
+  @Test
+  void report_shouldDropIntervalsOlderThanEachWindow() {
+    recorder.record("GET", "/api/v1/public/health", 200, 1_000_000L);
+    recorder.rotate();
+    recorder.rotate(); // One empty minute later: no longer in the 1m window
+
+    var windows = recorder.report().get(0).windows();
+    assertThat(windows.get("1m").count()).isZero();
+    assertThat(windows.get("5m").count()).isEqualTo(1);
+    assertThat(windows.get("15m").count()).isEqualTo(1);
+  }
+
+  @Test
+  void filter_shouldRecordMatchedRouteAndUnmatchedRequests() throws Exception {
+    RouteLatencyFilter filter = new RouteLatencyFilter(recorder);
+
+    MockHttpServletRequest matched = new MockHttpServletRequest("GET", "/api/v1/public/health");
+    matched.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/public/health");
+    filter.doFilter(matched, new MockHttpServletResponse(), new MockFilterChain());
+
+    MockHttpServletResponse unauthorized = new MockHttpServletResponse();
+    unauthorized.setStatus(401);
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/v1/private/info"),
+        unauthorized,
+        new MockFilterChain());
+
+    recorder.rotate();
+    assertThat(recorder.report())
+        .extracting(RouteLatency::route, RouteLatency::statusClass)
+        .containsExactly(
+            tuple("/api/v1/public/health", "2xx"), tuple(RouteLatencyFilter.UNMATCHED, "4xx"));
+  }
+
+  @Test
+  void filter_shouldRecordAsyncRequestsOnCompletion() throws Exception {
+    RouteLatencyFilter filter = new RouteLatencyFilter(recorder);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    request.setAsyncSupported(true);
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/private/info");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(request, response, (req, res) -> req.startAsync());
+    recorder.rotate();
+    assertThat(recorder.report()).isEmpty();
+
+    MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+    for (AsyncListener listener : asyncContext.getListeners()) {
+      listener.onComplete(new AsyncEvent(asyncContext));
+    }
+    recorder.rotate();
+    recorder.rotate();
+    assertThat(recorder.report())
+        .singleElement()
+        .satisfies(
+            r -> {
+              assertThat(r.route()).isEqualTo("/api/v1/private/info");
+              assertThat(r.windows().get("5m").count()).isEqualTo(1);
+            });
+  }
+}
@@ -0,0 +1,111 @@
+package ai.bluefields.oidcauthdemo.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import ai.bluefields.oidcauthdemo.dto.FilterTiming;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.header.HeaderWriterFilter;
+
+class SecurityFilterTimingsTest {
+
+  private final SecurityFilterTimings timings = new SecurityFilterTimings();
+  private final FilterChainProxy.FilterChainDecorator decorator =
+      new SecurityFilterTimingDecorator(
+          timings,
+          List.of("/api/v1/public/**"),
+          new FilterChainProxy.VirtualFilterChainDecorator());
+
+  /** Passes every request on. */
+  private static final class PassThroughFilter implements Filter {
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+      chain.doFilter(request, response);
+    }
+  }
+
+  /** Rejects requests to non-public paths, like an authentication filter would. */
+  private static final class RejectingFilter implements Filter {
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+      if (((MockHttpServletRequest) request).getRequestURI().startsWith("/api/v1/private")) {
+        ((HttpServletResponse) response).setStatus(401);
+        return;
+      }
+      chain.doFilter(request, response);
+    }
+  }
+
+  private void send(List<Filter> filters, String path) throws Exception {
+    FilterChain application =
+        (request, response) -> {
+          try {
+            Thread.sleep(20);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+    decorator
+        .decorate(application, filters)
+        .doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse());
+  }
+
+  @Test
+  void decorate_shouldRecordSelfTimeAndShortCircuitsPerRouteClass() throws Exception {
+    List<Filter> filters = List.of(new PassThroughFilter(), new RejectingFilter());
+
+    send(filters, "/api/v1/public/health");
+    send(filters, "/api/v1/public/health");
+    send(filters, "/api/v1/private/info");
+
+    List<FilterTiming> report = timings.report();
+    assertThat(report)
+        .extracting(FilterTiming::position, FilterTiming::filter)
+        .containsExactly(tuple(0, "PassThroughFilter"), tuple(1, "RejectingFilter"));
+    FilterTiming rejecting = report.get(1);
+    assertThat(rejecting.permitAll().count()).isEqualTo(2);
+    assertThat(rejecting.permitAll().shortCircuits()).isZero();
+    assertThat(rejecting.authenticated().count()).isEqualTo(1);
+    assertThat(rejecting.authenticated().shortCircuits()).isEqualTo(1);
+    // The 20 ms spent in the application is not the filters' own time
+    assertThat(report.get(0).permitAll().max()).isLessThan(10_000);
+    assertThat(rejecting.permitAll().max()).isLessThan(10_000);
+  }
+
+  @Test
+  void report_shouldFlagFiltersThatNeverActOnPermitAllRoutes() throws Exception {
+    List<Filter> filters =
+        List.of(new RejectingFilter(), new HeaderWriterFilter(List.of((request, response) -> {})));
+
+    send(filters, "/api/v1/public/health");
+
+    assertThat(timings.report())
+        .extracting(FilterTiming::filter, FilterTiming::skippableForPermitAll)
+        .containsExactly(tuple("RejectingFilter", true), tuple("HeaderWriterFilter", false));
+  }
+
+  @Test
+  void report_shouldNotFlagFiltersThatAnsweredPermitAllRequests() throws Exception {
+    Filter rejectAll =
+        (request, response, chain) -> ((HttpServletResponse) response).setStatus(401);
+
+    send(List.of(rejectAll), "/api/v1/public/health");
+
+    FilterTiming timing = timings.report().get(0);
+    assertThat(timing.permitAll().shortCircuits()).isEqualTo(1);
+    assertThat(timing.skippableForPermitAll()).isFalse();
+  }
+}
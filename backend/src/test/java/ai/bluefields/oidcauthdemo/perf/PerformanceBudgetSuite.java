@@ -0,0 +1,367 @@
+package ai.bluefields.oidcauthdemo.perf;
+
+import ai.bluefields.oidcauthdemo.OidcAuthDemoApplication;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.sun.management.ThreadMXBean;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Latency-budget regression suite: boots the application in this JVM against a {@link StubIssuer}
+ * and drives sustained load at the public, private and error routes, one scenario at a time.
+ *
+ * <p>Each scenario keeps {@code perf.concurrency} connections busy (closed loop: a connection sends
+ * its next request when the previous one is answered), first for {@code perf.warmup} so the JIT and
+ * caches settle, then for {@code perf.duration} while recording:
+ *
+ * <ul>
+ *   <li>throughput, in requests per second;
+ *   <li>latency percentiles, in an HdrHistogram per connection;
+ *   <li>bytes allocated per request on the server's request and HTTP client threads, so the load
+ *       generator and the stub issuer do not count.
+ * </ul>
+ *
+ * <p>Every scenario is then checked against its budgets in {@code perf-budgets.properties}; any
+ * budget can be overridden with a system property of the same name prefixed with {@code perf.},
+ * e.g. {@code -Dperf.health.max-p99-ms=20}. Results for all scenarios, including the budgets and
+ * whether they were met, are written as JSON to the path given as the first argument. The suite
+ * exits with an error after writing them if a budget is missed or a response has an unexpected
+ * status. Run by the {@code perf} Maven profile:
+ *
+ * <pre>
+ * ./mvnw -Pperf -DskipTests verify
+ * </pre>
+ *
+ * <p>The application runs with the security loggers at INFO: the TRACE levels in {@code
+ * application.yaml} are for development and would dominate every measurement. Its log goes to
+ * {@code perf/app.log} next to the results rather than the console.
+ */
+public final class PerformanceBudgetSuite {
+
+  /** Name prefixes of the threads whose allocations are charged to the application. */
+  private static final List<String> SERVER_THREADS =
+      List.of("http-nio-", "reactor-http-", "boundedElastic-", "parallel-");
+
+  private static final String FRONTEND_ASSET = "/assets/index-Pf7q2XbA.js";
+
+  record Scenario(String name, String path, String token, int status) {}
+
+  record Budget(double minThroughput, double maxP99Millis, long maxAllocationBytes) {}
+
+  record Result(
+      String scenario,
+      String path,
+      int expectedStatus,
+      long requests,
+      long unexpectedResponses,
+      double throughput,
+      double p50Millis,
+      double p90Millis,
+      double p99Millis,
+      double maxMillis,
+      long allocationBytesPerRequest,
+      Budget budget,
+      List<String> violations) {}
+
+  record Report(
+      String javaVersion,
+      int availableProcessors,
+      int concurrency,
+      long warmupSeconds,
+      long durationSeconds,
+      boolean passed,
+      List<Result> results) {}
+
+  private PerformanceBudgetSuite() {}
+
+  /**
+   * Runs the suite.
+   *
+   * @param args Path of the JSON results file, e.g. {@code target/perf-results.json}.
+   * @throws Exception If the application fails to start or a budget is missed.
+   */
+  public static void main(String[] args) throws Exception {
+    Path output = Path.of(args.length > 0 ? args[0] : "target/perf-results.json");
+    int concurrency = Integer.getInteger("perf.concurrency", 16);
+    Duration warmup = Duration.ofSeconds(Long.getLong("perf.warmup-seconds", 5));
+    Duration duration = Duration.ofSeconds(Long.getLong("perf.duration-seconds", 10));
+    Properties budgets = budgets();
+    Path work = output.toAbsolutePath().resolveSibling("perf");
+
+    List<Result> results = new ArrayList<>();
+    writeFrontend(work.resolve("frontend"));
+    try (StubIssuer issuer = StubIssuer.start();
+        ConfigurableApplicationContext context = start(issuer, work)) {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      String admin = token(issuer, "perf-admin", "admin");
+      String user = token(issuer, "perf-user", "user");
+      List<Scenario> scenarios =
+          List.of(
+              new Scenario("health", "/api/v1/public/health", null, 200),
+              new Scenario("private-info", "/api/v1/private/info", admin, 200),
+              new Scenario("unauthorized", "/api/v1/private/info", null, 401),
+              new Scenario("invalid-token", "/api/v1/private/info", "not-a-jwt", 401),
+              new Scenario("forbidden", "/api/v1/private/info", user, 403),
+              new Scenario("not-found", "/api/v1/public/missing", null, 404),
+              new Scenario("frontend-route", "/settings/profile", null, 200),
+              new Scenario("frontend-asset", FRONTEND_ASSET, null, 200));
+      for (Scenario scenario : scenarios) {
+        Result result =
+            run(scenario, budget(budgets, scenario.name()), port, concurrency, warmup, duration);
+        results.add(result);
+        System.out.printf(
+            "%-14s %9.0f req/s  p50 %7.2f ms  p99 %7.2f ms  %8d B/req  %s%n",
+            result.scenario(),
+            result.throughput(),
+            result.p50Millis(),
+            result.p99Millis(),
+            result.allocationBytesPerRequest(),
+            result.violations().isEmpty() ? "ok" : String.join("; ", result.violations()));
+      }
+    }
+
+    boolean passed = results.stream().allMatch(r -> r.violations().isEmpty());
+    Report report =
+        new Report(
+            System.getProperty("java.version"),
+            Runtime.getRuntime().availableProcessors(),
+            concurrency,
+            warmup.toSeconds(),
+            duration.toSeconds(),
+            passed,
+            results);
+    Files.createDirectories(output.toAbsolutePath().getParent());
+    new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(output.toFile(), report);
+    System.out.printf("Wrote %s%n", output);
+    if (!passed) {
+      throw new IllegalStateException("Performance budgets missed, see " + output);
+    }
+  }
+
+  private static ConfigurableApplicationContext start(StubIssuer issuer, Path work) {
+    return SpringApplication.run(
+        OidcAuthDemoApplication.class,
+        "--server.port=0",
+        "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + issuer.uri(),
+        "--logging.level.org.springframework.security=INFO",
+        "--logging.level.org.springframework.security.oauth2=INFO",
+        "--logging.level.com.nimbusds.jose=INFO",
+        "--logging.file.name=" + work.resolve("app.log"),
+        "--logging.threshold.console=ERROR",
+        "--authdemo.jwks-snapshot.file=" + work.resolve("jwks-snapshot.json"),
+        "--authdemo.revocation.file=" + work.resolve("revoked-tokens.tsv"),
+        "--authdemo.tracing.file=" + work.resolve("traces.jsonl"),
+        "--authdemo.audit.directory=" + work.resolve("audit"),
+        "--authdemo.frontend.directory=" + work.resolve("frontend"));
+  }
+
+  /**
+   * Writes a stand-in frontend build: an {@code index.html} served from memory and a hashed script
+   * above the sendfile threshold.
+   */
+  private static void writeFrontend(Path directory) throws IOException {
+    Path asset = directory.resolve(FRONTEND_ASSET.substring(1));
+    Files.createDirectories(asset.getParent());
+    Files.writeString(
+        directory.resolve("index.html"),
+        "<!doctype html><html><head><script type=module src=\"%s\"></script></head>"
+                .formatted(FRONTEND_ASSET)
+            + "<body><div id=root></div></body></html>");
+    StringBuilder script = new StringBuilder();
+    for (int i = 0; script.length() < 256 * 1024; i++) {
+      script.append("export const value").append(i).append(" = ").append(i * 31).append(";\n");
+    }
+    Files.writeString(asset, script);
+  }
+
+  private static String token(StubIssuer issuer, String subject, String role) throws Exception {
+    return issuer.token(
+        new JWTClaimsSet.Builder()
+            .subject(subject)
+            .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+            .claim("scope", "openid profile email")
+            .claim("urn:zitadel:iam:org:project:roles", Map.of(role, Map.of()))
+            .build());
+  }
+
+  private static Properties budgets() throws IOException {
+    Properties budgets = new Properties();
+    try (InputStream in =
+        PerformanceBudgetSuite.class.getResourceAsStream("/perf-budgets.properties")) {
+      if (in == null) {
+        throw new IOException("perf-budgets.properties is missing from the test classpath");
+      }
+      budgets.load(in);
+    }
+    return budgets;
+  }
+
+  private static Budget budget(Properties budgets, String scenario) {
+    return new Budget(
+        Double.parseDouble(value(budgets, scenario + ".min-throughput")),
+        Double.parseDouble(value(budgets, scenario + ".max-p99-ms")),
+        Long.parseLong(value(budgets, scenario + ".max-allocation-bytes")));
+  }
+
+  private static String value(Properties budgets, String key) {
+    String value = System.getProperty("perf." + key, budgets.getProperty(key));
+    if (value == null) {
+      throw new IllegalArgumentException("No budget " + key + " in perf-budgets.properties");
+    }
+    return value.trim();
+  }
+
+  private static Result run(
+      Scenario scenario,
+      Budget budget,
+      int port,
+      int concurrency,
+      Duration warmup,
+      Duration duration)
+      throws InterruptedException {
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + scenario.path()))
+            .timeout(Duration.ofSeconds(30));
+    if (scenario.token() != null) {
+      builder.header("Authorization", "Bearer " + scenario.token());
+    }
+    HttpRequest request = builder.build();
+
+    long start = System.nanoTime();
+    long measureFrom = start + warmup.toNanos();
+    long measureUntil = measureFrom + duration.toNanos();
+    AtomicLong unexpected = new AtomicLong();
+    List<Histogram> histograms = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < concurrency; i++) {
+      Histogram histogram = new Histogram(Duration.ofMinutes(1).toNanos(), 3);
+      histograms.add(histogram);
+      threads.add(
+          Thread.ofPlatform()
+              .name("perf-load-" + i)
+              .start(
+                  () -> {
+                    long now = System.nanoTime();
+                    while (now < measureUntil) {
+                      boolean expected;
+                      try {
+                        expected =
+                            client
+                                    .send(request, HttpResponse.BodyHandlers.discarding())
+                                    .statusCode()
+                                == scenario.status();
+                      } catch (IOException e) {
+                        expected = false;
+                      } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                      }
+                      long sent = now;
+                      now = System.nanoTime();
+                      if (sent >= measureFrom && now <= measureUntil) {
+                        histogram.recordValue(
+                            Math.min(now - sent, histogram.getHighestTrackableValue()));
+                        if (!expected) {
+                          unexpected.incrementAndGet();
+                        }
+                      }
+                    }
+                  }));
+    }
+    Thread.sleep(Math.max(0, (measureFrom - System.nanoTime()) / 1_000_000));
+    Map<Long, Long> allocatedBefore = serverAllocations();
+    Thread.sleep(Math.max(0, (measureUntil - System.nanoTime()) / 1_000_000));
+    Map<Long, Long> allocatedAfter = serverAllocations();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    client.close();
+
+    Histogram latency = new Histogram(Duration.ofMinutes(1).toNanos(), 3);
+    histograms.forEach(latency::add);
+    long requests = latency.getTotalCount();
+    long allocated = 0;
+    for (Map.Entry<Long, Long> entry : allocatedAfter.entrySet()) {
+      allocated += entry.getValue() - allocatedBefore.getOrDefault(entry.getKey(), 0L);
+    }
+    double throughput = requests / (duration.toNanos() / 1e9);
+    double p99 = millis(latency.getValueAtPercentile(99));
+    long perRequest = requests == 0 ? 0 : allocated / requests;
+
+    List<String> violations = new ArrayList<>();
+    if (unexpected.get() > 0) {
+      violations.add(unexpected.get() + " responses without status " + scenario.status());
+    }
+    if (throughput < budget.minThroughput()) {
+      violations.add(
+          "throughput %.0f req/s below %.0f".formatted(throughput, budget.minThroughput()));
+    }
+    if (p99 > budget.maxP99Millis()) {
+      violations.add("p99 %.2f ms above %.2f".formatted(p99, budget.maxP99Millis()));
+    }
+    if (perRequest > budget.maxAllocationBytes()) {
+      violations.add(
+          "allocation %d B/req above %d".formatted(perRequest, budget.maxAllocationBytes()));
+    }
+    return new Result(
+        scenario.name(),
+        scenario.path(),
+        scenario.status(),
+        requests,
+        unexpected.get(),
+        Math.round(throughput * 10) / 10.0,
+        millis(latency.getValueAtPercentile(50)),
+        millis(latency.getValueAtPercentile(90)),
+        p99,
+        millis(latency.getMaxValue()),
+        perRequest,
+        budget,
+        violations);
+  }
+
+  /** Milliseconds, to the microsecond, so results diff cleanly. */
+  private static double millis(long nanos) {
+    return Math.round(nanos / 1e3) / 1e3;
+  }
+
+  /** Bytes allocated so far by each live server thread, by thread id. */
+  private static Map<Long, Long> serverAllocations() {
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Map<Long, Long> allocations = new HashMap<>();
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (SERVER_THREADS.stream().anyMatch(thread.getName()::startsWith)) {
+        long bytes = threads.getThreadAllocatedBytes(thread.threadId());
+        if (bytes >= 0) {
+          allocations.put(thread.threadId(), bytes);
+        }
+      }
+    }
+    return allocations;
+  }
+}
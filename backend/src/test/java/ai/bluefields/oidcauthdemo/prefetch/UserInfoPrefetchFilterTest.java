@@ -0,0 +1,113 @@
+package ai.bluefields.oidcauthdemo.prefetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ai.bluefields.oidcauthdemo.client.UserInfo;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.security.UserPrincipalAuthenticationToken;
+import ai.bluefields.oidcauthdemo.service.PrivateInfoService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Mono;
+
+class UserInfoPrefetchFilterTest {
+
+  private final UserPrincipal principal =
+      new UserPrincipal("user", "http://issuer", null, null, Set.of(), "token-1");
+  private final PrivateInfoService service = mock(PrivateInfoService.class);
+  private final UserInfoPrefetchFilter filter =
+      new UserInfoPrefetchFilter(service, List.of("/api/v1/private/info"));
+  private final AtomicBoolean cancelled = new AtomicBoolean();
+
+  @BeforeEach
+  void setUp() {
+    when(service.userInfo(any()))
+        .thenReturn(Mono.<UserInfo>never().doOnCancel(() -> cancelled.set(true)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private void authenticate() {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UserPrincipalAuthenticationToken(principal, List.of()));
+  }
+
+  private UserInfoPrefetch filter(String path, boolean claim) throws Exception {
+    AtomicReference<UserInfoPrefetch> seen = new AtomicReference<>();
+    filter.doFilter(
+        new MockHttpServletRequest("GET", path),
+        new MockHttpServletResponse(),
+        (request, response) -> {
+          UserInfoPrefetch prefetch =
+              (UserInfoPrefetch) request.getAttribute(UserInfoPrefetch.ATTRIBUTE);
+          seen.set(prefetch);
+          if (prefetch != null && claim) {
+            assertThat(prefetch.claim("token-1")).isPresent();
+          }
+        });
+    return seen.get();
+  }
+
+  @Test
+  void shouldStartPrefetchForAuthenticatedRequestToMatchingRoute() throws Exception {
+    authenticate();
+
+    UserInfoPrefetch prefetch = filter("/api/v1/private/info", true);
+
+    assertThat(prefetch).isNotNull();
+    verify(service).userInfo(principal);
+    assertThat(cancelled).isFalse();
+  }
+
+  @Test
+  void shouldCancelPrefetchNobodyClaimed() throws Exception {
+    authenticate();
+
+    UserInfoPrefetch prefetch = filter("/api/v1/private/info", false); // e.g. @PreAuthorize denied
+
+    assertThat(prefetch.isClaimed()).isTrue();
+    assertThat(cancelled).isTrue();
+    assertThat(prefetch.claim("token-1")).isEmpty();
+  }
+
+  @Test
+  void shouldNotPrefetchForOtherRoutesOrUnauthenticatedRequests() throws Exception {
+    assertThat(filter("/api/v1/private/info", true)).isNull();
+
+    authenticate();
+    assertThat(filter("/api/v1/admin/latency", true)).isNull();
+
+    verify(service, never()).userInfo(any());
+  }
+
+  @Test
+  void claim_onlySucceedsOnceAndForTheSameToken() {
+    UserInfoPrefetch prefetch =
+        UserInfoPrefetch.start("token-1", Mono.just(new UserInfo("a@example.com", null, null)));
+
+    assertThat(prefetch.claim("token-2")).isEmpty();
+    assertThat(prefetch.claim("token-1"))
+        .hasValueSatisfying(
+            userInfo ->
+                assertThat(userInfo.block(Duration.ofSeconds(1)).email())
+                    .isEqualTo("a@example.com"));
+    assertThat(prefetch.claim("token-1")).isEmpty();
+  }
+}
@@ -0,0 +1,120 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+class CompiledAuthorizationManagerTest {
+
+  private final CompiledAuthorizationManager manager = new CompiledAuthorizationManager();
+
+  static class Secured {
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public void admin() {}
+
+    @PreAuthorize("hasAnyRole('AUDITOR', 'ROLE_ADMIN') and hasAuthority('SCOPE_read')")
+    public void audit() {}
+
+    @PreAuthorize("hasRole('ADMIN') or isAuthenticated() and hasAuthority('SCOPE_write')")
+    public void write() {}
+
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') and !hasAuthority('ROLE_BLOCKED')")
+    public void spel() {}
+  }
+
+  static class Documents {
+    public void read() {}
+  }
+
+  @PreAuthorize("hasRole('ADMIN')")
+  static class AdminDocuments extends Documents {}
+
+  @PreAuthorize("hasRole('USER')")
+  static class UserDocuments extends Documents {}
+
+  private boolean granted(Object target, Authentication authentication) throws Exception {
+    SimpleMethodInvocation invocation =
+        new SimpleMethodInvocation(target, Documents.class.getMethod("read"));
+    Supplier<Authentication> supplier = () -> authentication;
+    return manager.authorize(supplier, invocation).isGranted();
+  }
+
+  private boolean granted(String method, Authentication authentication) throws Exception {
+    SimpleMethodInvocation invocation =
+        new SimpleMethodInvocation(new Secured(), Secured.class.getMethod(method));
+    Supplier<Authentication> supplier = () -> authentication;
+    return manager.authorize(supplier, invocation).isGranted();
+  }
+
+  private static Authentication user(String... authorities) {
+    TestingAuthenticationToken token = new TestingAuthenticationToken("user", "n/a", authorities);
+    token.setAuthenticated(true);
+    return token;
+  }
+
+  @Test
+  void authorize_shouldMatchSingleAuthority() throws Exception {
+    assertThat(granted("admin", user("ROLE_ADMIN", "SCOPE_openid"))).isTrue();
+    assertThat(granted("admin", user("ROLE_USER"))).isFalse();
+    assertThat(granted("admin", user())).isFalse();
+  }
+
+  @Test
+  void authorize_shouldApplyRolePrefixAndAndBindingTighterThanOr() throws Exception {
+    assertThat(granted("audit", user("ROLE_AUDITOR", "SCOPE_read"))).isTrue();
+    assertThat(granted("audit", user("ROLE_ADMIN"))).isFalse();
+    assertThat(granted("write", user("ROLE_ADMIN"))).isTrue();
+    assertThat(granted("write", user("SCOPE_write"))).isTrue();
+    assertThat(
+            granted(
+                "write",
+                new AnonymousAuthenticationToken(
+                    "key", "anonymous", AuthorityUtils.createAuthorityList("SCOPE_write"))))
+        .isFalse();
+  }
+
+  @Test
+  void authorize_shouldFallBackToSpelForUnsupportedExpressions() throws Exception {
+    assertThat(manager.compile("hasAuthority('ROLE_ADMIN') and !hasAuthority('ROLE_BLOCKED')"))
+        .isNull();
+    assertThat(granted("spel", user("ROLE_ADMIN"))).isTrue();
+    assertThat(granted("spel", user("ROLE_ADMIN", "ROLE_BLOCKED"))).isFalse();
+  }
+
+  @Test
+  void authorize_shouldApplyEachTargetsClassLevelRuleToInheritedMethods() throws Exception {
+    assertThat(granted(new AdminDocuments(), user("ROLE_USER"))).isFalse();
+    assertThat(granted(new UserDocuments(), user("ROLE_USER"))).isTrue();
+    assertThat(granted(new AdminDocuments(), user("ROLE_ADMIN"))).isTrue();
+  }
+
+  @Test
+  void afterSingletonsInstantiated_shouldPrecompileAgainstEachBeansClass() throws Exception {
+    StaticApplicationContext context = new StaticApplicationContext();
+    context.registerSingleton("adminDocuments", AdminDocuments.class);
+    context.registerSingleton("userDocuments", UserDocuments.class);
+    context.refresh();
+    manager.setApplicationContext(context);
+
+    manager.afterSingletonsInstantiated();
+
+    assertThat(granted(context.getBean(UserDocuments.class), user("ROLE_USER"))).isTrue();
+    assertThat(granted(context.getBean(AdminDocuments.class), user("ROLE_USER"))).isFalse();
+    context.close();
+  }
+
+  @Test
+  void compile_shouldHandleConstants() {
+    assertThat(manager.compile("permitAll").matches(new long[0], null)).isTrue();
+    assertThat(manager.compile("denyAll()").matches(new long[0], user("ROLE_ADMIN"))).isFalse();
+    assertThat(manager.compile("hasAuthority(someBean.value)")).isNull();
+  }
+}
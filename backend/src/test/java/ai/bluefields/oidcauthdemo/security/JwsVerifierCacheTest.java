@@ -0,0 +1,192 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ai.bluefields.oidcauthdemo.config.JwtDecoderConfig;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+class JwsVerifierCacheTest {
+
+  private static final String ISSUER = "https://issuer.example.com";
+
+  private static RSAKey rsaKey;
+  private static ECKey ecKey;
+
+  private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>();
+  private final JWKSource<SecurityContext> keySource =
+      (selector, context) -> selector.select(jwkSet.get());
+
+  @BeforeAll
+  static void setUpKeys() throws Exception {
+    rsaKey = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+    ecKey = new ECKeyGenerator(Curve.P_256).keyID("ec-1").generate();
+  }
+
+  private static String token(JWK key, JWSAlgorithm algorithm, JWSSigner signer) throws Exception {
+    SignedJWT jwt =
+        new SignedJWT(
+            new JWSHeader.Builder(algorithm).keyID(key.getKeyID()).type(JOSEObjectType.JWT).build(),
+            new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject("user-1")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plus(Duration.ofMinutes(5))))
+                .build());
+    jwt.sign(signer);
+    return jwt.serialize();
+  }
+
+  private static String rsaToken(RSAKey key) throws Exception {
+    return token(key, JWSAlgorithm.RS256, new RSASSASigner(key));
+  }
+
+  private static String ecToken(ECKey key) throws Exception {
+    return token(key, JWSAlgorithm.ES256, new ECDSASigner(key));
+  }
+
+  private JwtDecoder decoder() {
+    return JwtDecoderConfig.buildDecoder(keySource, ISSUER, List.of());
+  }
+
+  private JwsVerifierCache cache() {
+    Set<JWSAlgorithm> algorithms = new HashSet<>(JWSAlgorithm.Family.RSA);
+    algorithms.addAll(JWSAlgorithm.Family.EC);
+    return new JwsVerifierCache(algorithms, keySource);
+  }
+
+  @Test
+  void decode_shouldVerifyRsaAndEcTokens() throws Exception {
+    jwkSet.set(new JWKSet(List.of(rsaKey.toPublicJWK(), ecKey.toPublicJWK())));
+    JwtDecoder decoder = decoder();
+
+    assertThat(decoder.decode(rsaToken(rsaKey)).getSubject()).isEqualTo("user-1");
+    assertThat(decoder.decode(ecToken(ecKey)).getSubject()).isEqualTo("user-1");
+  }
+
+  @Test
+  void createJWSVerifier_shouldReuseVerifierForTheSameKeyId() throws Exception {
+    jwkSet.set(new JWKSet(rsaKey.toPublicJWK()));
+    JwsVerifierCache cache = cache();
+    JWSHeader header = SignedJWT.parse(rsaToken(rsaKey)).getHeader();
+
+    JWSVerifier first = cache.createJWSVerifier(header, cache.selectJWSKeys(header, null).get(0));
+    jwkSet.set(new JWKSet(rsaKey.toPublicJWK())); // Re-fetched, but the same key
+    JWSVerifier second = cache.createJWSVerifier(header, cache.selectJWSKeys(header, null).get(0));
+
+    assertThat(second).isSameAs(first);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void decode_shouldUseNewKeyWhenKeyIdIsReassigned() throws Exception {
+    jwkSet.set(new JWKSet(rsaKey.toPublicJWK()));
+    JwtDecoder decoder = decoder();
+    String oldToken = rsaToken(rsaKey);
+    decoder.decode(oldToken);
+
+    RSAKey replacement = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+    jwkSet.set(new JWKSet(replacement.toPublicJWK()));
+
+    assertThat(decoder.decode(rsaToken(replacement)).getSubject()).isEqualTo("user-1");
+    assertThatThrownBy(() -> decoder.decode(oldToken)).isInstanceOf(JwtException.class);
+  }
+
+  @Test
+  void decode_shouldRejectTamperedAndIllegalSignatures() throws Exception {
+    jwkSet.set(new JWKSet(List.of(rsaKey.toPublicJWK(), ecKey.toPublicJWK())));
+    JwtDecoder decoder = decoder();
+    String rsa = rsaToken(rsaKey);
+    String tampered = rsa.substring(0, rsa.length() - 4) + (rsa.endsWith("AAAA") ? "BBBB" : "AAAA");
+    String ec = ecToken(ecKey);
+    String zeroSignature =
+        ec.substring(0, ec.lastIndexOf('.') + 1) + Base64URL.encode(new byte[64]);
+
+    assertThatThrownBy(() -> decoder.decode(tampered)).isInstanceOf(JwtException.class);
+    assertThatThrownBy(() -> decoder.decode(zeroSignature)).isInstanceOf(JwtException.class);
+    assertThat(decoder.decode(rsa).getSubject()).isEqualTo("user-1"); // Pool still healthy
+  }
+
+  @Test
+  void selectJWSKeys_shouldIgnoreAlgorithmsOutsideTheAcceptedSet() throws Exception {
+    jwkSet.set(new JWKSet(rsaKey.toPublicJWK()));
+    JwsVerifierCache cache = new JwsVerifierCache(Set.of(JWSAlgorithm.ES256), keySource);
+
+    JWSHeader header = SignedJWT.parse(rsaToken(rsaKey)).getHeader();
+
+    assertThat(cache.selectJWSKeys(header, null)).isEmpty();
+  }
+
+  @Test
+  void invalidate_shouldDropCachedVerifiers() throws Exception {
+    jwkSet.set(new JWKSet(rsaKey.toPublicJWK()));
+    JwsVerifierCache cache = cache();
+    JWSHeader header = SignedJWT.parse(rsaToken(rsaKey)).getHeader();
+    JWSVerifier before = cache.createJWSVerifier(header, cache.selectJWSKeys(header, null).get(0));
+
+    cache.invalidate();
+
+    assertThat(cache.size()).isZero();
+    assertThat(cache.createJWSVerifier(header, cache.selectJWSKeys(header, null).get(0)))
+        .isNotSameAs(before);
+  }
+
+  @Test
+  void decode_shouldVerifyConcurrentlyWithPooledSignatures() throws Exception {
+    jwkSet.set(new JWKSet(List.of(rsaKey.toPublicJWK(), ecKey.toPublicJWK())));
+    JwtDecoder decoder = decoder();
+    List<String> tokens = Arrays.asList(rsaToken(rsaKey), ecToken(ecKey));
+
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      tasks.add(
+          () -> {
+            int verified = 0;
+            for (int i = 0; i < 100; i++) {
+              verified += decoder.decode(tokens.get(i % 2)).getSubject().equals("user-1") ? 1 : 0;
+            }
+            return verified;
+          });
+    }
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      for (Future<Integer> result : executor.invokeAll(tasks)) {
+        assertThat(result.get()).isEqualTo(100);
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ai.bluefields.oidcauthdemo.config.SecurityConfig;
+import ai.bluefields.oidcauthdemo.controller.HealthController;
+import ai.bluefields.oidcauthdemo.service.HealthService;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.security.access.prepost.PostFilter;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.prepost.PreFilter;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.test.context.support.WithMockUser;
+
+/**
+ * Checks that all pre/post annotations are enforced with the method security wiring of {@link
+ * SecurityConfig}, which registers the interceptors itself.
+ */
+@WebMvcTest(HealthController.class)
+@Import({SecurityConfig.class, MethodSecurityTest.Config.class})
+class MethodSecurityTest {
+
+  @Autowired private Documents documents;
+
+  @MockBean private HealthService healthService;
+
+  @MockBean private JwtDecoder jwtDecoder;
+
+  static class Documents {
+    @PreAuthorize("hasRole('ADMIN')")
+    public String admin() {
+      return "admin";
+    }
+
+    @PostAuthorize("returnObject == authentication.name")
+    public String owner(String owner) {
+      return owner;
+    }
+
+    @PreFilter("filterObject != authentication.name")
+    public List<String> others(List<String> names) {
+      return names;
+    }
+
+    @PostFilter("filterObject.startsWith('public-')")
+    public List<String> visible() {
+      return new ArrayList<>(List.of("public-1", "secret-1", "public-2"));
+    }
+  }
+
+  @TestConfiguration
+  static class Config {
+    @Bean
+    Documents documents() {
+      return new Documents();
+    }
+  }
+
+  @Test
+  @WithMockUser(username = "alice", roles = "USER")
+  void preAuthorize_shouldDenyWithoutAuthority() {
+    assertThatThrownBy(documents::admin).isInstanceOf(AuthorizationDeniedException.class);
+  }
+
+  @Test
+  @WithMockUser(username = "alice")
+  void postAuthorize_shouldCheckTheReturnValue() {
+    assertThat(documents.owner("alice")).isEqualTo("alice");
+    assertThatThrownBy(() -> documents.owner("bob"))
+        .isInstanceOf(AuthorizationDeniedException.class);
+  }
+
+  @Test
+  @WithMockUser(username = "alice")
+  void preFilterAndPostFilter_shouldFilterCollections() {
+    assertThat(documents.others(new ArrayList<>(List.of("alice", "bob")))).containsExactly("bob");
+    assertThat(documents.visible()).containsExactly("public-1", "public-2");
+  }
+}
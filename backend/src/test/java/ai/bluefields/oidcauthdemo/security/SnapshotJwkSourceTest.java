@@ -0,0 +1,163 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ai.bluefields.oidcauthdemo.config.JwksSnapshotProperties;
+import ai.bluefields.oidcauthdemo.config.JwtDecoderConfig;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.reactive.function.client.WebClient;
+
+class SnapshotJwkSourceTest {
+
+  @TempDir Path tempDir;
+
+  private JwksSnapshotProperties properties(Path file) {
+    return new JwksSnapshotProperties(
+        true, file, Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofSeconds(5));
+  }
+
+  private SnapshotJwkSource source(String issuer, Path file) {
+    return new SnapshotJwkSource(
+        issuer,
+        properties(file),
+        new JwksSnapshotStore(file),
+        WebClient.create(),
+        Clock.systemUTC());
+  }
+
+  private JwtDecoder decoder(SnapshotJwkSource source, String issuer) {
+    return JwtDecoderConfig.buildDecoder(source, issuer, List.of());
+  }
+
+  @Test
+  void refresh_shouldPersistSnapshotThatDecodesTokensAfterIssuerGoesAway() throws Exception {
+    Path file = tempDir.resolve("jwks.json");
+    String issuerUri;
+    String token;
+    try (StubIssuer issuer = StubIssuer.start()) {
+      issuerUri = issuer.uri();
+      token = issuer.token("user-1");
+      SnapshotJwkSource live = source(issuerUri, file);
+      live.refresh().block();
+      assertThat(Files.exists(file)).isTrue();
+      assertThat(decoder(live, issuerUri).decode(token).getSubject()).isEqualTo("user-1");
+    }
+
+    // Issuer is now down: a fresh process must still validate from the snapshot alone
+    SnapshotJwkSource restarted = source(issuerUri, file);
+    assertThat(restarted.fetchedAt()).isPresent();
+    Jwt jwt = decoder(restarted, issuerUri).decode(token);
+    assertThat(jwt.getSubject()).isEqualTo("user-1");
+  }
+
+  @Test
+  void load_shouldIgnoreTamperedSnapshot() throws Exception {
+    Path file = tempDir.resolve("jwks.json");
+    try (StubIssuer issuer = StubIssuer.start()) {
+      source(issuer.uri(), file).refresh().block();
+      String tampered = Files.readString(file).replace("stub-key-1", "evil-key-1");
+      Files.writeString(file, tampered);
+
+      assertThat(new JwksSnapshotStore(file).load()).isEmpty();
+      assertThat(source(issuer.uri(), file).fetchedAt()).isEmpty();
+    }
+  }
+
+  @Test
+  void get_shouldRejectTokensWhenSnapshotIsStaleAndIssuerUnreachable() throws Exception {
+    Path file = tempDir.resolve("jwks.json");
+    String issuerUri;
+    String token;
+    try (StubIssuer issuer = StubIssuer.start()) {
+      issuerUri = issuer.uri();
+      token = issuer.token("user-1");
+      source(issuerUri, file).refresh().block();
+    }
+    JwksSnapshot current = new JwksSnapshotStore(file).load().orElseThrow();
+    new JwksSnapshotStore(file)
+        .save(
+            JwksSnapshot.of(
+                current.issuer(),
+                Instant.now().minus(Duration.ofDays(2)),
+                current.discovery(),
+                current.jwks()));
+
+    SnapshotJwkSource stale = source(issuerUri, file);
+    assertThat(stale.fetchedAt()).isEmpty();
+    JwtDecoder decoder = decoder(stale, issuerUri);
+    assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+  }
+
+  @Test
+  void load_shouldIgnoreSnapshotFromDifferentIssuer() throws Exception {
+    Path file = tempDir.resolve("jwks.json");
+    try (StubIssuer issuer = StubIssuer.start()) {
+      source(issuer.uri(), file).refresh().block();
+    }
+    assertThat(source("https://other-issuer.example.com", file).fetchedAt()).isEmpty();
+  }
+
+  @Test
+  void get_shouldRefreshOnceWhenTokenUsesUnknownKeyId() throws Exception {
+    Path file = tempDir.resolve("jwks.json");
+    try (StubIssuer issuer = StubIssuer.start()) {
+      SnapshotJwkSource source = source(issuer.uri(), file);
+      source.refresh().block();
+      JwtDecoder decoder = decoder(source, issuer.uri());
+
+      issuer.rotateKey("stub-key-2");
+      String rotated = issuer.token("user-2");
+
+      assertThat(decoder.decode(rotated).getSubject()).isEqualTo("user-2");
+      assertThat(issuer.jwksRequests()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void snapshotJwkSourceBean_shouldFetchInBackgroundOnStart() throws Exception {
+    Path file = tempDir.resolve("jwks.json");
+    try (StubIssuer issuer = StubIssuer.start();
+        SnapshotJwkSource source =
+            new JwtDecoderConfig().snapshotJwkSource(issuer.uri(), properties(file))) {
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      JwksSnapshotStore store = new JwksSnapshotStore(file);
+      while ((source.fetchedAt().isEmpty() || store.load().isEmpty())
+          && System.nanoTime() < deadline) {
+        Thread.sleep(20);
+      }
+      assertThat(source.fetchedAt()).isPresent();
+      assertThat(store.load()).isPresent();
+    }
+  }
+
+  @Test
+  void refresh_shouldNotifyListenersOnlyWhenKeysChange() throws Exception {
+    Path file = tempDir.resolve("jwks.json");
+    try (StubIssuer issuer = StubIssuer.start()) {
+      SnapshotJwkSource source = source(issuer.uri(), file);
+      AtomicInteger changes = new AtomicInteger();
+      source.onKeysChanged(changes::incrementAndGet);
+
+      source.refresh().block();
+      source.refresh().block();
+      assertThat(changes).hasValue(1);
+
+      issuer.rotateKey("stub-key-2");
+      source.refresh().block();
+      assertThat(changes).hasValue(2);
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import ai.bluefields.oidcauthdemo.config.JwtDecoderConfig;
+import ai.bluefields.oidcauthdemo.deadline.Deadline;
+import ai.bluefields.oidcauthdemo.dto.TokenValidationResponse.Result;
+import ai.bluefields.oidcauthdemo.exception.BatchLimitExceededException;
+import ai.bluefields.oidcauthdemo.exception.DeadlineExceededException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class TokenBatchValidatorTest {
+
+  private static final String ISSUER = "https://issuer.example.com";
+
+  private static RSAKey key;
+  private static JwtDecoder decoder;
+
+  private TokenBatchValidator validator;
+
+  @BeforeAll
+  static void setUpKey() throws Exception {
+    key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+    decoder =
+        JwtDecoderConfig.buildDecoder(
+            new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), ISSUER, List.of());
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (validator != null) {
+      validator.close();
+    }
+  }
+
+  private static String token(String subject, Instant exp) throws Exception {
+    SignedJWT jwt =
+        new SignedJWT(
+            new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID("key-1")
+                .type(JOSEObjectType.JWT)
+                .build(),
+            new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(subject)
+                .issueTime(Date.from(exp.minus(Duration.ofHours(2))))
+                .expirationTime(Date.from(exp))
+                .claim("scope", "openid")
+                .claim("urn:zitadel:iam:org:project:roles", Map.of("user", Map.of()))
+                .build());
+    jwt.sign(new RSASSASigner(key));
+    return jwt.serialize();
+  }
+
+  private static boolean isHelper() {
+    return Thread.currentThread().getName().startsWith("token-validation-");
+  }
+
+  private static Instant inOneHour() {
+    return Instant.now().plus(Duration.ofHours(1)).truncatedTo(ChronoUnit.SECONDS);
+  }
+
+  @Test
+  void validate_shouldReturnClaimsAndAuthoritiesOfValidTokens() throws Exception {
+    validator = new TokenBatchValidator(decoder, new UserPrincipalConverter(), 16, 8192, 2);
+    Instant exp = inOneHour();
+
+    List<Result> results = validator.validate(List.of(token("user-1", exp)));
+
+    assertThat(results)
+        .containsExactly(
+            new Result(true, "user-1", exp, List.of("SCOPE_openid", "ROLE_USER"), null));
+  }
+
+  @Test
+  void validate_shouldReportEachInvalidTokenWithoutFailingTheBatch() throws Exception {
+    validator = new TokenBatchValidator(decoder, new UserPrincipalConverter(), 16, 8192, 2);
+    String expired = token("user-2", Instant.now().minus(Duration.ofHours(1)));
+
+    List<Result> results = validator.validate(List.of(expired, "not-a-jwt", "x".repeat(9000), ""));
+
+    assertThat(results).extracting(Result::valid).containsExactly(false, false, false, false);
+    assertThat(results.get(0).error())
+        .isEqualTo("Token is expired, not yet valid, revoked or from another issuer")
+        .doesNotContain("Jwt expired at");
+    assertThat(results.get(1).error()).isEqualTo("Token is malformed or its signature is invalid");
+    assertThat(results.get(2).error()).isEqualTo("Token exceeds 8192 characters");
+    assertThat(results.get(3).error()).isEqualTo("Token is empty");
+  }
+
+  @Test
+  void validate_shouldKeepRequestOrderAcrossWorkersAndVerifyRepeatsOnce() throws Exception {
+    Map<String, Integer> decodes = new ConcurrentHashMap<>();
+    JwtDecoder counting =
+        token -> {
+          decodes.merge(token, 1, Integer::sum);
+          return decoder.decode(token);
+        };
+    validator = new TokenBatchValidator(counting, new UserPrincipalConverter(), 256, 8192, 4);
+    List<String> tokens = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      tokens.add(token("user-" + i, inOneHour()));
+    }
+    tokens.addAll(tokens.subList(0, 50)); // Gateways often see the same caller repeatedly
+
+    List<Result> results = validator.validate(tokens);
+
+    assertThat(results)
+        .extracting(Result::sub)
+        .containsExactlyElementsOf(
+            IntStream.range(0, 150).mapToObj(i -> "user-" + (i % 100)).toList());
+    assertThat(decodes).hasSize(100).allSatisfy((token, count) -> assertThat(count).isEqualTo(1));
+  }
+
+  @Test
+  void validate_shouldNotWaitForeverWhenAHelperDies() throws Exception {
+    CountDownLatch helperStarted = new CountDownLatch(1);
+    JwtDecoder dying =
+        token -> {
+          if (isHelper()) {
+            helperStarted.countDown();
+            throw new AssertionError("Helper died");
+          }
+          try {
+            helperStarted.await(); // Make sure a helper claims the other token
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return decoder.decode(token);
+        };
+    validator = new TokenBatchValidator(dying, new UserPrincipalConverter(), 16, 8192, 1);
+    List<String> tokens = List.of(token("a", inOneHour()), token("b", inOneHour()));
+
+    List<Result> results =
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> validator.validate(tokens));
+
+    assertThat(results).extracting(Result::valid).containsExactlyInAnyOrder(true, false);
+    assertThat(results)
+        .filteredOn(result -> !result.valid())
+        .extracting(Result::error)
+        .containsExactly("Token could not be validated");
+  }
+
+  @Test
+  void validate_shouldFailTheBatchWhenTheDeadlineExpires() throws Exception {
+    CountDownLatch helperStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    JwtDecoder stuck =
+        token -> {
+          try {
+            if (isHelper()) {
+              helperStarted.countDown();
+              release.await();
+            } else {
+              helperStarted.await(); // Make sure a helper claims the other token
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return decoder.decode(token);
+        };
+    validator = new TokenBatchValidator(stuck, new UserPrincipalConverter(), 16, 8192, 1);
+    List<String> tokens = List.of(token("a", inOneHour()), token("b", inOneHour()));
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(Deadline.ATTRIBUTE, Deadline.after(Duration.ofMillis(200)));
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    try {
+      assertThatThrownBy(() -> validator.validate(tokens))
+          .isInstanceOf(DeadlineExceededException.class);
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+      release.countDown();
+    }
+  }
+
+  @Test
+  void validate_shouldRejectBatchesOverTheLimit() {
+    validator = new TokenBatchValidator(decoder, new UserPrincipalConverter(), 2, 8192, 0);
+
+    assertThatThrownBy(() -> validator.validate(List.of("a", "b", "c")))
+        .isInstanceOf(BatchLimitExceededException.class)
+        .hasMessage("Batch of 3 tokens exceeds the limit of 2");
+  }
+
+  @Test
+  void validate_withoutWorkers_shouldValidateOnCallingThread() throws Exception {
+    List<String> threads = new ArrayList<>();
+    JwtDecoder recording =
+        token -> {
+          threads.add(Thread.currentThread().getName());
+          Jwt jwt = decoder.decode(token);
+          return jwt;
+        };
+    validator = new TokenBatchValidator(recording, new UserPrincipalConverter(), 16, 8192, 0);
+
+    List<Result> results =
+        validator.validate(List.of(token("a", inOneHour()), token("b", inOneHour())));
+
+    assertThat(results).extracting(Result::valid).containsExactly(true, true);
+    assertThat(threads).containsOnly(Thread.currentThread().getName());
+  }
+}
@@ -0,0 +1,151 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ai.bluefields.oidcauthdemo.config.JwksSnapshotProperties;
+import ai.bluefields.oidcauthdemo.config.JwtDecoderConfig;
+import ai.bluefields.oidcauthdemo.config.RevocationProperties;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import com.nimbusds.jwt.JWTClaimsSet;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.web.reactive.function.client.WebClient;
+
+class TokenRevocationListTest {
+
+  @TempDir Path tempDir;
+
+  private final Instant now = Instant.parse("2025-04-20T10:00:00Z");
+
+  private RevocationProperties properties() {
+    return new RevocationProperties(
+        tempDir.resolve("revoked.tsv"), 1_000, 0.01, Duration.ofMinutes(1));
+  }
+
+  private TokenRevocationList list(Instant at) {
+    return new TokenRevocationList(properties(), Clock.fixed(at, ZoneOffset.UTC));
+  }
+
+  @Test
+  void isRevoked_shouldOnlyMatchRevokedIdsUntilTheirExpiry() {
+    TokenRevocationList list = list(now);
+    int accepted =
+        list.revokeAll(
+            List.of(
+                new TokenRevocationList.Entry("jti-1", now.plusSeconds(60)),
+                new TokenRevocationList.Entry("jti-expired", now.minusSeconds(1))));
+
+    assertThat(accepted).isEqualTo(1);
+    assertThat(list.isRevoked("jti-1")).isTrue();
+    assertThat(list.isRevoked("jti-2")).isFalse();
+    assertThat(list.isRevoked("jti-expired")).isFalse();
+    assertThat(list.isRevoked(null)).isFalse();
+    assertThat(list(now.plusSeconds(61)).isRevoked("jti-1")).isFalse();
+  }
+
+  @Test
+  void revokeAll_shouldPersistActiveEntriesAcrossRestart() {
+    list(now)
+        .revokeAll(
+            List.of(
+                new TokenRevocationList.Entry("jti-short", now.plusSeconds(10)),
+                new TokenRevocationList.Entry("jti-long", now.plusSeconds(600))));
+
+    TokenRevocationList restarted = list(now.plusSeconds(30));
+
+    assertThat(restarted.size()).isEqualTo(1);
+    assertThat(restarted.isRevoked("jti-long")).isTrue();
+    assertThat(restarted.isRevoked("jti-short")).isFalse();
+  }
+
+  @Test
+  void purgeExpired_shouldDropExpiredEntriesAndRewriteFile() throws Exception {
+    MutableClock clock = new MutableClock(now);
+    TokenRevocationList list = new TokenRevocationList(properties(), clock);
+    list.revokeAll(
+        List.of(
+            new TokenRevocationList.Entry("jti-short", now.plusSeconds(10)),
+            new TokenRevocationList.Entry("jti-long", now.plusSeconds(600))));
+
+    clock.instant = now.plusSeconds(20);
+    list.purgeExpired();
+
+    assertThat(list.size()).isEqualTo(1);
+    assertThat(list.isRevoked("jti-long")).isTrue();
+    assertThat(Files.readString(properties().file())).doesNotContain("jti-short");
+  }
+
+  @Test
+  void bloomFilter_shouldHaveNoFalseNegativesAndFewFalsePositives() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.put("revoked-" + i));
+
+    assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("revoked-" + i)))
+        .isTrue();
+    long falsePositives =
+        IntStream.range(0, 100_000).filter(i -> filter.mightContain("active-" + i)).count();
+    assertThat(falsePositives).isLessThan(2_000);
+  }
+
+  @Test
+  void decoder_shouldRejectRevokedTokenWithInvalidTokenError() throws Exception {
+    try (StubIssuer issuer = StubIssuer.start()) {
+      TokenRevocationList list = new TokenRevocationList(properties(), Clock.systemUTC());
+      SnapshotJwkSource keys =
+          new SnapshotJwkSource(
+              issuer.uri(),
+              new JwksSnapshotProperties(true, tempDir.resolve("jwks.json"), null, null, null),
+              new JwksSnapshotStore(tempDir.resolve("jwks.json")),
+              WebClient.create(),
+              Clock.systemUTC());
+      JwtDecoder decoder =
+          JwtDecoderConfig.buildDecoder(
+              keys, issuer.uri(), List.of(new RevokedTokenValidator(list)));
+      String token = issuer.token(new JWTClaimsSet.Builder().subject("u").jwtID("jti-1").build());
+
+      assertThat(decoder.decode(token).getId()).isEqualTo("jti-1");
+
+      list.revokeAll(
+          List.of(new TokenRevocationList.Entry("jti-1", Instant.now().plusSeconds(300))));
+
+      assertThatThrownBy(() -> decoder.decode(token))
+          .isInstanceOf(JwtValidationException.class)
+          .hasMessageContaining("revoked");
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant instant;
+
+    MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package ai.bluefields.oidcauthdemo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+class UserPrincipalConverterTest {
+
+  private static final String ROLES_CLAIM = "urn:zitadel:iam:org:project:roles";
+
+  private final UserPrincipalConverter converter = new UserPrincipalConverter();
+  private final Instant expiresAt = Instant.parse("2025-04-20T11:00:00Z");
+
+  private Jwt.Builder token() {
+    return Jwt.withTokenValue("token-value")
+        .header("alg", "RS256")
+        .issuer("https://issuer.example.com")
+        .subject("user-1")
+        .issuedAt(expiresAt.minusSeconds(3600))
+        .expiresAt(expiresAt)
+        .claim("email", "user@example.com");
+  }
+
+  private static List<String> authorities(AbstractAuthenticationToken authentication) {
+    return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+  }
+
+  @Test
+  void convert_projectsClaimsIntoPrincipal() {
+    AbstractAuthenticationToken authentication =
+        converter.convert(token().claim(ROLES_CLAIM, Map.of("admin", Map.of())).build());
+
+    assertThat(authentication).isInstanceOf(UserPrincipalAuthenticationToken.class);
+    assertThat(authentication.isAuthenticated()).isTrue();
+    assertThat(authentication.getName()).isEqualTo("user-1");
+    assertThat(authentication.getCredentials()).isEqualTo("token-value");
+    assertThat(authentication.getPrincipal())
+        .isEqualTo(
+            new UserPrincipal(
+                "user-1",
+                "https://issuer.example.com",
+                "user@example.com",
+                expiresAt,
+                Set.of("ADMIN"),
+                "token-value"));
+  }
+
+  @Test
+  void convert_mapsScopesAndUpperCasedRoles() {
+    AbstractAuthenticationToken authentication =
+        converter.convert(
+            token()
+                .claim("scope", "openid profile")
+                .claim(ROLES_CLAIM, Map.of("admin", Map.of(), "viewer", Map.of()))
+                .build());
+
+    assertThat(authorities(authentication))
+        .containsExactlyInAnyOrder("SCOPE_openid", "SCOPE_profile", "ROLE_ADMIN", "ROLE_VIEWER");
+  }
+
+  @Test
+  void convert_acceptsScpClaimAsList() {
+    AbstractAuthenticationToken authentication =
+        converter.convert(token().claim("scp", List.of("read", "write")).build());
+
+    assertThat(authorities(authentication)).containsExactly("SCOPE_read", "SCOPE_write");
+  }
+
+  @Test
+  void convert_withoutScopesOrRoles_hasNoAuthorities() {
+    AbstractAuthenticationToken authentication =
+        converter.convert(token().claim(ROLES_CLAIM, "not-a-map").build());
+
+    assertThat(authentication.getAuthorities()).isEmpty();
+    assertThat(((UserPrincipal) authentication.getPrincipal()).roles()).isEmpty();
+  }
+
+  @Test
+  void convert_sharesRoleNamesAndAuthoritiesAcrossRequests() {
+    Jwt jwt =
+        token().claim("scope", "openid").claim(ROLES_CLAIM, Map.of("admin", Map.of())).build();
+
+    AbstractAuthenticationToken first = converter.convert(jwt);
+    AbstractAuthenticationToken second = converter.convert(jwt);
+
+    String firstRole = ((UserPrincipal) first.getPrincipal()).roles().iterator().next();
+    String secondRole = ((UserPrincipal) second.getPrincipal()).roles().iterator().next();
+    assertThat(secondRole).isSameAs(firstRole);
+    assertThat(List.copyOf(second.getAuthorities()))
+        .zipSatisfy(
+            List.copyOf(first.getAuthorities()),
+            (actual, expected) -> assertThat(actual).isSameAs(expected));
+  }
+
+  @Test
+  void convert_collapsesRolesDifferingOnlyInCase() {
+    AbstractAuthenticationToken authentication =
+        converter.convert(token().claim(ROLES_CLAIM, Map.of("admin", 1, "Admin", 2)).build());
+
+    assertThat(((UserPrincipal) authentication.getPrincipal()).roles()).containsExactly("ADMIN");
+  }
+
+  @Test
+  void from_returnsPrincipalOfConvertedAuthentication() {
+    AbstractAuthenticationToken authentication = converter.convert(token().build());
+
+    assertThat(UserPrincipal.from(authentication))
+        .containsSame((UserPrincipal) authentication.getPrincipal());
+  }
+
+  @Test
+  void from_projectsPlainJwtAuthenticationToken() {
+    JwtAuthenticationToken authentication =
+        new JwtAuthenticationToken(
+            token().build(),
+            List.of(
+                new SimpleGrantedAuthority("ROLE_admin"),
+                new SimpleGrantedAuthority("SCOPE_openid")));
+
+    UserPrincipal principal = UserPrincipal.from(authentication).orElseThrow();
+
+    assertThat(principal.subject()).isEqualTo("user-1");
+    assertThat(principal.issuer()).isEqualTo("https://issuer.example.com");
+    assertThat(principal.tokenValue()).isEqualTo("token-value");
+    assertThat(principal.roles()).containsExactly("ADMIN");
+  }
+
+  @Test
+  void from_isEmptyForNonJwtAuthentication() {
+    assertThat(UserPrincipal.from(new UsernamePasswordAuthenticationToken("user", "password")))
+        .isEmpty();
+    assertThat(UserPrincipal.from(null)).isEmpty();
+  }
+
+  @Test
+  void toString_omitsTokenValue() {
+    UserPrincipal principal = UserPrincipal.from(converter.convert(token().build())).orElseThrow();
+
+    assertThat(principal.toString()).contains("user-1").doesNotContain("token-value");
+  }
+}
@@ -0,0 +1,93 @@
+package ai.bluefields.oidcauthdemo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import ai.bluefields.oidcauthdemo.config.UserInfoHedgeProperties;
+import ai.bluefields.oidcauthdemo.config.UserInfoLimitProperties;
+import ai.bluefields.oidcauthdemo.deadline.Deadline;
+import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
+import ai.bluefields.oidcauthdemo.exception.DeadlineExceededException;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/** Checks that the inbound request deadline bounds UserInfo calls to a stub identity provider. */
+class UserInfoDeadlineIntegrationTest {
+
+  private StubIssuer idp;
+  private AdaptiveConcurrencyLimiter limiter;
+  private PrivateInfoService service;
+  private UserPrincipal principal;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    idp = StubIssuer.start();
+    limiter =
+        new AdaptiveConcurrencyLimiter(
+            new UserInfoLimitProperties(4, 4, 4, null, null, null, null));
+    service =
+        new PrivateInfoService(
+            WebClient.builder().build(),
+            limiter,
+            new RequestHedger(
+                new UserInfoHedgeProperties(false, null, null, null, null, null, null)));
+    principal = new UserPrincipal("stub-user", idp.uri(), null, null, Set.of(), "stub-token");
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+    idp.close();
+  }
+
+  /** Binds a request with the given deadline to the current thread, as the filter would. */
+  private void bindDeadline(Duration timeout) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(Deadline.ATTRIBUTE, Deadline.after(timeout));
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  @Test
+  void getInfo_shouldAnswerNormallyWithinDeadline() {
+    bindDeadline(Duration.ofSeconds(10));
+
+    PrivateInfoResponse response = service.getInfo(principal).block(Duration.ofSeconds(10));
+
+    assertThat(response.email()).isEqualTo("stub@example.com");
+  }
+
+  @Test
+  void getInfo_shouldAbandonUserInfoCallWhenDeadlinePasses() {
+    idp.userInfoLatency(Duration.ofSeconds(5));
+    bindDeadline(Duration.ofMillis(300));
+
+    Mono<PrivateInfoResponse> result = service.getInfo(principal);
+
+    StepVerifier.create(result)
+        .expectError(DeadlineExceededException.class)
+        .verify(Duration.ofSeconds(2));
+    assertThat(limiter.stats().inFlight()).isZero();
+  }
+
+  @Test
+  void getInfo_shouldSkipUserInfoCallWhenDeadlineAlreadyExpired() {
+    bindDeadline(Duration.ZERO);
+
+    StepVerifier.create(service.getInfo(principal))
+        .expectError(DeadlineExceededException.class)
+        .verify(Duration.ofSeconds(2));
+    assertThat(idp.userInfoRequests()).isZero();
+  }
+}
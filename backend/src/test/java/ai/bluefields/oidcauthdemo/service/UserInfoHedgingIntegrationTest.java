@@ -0,0 +1,65 @@
+package ai.bluefields.oidcauthdemo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import ai.bluefields.oidcauthdemo.config.UserInfoHedgeProperties;
+import ai.bluefields.oidcauthdemo.config.UserInfoLimitProperties;
+import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/** Exercises hedged UserInfo calls against a stub identity provider with a slow tail. */
+class UserInfoHedgingIntegrationTest {
+
+  private StubIssuer idp;
+  private AdaptiveConcurrencyLimiter limiter;
+  private RequestHedger hedger;
+  private PrivateInfoService service;
+  private UserPrincipal principal;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    idp = StubIssuer.start();
+    limiter =
+        new AdaptiveConcurrencyLimiter(
+            new UserInfoLimitProperties(16, 16, 16, null, null, null, null));
+    hedger =
+        new RequestHedger(
+            new UserInfoHedgeProperties(
+                true, 95.0, Duration.ofMillis(100), Duration.ofMillis(100), 50.0, null, null));
+    service = new PrivateInfoService(WebClient.builder().build(), limiter, hedger);
+    principal = new UserPrincipal("stub-user", idp.uri(), null, null, Set.of(), "stub-token");
+    service.getInfo(principal).block(Duration.ofSeconds(10)); // warm up
+  }
+
+  @AfterEach
+  void tearDown() {
+    idp.close();
+  }
+
+  @Test
+  void getInfo_shouldHedgeSlowUserInfoCallsAndCancelTheLoser() {
+    idp.userInfoSlowEvery(4, Duration.ofSeconds(5));
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 12; i++) {
+      PrivateInfoResponse response = service.getInfo(principal).block(Duration.ofSeconds(4));
+      assertThat(response.email()).isEqualTo("stub@example.com");
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    assertThat(elapsed).isLessThan(Duration.ofSeconds(4));
+    assertThat(hedger.stats().hedgeWins()).isPositive();
+    assertThat(hedger.stats().hedges()).isLessThanOrEqualTo(hedger.stats().requests() / 2 + 1);
+    // Cancelled losers released their concurrency permits.
+    assertThat(limiter.stats().inFlight()).isZero();
+  }
+}
@@ -0,0 +1,101 @@
+package ai.bluefields.oidcauthdemo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import ai.bluefields.oidcauthdemo.config.UserInfoHedgeProperties;
+import ai.bluefields.oidcauthdemo.config.UserInfoLimitProperties;
+import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+/** Exercises the UserInfo concurrency limit against a stub identity provider. */
+class UserInfoLimitIntegrationTest {
+
+  /** Configured initial limit; the degraded limit is compared against it, not a measured one. */
+  private static final int INITIAL_LIMIT = 8;
+
+  private StubIssuer idp;
+  private AdaptiveConcurrencyLimiter limiter;
+  private PrivateInfoService service;
+  private UserPrincipal principal;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    idp = StubIssuer.start();
+    limiter =
+        new AdaptiveConcurrencyLimiter(
+            new UserInfoLimitProperties(
+                INITIAL_LIMIT, 2, 16, 0.2, 2.0, 0.9, Duration.ofSeconds(30)));
+    WebClient webClient = WebClient.builder().build();
+    RequestHedger noHedging =
+        new RequestHedger(new UserInfoHedgeProperties(false, null, null, null, null, null, null));
+    service = new PrivateInfoService(webClient, limiter, noHedging);
+    principal = new UserPrincipal("stub-user", idp.uri(), null, null, Set.of(), "stub-token");
+
+    // Warm up connections and JIT through a separate limiter so cold-start round trips are not
+    // mistaken for IdP latency.
+    PrivateInfoService warmup =
+        new PrivateInfoService(
+            webClient,
+            new AdaptiveConcurrencyLimiter(
+                new UserInfoLimitProperties(32, 32, 32, null, null, null, null)),
+            noHedging);
+    Flux.range(0, 64).flatMap(i -> warmup.getInfo(principal), 4).blockLast();
+  }
+
+  @AfterEach
+  void tearDown() {
+    idp.close();
+  }
+
+  private List<PrivateInfoResponse> burst(int calls, int concurrency) {
+    return Flux.range(0, calls)
+        .delayElements(Duration.ofMillis(2))
+        .flatMap(i -> service.getInfo(principal), concurrency)
+        .collectList()
+        .block(Duration.ofSeconds(30));
+  }
+
+  @Test
+  void getInfo_shouldReturnUserInfoWhenUnderLimit() {
+    PrivateInfoResponse response = service.getInfo(principal).block(Duration.ofSeconds(10));
+
+    assertThat(response.message()).isEqualTo("Hello Stub User (from UserInfo)");
+    assertThat(response.email()).isEqualTo("stub@example.com");
+    assertThat(limiter.stats().accepted()).isEqualTo(1);
+    assertThat(limiter.stats().shed()).isZero();
+  }
+
+  @Test
+  void getInfo_shouldShedExcessAndLowerLimitWhenIdpDegrades() {
+    int warmupRequests = idp.userInfoRequests();
+    idp.userInfoLatency(Duration.ofMillis(10));
+    burst(200, 32); // Establishes the no-load round trip
+
+    idp.userInfoLatency(Duration.ofMillis(250));
+    List<PrivateInfoResponse> degraded = burst(200, 64);
+
+    // A 25x round trip drives the gradient far below one, so the limit ends well under where it
+    // started whatever it reached while healthy on a loaded machine
+    assertThat(limiter.limit()).isLessThan(INITIAL_LIMIT);
+    assertThat(limiter.stats().shed()).isPositive();
+    assertThat(idp.userInfoMaxInFlight()).isLessThanOrEqualTo(16);
+    assertThat(degraded)
+        .filteredOn(r -> r.message().equals("Hello User (UserInfo Error)"))
+        .isNotEmpty()
+        .allSatisfy(r -> assertThat(r.email()).isEqualTo("Error fetching user details"));
+    assertThat(idp.userInfoRequests() - warmupRequests)
+        .isEqualTo((int) limiter.stats().accepted())
+        .isLessThan(400);
+  }
+}
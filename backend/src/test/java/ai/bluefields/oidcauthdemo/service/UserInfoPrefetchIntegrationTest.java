@@ -0,0 +1,107 @@
+package ai.bluefields.oidcauthdemo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import ai.bluefields.oidcauthdemo.config.UserInfoHedgeProperties;
+import ai.bluefields.oidcauthdemo.config.UserInfoLimitProperties;
+import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
+import ai.bluefields.oidcauthdemo.prefetch.UserInfoPrefetchFilter;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.security.UserPrincipalAuthenticationToken;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Measures the latency saved by prefetching UserInfo from a stub identity provider while the
+ * request is still being authorized and dispatched.
+ */
+class UserInfoPrefetchIntegrationTest {
+
+  private static final Duration USERINFO_LATENCY = Duration.ofMillis(300);
+  private static final Duration AUTHORIZATION_TIME = Duration.ofMillis(200);
+
+  private StubIssuer idp;
+  private PrivateInfoService service;
+  private UserPrincipal principal;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    idp = StubIssuer.start();
+    idp.userInfoLatency(USERINFO_LATENCY);
+    service =
+        new PrivateInfoService(
+            WebClient.create(),
+            new AdaptiveConcurrencyLimiter(
+                new UserInfoLimitProperties(4, 4, 4, null, null, null, null)),
+            new RequestHedger(
+                new UserInfoHedgeProperties(false, null, null, null, null, null, null)));
+    principal = new UserPrincipal("stub-user", idp.uri(), null, null, Set.of(), "stub-token");
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UserPrincipalAuthenticationToken(principal, List.of()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+    RequestContextHolder.resetRequestAttributes();
+    idp.close();
+  }
+
+  /** Stands in for authorization and controller dispatch, then calls the service. */
+  private FilterChain handler(AtomicReference<PrivateInfoResponse> response) {
+    return (request, ignored) -> {
+      try {
+        Thread.sleep(AUTHORIZATION_TIME.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      RequestContextHolder.setRequestAttributes(
+          new ServletRequestAttributes((HttpServletRequest) request));
+      response.set(service.getInfo(principal).block(Duration.ofSeconds(10)));
+    };
+  }
+
+  private long serveMillis(boolean prefetch) throws Exception {
+    AtomicReference<PrivateInfoResponse> response = new AtomicReference<>();
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    long start = System.nanoTime();
+    if (prefetch) {
+      new UserInfoPrefetchFilter(service, List.of("/api/v1/private/info"))
+          .doFilter(request, new MockHttpServletResponse(), handler(response));
+    } else {
+      handler(response).doFilter(request, new MockHttpServletResponse());
+    }
+    long elapsed = (System.nanoTime() - start) / 1_000_000;
+    assertThat(response.get().email()).isEqualTo("stub@example.com");
+    return elapsed;
+  }
+
+  @Test
+  void prefetch_overlapsUserInfoCallWithAuthorization() throws Exception {
+    serveMillis(false); // Warm up the connection pool and codecs
+    long serial = serveMillis(false);
+    long overlapped = serveMillis(true);
+
+    long sum = AUTHORIZATION_TIME.plus(USERINFO_LATENCY).toMillis();
+    assertThat(serial).isGreaterThanOrEqualTo(sum);
+    // Ideally max(authorization, UserInfo); the margin absorbs scheduling noise
+    assertThat(overlapped).isLessThan(sum - AUTHORIZATION_TIME.toMillis() / 2);
+    assertThat(idp.userInfoRequests()).isEqualTo(3);
+  }
+}
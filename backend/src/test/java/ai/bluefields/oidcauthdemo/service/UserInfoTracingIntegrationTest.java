@@ -0,0 +1,90 @@
+package ai.bluefields.oidcauthdemo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.RequestHedger;
+import ai.bluefields.oidcauthdemo.config.UserInfoHedgeProperties;
+import ai.bluefields.oidcauthdemo.config.UserInfoLimitProperties;
+import ai.bluefields.oidcauthdemo.dto.PrivateInfoResponse;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import ai.bluefields.oidcauthdemo.tracing.Scope;
+import ai.bluefields.oidcauthdemo.tracing.Span;
+import ai.bluefields.oidcauthdemo.tracing.SpanData;
+import ai.bluefields.oidcauthdemo.tracing.Tracer;
+import ai.bluefields.oidcauthdemo.tracing.TracingExchangeFilter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/** Checks that UserInfo calls to a stub identity provider are traced and propagate the trace. */
+class UserInfoTracingIntegrationTest {
+
+  private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+  private StubIssuer idp;
+  private Tracer tracer;
+  private PrivateInfoService service;
+  private UserPrincipal principal;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    idp = StubIssuer.start();
+    tracer = new Tracer(1, exported::add);
+    service =
+        new PrivateInfoService(
+            WebClient.builder().filter(new TracingExchangeFilter(tracer)).build(),
+            new AdaptiveConcurrencyLimiter(
+                new UserInfoLimitProperties(4, 4, 4, null, null, null, null)),
+            new RequestHedger(
+                new UserInfoHedgeProperties(false, null, null, null, null, null, null)));
+    principal = new UserPrincipal("stub-user", idp.uri(), null, null, Set.of(), "stub-token");
+  }
+
+  @AfterEach
+  void tearDown() {
+    idp.close();
+  }
+
+  @Test
+  void getInfo_shouldTraceUserInfoCallAsChildOfRequestSpan() {
+    Span root = tracer.startRootSpan("GET /api/v1/private/info", null);
+
+    PrivateInfoResponse response;
+    try (Scope scope = root.makeCurrent()) {
+      response = service.getInfo(principal).block(Duration.ofSeconds(10));
+    }
+
+    assertThat(response.email()).isEqualTo("stub@example.com");
+    assertThat(exported)
+        .singleElement()
+        .satisfies(
+            span -> {
+              assertThat(span.kind()).isEqualTo(Span.Kind.CLIENT);
+              assertThat(span.name()).isEqualTo("GET /oidc/v1/userinfo");
+              assertThat(span.traceId()).isEqualTo(root.traceId());
+              assertThat(span.parentSpanId()).isEqualTo(root.spanId());
+              assertThat(span.attributes()).containsEntry("http.status_code", 200);
+              assertThat(idp.lastUserInfoTraceparent())
+                  .isEqualTo("00-" + root.traceId() + "-" + span.spanId() + "-01");
+            });
+  }
+
+  @Test
+  void getInfo_shouldPropagateUnsampledTraceWithoutRecording() {
+    tracer.setSamplingProbability(0);
+    Span root = tracer.startRootSpan("GET /api/v1/private/info", null);
+
+    try (Scope scope = root.makeCurrent()) {
+      service.getInfo(principal).block(Duration.ofSeconds(10));
+    }
+
+    assertThat(exported).isEmpty();
+    assertThat(idp.lastUserInfoTraceparent()).isEqualTo(root.traceparent());
+  }
+}
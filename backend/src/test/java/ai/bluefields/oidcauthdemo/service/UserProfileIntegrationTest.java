@@ -0,0 +1,139 @@
+package ai.bluefields.oidcauthdemo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import ai.bluefields.oidcauthdemo.client.AdaptiveConcurrencyLimiter;
+import ai.bluefields.oidcauthdemo.client.UserInfo;
+import ai.bluefields.oidcauthdemo.client.UserProfileCache;
+import ai.bluefields.oidcauthdemo.config.UserInfoLimitProperties;
+import ai.bluefields.oidcauthdemo.config.UserProfileProperties;
+import ai.bluefields.oidcauthdemo.dto.UserProfileResult;
+import ai.bluefields.oidcauthdemo.exception.BatchLimitExceededException;
+import ai.bluefields.oidcauthdemo.security.UserPrincipal;
+import ai.bluefields.oidcauthdemo.support.StubIssuer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/** Exercises the bulk profile lookup against a stub identity provider. */
+class UserProfileIntegrationTest {
+
+  private StubIssuer idp;
+  private UserProfileCache cache;
+  private UserProfileService service;
+  private UserPrincipal admin;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    idp = StubIssuer.start();
+    cache = new UserProfileCache(Duration.ofMinutes(5), 1000, Clock.systemUTC());
+    service =
+        new UserProfileService(
+            WebClient.create(),
+            new AdaptiveConcurrencyLimiter(
+                new UserInfoLimitProperties(32, 32, 32, null, null, null, null)),
+            cache,
+            new UserProfileProperties(true, null, 20, 4, null, null));
+    admin = new UserPrincipal("admin", idp.uri(), null, null, Set.of("admin"), "admin-token");
+  }
+
+  @AfterEach
+  void tearDown() {
+    idp.close();
+  }
+
+  private List<UserProfileResult> lookup(String... subjects) {
+    return lookup(admin, subjects);
+  }
+
+  private List<UserProfileResult> lookup(UserPrincipal caller, String... subjects) {
+    return service
+        .lookup(caller, Arrays.asList(subjects))
+        .collectList()
+        .block(Duration.ofSeconds(10));
+  }
+
+  @Test
+  void lookup_shouldResolveEachDistinctSubjectInCompletionOrder() {
+    idp.userLatency("alice", Duration.ofMillis(300));
+
+    List<UserProfileResult> results = lookup("alice", "bob", "alice", "carol");
+
+    // bob and carol race each other; only the delayed alice has a fixed place
+    assertThat(results)
+        .extracting(UserProfileResult::subject)
+        .containsExactlyInAnyOrder("bob", "carol", "alice")
+        .last()
+        .isEqualTo("alice");
+    assertThat(results.get(2).profile())
+        .isEqualTo(new UserInfo("alice@example.com", "alice", "User"));
+    assertThat(results).allSatisfy(result -> assertThat(result.error()).isNull());
+    assertThat(idp.userRequests()).isEqualTo(3);
+  }
+
+  @Test
+  void lookup_shouldReportUnresolvableSubjectsAsApiErrors() {
+    List<UserProfileResult> results = lookup("unknown-1", " ", "dave");
+
+    assertThat(results)
+        .filteredOn(result -> result.error() != null)
+        .extracting(result -> result.error().status(), result -> result.error().type())
+        .containsExactlyInAnyOrder(
+            tuple(404, "https://api.bluefields.ai/errors/not-found"),
+            tuple(400, "https://api.bluefields.ai/errors/invalid-subject"));
+    assertThat(results)
+        .filteredOn(result -> result.subject().equals("dave"))
+        .singleElement()
+        .satisfies(result -> assertThat(result.profile().email()).isEqualTo("dave@example.com"));
+  }
+
+  @Test
+  void lookup_shouldBoundCallsInFlightAndReuseCachedProfiles() {
+    IntStream.range(0, 20).forEach(i -> idp.userLatency("user-" + i, Duration.ofMillis(50)));
+    String[] subjects = IntStream.range(0, 20).mapToObj(i -> "user-" + i).toArray(String[]::new);
+
+    lookup(subjects);
+    List<UserProfileResult> again = lookup(subjects);
+
+    assertThat(idp.userMaxInFlight()).isLessThanOrEqualTo(4);
+    assertThat(idp.userRequests()).isEqualTo(20);
+    assertThat(again).hasSize(20).allSatisfy(result -> assertThat(result.profile()).isNotNull());
+  }
+
+  @Test
+  void lookup_shouldNotServeCachedProfilesToCallersTheIdpRefuses() {
+    UserPrincipal other =
+        new UserPrincipal("other", idp.uri(), null, null, Set.of("admin"), "other-token");
+    idp.refuseUserLookups("other-token");
+
+    assertThat(lookup("alice")).singleElement().satisfies(r -> assertThat(r.profile()).isNotNull());
+    List<UserProfileResult> refused = lookup(other, "alice");
+
+    assertThat(refused)
+        .singleElement()
+        .satisfies(
+            result -> {
+              assertThat(result.profile()).isNull();
+              assertThat(result.error().status()).isEqualTo(502);
+            });
+    assertThat(idp.userRequests()).isEqualTo(2);
+  }
+
+  @Test
+  void lookup_shouldRejectTooManySubjects() {
+    List<String> subjects = IntStream.range(0, 21).mapToObj(i -> "user-" + i).toList();
+
+    assertThatThrownBy(() -> service.lookup(admin, subjects))
+        .isInstanceOf(BatchLimitExceededException.class);
+    assertThat(idp.userRequests()).isZero();
+  }
+}
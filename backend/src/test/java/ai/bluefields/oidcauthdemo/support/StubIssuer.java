@@ -0,0 +1,461 @@
+package ai.bluefields.oidcauthdemo.support;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process OIDC issuer for tests. Serves a discovery document, JWKS and a UserInfo
+ * endpoint on an ephemeral local port and signs tokens with its RSA key, so decoding and UserInfo
+ * calls can be exercised without network access. UserInfo latency can be injected to simulate a
+ * degraded identity provider.
+ *
+ * <p>It also has a client credentials token endpoint, accepting client {@link #CLIENT_ID} with
+ * secret {@link #CLIENT_SECRET} and issuing opaque tokens, and a protected resource at {@code
+ * /api/v1/resource} that records the {@code Authorization} header it receives.
+ *
+ * <p>Users can be looked up by id at {@code /v2/users/{id}}, shaped like Zitadel's user service:
+ * every id is a human user named after it, except ids starting with {@code unknown}, which are
+ * answered with 404. Latency can be injected per id, and access tokens can be refused with 403.
+ */
+public class StubIssuer implements AutoCloseable {
+
+  /** Client id accepted by the token endpoint. */
+  public static final String CLIENT_ID = "stub-client";
+
+  /** Client secret accepted by the token endpoint. */
+  public static final String CLIENT_SECRET = "stub-secret";
+
+  private final HttpServer server;
+  private volatile RSAKey key;
+  private final AtomicInteger jwksRequests = new AtomicInteger();
+  private final AtomicInteger userInfoRequests = new AtomicInteger();
+  private final AtomicInteger userInfoInFlight = new AtomicInteger();
+  private final AtomicInteger userInfoMaxInFlight = new AtomicInteger();
+  private volatile Duration userInfoLatency = Duration.ZERO;
+  private volatile int userInfoSlowEvery;
+  private volatile Duration userInfoSlowLatency = Duration.ZERO;
+  private volatile String lastUserInfoTraceparent;
+  private final AtomicInteger tokenRequests = new AtomicInteger();
+  private final AtomicInteger tokenFailures = new AtomicInteger();
+  private volatile Duration tokenLatency = Duration.ZERO;
+  private volatile Duration tokenLifetime = Duration.ofMinutes(5);
+  private volatile String lastTokenScope;
+  private final Set<String> rejectedTokens = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger resourceRequests = new AtomicInteger();
+  private volatile String lastResourceAuthorization;
+  private final AtomicInteger userRequests = new AtomicInteger();
+  private final AtomicInteger userInFlight = new AtomicInteger();
+  private final AtomicInteger userMaxInFlight = new AtomicInteger();
+  private final Map<String, Duration> userLatencies = new ConcurrentHashMap<>();
+  private final Set<String> refusedUserTokens = ConcurrentHashMap.newKeySet();
+
+  private StubIssuer(HttpServer server, RSAKey key) {
+    this.server = server;
+    this.key = key;
+  }
+
+  /**
+   * Starts a stub issuer on an ephemeral loopback port.
+   *
+   * @return The running issuer.
+   * @throws Exception If the server or key cannot be created.
+   */
+  public static StubIssuer start() throws Exception {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    RSAKey key = new RSAKeyGenerator(2048).keyID("stub-key-1").generate();
+    StubIssuer issuer = new StubIssuer(server, key);
+    server.createContext(
+        "/.well-known/openid-configuration",
+        exchange ->
+            respond(
+                exchange,
+                "{\"issuer\":\"%s\",\"jwks_uri\":\"%s/oauth/v2/keys\"}"
+                    .formatted(issuer.uri(), issuer.uri())));
+    server.createContext(
+        "/oauth/v2/keys",
+        exchange -> {
+          issuer.jwksRequests.incrementAndGet();
+          respond(exchange, new JWKSet(issuer.key.toPublicJWK()).toString());
+        });
+    server.createContext(
+        "/oidc/v1/userinfo",
+        exchange -> {
+          int request = issuer.userInfoRequests.incrementAndGet();
+          issuer.lastUserInfoTraceparent = exchange.getRequestHeaders().getFirst("traceparent");
+          int inFlight = issuer.userInfoInFlight.incrementAndGet();
+          issuer.userInfoMaxInFlight.accumulateAndGet(inFlight, Math::max);
+          try {
+            int slowEvery = issuer.userInfoSlowEvery;
+            Thread.sleep(
+                slowEvery > 0 && request % slowEvery == 0
+                    ? issuer.userInfoSlowLatency
+                    : issuer.userInfoLatency);
+            respond(
+                exchange,
+                "{\"sub\":\"stub-user\",\"email\":\"stub@example.com\",\"given_name\":\"Stub\",\"family_name\":\"User\"}");
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            issuer.userInfoInFlight.decrementAndGet();
+          }
+        });
+    server.createContext("/oauth/v2/token", issuer::issueToken);
+    server.createContext(
+        "/api/v1/resource",
+        exchange -> {
+          issuer.resourceRequests.incrementAndGet();
+          String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+          issuer.lastResourceAuthorization = authorization;
+          if (authorization != null
+              && issuer.rejectedTokens.contains(authorization.substring("Bearer ".length()))) {
+            respond(exchange, 401, "{\"error\":\"invalid_token\"}");
+          } else {
+            respond(exchange, "{\"resource\":\"ok\"}");
+          }
+        });
+    server.createContext("/v2/users/", issuer::lookUpUser);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.start();
+    return issuer;
+  }
+
+  /**
+   * Returns the issuer URI, which is also the base URL of the stub.
+   *
+   * @return The issuer URI.
+   */
+  public String uri() {
+    return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+  }
+
+  /**
+   * Returns how many times the JWKS endpoint has been called.
+   *
+   * @return The JWKS request count.
+   */
+  public int jwksRequests() {
+    return jwksRequests.get();
+  }
+
+  /**
+   * Returns how many times the UserInfo endpoint has been called.
+   *
+   * @return The UserInfo request count.
+   */
+  public int userInfoRequests() {
+    return userInfoRequests.get();
+  }
+
+  /**
+   * Returns the highest number of UserInfo requests that were being served at the same time.
+   *
+   * @return The peak UserInfo concurrency.
+   */
+  public int userInfoMaxInFlight() {
+    return userInfoMaxInFlight.get();
+  }
+
+  /**
+   * Returns the {@code traceparent} header of the most recent UserInfo request.
+   *
+   * @return The header value, or {@code null} if the request had none.
+   */
+  public String lastUserInfoTraceparent() {
+    return lastUserInfoTraceparent;
+  }
+
+  /**
+   * Returns how many times the token endpoint has been called.
+   *
+   * @return The token request count.
+   */
+  public int tokenRequests() {
+    return tokenRequests.get();
+  }
+
+  /**
+   * Returns the {@code scope} parameter of the most recent token request.
+   *
+   * @return The requested scope, or {@code null} if none was sent.
+   */
+  public String lastTokenScope() {
+    return lastTokenScope;
+  }
+
+  /**
+   * Sets the delay applied to every token response.
+   *
+   * @param latency The injected latency.
+   */
+  public void tokenLatency(Duration latency) {
+    tokenLatency = latency;
+  }
+
+  /**
+   * Sets the {@code expires_in} of issued tokens.
+   *
+   * @param lifetime The token lifetime, in whole seconds.
+   */
+  public void tokenLifetime(Duration lifetime) {
+    tokenLifetime = lifetime;
+  }
+
+  /**
+   * Makes the next token requests fail with {@code 503}.
+   *
+   * @param count Number of requests to fail.
+   */
+  public void failTokenRequests(int count) {
+    tokenFailures.set(count);
+  }
+
+  /**
+   * Returns how many times the protected resource has been called.
+   *
+   * @return The resource request count.
+   */
+  public int resourceRequests() {
+    return resourceRequests.get();
+  }
+
+  /**
+   * Returns the {@code Authorization} header of the most recent resource request.
+   *
+   * @return The header value, or {@code null} if the request had none.
+   */
+  public String lastResourceAuthorization() {
+    return lastResourceAuthorization;
+  }
+
+  /**
+   * Makes the protected resource answer {@code 401} to requests carrying the given token.
+   *
+   * @param token The access token to reject.
+   */
+  public void rejectToken(String token) {
+    rejectedTokens.add(token);
+  }
+
+  /**
+   * Sets the delay applied to every UserInfo response.
+   *
+   * @param latency The injected latency.
+   */
+  public void userInfoLatency(Duration latency) {
+    userInfoLatency = latency;
+  }
+
+  /**
+   * Makes every {@code n}-th UserInfo request take {@code latency} instead of the normal latency,
+   * simulating occasional slow responses from an otherwise healthy provider.
+   *
+   * @param n Period of slow requests; zero disables them.
+   * @param latency Latency of the slow requests.
+   */
+  public void userInfoSlowEvery(int n, Duration latency) {
+    userInfoSlowLatency = latency;
+    userInfoSlowEvery = n;
+  }
+
+  /**
+   * Returns how many times users have been looked up by id.
+   *
+   * @return The number of user requests.
+   */
+  public int userRequests() {
+    return userRequests.get();
+  }
+
+  /**
+   * Returns the highest number of concurrent user requests seen so far.
+   *
+   * @return The peak number of user requests in flight.
+   */
+  public int userMaxInFlight() {
+    return userMaxInFlight.get();
+  }
+
+  /**
+   * Sets the delay applied to lookups of one user.
+   *
+   * @param id The user id.
+   * @param latency The injected latency.
+   */
+  public void userLatency(String id, Duration latency) {
+    userLatencies.put(id, latency);
+  }
+
+  /**
+   * Answers user lookups made with the given access token with 403, as for a caller the identity
+   * provider does not allow to read users.
+   *
+   * @param accessToken The refused bearer token.
+   */
+  public void refuseUserLookups(String accessToken) {
+    refusedUserTokens.add(accessToken);
+  }
+
+  /**
+   * Replaces the signing key with a new one under a different key id, simulating key rotation.
+   *
+   * @param keyId The new key id.
+   * @throws JOSEException If the key cannot be generated.
+   */
+  public void rotateKey(String keyId) throws JOSEException {
+    key = new RSAKeyGenerator(2048).keyID(keyId).generate();
+  }
+
+  /**
+   * Signs an access token for the given subject, valid for five minutes.
+   *
+   * @param subject The {@code sub} claim.
+   * @return The serialized JWT.
+   * @throws JOSEException If signing fails.
+   */
+  public String token(String subject) throws JOSEException {
+    return token(new JWTClaimsSet.Builder().subject(subject).build());
+  }
+
+  /**
+   * Signs an access token, filling in {@code iss}, {@code iat} and {@code exp} when absent.
+   *
+   * @param claims The claims to sign.
+   * @return The serialized JWT.
+   * @throws JOSEException If signing fails.
+   */
+  public String token(JWTClaimsSet claims) throws JOSEException {
+    Instant now = Instant.now();
+    JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder(claims);
+    if (claims.getIssuer() == null) {
+      builder.issuer(uri());
+    }
+    if (claims.getIssueTime() == null) {
+      builder.issueTime(Date.from(now));
+    }
+    if (claims.getExpirationTime() == null) {
+      builder.expirationTime(Date.from(now.plus(Duration.ofMinutes(5))));
+    }
+    SignedJWT jwt =
+        new SignedJWT(
+            new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(key.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build(),
+            builder.build());
+    jwt.sign(new RSASSASigner(key));
+    return jwt.serialize();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+  private void issueToken(HttpExchange exchange) throws IOException {
+    int request = tokenRequests.incrementAndGet();
+    Map<String, String> form = new HashMap<>();
+    for (String pair :
+        new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).split("&")) {
+      int separator = pair.indexOf('=');
+      if (separator > 0) {
+        form.put(
+            URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+            URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+      }
+    }
+    lastTokenScope = form.get("scope");
+    String expectedAuthorization =
+        "Basic "
+            + Base64.getEncoder()
+                .encodeToString(
+                    (CLIENT_ID + ":" + CLIENT_SECRET).getBytes(StandardCharsets.ISO_8859_1));
+    try {
+      Thread.sleep(tokenLatency);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (tokenFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+      respond(exchange, 503, "{\"error\":\"temporarily_unavailable\"}");
+    } else if (!"POST".equals(exchange.getRequestMethod())
+        || !expectedAuthorization.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+      respond(exchange, 401, "{\"error\":\"invalid_client\"}");
+    } else if (!"client_credentials".equals(form.get("grant_type"))) {
+      respond(exchange, 400, "{\"error\":\"unsupported_grant_type\"}");
+    } else {
+      respond(
+          exchange,
+          "{\"access_token\":\"stub-access-token-%d\",\"token_type\":\"Bearer\",\"expires_in\":%d}"
+              .formatted(request, tokenLifetime.toSeconds()));
+    }
+  }
+
+  private void lookUpUser(HttpExchange exchange) throws IOException {
+    userRequests.incrementAndGet();
+    int inFlight = userInFlight.incrementAndGet();
+    userMaxInFlight.accumulateAndGet(inFlight, Math::max);
+    try {
+      String id = exchange.getRequestURI().getPath().substring("/v2/users/".length());
+      Thread.sleep(userLatencies.getOrDefault(id, Duration.ZERO));
+      String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+      if (authorization != null
+          && refusedUserTokens.contains(authorization.substring("Bearer ".length()))) {
+        respond(exchange, 403, "{\"code\":7,\"message\":\"No matching permissions found\"}");
+        return;
+      }
+      if (id.startsWith("unknown")) {
+        respond(exchange, 404, "{\"code\":5,\"message\":\"User could not be found\"}");
+        return;
+      }
+      respond(
+          exchange,
+          ("{\"details\":{},\"user\":{\"userId\":\"%s\",\"state\":\"USER_STATE_ACTIVE\","
+                  + "\"human\":{\"profile\":{\"givenName\":\"%s\",\"familyName\":\"User\"},"
+                  + "\"email\":{\"email\":\"%s@example.com\",\"isVerified\":true}}}}")
+              .formatted(id, id, id));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      userInFlight.decrementAndGet();
+    }
+  }
+
+  private static void respond(HttpExchange exchange, String body) throws IOException {
+    respond(exchange, 200, body);
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
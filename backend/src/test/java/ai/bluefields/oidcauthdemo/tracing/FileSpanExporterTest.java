@@ -0,0 +1,52 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSpanExporterTest {
+
+  @TempDir Path dir;
+
+  @Test
+  void close_shouldFlushQueuedSpansAsJsonLines() throws Exception {
+    Path file = dir.resolve("nested/traces.jsonl");
+    FileSpanExporter exporter = new FileSpanExporter(file, 16);
+    exporter.start();
+    Tracer tracer = new Tracer(1, exporter);
+
+    Span root = tracer.startRootSpan("GET /api/v1/private/info", null);
+    root.setAttribute("http.status_code", 200);
+    tracer.startSpan("jwt.convert", Span.Kind.INTERNAL, root).end();
+    root.end();
+    exporter.close();
+
+    List<String> lines = Files.readAllLines(file);
+    assertThat(lines).hasSize(2);
+    JsonNode span = new ObjectMapper().readTree(lines.get(1));
+    assertThat(span.get("traceId").asText()).isEqualTo(root.traceId());
+    assertThat(span.get("name").asText()).isEqualTo("GET /api/v1/private/info");
+    assertThat(span.get("kind").asText()).isEqualTo("SERVER");
+    assertThat(span.get("attributes").get("http.status_code").asInt()).isEqualTo(200);
+    assertThat(span.get("endTimeUnixNano").asLong())
+        .isGreaterThanOrEqualTo(span.get("startTimeUnixNano").asLong());
+  }
+
+  @Test
+  void export_shouldDropSpansWhenQueueIsFull() {
+    FileSpanExporter exporter = new FileSpanExporter(dir.resolve("traces.jsonl"), 1);
+    Tracer tracer = new Tracer(1, exporter);
+
+    tracer.startRootSpan("first", null).end();
+    tracer.startRootSpan("second", null).end();
+
+    assertThat(tracer.stats().exportedSpans()).isEqualTo(1);
+    assertThat(tracer.stats().droppedSpans()).isEqualTo(1);
+  }
+}
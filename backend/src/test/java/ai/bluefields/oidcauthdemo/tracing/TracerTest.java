@@ -0,0 +1,128 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class TracerTest {
+
+  private static final String SAMPLED_PARENT =
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+  private static final String UNSAMPLED_PARENT =
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00";
+
+  private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+
+  @Test
+  void startRootSpan_shouldFollowSampledRemoteParent() {
+    Tracer tracer = new Tracer(0, exported::add);
+
+    Span span = tracer.startRootSpan("HTTP GET", SAMPLED_PARENT);
+    span.end();
+
+    assertThat(span.isSampled()).isTrue();
+    assertThat(span.traceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+    assertThat(exported)
+        .singleElement()
+        .satisfies(
+            data -> {
+              assertThat(data.parentSpanId()).isEqualTo("00f067aa0ba902b7");
+              assertThat(data.kind()).isEqualTo(Span.Kind.SERVER);
+              assertThat(data.status()).isEqualTo("OK");
+            });
+  }
+
+  @Test
+  void startRootSpan_shouldFollowUnsampledRemoteParentButKeepTraceId() {
+    Tracer tracer = new Tracer(1, exported::add);
+
+    Span span = tracer.startRootSpan("HTTP GET", UNSAMPLED_PARENT);
+    span.end();
+
+    assertThat(span.isSampled()).isFalse();
+    assertThat(span.traceparent())
+        .startsWith("00-4bf92f3577b34da6a3ce929d0e0e4736-")
+        .endsWith("-00");
+    assertThat(exported).isEmpty();
+  }
+
+  @Test
+  void startRootSpan_shouldIgnoreMalformedTraceparent() {
+    Tracer tracer = new Tracer(1, exported::add);
+
+    assertThat(tracer.startRootSpan("a", "garbage").traceId()).hasSize(32);
+    assertThat(tracer.startRootSpan("b", SAMPLED_PARENT.replace('-', '_')).traceId())
+        .isNotEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+    assertThat(
+            tracer
+                .startRootSpan("c", "00-00000000000000000000000000000000-00f067aa0ba902b7-01")
+                .isValid())
+        .isTrue();
+  }
+
+  @Test
+  void startRootSpan_shouldSampleAtConfiguredProbability() {
+    Tracer tracer = new Tracer(0.25, SpanExporter.NONE);
+
+    for (int i = 0; i < 20_000; i++) {
+      tracer.startRootSpan("HTTP GET", null);
+    }
+
+    assertThat(tracer.stats().rootSpans()).isEqualTo(20_000);
+    assertThat(tracer.stats().sampledRootSpans()).isBetween(4_500L, 5_500L);
+  }
+
+  @Test
+  void startSpan_shouldCreateChildOfCurrentSpanOnlyWhenSampled() {
+    Tracer tracer = new Tracer(1, exported::add);
+    Span root = tracer.startRootSpan("root", null);
+
+    try (Scope scope = root.makeCurrent()) {
+      Span child = tracer.startSpan("child");
+      child.setAttribute("k", "v");
+      child.recordError(new IllegalStateException("boom"));
+      child.end();
+      child.end();
+    }
+    assertThat(Span.current()).isSameAs(Span.NOOP);
+
+    assertThat(exported)
+        .singleElement()
+        .satisfies(
+            data -> {
+              assertThat(data.traceId()).isEqualTo(root.traceId());
+              assertThat(data.parentSpanId()).isEqualTo(root.spanId());
+              assertThat(data.attributes()).containsEntry("k", "v");
+              assertThat(data.status()).isEqualTo("ERROR");
+              assertThat(data.statusMessage()).isEqualTo("IllegalStateException: boom");
+            });
+
+    Span unsampled = new Tracer(0, exported::add).startRootSpan("root", null);
+    assertThat(tracer.startSpan("child", Span.Kind.CLIENT, unsampled)).isSameAs(unsampled);
+    assertThat(tracer.startSpan("orphan")).isSameAs(Span.NOOP);
+  }
+
+  @Test
+  void stats_shouldCountSpansDroppedByExporter() {
+    Tracer tracer = new Tracer(1, span -> false);
+
+    tracer.startRootSpan("root", null).end();
+
+    assertThat(tracer.stats().exportedSpans()).isZero();
+    assertThat(tracer.stats().droppedSpans()).isEqualTo(1);
+  }
+
+  @Test
+  void setSamplingProbability_shouldClamp() {
+    Tracer tracer = Tracer.noop();
+
+    tracer.setSamplingProbability(3);
+    assertThat(tracer.samplingProbability()).isEqualTo(1.0);
+    tracer.setSamplingProbability(-1);
+    assertThat(tracer.samplingProbability()).isEqualTo(0.0);
+    tracer.setSamplingProbability(Double.NaN);
+    assertThat(tracer.samplingProbability()).isEqualTo(0.0);
+  }
+}
@@ -0,0 +1,101 @@
+package ai.bluefields.oidcauthdemo.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class TracingFilterTest {
+
+  private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+  private final Tracer tracer = new Tracer(1, exported::add);
+
+  @Test
+  void filter_shouldNameRootSpanAfterRouteAndMakeItCurrent() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/private/info");
+    request.addHeader(
+        TracingFilter.TRACEPARENT, "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    List<String> seen = new ArrayList<>();
+
+    new TracingFilter(tracer)
+        .doFilter(
+            request,
+            response,
+            (req, res) -> {
+              seen.add(Span.current().traceId());
+              seen.add(MDC.get("traceId"));
+              req.setAttribute(
+                  HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/private/info");
+              ((MockHttpServletResponse) res).setStatus(503);
+            });
+
+    assertThat(seen).containsOnly("4bf92f3577b34da6a3ce929d0e0e4736");
+    assertThat(Span.current()).isSameAs(Span.NOOP);
+    assertThat(MDC.get("traceId")).isNull();
+    assertThat(exported)
+        .singleElement()
+        .satisfies(
+            span -> {
+              assertThat(span.name()).isEqualTo("GET /api/v1/private/info");
+              assertThat(span.attributes()).containsEntry("http.status_code", 503);
+              assertThat(span.status()).isEqualTo("ERROR");
+            });
+  }
+
+  @Test
+  void decorator_shouldEndSecuritySpanBeforeApplicationRuns() throws Exception {
+    Span root = tracer.startRootSpan("root", null);
+    List<Span> currentInApplication = new ArrayList<>();
+    FilterChain application = (req, res) -> currentInApplication.add(Span.current());
+    Filter securityFilter = (req, res, chain) -> chain.doFilter(req, res);
+
+    try (Scope scope = root.makeCurrent()) {
+      new TracingFilterChainDecorator(tracer)
+          .decorate(application, List.of(securityFilter, securityFilter))
+          .doFilter(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+
+    assertThat(currentInApplication).containsExactly(root);
+    assertThat(exported)
+        .singleElement()
+        .satisfies(
+            span -> {
+              assertThat(span.name()).isEqualTo("security.filterChain");
+              assertThat(span.parentSpanId()).isEqualTo(root.spanId());
+              assertThat(span.attributes()).containsEntry("security.filters", 2);
+            });
+  }
+
+  @Test
+  void decorator_shouldRecordNothingForUnsampledRequests() throws Exception {
+    Tracer unsampled = new Tracer(0, exported::add);
+    List<Span> currentInApplication = new ArrayList<>();
+
+    new TracingFilter(unsampled)
+        .doFilter(
+            new MockHttpServletRequest(),
+            new MockHttpServletResponse(),
+            (req, res) ->
+                new TracingFilterChainDecorator(unsampled)
+                    .decorate((r, s) -> currentInApplication.add(Span.current()), List.of())
+                    .doFilter(req, res));
+
+    assertThat(currentInApplication)
+        .singleElement()
+        .satisfies(
+            span -> {
+              assertThat(span.isValid()).isTrue();
+              assertThat(span.isSampled()).isFalse();
+            });
+    assertThat(exported).isEmpty();
+  }
+}
@@ -1,16 +1,58 @@
 /// <reference types="vitest" />
+import { readFileSync, writeFileSync } from 'fs';
 import path from 'path';
 import { fileURLToPath } from 'url'; // Import fileURLToPath
-import { defineConfig } from 'vite';
+import { brotliCompressSync, constants, gzipSync } from 'zlib';
+import { defineConfig, type Plugin } from 'vite';
 import react from '@vitejs/plugin-react';
 
 // Get the directory name using import.meta.url
 const __filename = fileURLToPath(import.meta.url);
 const __dirname = path.dirname(__filename);
 
+// Writes Brotli (.br) and gzip (.gz) variants next to each compressible build output, so the backend
+// serves them as they are instead of compressing on every request. A variant is only kept when it
+// is smaller than the original.
+const COMPRESSIBLE = /\.(js|mjs|css|html|svg|json|txt|map)$/;
+const MIN_COMPRESS_SIZE = 1024;
+
+function precompress(): Plugin {
+  return {
+    name: 'precompress',
+    apply: 'build',
+    writeBundle(options, bundle) {
+      const outDir = options.dir ?? path.resolve(__dirname, 'dist');
+      Object.keys(bundle)
+        .filter((fileName) => COMPRESSIBLE.test(fileName))
+        .forEach((fileName) => {
+          const file = path.join(outDir, fileName);
+          const source = readFileSync(file);
+          if (source.length < MIN_COMPRESS_SIZE) {
+            return;
+          }
+          const variants: [string, Buffer][] = [
+            [
+              '.br',
+              brotliCompressSync(source, {
+                params: {
+                  [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+                  [constants.BROTLI_PARAM_SIZE_HINT]: source.length,
+                },
+              }),
+            ],
+            ['.gz', gzipSync(source, { level: constants.Z_BEST_COMPRESSION })],
+          ];
+          variants
+            .filter(([, compressed]) => compressed.length < source.length)
+            .forEach(([extension, compressed]) => writeFileSync(file + extension, compressed));
+        });
+    },
+  };
+}
+
 // https://vitejs.dev/config/
 export default defineConfig({
-  plugins: [react()],
+  plugins: [react(), precompress()],
   resolve: {
     // Add resolve section for aliases
     alias: {